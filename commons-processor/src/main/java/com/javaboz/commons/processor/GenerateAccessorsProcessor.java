@@ -0,0 +1,435 @@
+package com.javaboz.commons.processor;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.PackageElement;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.ArrayType;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.PrimitiveType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.tools.Diagnostic;
+
+/**
+ * Generates the <code>GeneratedAccessors</code> of the classes annotated with <code>GenerateAccessors</code>.<br>
+ * The tables mirror the runtime lookups of <code>ReflectionUtils</code>: the first field by name ignoring case, the
+ * first field by exact type and the first field by runtime annotation, from the class up to its super classes, the
+ * runtime annotations of the class or of its nearest super class, and the methods by name. Only what plain code in the
+ * package of the class can reach is generated, everything else is left to reflection: private or inaccessible
+ * members, constants, writes of final fields, overloaded names, names of {@link Object} methods, variable arity
+ * methods, and the class level annotations of a hierarchy with a class or an annotation type that can't be named.
+ *
+ * @author Julien Boz
+ */
+@SupportedAnnotationTypes(GenerateAccessorsProcessor.ANNOTATION)
+public final class GenerateAccessorsProcessor extends AbstractProcessor {
+
+	static final String ANNOTATION = "com.javaboz.commons.test.GenerateAccessors";
+	static final String INTERFACE = "com.javaboz.commons.test.GeneratedAccessors";
+	/** same as <code>GeneratedAccessors.SUFFIX</code> */
+	static final String SUFFIX = "_Accessors";
+
+	@Override
+	public SourceVersion getSupportedSourceVersion() {
+		return SourceVersion.latestSupported();
+	}
+
+	@Override
+	public boolean process(final Set<? extends TypeElement> annotations, final RoundEnvironment round) {
+		for (final TypeElement annotation : annotations) {
+			for (final Element element : round.getElementsAnnotatedWith(annotation)) {
+				if (element.getKind() != ElementKind.CLASS) {
+					error(element, "@GenerateAccessors only applies to classes");
+				} else if (!isAccessible((TypeElement) element, packageOf(element))) {
+					error(element, "@GenerateAccessors class must be reachable from its package");
+				} else {
+					generate((TypeElement) element);
+				}
+			}
+		}
+		return true;
+	}
+
+	private void generate(final TypeElement type) {
+		final PackageElement pkg = packageOf(type);
+		final String binaryName = processingEnv.getElementUtils().getBinaryName(type).toString();
+		final String simpleName = binaryName.substring(binaryName.lastIndexOf('.') + 1).replace('$', '_') + SUFFIX;
+		final String qualifiedName = pkg.isUnnamed() ? simpleName : pkg.getQualifiedName() + "." + simpleName;
+
+		final List<TypeElement> hierarchy = hierarchy(type);
+		final Map<String, VariableElement> byName = new LinkedHashMap<String, VariableElement>();
+		final Map<String, VariableElement> byType = new LinkedHashMap<String, VariableElement>();
+		final Map<TypeElement, VariableElement> byAnnotation = new LinkedHashMap<TypeElement, VariableElement>();
+		for (final TypeElement current : hierarchy) {
+			for (final VariableElement field : ElementFilter.fieldsIn(current.getEnclosedElements())) {
+				for (final TypeElement annotationType : runtimeAnnotations(field)) {
+					if (!byAnnotation.containsKey(annotationType)) {
+						byAnnotation.put(annotationType, field);
+					}
+				}
+				final String folded = foldCase(field.getSimpleName().toString());
+				if (!byName.containsKey(folded)) {
+					byName.put(folded, field);
+				}
+				final String erasure = erasure(field.asType()).toString();
+				if (!byType.containsKey(erasure)) {
+					byType.put(erasure, field);
+				}
+			}
+		}
+		// indexes of the reachable fields, the other ones are left to reflection
+		final List<VariableElement> fields = new ArrayList<VariableElement>();
+		for (final VariableElement field : byName.values()) {
+			if (isGenerated(field, pkg) && !fields.contains(field)) {
+				fields.add(field);
+			}
+		}
+		for (final VariableElement field : byType.values()) {
+			if (isGenerated(field, pkg) && !fields.contains(field)) {
+				fields.add(field);
+			}
+		}
+		for (final VariableElement field : byAnnotation.values()) {
+			if (isGenerated(field, pkg) && !fields.contains(field)) {
+				fields.add(field);
+			}
+		}
+
+		final StringBuilder source = new StringBuilder();
+		if (!pkg.isUnnamed()) {
+			source.append("package ").append(pkg.getQualifiedName()).append(";\n\n");
+		}
+		source.append("/**\n * Accessors of {@link ").append(type.getQualifiedName())
+				.append("}, generated by ").append(getClass().getName()).append(", do not edit.\n */\n");
+		source.append("@SuppressWarnings(\"unchecked\")\n");
+		source.append("public final class ").append(simpleName).append(" implements ").append(INTERFACE)
+				.append(" {\n");
+
+		source.append("\n\tpublic int indexOfField(final String name) {\n");
+		for (final Map.Entry<String, VariableElement> entry : byName.entrySet()) {
+			final int index = fields.indexOf(entry.getValue());
+			if (index >= 0) {
+				source.append("\t\tif (").append(literal(entry.getValue().getSimpleName().toString()))
+						.append(".equalsIgnoreCase(name)) {\n\t\t\treturn ").append(index).append(";\n\t\t}\n");
+			}
+		}
+		source.append("\t\treturn -1;\n\t}\n");
+
+		source.append("\n\tpublic int indexOfFieldType(final Class<?> type) {\n");
+		for (final VariableElement field : byType.values()) {
+			final int index = fields.indexOf(field);
+			if (index >= 0 && isNameable(erasure(field.asType()), pkg)) {
+				source.append("\t\tif (type == ").append(erasure(field.asType())).append(".class) {\n\t\t\treturn ")
+						.append(index).append(";\n\t\t}\n");
+			}
+		}
+		source.append("\t\treturn -1;\n\t}\n");
+
+		source.append("\n\tpublic int indexOfFieldAnnotatedWith(final Class<? extends java.lang.annotation.Annotation>");
+		source.append(" annotation) {\n");
+		for (final Map.Entry<TypeElement, VariableElement> entry : byAnnotation.entrySet()) {
+			final int index = fields.indexOf(entry.getValue());
+			if (index >= 0 && isAccessible(entry.getKey(), pkg)) {
+				source.append("\t\tif (annotation == ").append(entry.getKey().getQualifiedName())
+						.append(".class) {\n\t\t\treturn ").append(index).append(";\n\t\t}\n");
+			}
+		}
+		source.append("\t\treturn -1;\n\t}\n");
+
+		appendClassLevelAnnotation(source, hierarchy, pkg);
+
+		source.append("\n\tpublic Object get(final Object object, final int index) {\n\t\tswitch (index) {\n");
+		for (int i = 0; i < fields.size(); i++) {
+			source.append("\t\tcase ").append(i).append(":\n\t\t\treturn ").append(fieldAccess(fields.get(i)))
+					.append(";\n");
+		}
+		source.append("\t\tdefault:\n\t\t\tthrow new IndexOutOfBoundsException(\"Field index: \" + index);\n");
+		source.append("\t\t}\n\t}\n");
+
+		source.append("\n\tpublic boolean set(final Object object, final int index, final Object value) {\n");
+		source.append("\t\tswitch (index) {\n");
+		for (int i = 0; i < fields.size(); i++) {
+			final VariableElement field = fields.get(i);
+			final TypeMirror fieldType = erasure(field.asType());
+			if (!field.getModifiers().contains(Modifier.FINAL) && isNameable(fieldType, pkg)) {
+				source.append("\t\tcase ").append(i).append(":\n\t\t\t").append(fieldAccess(field)).append(" = (")
+						.append(boxed(fieldType)).append(") value;\n\t\t\treturn true;\n");
+			}
+		}
+		source.append("\t\tdefault:\n\t\t\treturn false;\n\t\t}\n\t}\n");
+
+		source.append("\n\tpublic Object invoke(final Object target, final String name, final Object[] args)");
+		source.append(" throws Throwable {\n");
+		for (final ExecutableElement method : uniqueMethods(hierarchy)) {
+			if (isAccessible(method, pkg) && !method.isVarArgs() && areNameable(method, pkg)) {
+				appendInvoke(source, method);
+			}
+		}
+		source.append("\t\treturn NOT_GENERATED;\n\t}\n}\n");
+
+		try {
+			final Writer writer = processingEnv.getFiler().createSourceFile(qualifiedName, type).openWriter();
+			try {
+				writer.write(source.toString());
+			} finally {
+				writer.close();
+			}
+		} catch (final IOException e) {
+			error(type, "Unable to write " + qualifiedName + ": " + e.getMessage());
+		}
+	}
+
+	/**
+	 * Append the lookup of the runtime annotations of the class or of its nearest super class, read from the class
+	 * declaring them.
+	 */
+	private void appendClassLevelAnnotation(final StringBuilder source, final List<TypeElement> hierarchy,
+			final PackageElement pkg) {
+		source.append("\n\tpublic Object getClassLevelAnnotation(final Class<? extends java.lang.annotation.Annotation>");
+		source.append(" annotation) {\n");
+		final Map<TypeElement, TypeElement> declaring = new LinkedHashMap<TypeElement, TypeElement>();
+		boolean nameable = true;
+		for (final TypeElement current : hierarchy) {
+			nameable &= isAccessible(current, pkg);
+			for (final TypeElement annotationType : runtimeAnnotations(current)) {
+				nameable &= isAccessible(annotationType, pkg);
+				if (!declaring.containsKey(annotationType)) {
+					declaring.put(annotationType, current);
+				}
+			}
+		}
+		if (!nameable) {
+			source.append("\t\treturn NOT_GENERATED;\n\t}\n");
+			return;
+		}
+		for (final Map.Entry<TypeElement, TypeElement> entry : declaring.entrySet()) {
+			source.append("\t\tif (annotation == ").append(entry.getKey().getQualifiedName()).append(".class) {\n");
+			source.append("\t\t\treturn ").append(entry.getValue().getQualifiedName()).append(".class.getAnnotation(")
+					.append(entry.getKey().getQualifiedName()).append(".class);\n\t\t}\n");
+		}
+		source.append("\t\treturn null;\n\t}\n");
+	}
+
+	/**
+	 * @return the types of the annotations of <code>element</code> retained at runtime, in declaration order
+	 */
+	private static List<TypeElement> runtimeAnnotations(final Element element) {
+		final List<TypeElement> types = new ArrayList<TypeElement>();
+		for (final AnnotationMirror annotation : element.getAnnotationMirrors()) {
+			final TypeElement type = (TypeElement) annotation.getAnnotationType().asElement();
+			final Retention retention = type.getAnnotation(Retention.class);
+			if (retention != null && retention.value() == RetentionPolicy.RUNTIME) {
+				types.add(type);
+			}
+		}
+		return types;
+	}
+
+	private void appendInvoke(final StringBuilder source, final ExecutableElement method) {
+		final List<? extends VariableElement> parameters = method.getParameters();
+		source.append("\t\tif (").append(literal(method.getSimpleName().toString()))
+				.append(".equals(name) && args.length == ").append(parameters.size());
+		for (int i = 0; i < parameters.size(); i++) {
+			final TypeMirror parameterType = erasure(parameters.get(i).asType());
+			if (parameterType.getKind().isPrimitive()) {
+				// only the exact wrapper, reflection widens the other ones
+				source.append(" && args[").append(i).append("] instanceof ").append(boxed(parameterType));
+			} else {
+				source.append(" && (args[").append(i).append("] == null || args[").append(i).append("] instanceof ")
+						.append(parameterType).append(")");
+			}
+		}
+		source.append(") {\n\t\t\t");
+		final boolean isVoid = method.getReturnType().getKind() == TypeKind.VOID;
+		if (!isVoid) {
+			source.append("return ");
+		}
+		source.append(memberOwner(method)).append('.').append(method.getSimpleName()).append('(');
+		for (int i = 0; i < parameters.size(); i++) {
+			if (i > 0) {
+				source.append(", ");
+			}
+			source.append('(').append(boxed(erasure(parameters.get(i).asType()))).append(") args[").append(i)
+					.append(']');
+		}
+		source.append(");\n");
+		if (isVoid) {
+			source.append("\t\t\treturn null;\n");
+		}
+		source.append("\t\t}\n");
+	}
+
+	/**
+	 * @return true if the field is reachable and not a constant, reads of constants are inlined by the compiler
+	 */
+	private boolean isGenerated(final VariableElement field, final PackageElement pkg) {
+		return isAccessible(field, pkg) && field.getConstantValue() == null;
+	}
+
+	/**
+	 * @return the methods of the hierarchy whose name has a single signature, overridden ones counted once
+	 */
+	private List<ExecutableElement> uniqueMethods(final List<TypeElement> hierarchy) {
+		final Set<String> objectMethods = new HashSet<String>();
+		final TypeElement object = processingEnv.getElementUtils().getTypeElement(Object.class.getName());
+		for (final ExecutableElement method : ElementFilter.methodsIn(object.getEnclosedElements())) {
+			objectMethods.add(method.getSimpleName().toString());
+		}
+		final Map<String, ExecutableElement> first = new LinkedHashMap<String, ExecutableElement>();
+		final Map<String, Set<String>> signatures = new LinkedHashMap<String, Set<String>>();
+		for (final TypeElement current : hierarchy) {
+			for (final ExecutableElement method : ElementFilter.methodsIn(current.getEnclosedElements())) {
+				final String name = method.getSimpleName().toString();
+				Set<String> named = signatures.get(name);
+				if (named == null) {
+					named = new HashSet<String>();
+					signatures.put(name, named);
+					first.put(name, method);
+				}
+				final StringBuilder signature = new StringBuilder();
+				for (final VariableElement parameter : method.getParameters()) {
+					signature.append(erasure(parameter.asType())).append(';');
+				}
+				named.add(signature.toString());
+			}
+		}
+		final List<ExecutableElement> unique = new ArrayList<ExecutableElement>();
+		for (final Map.Entry<String, ExecutableElement> entry : first.entrySet()) {
+			if (signatures.get(entry.getKey()).size() == 1 && !objectMethods.contains(entry.getKey())) {
+				unique.add(entry.getValue());
+			}
+		}
+		return unique;
+	}
+
+	/**
+	 * @return the class then its super classes, {@link Object} excluded
+	 */
+	private List<TypeElement> hierarchy(final TypeElement type) {
+		final List<TypeElement> hierarchy = new ArrayList<TypeElement>();
+		TypeElement current = type;
+		while (current != null && !current.getQualifiedName().contentEquals(Object.class.getName())) {
+			hierarchy.add(current);
+			final TypeMirror superclass = current.getSuperclass();
+			current = superclass.getKind() == TypeKind.DECLARED ? (TypeElement) ((DeclaredType) superclass)
+					.asElement() : null;
+		}
+		return hierarchy;
+	}
+
+	/**
+	 * @return the expression reading the field, the object cast to the declaring class
+	 */
+	private String fieldAccess(final VariableElement field) {
+		return memberOwner(field) + "." + field.getSimpleName();
+	}
+
+	private String memberOwner(final Element member) {
+		final TypeElement owner = (TypeElement) member.getEnclosingElement();
+		if (member.getModifiers().contains(Modifier.STATIC)) {
+			return owner.getQualifiedName().toString();
+		}
+		final String target = member instanceof VariableElement ? "object" : "target";
+		return "((" + owner.getQualifiedName() + ") " + target + ")";
+	}
+
+	/**
+	 * @return true if code of <code>pkg</code> can reach <code>member</code> through its declaring class
+	 */
+	private boolean isAccessible(final Element member, final PackageElement pkg) {
+		final Set<Modifier> modifiers = member.getModifiers();
+		if (modifiers.contains(Modifier.PRIVATE)) {
+			return false;
+		}
+		if (!modifiers.contains(Modifier.PUBLIC) && !packageOf(member).equals(pkg)) {
+			return false;
+		}
+		final Element enclosing = member.getEnclosingElement();
+		return !(enclosing instanceof TypeElement) || isAccessible(enclosing, pkg);
+	}
+
+	/**
+	 * @return true if the parameter types of <code>method</code> can be named from <code>pkg</code>
+	 */
+	private boolean areNameable(final ExecutableElement method, final PackageElement pkg) {
+		for (final VariableElement parameter : method.getParameters()) {
+			if (!isNameable(erasure(parameter.asType()), pkg)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private boolean isNameable(final TypeMirror type, final PackageElement pkg) {
+		if (type.getKind().isPrimitive()) {
+			return true;
+		}
+		if (type.getKind() == TypeKind.ARRAY) {
+			return isNameable(((ArrayType) type).getComponentType(), pkg);
+		}
+		return type.getKind() == TypeKind.DECLARED && isAccessible(((DeclaredType) type).asElement(), pkg);
+	}
+
+	private TypeMirror erasure(final TypeMirror type) {
+		return processingEnv.getTypeUtils().erasure(type);
+	}
+
+	/**
+	 * @return the wrapper class name of a primitive type, the type itself otherwise
+	 */
+	private String boxed(final TypeMirror type) {
+		if (type.getKind().isPrimitive()) {
+			return processingEnv.getTypeUtils().boxedClass((PrimitiveType) type).getQualifiedName().toString();
+		}
+		return type.toString();
+	}
+
+	private static PackageElement packageOf(final Element element) {
+		Element current = element;
+		while (!(current instanceof PackageElement)) {
+			current = current.getEnclosingElement();
+		}
+		return (PackageElement) current;
+	}
+
+	/**
+	 * @return <code>name</code> with each char folded like {@link String#equalsIgnoreCase(String)} compares them
+	 */
+	private static String foldCase(final String name) {
+		final char[] chars = name.toCharArray();
+		for (int i = 0; i < chars.length; i++) {
+			chars[i] = Character.toLowerCase(Character.toUpperCase(chars[i]));
+		}
+		return new String(chars);
+	}
+
+	private static String literal(final String name) {
+		// java identifiers need no escaping
+		return '"' + name + '"';
+	}
+
+	private void error(final Element element, final String message) {
+		processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, message, element);
+	}
+}
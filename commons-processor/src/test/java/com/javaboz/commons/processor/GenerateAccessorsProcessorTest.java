@@ -0,0 +1,256 @@
+package com.javaboz.commons.processor;
+
+import static org.fest.assertions.Assertions.assertThat;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.annotation.Annotation;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import javax.tools.Diagnostic;
+import javax.tools.DiagnosticCollector;
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileObject;
+import javax.tools.SimpleJavaFileObject;
+import javax.tools.ToolProvider;
+
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import com.javaboz.commons.test.GeneratedAccessors;
+import com.javaboz.commons.test.ReflectionUtils;
+
+/**
+ * Test de la classe {@link GenerateAccessorsProcessor}.
+ *
+ * @author Julien Boz
+ */
+public class GenerateAccessorsProcessorTest {
+
+	private static final String MARKER = "package sample;\n" //
+			+ "@java.lang.annotation.Retention(java.lang.annotation.RetentionPolicy.RUNTIME)\n" //
+			+ "public @interface Marker {\n" //
+			+ "	String value();\n" //
+			+ "}\n";
+
+	private static final String BASE = "package sample;\n" //
+			+ "@Marker(\"base\")\n" //
+			+ "public class Base {\n" //
+			+ "	@Marker(\"label\")\n" //
+			+ "	protected String label = \"base\";\n" //
+			+ "	private int secret = 1;\n" //
+			+ "	public static String shared = \"shared\";\n" //
+			+ "	protected String describe(final Object value) { return \"object\"; }\n" //
+			+ "}\n";
+
+	private static final String BEAN = "package sample;\n" //
+			+ "import com.javaboz.commons.test.GenerateAccessors;\n" //
+			+ "@GenerateAccessors\n" //
+			+ "public class Bean extends Base {\n" //
+			+ "	@Deprecated\n" //
+			+ "	private long hidden;\n" //
+			+ "	@Marker(\"count\")\n" //
+			+ "	int count;\n" //
+			+ "	final String name = \"bean\";\n" //
+			+ "	final StringBuilder log = new StringBuilder();\n" //
+			+ "	java.util.List<String> items;\n" //
+			+ "	public String hello(final String who) { return \"hello \" + who; }\n" //
+			+ "	int twice(final int value) { return value * 2; }\n" //
+			+ "	void reset() { count = 0; }\n" //
+			+ "	private String secret() { return \"secret\"; }\n" //
+			+ "	protected String describe(final Number value) { return \"number\"; }\n" //
+			+ "	public void fail() { throw new IllegalStateException(\"failed\"); }\n" //
+			+ "}\n";
+
+	private static final String OUTER = "package sample;\n" //
+			+ "public class Outer {\n" //
+			+ "	@com.javaboz.commons.test.GenerateAccessors\n" //
+			+ "	static class Inner {\n" //
+			+ "		String value = \"inner\";\n" //
+			+ "	}\n" //
+			+ "}\n";
+
+	private static final String PRIVATE = "package sample;\n" //
+			+ "public class Hidden {\n" //
+			+ "	@com.javaboz.commons.test.GenerateAccessors\n" //
+			+ "	private static class Inner {\n" //
+			+ "	}\n" //
+			+ "}\n";
+
+	private static File output;
+	private static ClassLoader loader;
+
+	@BeforeClass
+	public static void compile() throws IOException {
+		output = new File(System.getProperty("java.io.tmpdir"), "accessors-" + System.nanoTime());
+		assertThat(output.mkdirs()).isTrue();
+		final List<Diagnostic<? extends JavaFileObject>> errors = compile(output, MARKER, BASE, BEAN, OUTER);
+		assertThat(errors).isEmpty();
+		loader = new URLClassLoader(new URL[] { output.toURI().toURL() },
+				GenerateAccessorsProcessorTest.class.getClassLoader());
+	}
+
+	private static List<Diagnostic<? extends JavaFileObject>> compile(final File directory, final String... sources)
+			throws IOException {
+		final JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+		final List<JavaFileObject> units = new ArrayList<JavaFileObject>();
+		for (final String source : sources) {
+			final String keyword = source.contains("@interface ") ? "@interface " : "class ";
+			final int start = source.indexOf(keyword) + keyword.length();
+			final String name = source.substring(start, source.indexOf(' ', start));
+			units.add(new SimpleJavaFileObject(URI.create("string:///sample/" + name + ".java"),
+					JavaFileObject.Kind.SOURCE) {
+				@Override
+				public CharSequence getCharContent(final boolean ignoreEncodingErrors) {
+					return source;
+				}
+			});
+		}
+		final DiagnosticCollector<JavaFileObject> diagnostics = new DiagnosticCollector<JavaFileObject>();
+		final JavaCompiler.CompilationTask task = compiler.getTask(null, null, diagnostics, Arrays.asList("-d",
+				directory.getPath(), "-s", directory.getPath(), "-classpath", commonsClassPath()),
+				null, units);
+		task.setProcessors(Arrays.asList(new GenerateAccessorsProcessor()));
+		task.call();
+		final List<Diagnostic<? extends JavaFileObject>> errors = new ArrayList<Diagnostic<? extends JavaFileObject>>();
+		for (final Diagnostic<? extends JavaFileObject> diagnostic : diagnostics.getDiagnostics()) {
+			if (diagnostic.getKind() == Diagnostic.Kind.ERROR) {
+				errors.add(diagnostic);
+			}
+		}
+		return errors;
+	}
+
+	/**
+	 * @return the jar or directory of the commons utilities
+	 */
+	private static String commonsClassPath() {
+		try {
+			return new File(GeneratedAccessors.class.getProtectionDomain().getCodeSource().getLocation().toURI())
+					.getPath();
+		} catch (final URISyntaxException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
+	private static GeneratedAccessors accessors(final String name) throws Exception {
+		return (GeneratedAccessors) loader.loadClass(name).newInstance();
+	}
+
+	@Test
+	public void testGenerate() throws Exception {
+		assertThat(new File(output, "sample/Bean_Accessors.java").isFile()).isTrue();
+		assertThat(accessors("sample.Bean_Accessors")).isNotNull();
+		assertThat(accessors("sample.Outer_Inner_Accessors").indexOfField("VALUE")).isEqualTo(0);
+		// not annotated
+		assertThat(new File(output, "sample/Base_Accessors.java").exists()).isFalse();
+	}
+
+	@Test
+	public void testFields() throws Exception {
+		final GeneratedAccessors accessors = accessors("sample.Bean_Accessors");
+		final Object bean = loader.loadClass("sample.Bean").newInstance();
+
+		final int count = accessors.indexOfField("COUNT");
+		assertThat(count).isGreaterThanOrEqualTo(0);
+		assertThat(accessors.set(bean, count, 3)).isTrue();
+		assertThat(accessors.get(bean, count)).isEqualTo(3);
+		assertThat(accessors.indexOfFieldType(int.class)).isEqualTo(count);
+
+		assertThat(accessors.get(bean, accessors.indexOfField("label"))).isEqualTo("base");
+		assertThat(accessors.get(null, accessors.indexOfField("shared"))).isEqualTo("shared");
+		assertThat(accessors.indexOfFieldType(java.util.List.class)).isGreaterThanOrEqualTo(0);
+		// final fields are read only, constants are left to reflection
+		assertThat(accessors.set(bean, accessors.indexOfField("log"), null)).isFalse();
+		assertThat(accessors.indexOfField("name")).isEqualTo(-1);
+		// private fields are left to reflection
+		assertThat(accessors.indexOfField("hidden")).isEqualTo(-1);
+		assertThat(accessors.indexOfField("secret")).isEqualTo(-1);
+		assertThat(accessors.indexOfFieldType(long.class)).isEqualTo(-1);
+	}
+
+	@Test
+	@SuppressWarnings("unchecked")
+	public void testAnnotations() throws Exception {
+		final GeneratedAccessors accessors = accessors("sample.Bean_Accessors");
+		final Class<? extends Annotation> marker = (Class<? extends Annotation>) loader.loadClass("sample.Marker");
+		final Class<?> beanClass = loader.loadClass("sample.Bean");
+
+		// the first annotated field of the hierarchy
+		assertThat(accessors.indexOfFieldAnnotatedWith(marker)).isEqualTo(accessors.indexOfField("count"));
+		assertThat(accessors.indexOfFieldAnnotatedWith(Deprecated.class)).isEqualTo(-1);
+		assertThat(accessors.indexOfFieldAnnotatedWith(Override.class)).isEqualTo(-1);
+		// from the nearest super class, source annotations excluded
+		final Object annotation = accessors.getClassLevelAnnotation(marker);
+		assertThat(annotation).isSameAs(loader.loadClass("sample.Base").getAnnotation(marker));
+		assertThat(accessors.getClassLevelAnnotation(Deprecated.class)).isNull();
+
+		final Object bean = beanClass.newInstance();
+		ReflectionUtils.setFieldValue(bean, "count", 4);
+		final Object count = ReflectionUtils.getFieldValueAnnotatedWith(bean, marker);
+		assertThat(count).isEqualTo(4);
+		ReflectionUtils.setFieldValue(bean, "hidden", 2L);
+		final Object hidden = ReflectionUtils.getFieldValueAnnotatedWith(bean, Deprecated.class);
+		assertThat(hidden).isEqualTo(2L);
+		assertThat(ReflectionUtils.getClassLevelAnnotation(marker, beanClass)).isSameAs(annotation);
+	}
+
+	@Test
+	public void testInvoke() throws Throwable {
+		final GeneratedAccessors accessors = accessors("sample.Bean_Accessors");
+		final Object bean = loader.loadClass("sample.Bean").newInstance();
+
+		assertThat(accessors.invoke(bean, "hello", new Object[] { "you" })).isEqualTo("hello you");
+		assertThat(accessors.invoke(bean, "twice", new Object[] { 21 })).isEqualTo(42);
+		assertThat(accessors.invoke(bean, "reset", new Object[0])).isNull();
+		// widening, overloads, private and Object methods are left to reflection
+		assertThat(accessors.invoke(bean, "twice", new Object[] { (short) 1 })).isSameAs(
+				GeneratedAccessors.NOT_GENERATED);
+		assertThat(accessors.invoke(bean, "describe", new Object[] { 1 })).isSameAs(GeneratedAccessors.NOT_GENERATED);
+		assertThat(accessors.invoke(bean, "secret", new Object[0])).isSameAs(GeneratedAccessors.NOT_GENERATED);
+		assertThat(accessors.invoke(bean, "toString", new Object[0])).isSameAs(GeneratedAccessors.NOT_GENERATED);
+	}
+
+	@Test
+	public void testReflectionUtils() throws Exception {
+		final Object bean = loader.loadClass("sample.Bean").newInstance();
+
+		ReflectionUtils.setFieldValue(bean, "count", 5);
+		final Object count = ReflectionUtils.getFieldValue(bean, "count");
+		assertThat(count).isEqualTo(5);
+		ReflectionUtils.setFieldValue(bean, "hidden", 7L);
+		final Object hidden = ReflectionUtils.getFieldValue(bean, "hidden");
+		assertThat(hidden).isEqualTo(7L);
+		// final and widened values go through reflection
+		ReflectionUtils.setFieldValue(bean, "name", "other");
+		final Object name = ReflectionUtils.getFieldValue(bean, "name");
+		assertThat(name).isEqualTo("other");
+		assertThat(ReflectionUtils.<Object> invokeMethod(bean, "twice", 4)).isEqualTo(8);
+		assertThat(ReflectionUtils.<Object> invokeMethod(bean, "describe", 1)).isEqualTo("number");
+		try {
+			ReflectionUtils.invokeMethod(bean, "fail");
+		} catch (final IllegalArgumentException e) {
+			assertThat(e.getMessage()).isEqualTo("Error while trying to access method fail");
+			assertThat(e.getCause().getCause()).isInstanceOf(IllegalStateException.class);
+			return;
+		}
+		throw new AssertionError("expected failure");
+	}
+
+	@Test
+	public void testPrivateClass() throws IOException {
+		final File directory = new File(output, "private");
+		assertThat(directory.mkdirs()).isTrue();
+
+		final List<Diagnostic<? extends JavaFileObject>> errors = compile(directory, PRIVATE);
+		assertThat(errors).hasSize(1);
+		assertThat(errors.get(0).getMessage(null)).isEqualTo(
+				"@GenerateAccessors class must be reachable from its package");
+	}
+}
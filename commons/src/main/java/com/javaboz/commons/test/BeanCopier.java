@@ -0,0 +1,236 @@
+package com.javaboz.commons.test;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Copier of the fields of a source class to the fields of the same name, ignoring case, of a target class.<br>
+ * The copy plan is built once per source and target classes: each target field, as found by
+ * {@link ReflectionUtils#getFieldByName(Class, String)}, is paired with the source field of the same name when the
+ * target type is assignable from the source type, boxing and unboxing allowed. Static fields, final target fields and
+ * synthetic fields are not copied, and a null value is not copied to a primitive field. A copy is then a loop over the
+ * {@link FieldAccessor} pairs, primitives of the same type copied without boxing.<br>
+ * Thread safe.
+ *
+ * <pre>
+ * final BeanCopier&lt;ProductEntity, ProductDto&gt; copier = BeanCopier.of(ProductEntity.class, ProductDto.class);
+ * final List&lt;ProductDto&gt; dtos = copier.copyAll(entities);
+ * </pre>
+ *
+ * @author Julien Boz
+ * @param <S> source type
+ * @param <T> target type
+ */
+public final class BeanCopier<S, T> {
+
+	private static final int OBJECT = 0;
+	private static final int INT = 1;
+	private static final int LONG = 2;
+	private static final int DOUBLE = 3;
+	private static final int BOOLEAN = 4;
+
+	private final Class<S> source;
+	private final Class<T> target;
+	private final FieldAccessor[] sources;
+	private final FieldAccessor[] targets;
+	/** how each pair is copied, {@link #OBJECT} or the primitive type of both fields */
+	private final int[] kinds;
+	/** default constructor of the target, resolved on first use */
+	private volatile Constructor<T> constructor;
+
+	BeanCopier(final Class<S> source, final Class<T> target) {
+		this.source = source;
+		this.target = target;
+		final List<Field> targetFields = ClassMetadata.of(target).getFields();
+		final List<FieldAccessor> sourceAccessors = new ArrayList<FieldAccessor>(targetFields.size());
+		final List<FieldAccessor> targetAccessors = new ArrayList<FieldAccessor>(targetFields.size());
+		final List<Integer> pairKinds = new ArrayList<Integer>(targetFields.size());
+		for (final Field targetField : targetFields) {
+			if (!isCopiable(targetField) || Modifier.isFinal(targetField.getModifiers())
+					|| ReflectionUtils.getFieldByName(target, targetField.getName()) != targetField) {
+				continue;
+			}
+			final Field sourceField = ReflectionUtils.getFieldByName(source, targetField.getName());
+			if (sourceField == null || !isCopiable(sourceField)
+					|| !isAssignable(sourceField.getType(), targetField.getType())) {
+				continue;
+			}
+			sourceAccessors.add(FieldAccessor.of(sourceField));
+			targetAccessors.add(FieldAccessor.of(targetField));
+			pairKinds.add(sourceField.getType() == targetField.getType() ? kindOf(targetField.getType()) : OBJECT);
+		}
+		this.sources = sourceAccessors.toArray(new FieldAccessor[sourceAccessors.size()]);
+		this.targets = targetAccessors.toArray(new FieldAccessor[targetAccessors.size()]);
+		this.kinds = new int[pairKinds.size()];
+		for (int i = 0; i < kinds.length; i++) {
+			kinds[i] = pairKinds.get(i);
+		}
+	}
+
+	/**
+	 * @return the copier from <code>source</code> to <code>target</code>, cached by source and target classes
+	 */
+	public static <S, T> BeanCopier<S, T> of(final Class<S> source, final Class<T> target) {
+		return ClassMetadata.of(source).getCopier(target);
+	}
+
+	public Class<S> getSource() {
+		return source;
+	}
+
+	public Class<T> getTarget() {
+		return target;
+	}
+
+	/**
+	 * @return the names of the copied target fields, in copy order
+	 */
+	public List<String> getFieldNames() {
+		final List<String> names = new ArrayList<String>(targets.length);
+		for (final FieldAccessor accessor : targets) {
+			names.add(accessor.getField().getName());
+		}
+		return names;
+	}
+
+	/**
+	 * Copy the matching fields of <code>from</code> to <code>to</code>.
+	 *
+	 * @return <code>to</code>
+	 */
+	public T copy(final S from, final T to) {
+		for (int i = 0; i < kinds.length; i++) {
+			final FieldAccessor sourceAccessor = sources[i];
+			final FieldAccessor targetAccessor = targets[i];
+			switch (kinds[i]) {
+			case INT:
+				targetAccessor.setInt(to, sourceAccessor.getInt(from));
+				break;
+			case LONG:
+				targetAccessor.setLong(to, sourceAccessor.getLong(from));
+				break;
+			case DOUBLE:
+				targetAccessor.setDouble(to, sourceAccessor.getDouble(from));
+				break;
+			case BOOLEAN:
+				targetAccessor.setBoolean(to, sourceAccessor.getBoolean(from));
+				break;
+			default:
+				final Object value = sourceAccessor.get(from);
+				if (value != null || !targetAccessor.getField().getType().isPrimitive()) {
+					targetAccessor.set(to, value);
+				}
+			}
+		}
+		return to;
+	}
+
+	/**
+	 * @return a new target, created by its default constructor, with the matching fields of <code>from</code>; null
+	 *         if <code>from</code> is null
+	 * @throws IllegalArgumentException if the target has no default constructor or can not be created
+	 */
+	public T copy(final S from) {
+		return from == null ? null : copy(from, newTarget());
+	}
+
+	/**
+	 * @return a new target for each source, in order, null for null sources
+	 * @throws IllegalArgumentException if the target has no default constructor or can not be created
+	 */
+	public List<T> copyAll(final Collection<? extends S> from) {
+		final List<T> copies = new ArrayList<T>(from.size());
+		for (final S element : from) {
+			copies.add(copy(element));
+		}
+		return copies;
+	}
+
+	private T newTarget() {
+		Constructor<T> created = constructor;
+		if (created == null) {
+			try {
+				created = target.getDeclaredConstructor();
+			} catch (final NoSuchMethodException e) {
+				throw new IllegalArgumentException("No default constructor in " + target.getName(), e);
+			}
+			created.setAccessible(true);
+			constructor = created;
+		}
+		try {
+			return created.newInstance();
+		} catch (final InstantiationException e) {
+			throw new IllegalArgumentException("Unable to create " + target.getName(), e);
+		} catch (final IllegalAccessException e) {
+			throw new IllegalArgumentException("Unable to create " + target.getName(), e);
+		} catch (final InvocationTargetException e) {
+			throw new IllegalArgumentException("Unable to create " + target.getName(), e);
+		}
+	}
+
+	private static boolean isCopiable(final Field field) {
+		return !Modifier.isStatic(field.getModifiers()) && !field.isSynthetic();
+	}
+
+	/**
+	 * @return true if a value of type <code>from</code> can be set to a field of type <code>to</code>, boxed or
+	 *         unboxed
+	 */
+	static boolean isAssignable(final Class<?> from, final Class<?> to) {
+		return to.isAssignableFrom(from) || wrapperOf(to).isAssignableFrom(wrapperOf(from));
+	}
+
+	/**
+	 * @return the wrapper of the primitive <code>type</code>, <code>type</code> if not primitive
+	 */
+	private static Class<?> wrapperOf(final Class<?> type) {
+		if (!type.isPrimitive()) {
+			return type;
+		}
+		if (type == int.class) {
+			return Integer.class;
+		}
+		if (type == long.class) {
+			return Long.class;
+		}
+		if (type == double.class) {
+			return Double.class;
+		}
+		if (type == boolean.class) {
+			return Boolean.class;
+		}
+		if (type == float.class) {
+			return Float.class;
+		}
+		if (type == short.class) {
+			return Short.class;
+		}
+		if (type == byte.class) {
+			return Byte.class;
+		}
+		return type == char.class ? Character.class : Void.class;
+	}
+
+	private static int kindOf(final Class<?> type) {
+		if (type == int.class) {
+			return INT;
+		}
+		if (type == long.class) {
+			return LONG;
+		}
+		if (type == double.class) {
+			return DOUBLE;
+		}
+		return type == boolean.class ? BOOLEAN : OBJECT;
+	}
+
+	@Override
+	public String toString() {
+		return "BeanCopier[" + source.getName() + " -> " + target.getName() + ", " + getFieldNames() + "]";
+	}
+}
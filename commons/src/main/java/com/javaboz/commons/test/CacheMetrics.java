@@ -0,0 +1,58 @@
+package com.javaboz.commons.test;
+
+/**
+ * Hits and misses of an internal cache or pool, counted in {@link StripedCounter} while {@link LibraryMetrics} is
+ * enabled, a no-op otherwise.
+ *
+ * @author Julien Boz
+ */
+public final class CacheMetrics implements CacheMetricsMBean {
+
+	private final String name;
+	private final StripedCounter hits = new StripedCounter();
+	private final StripedCounter misses = new StripedCounter();
+
+	CacheMetrics(final String name) {
+		this.name = name;
+	}
+
+	void hit() {
+		if (LibraryMetrics.isEnabled()) {
+			hits.increment();
+		}
+	}
+
+	void miss() {
+		if (LibraryMetrics.isEnabled()) {
+			misses.increment();
+		}
+	}
+
+	public String getName() {
+		return name;
+	}
+
+	public long getHitCount() {
+		return hits.sum();
+	}
+
+	public long getMissCount() {
+		return misses.sum();
+	}
+
+	public double getHitRate() {
+		final long hitCount = getHitCount();
+		final long lookups = hitCount + getMissCount();
+		return lookups == 0 ? 0 : (double) hitCount / lookups;
+	}
+
+	public void reset() {
+		hits.reset();
+		misses.reset();
+	}
+
+	@Override
+	public String toString() {
+		return name + "[hits=" + getHitCount() + ", misses=" + getMissCount() + "]";
+	}
+}
@@ -0,0 +1,22 @@
+package com.javaboz.commons.test;
+
+/**
+ * JMX view of {@link CacheMetrics}.
+ *
+ * @author Julien Boz
+ */
+public interface CacheMetricsMBean {
+
+	String getName();
+
+	long getHitCount();
+
+	long getMissCount();
+
+	/**
+	 * @return hits / lookups, 0 if no lookup was done
+	 */
+	double getHitRate();
+
+	void reset();
+}
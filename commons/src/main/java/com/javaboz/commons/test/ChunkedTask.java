@@ -0,0 +1,107 @@
+package com.javaboz.commons.test;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+/**
+ * Task over the indexes <code>[0, size[</code>, split in a few chunks per processor computed concurrently by an
+ * executor. The chunk results are combined in the calling thread, in index order.
+ *
+ * <pre>
+ * final ChunkedTask.Bits task = new ChunkedTask.Bits() {
+ * 	BitSet compute(final int from, final int to) {
+ * 		return column.decode(from, to);
+ * 	}
+ * };
+ * task.run(texts.size(), MIN_CHUNK_SIZE, executor);
+ * return task.getBits();
+ * </pre>
+ *
+ * @author Julien Boz
+ */
+abstract class ChunkedTask<R> {
+
+	/**
+	 * @return the result of the indexes <code>[from, to[</code>
+	 */
+	abstract R compute(int from, int to);
+
+	/**
+	 * Add the result of the chunk starting at <code>from</code> to the task result, called in the calling thread.
+	 */
+	abstract void combine(int from, R result);
+
+	/**
+	 * Compute <code>[0, size[</code> in chunks of at least <code>minChunkSize</code> indexes, in the calling thread if
+	 * <code>executor</code> is null or if there are not 2 chunks.
+	 *
+	 * @throws IllegalStateException if interrupted, a runtime exception of a chunk is thrown as is
+	 */
+	final void run(final int size, final int minChunkSize, final ExecutorService executor) {
+		if (executor == null || size < 2 * minChunkSize) {
+			combine(0, compute(0, size));
+			return;
+		}
+		// a few chunks per processor to balance uneven chunks
+		final int chunks = Math.min(size / minChunkSize, Runtime.getRuntime().availableProcessors() * 4);
+		final int chunkSize = (size + chunks - 1) / chunks;
+		final List<Callable<R>> tasks = new ArrayList<Callable<R>>(chunks);
+		for (int from = 0; from < size; from += chunkSize) {
+			final int chunkStart = from;
+			final int chunkEnd = Math.min(size, from + chunkSize);
+			tasks.add(new Callable<R>() {
+				public R call() {
+					return compute(chunkStart, chunkEnd);
+				}
+			});
+		}
+		try {
+			int from = 0;
+			for (final Future<R> future : executor.invokeAll(tasks)) {
+				combine(from, future.get());
+				from += chunkSize;
+			}
+		} catch (final InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException("Interrupted while computing chunks", e);
+		} catch (final ExecutionException e) {
+			if (e.getCause() instanceof RuntimeException) {
+				throw (RuntimeException) e.getCause();
+			}
+			throw new IllegalStateException(e.getCause());
+		}
+	}
+
+	/**
+	 * Task whose chunks return the bitmap of their indexes, relative to the chunk start so that each chunk only
+	 * allocates its own range.
+	 */
+	abstract static class Bits extends ChunkedTask<BitSet> {
+
+		private BitSet bits;
+
+		@Override
+		final void combine(final int from, final BitSet chunk) {
+			if (bits == null) {
+				// the first chunk starts at 0
+				bits = chunk;
+				return;
+			}
+			for (int i = chunk.nextSetBit(0); i >= 0; i = chunk.nextSetBit(i + 1)) {
+				bits.set(from + i);
+			}
+		}
+
+		/**
+		 * @return the bitmap of <code>[0, size[</code>, once run
+		 */
+		BitSet getBits() {
+			return bits;
+		}
+	}
+}
@@ -0,0 +1,576 @@
+package com.javaboz.commons.test;
+
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Fields of a class and its super classes, indexed once for the lookups of {@link ReflectionUtils}, the
+ * {@link FieldAccessor} of the fields declared by the class and the {@link MethodInvoker} resolved for each call
+ * shape, the {@link BeanCopier} to each target class, the {@link FieldInjector} of the class, the class or method
+ * level annotations already looked up, and the {@link GeneratedAccessors} of the class.<br>
+ * Each field index keeps the first field found from the class up to its super classes, in declaration order, as the
+ * previous hierarchy walks did. Methods are resolved like the compiler does: fixed arity without unboxing, then with
+ * unboxing, then variable arity, the most specific overload winning.<br>
+ * Cached by class in {@link ClassMetadataCache}. The invokers and copiers of argument or target classes loaded by
+ * another class loader than the class one or its parents are not cached, they would keep that loader from being
+ * unloaded.<br>
+ * Thread safe.
+ *
+ * @author Julien Boz
+ */
+final class ClassMetadata {
+
+	/** cached resolution of the names without method, of the missing annotations and generated accessors */
+	private static final Object ABSENT = new Object();
+
+	private final Class<?> clazz;
+	private final List<Field> fields;
+	/** by name folded like {@link String#equalsIgnoreCase(String)} */
+	private final Map<String, Field> fieldsByName = new HashMap<String, Field>();
+	private final Map<Class<?>, Field> fieldsByType = new HashMap<Class<?>, Field>();
+	private final Map<Class<? extends Annotation>, Field> fieldsByAnnotation = new HashMap<Class<? extends Annotation>, Field>();
+	/** created on first access, fields are made accessible only when used */
+	private final ConcurrentMap<Field, FieldAccessor> accessors = new ConcurrentHashMap<Field, FieldAccessor>();
+	/** methods of the class and its super classes by name, overridden ones excepted, built on first resolution */
+	private volatile Map<String, List<Method>> methodsByName;
+	/** invoker or {@link #ABSENT} by call shape */
+	private final ConcurrentMap<CallShape, Object> invokers = new ConcurrentHashMap<CallShape, Object>();
+	/** copiers from the class by target class */
+	private final ConcurrentMap<Class<?>, BeanCopier<?, ?>> copiers = new ConcurrentHashMap<Class<?>, BeanCopier<?, ?>>();
+	/** injector of the fields, built on first use */
+	private volatile FieldInjector injector;
+	/** {@link GeneratedAccessors} of the class or {@link #ABSENT}, loaded on first use */
+	private volatile Object generated;
+	/** class level annotation or {@link #ABSENT} by annotation type */
+	private final ConcurrentMap<Class<? extends Annotation>, Object> classAnnotations = new ConcurrentHashMap<Class<? extends Annotation>, Object>();
+	/** method or class level annotation or {@link #ABSENT} by method and annotation type */
+	private final ConcurrentMap<MethodAnnotation, Object> methodAnnotations = new ConcurrentHashMap<MethodAnnotation, Object>();
+
+	ClassMetadata(final Class<?> clazz) {
+		this.clazz = clazz;
+		final List<Field> all = new ArrayList<Field>();
+		for (Class<?> current = clazz; current != null && !Object.class.equals(current); current = current
+				.getSuperclass()) {
+			for (final Field field : current.getDeclaredFields()) {
+				all.add(field);
+				putIfAbsent(fieldsByName, foldCase(field.getName()), field);
+				putIfAbsent(fieldsByType, field.getType(), field);
+				for (final Annotation annotation : field.getDeclaredAnnotations()) {
+					putIfAbsent(fieldsByAnnotation, annotation.annotationType(), field);
+				}
+			}
+		}
+		this.fields = Collections.unmodifiableList(all);
+	}
+
+	/**
+	 * @return the metadata of <code>clazz</code>, built on first use
+	 */
+	static ClassMetadata of(final Class<?> clazz) {
+		return ClassMetadataCache.get(clazz);
+	}
+
+	/**
+	 * Build now what is otherwise built on first use: the methods by name and the annotations of the class and its
+	 * methods, parsed and cached by the JVM. Fields are not made accessible.
+	 */
+	void warmUp() {
+		clazz.getAnnotations();
+		for (final List<Method> named : getMethodsByName().values()) {
+			for (final Method method : named) {
+				method.getAnnotations();
+			}
+		}
+	}
+
+	/**
+	 * @return the declared fields of the class then of its super classes
+	 */
+	List<Field> getFields() {
+		return fields;
+	}
+
+	/**
+	 * @return the first field named <code>name</code>, ignoring case, null if none
+	 */
+	Field getFieldByName(final String name) {
+		return name == null ? null : fieldsByName.get(foldCase(name));
+	}
+
+	/**
+	 * @return the first field of exactly <code>type</code>, null if none
+	 */
+	Field getFieldByType(final Class<?> type) {
+		return fieldsByType.get(type);
+	}
+
+	/**
+	 * @return the first field annotated with <code>annotation</code>, null if none
+	 */
+	Field getFieldAnnotatedWith(final Class<? extends Annotation> annotation) {
+		return fieldsByAnnotation.get(annotation);
+	}
+
+	/**
+	 * @param field a field declared by the class
+	 * @return the accessor of <code>field</code>, created on first use
+	 */
+	FieldAccessor getAccessor(final Field field) {
+		final FieldAccessor accessor = accessors.get(field);
+		if (accessor != null) {
+			return accessor;
+		}
+		final FieldAccessor created = new FieldAccessor(field);
+		final FieldAccessor previous = accessors.putIfAbsent(field, created);
+		return previous == null ? created : previous;
+	}
+
+	/**
+	 * @return the copier from the class to <code>target</code>, created on first use
+	 */
+	@SuppressWarnings("unchecked")
+	<S, T> BeanCopier<S, T> getCopier(final Class<T> target) {
+		BeanCopier<?, ?> copier = copiers.get(target);
+		if (copier == null) {
+			copier = new BeanCopier<S, T>((Class<S>) clazz, target);
+			final BeanCopier<?, ?> previous = isVisible(target) ? copiers.putIfAbsent(target, copier) : null;
+			if (previous != null) {
+				copier = previous;
+			}
+		}
+		return (BeanCopier<S, T>) copier;
+	}
+
+	/**
+	 * @return the injector of the fields of the class, created on first use
+	 */
+	FieldInjector getInjector() {
+		FieldInjector created = injector;
+		if (created == null) {
+			// concurrent builds are equivalent
+			created = new FieldInjector(clazz);
+			injector = created;
+		}
+		return created;
+	}
+
+	/**
+	 * @return the accessors generated for the class, null if none
+	 */
+	GeneratedAccessors getGeneratedAccessors() {
+		Object loaded = generated;
+		if (loaded == null) {
+			// concurrent loads are equivalent
+			loaded = loadGeneratedAccessors(clazz);
+			generated = loaded;
+		}
+		return loaded == ABSENT ? null : (GeneratedAccessors) loaded;
+	}
+
+	private static Object loadGeneratedAccessors(final Class<?> clazz) {
+		if (clazz.isPrimitive() || clazz.isArray() || clazz.getClassLoader() == null) {
+			return ABSENT;
+		}
+		try {
+			final Class<?> accessors = Class.forName(clazz.getName().replace('$', '_') + GeneratedAccessors.SUFFIX,
+					true, clazz.getClassLoader());
+			return GeneratedAccessors.class.isAssignableFrom(accessors) ? accessors.newInstance() : ABSENT;
+		} catch (final ClassNotFoundException e) {
+			return ABSENT;
+		} catch (final InstantiationException e) {
+			throw new IllegalStateException("Invalid generated accessors of " + clazz, e);
+		} catch (final IllegalAccessException e) {
+			throw new IllegalStateException("Invalid generated accessors of " + clazz, e);
+		}
+	}
+
+	/**
+	 * @param name method name
+	 * @param args the arguments of the call, their classes select the overload
+	 * @return the invoker of the most specific method applicable to <code>args</code>, null if no method is named
+	 *         <code>name</code>
+	 * @throws IllegalArgumentException if no method named <code>name</code> is applicable, or several are equally
+	 *             specific
+	 */
+	MethodInvoker getInvoker(final String name, final Object[] args) {
+		final Class<?>[] argTypes = new Class<?>[args.length];
+		for (int i = 0; i < args.length; i++) {
+			argTypes[i] = args[i] == null ? null : args[i].getClass();
+		}
+		final CallShape shape = new CallShape(name, argTypes);
+		Object invoker = invokers.get(shape);
+		if (invoker == null) {
+			invoker = resolve(name, argTypes);
+			if (isVisible(argTypes)) {
+				invokers.putIfAbsent(shape, invoker);
+			}
+		}
+		return invoker == ABSENT ? null : (MethodInvoker) invoker;
+	}
+
+	private Object resolve(final String name, final Class<?>[] argTypes) {
+		final List<Method> candidates = getMethodsByName().get(name);
+		if (candidates == null) {
+			return ABSENT;
+		}
+		// phases of JLS 15.12.2: strict, loose, variable arity
+		for (int phase = 0; phase < 3; phase++) {
+			final List<Method> applicable = new ArrayList<Method>();
+			for (final Method method : candidates) {
+				if (isApplicable(method, argTypes, phase)) {
+					applicable.add(method);
+				}
+			}
+			final List<Method> maximal = maximallySpecific(applicable);
+			if (maximal.size() > 1) {
+				throw new IllegalArgumentException("Ambiguous method " + name + " for " + Arrays.toString(argTypes)
+						+ ": " + maximal);
+			}
+			if (!maximal.isEmpty()) {
+				return new MethodInvoker(maximal.get(0), phase == 2 ? argTypes.length : -1);
+			}
+		}
+		throw new IllegalArgumentException("No method " + name + " applicable to " + Arrays.toString(argTypes)
+				+ " in " + clazz.getName());
+	}
+
+	/**
+	 * @return the methods of <code>applicable</code> that no other one is strictly more specific than, whatever their
+	 *         order
+	 */
+	private static List<Method> maximallySpecific(final List<Method> applicable) {
+		final List<Method> maximal = new ArrayList<Method>(1);
+		for (final Method method : applicable) {
+			boolean dominated = false;
+			for (final Method other : applicable) {
+				if (other != method && isMoreSpecific(other, method) && !isMoreSpecific(method, other)) {
+					dominated = true;
+					break;
+				}
+			}
+			if (!dominated) {
+				maximal.add(method);
+			}
+		}
+		return maximal;
+	}
+
+	private Map<String, List<Method>> getMethodsByName() {
+		Map<String, List<Method>> methods = methodsByName;
+		if (methods == null) {
+			methods = new HashMap<String, List<Method>>();
+			final List<List<Class<?>>> signatures = new ArrayList<List<Class<?>>>();
+			for (Class<?> current = clazz; current != null; current = current.getSuperclass()) {
+				for (final Method method : current.getDeclaredMethods()) {
+					if (method.isBridge()) {
+						continue;
+					}
+					List<Method> named = methods.get(method.getName());
+					if (named == null) {
+						named = new ArrayList<Method>(1);
+						methods.put(method.getName(), named);
+					}
+					if (!isOverridden(method, named)) {
+						named.add(method);
+					}
+				}
+			}
+			methodsByName = methods;
+		}
+		return methods;
+	}
+
+	/**
+	 * @return true if a method of a subclass, already in <code>named</code>, has the signature of <code>method</code>
+	 */
+	private static boolean isOverridden(final Method method, final List<Method> named) {
+		for (final Method other : named) {
+			if (Arrays.equals(other.getParameterTypes(), method.getParameterTypes())) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * @param phase 0 strict, 1 with unboxing, 2 variable arity
+	 */
+	private static boolean isApplicable(final Method method, final Class<?>[] argTypes, final int phase) {
+		final Class<?>[] parameters = method.getParameterTypes();
+		if (phase < 2) {
+			if (parameters.length != argTypes.length) {
+				return false;
+			}
+			for (int i = 0; i < parameters.length; i++) {
+				if (!isConvertible(argTypes[i], parameters[i], phase == 1)) {
+					return false;
+				}
+			}
+			return true;
+		}
+		if (!method.isVarArgs() || argTypes.length < parameters.length - 1) {
+			return false;
+		}
+		final int fixed = parameters.length - 1;
+		for (int i = 0; i < fixed; i++) {
+			if (!isConvertible(argTypes[i], parameters[i], true)) {
+				return false;
+			}
+		}
+		final Class<?> component = parameters[fixed].getComponentType();
+		for (int i = fixed; i < argTypes.length; i++) {
+			if (!isConvertible(argTypes[i], component, true)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * @param argType class of the argument, null for a null argument
+	 * @param unboxing true if a wrapper may be unboxed and widened to a primitive parameter
+	 */
+	private static boolean isConvertible(final Class<?> argType, final Class<?> parameter, final boolean unboxing) {
+		if (argType == null) {
+			return !parameter.isPrimitive();
+		}
+		if (!parameter.isPrimitive()) {
+			return parameter.isAssignableFrom(argType);
+		}
+		return unboxing && isWidening(primitiveOf(argType), parameter);
+	}
+
+	/**
+	 * @return true if each parameter of <code>method</code> converts to the parameter of <code>other</code>
+	 */
+	private static boolean isMoreSpecific(final Method method, final Method other) {
+		final Class<?>[] parameters = method.getParameterTypes();
+		final Class<?>[] otherParameters = other.getParameterTypes();
+		if (parameters.length != otherParameters.length) {
+			// variable arity of different lengths, the longest is the most specific
+			return parameters.length > otherParameters.length;
+		}
+		for (int i = 0; i < parameters.length; i++) {
+			final Class<?> parameter = parameters[i];
+			final Class<?> otherParameter = otherParameters[i];
+			final boolean converts;
+			if (parameter.isPrimitive() || otherParameter.isPrimitive()) {
+				converts = isWidening(parameter, otherParameter);
+			} else {
+				converts = otherParameter.isAssignableFrom(parameter);
+			}
+			if (!converts) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * @return true if <code>from</code> converts to <code>to</code> by identity or primitive widening
+	 */
+	private static boolean isWidening(final Class<?> from, final Class<?> to) {
+		if (from == to) {
+			return true;
+		}
+		if (from == null || !from.isPrimitive() || !to.isPrimitive() || from == boolean.class || to == boolean.class
+				|| to == char.class) {
+			return false;
+		}
+		return rank(from) < rank(to);
+	}
+
+	private static int rank(final Class<?> type) {
+		if (type == byte.class) {
+			return 0;
+		}
+		if (type == short.class || type == char.class) {
+			return 1;
+		}
+		if (type == int.class) {
+			return 2;
+		}
+		if (type == long.class) {
+			return 3;
+		}
+		return type == float.class ? 4 : 5;
+	}
+
+	/**
+	 * @return the primitive type of the wrapper <code>type</code>, null if not a wrapper
+	 */
+	private static Class<?> primitiveOf(final Class<?> type) {
+		if (type == Integer.class) {
+			return int.class;
+		}
+		if (type == Long.class) {
+			return long.class;
+		}
+		if (type == Double.class) {
+			return double.class;
+		}
+		if (type == Boolean.class) {
+			return boolean.class;
+		}
+		if (type == Float.class) {
+			return float.class;
+		}
+		if (type == Short.class) {
+			return short.class;
+		}
+		if (type == Byte.class) {
+			return byte.class;
+		}
+		return type == Character.class ? char.class : null;
+	}
+
+	/**
+	 * @return the annotation of the class or of its nearest super class, null if none
+	 */
+	<T extends Annotation> T getClassLevelAnnotation(final Class<T> annotationClass) {
+		Object annotation = classAnnotations.get(annotationClass);
+		if (annotation == null) {
+			annotation = ABSENT;
+			for (Class<?> current = clazz; current != null && !Object.class.equals(current); current = current
+					.getSuperclass()) {
+				final T found = current.getAnnotation(annotationClass);
+				if (found != null) {
+					annotation = found;
+					break;
+				}
+			}
+			classAnnotations.putIfAbsent(annotationClass, annotation);
+		}
+		return annotation == ABSENT ? null : annotationClass.cast(annotation);
+	}
+
+	/**
+	 * @return the annotation of <code>method</code>, else {@link #getClassLevelAnnotation(Class)}
+	 */
+	<T extends Annotation> T getMethodOrClassLevelAnnotation(final Class<T> annotationClass, final Method method) {
+		final MethodAnnotation key = new MethodAnnotation(method, annotationClass);
+		Object annotation = methodAnnotations.get(key);
+		if (annotation == null) {
+			annotation = method.getAnnotation(annotationClass);
+			if (annotation == null) {
+				annotation = getClassLevelAnnotation(annotationClass);
+			}
+			if (annotation == null) {
+				annotation = ABSENT;
+			}
+			methodAnnotations.putIfAbsent(key, annotation);
+		}
+		return annotation == ABSENT ? null : annotationClass.cast(annotation);
+	}
+
+	/**
+	 * @return true if the non null <code>types</code> are all {@link #isVisible(Class)}
+	 */
+	private boolean isVisible(final Class<?>[] types) {
+		for (final Class<?> type : types) {
+			if (type != null && !isVisible(type)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * @return true if <code>type</code> is loaded by the loader of the class or one of its parents, that the class
+	 *         already keeps loaded
+	 */
+	private boolean isVisible(final Class<?> type) {
+		final ClassLoader loader = type.getClassLoader();
+		if (loader == null) {
+			return true;
+		}
+		for (ClassLoader current = clazz.getClassLoader(); current != null; current = current.getParent()) {
+			if (current == loader) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private static <K> void putIfAbsent(final Map<K, Field> map, final K key, final Field field) {
+		if (!map.containsKey(key)) {
+			map.put(key, field);
+		}
+	}
+
+	/**
+	 * @return <code>name</code> with each char folded like {@link String#equalsIgnoreCase(String)} compares them
+	 */
+	private static String foldCase(final String name) {
+		final char[] chars = name.toCharArray();
+		for (int i = 0; i < chars.length; i++) {
+			chars[i] = Character.toLowerCase(Character.toUpperCase(chars[i]));
+		}
+		return new String(chars);
+	}
+
+	/**
+	 * Method name and argument classes of a call.
+	 */
+	private static final class CallShape {
+		private final String name;
+		private final Class<?>[] argTypes;
+		private final int hash;
+
+		CallShape(final String name, final Class<?>[] argTypes) {
+			this.name = name;
+			this.argTypes = argTypes;
+			this.hash = 31 * name.hashCode() + Arrays.hashCode(argTypes);
+		}
+
+		@Override
+		public int hashCode() {
+			return hash;
+		}
+
+		@Override
+		public boolean equals(final Object obj) {
+			if (!(obj instanceof CallShape)) {
+				return false;
+			}
+			final CallShape other = (CallShape) obj;
+			return name.equals(other.name) && Arrays.equals(argTypes, other.argTypes);
+		}
+	}
+
+	/**
+	 * Method and annotation type of a lookup.
+	 */
+	private static final class MethodAnnotation {
+		private final Method method;
+		private final Class<? extends Annotation> annotationClass;
+
+		MethodAnnotation(final Method method, final Class<? extends Annotation> annotationClass) {
+			this.method = method;
+			this.annotationClass = annotationClass;
+		}
+
+		@Override
+		public int hashCode() {
+			return 31 * method.hashCode() + annotationClass.hashCode();
+		}
+
+		@Override
+		public boolean equals(final Object obj) {
+			if (!(obj instanceof MethodAnnotation)) {
+				return false;
+			}
+			final MethodAnnotation other = (MethodAnnotation) obj;
+			return annotationClass == other.annotationClass && method.equals(other.method);
+		}
+	}
+}
@@ -0,0 +1,100 @@
+package com.javaboz.commons.test;
+
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.SoftReference;
+import java.lang.ref.WeakReference;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Cache of the {@link ClassMetadata} by class: weak keys and soft values. A metadata references its class (and its
+ * fields do), so a class and its loader are only unloaded once the soft reference of its metadata is cleared, under
+ * memory pressure. The Java 17+ implementation of the multi-release jar has no such delay.<br>
+ * Lookups don't lock, the keys of unloaded classes are removed when a metadata is added. Thread safe.
+ *
+ * @author Julien Boz
+ */
+final class ClassMetadataCache {
+
+	private static final ConcurrentMap<Object, SoftReference<ClassMetadata>> CACHE = new ConcurrentHashMap<Object, SoftReference<ClassMetadata>>();
+	/** keys of the unloaded classes */
+	private static final ReferenceQueue<Class<?>> UNLOADED = new ReferenceQueue<Class<?>>();
+
+	private ClassMetadataCache() {
+	}
+
+	/**
+	 * @return the metadata of <code>clazz</code>, built on first use
+	 */
+	static ClassMetadata get(final Class<?> clazz) {
+		final SoftReference<ClassMetadata> reference = CACHE.get(new LookupKey(clazz));
+		ClassMetadata metadata = reference == null ? null : reference.get();
+		if (metadata == null) {
+			LibraryMetrics.CLASS_METADATA.miss();
+			// concurrent builds are equivalent
+			metadata = new ClassMetadata(clazz);
+			expungeUnloaded();
+			CACHE.put(new WeakKey(clazz, UNLOADED), new SoftReference<ClassMetadata>(metadata));
+		} else {
+			LibraryMetrics.CLASS_METADATA.hit();
+		}
+		return metadata;
+	}
+
+	private static void expungeUnloaded() {
+		Reference<?> unloaded;
+		while ((unloaded = UNLOADED.poll()) != null) {
+			CACHE.remove(unloaded);
+		}
+	}
+
+	/**
+	 * Key of the cache, weakly referencing its class. Equal to the keys of the same class while it is loaded, and to
+	 * itself only once cleared, to be removed.
+	 */
+	private static final class WeakKey extends WeakReference<Class<?>> {
+		private final int hash;
+
+		WeakKey(final Class<?> clazz, final ReferenceQueue<Class<?>> queue) {
+			super(clazz, queue);
+			this.hash = clazz.hashCode();
+		}
+
+		@Override
+		public int hashCode() {
+			return hash;
+		}
+
+		@Override
+		public boolean equals(final Object obj) {
+			if (obj == this) {
+				return true;
+			}
+			final Class<?> clazz = get();
+			return clazz != null && obj instanceof WeakKey && ((WeakKey) obj).get() == clazz;
+		}
+	}
+
+	/**
+	 * Key of a lookup, a strong reference to the class equal to its {@link WeakKey}. The map compares the key looked up
+	 * to the keys it holds, never the reverse.
+	 */
+	private static final class LookupKey {
+		private final Class<?> clazz;
+
+		LookupKey(final Class<?> clazz) {
+			this.clazz = clazz;
+		}
+
+		@Override
+		public int hashCode() {
+			return clazz.hashCode();
+		}
+
+		@Override
+		public boolean equals(final Object obj) {
+			return obj instanceof WeakKey && ((WeakKey) obj).get() == clazz;
+		}
+	}
+}
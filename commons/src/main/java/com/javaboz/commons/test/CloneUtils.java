@@ -24,12 +24,18 @@ public final class CloneUtils {
 	}
 
 	public static <T> T clone(final T x) {
+		final long start = LibraryMetrics.CLONE.start();
+		boolean success = false;
 		try {
-			return cloneX(x);
+			final T clone = cloneX(x);
+			success = true;
+			return clone;
 		} catch (final IOException e) {
 			throw new IllegalArgumentException(e);
 		} catch (final ClassNotFoundException e) {
 			throw new IllegalArgumentException(e);
+		} finally {
+			LibraryMetrics.CLONE.stop(start, success);
 		}
 	}
 
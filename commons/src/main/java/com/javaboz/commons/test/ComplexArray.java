@@ -0,0 +1,300 @@
+package com.javaboz.commons.test;
+
+import java.util.BitSet;
+
+import org.apache.commons.math.complex.Complex;
+
+/**
+ * Array of complex numbers stored as two parallel <code>double[]</code>, real and imaginary parts.<br>
+ * Much smaller than a <code>Complex[]</code> and operations don't allocate: element-wise operations are done in place
+ * with plain loops over the arrays, without the NaN and infinity special cases of {@link Complex}.<br>
+ * Not thread safe.
+ *
+ * <pre>
+ * final ComplexArray signal = ComplexArray.parse(lines);
+ * signal.multiply(filter).multiply(0.5);
+ * final Complex total = signal.sum();
+ * </pre>
+ *
+ * @author Julien Boz
+ */
+public final class ComplexArray {
+
+	private final double[] real;
+	private final double[] imaginary;
+
+	/**
+	 * @param length number of complex, initialized to 0
+	 */
+	public ComplexArray(final int length) {
+		this(new double[length], new double[length]);
+	}
+
+	/**
+	 * @param real real parts, used as is
+	 * @param imaginary imaginary parts, used as is
+	 */
+	public ComplexArray(final double[] real, final double[] imaginary) {
+		checkLength(real.length, imaginary.length);
+		this.real = real;
+		this.imaginary = imaginary;
+	}
+
+	/**
+	 * @return an array with the values of <code>complexes</code>, null elements as NaN
+	 */
+	public static ComplexArray valueOf(final Complex[] complexes) {
+		final ComplexArray array = new ComplexArray(complexes.length);
+		for (int i = 0; i < complexes.length; i++) {
+			final Complex complex = complexes[i];
+			if (complex == null) {
+				array.set(i, Double.NaN, Double.NaN);
+			} else {
+				array.set(i, complex.getReal(), complex.getImaginary());
+			}
+		}
+		return array;
+	}
+
+	/**
+	 * Parse texts in the {@link NumberUtils#getComplexFormat()} syntax, without exception.
+	 *
+	 * @return the parsed complexes, invalid texts as NaN
+	 * @see #parse(CharSequence[], ComplexArray)
+	 */
+	public static ComplexArray parse(final CharSequence[] texts) {
+		final ComplexArray array = new ComplexArray(texts.length);
+		parse(texts, array);
+		return array;
+	}
+
+	/**
+	 * Parse texts in the {@link NumberUtils#getComplexFormat()} syntax, without exception.
+	 *
+	 * @param values filled with the parsed complexes, invalid texts as NaN
+	 * @return the bitmap of the valid indexes
+	 * @see ComplexCodec
+	 */
+	public static BitSet parse(final CharSequence[] texts, final ComplexArray values) {
+		if (values.length() < texts.length) {
+			throw new IllegalArgumentException("Destination too small: " + values.length() + " < " + texts.length);
+		}
+		final ComplexCodec codec = new ComplexCodec();
+		final BitSet valids = new BitSet(texts.length);
+		for (int i = 0; i < texts.length; i++) {
+			if (codec.parse(texts[i], values, i)) {
+				valids.set(i);
+			} else {
+				values.set(i, Double.NaN, Double.NaN);
+			}
+		}
+		return valids;
+	}
+
+	/**
+	 * @return number of complex
+	 */
+	public int length() {
+		return real.length;
+	}
+
+	/**
+	 * @return the real parts, backing array
+	 */
+	public double[] getReal() {
+		return real;
+	}
+
+	/**
+	 * @return the imaginary parts, backing array
+	 */
+	public double[] getImaginary() {
+		return imaginary;
+	}
+
+	public double getReal(final int index) {
+		return real[index];
+	}
+
+	public double getImaginary(final int index) {
+		return imaginary[index];
+	}
+
+	/**
+	 * @return a new complex of the value at <code>index</code>
+	 */
+	public Complex get(final int index) {
+		return new Complex(real[index], imaginary[index]);
+	}
+
+	public void set(final int index, final double re, final double im) {
+		real[index] = re;
+		imaginary[index] = im;
+	}
+
+	/**
+	 * @return new complexes of all the values
+	 */
+	public Complex[] toComplexArray() {
+		final Complex[] complexes = new Complex[real.length];
+		for (int i = 0; i < complexes.length; i++) {
+			complexes[i] = new Complex(real[i], imaginary[i]);
+		}
+		return complexes;
+	}
+
+	/**
+	 * this[i] += other[i]
+	 *
+	 * @return this
+	 */
+	public ComplexArray add(final ComplexArray other) {
+		checkLength(real.length, other.real.length);
+		final double[] re = real;
+		final double[] im = imaginary;
+		final double[] otherRe = other.real;
+		final double[] otherIm = other.imaginary;
+		for (int i = 0; i < re.length; i++) {
+			re[i] += otherRe[i];
+			im[i] += otherIm[i];
+		}
+		return this;
+	}
+
+	/**
+	 * this[i] -= other[i]
+	 *
+	 * @return this
+	 */
+	public ComplexArray subtract(final ComplexArray other) {
+		checkLength(real.length, other.real.length);
+		final double[] re = real;
+		final double[] im = imaginary;
+		final double[] otherRe = other.real;
+		final double[] otherIm = other.imaginary;
+		for (int i = 0; i < re.length; i++) {
+			re[i] -= otherRe[i];
+			im[i] -= otherIm[i];
+		}
+		return this;
+	}
+
+	/**
+	 * this[i] *= other[i]
+	 *
+	 * @return this
+	 */
+	public ComplexArray multiply(final ComplexArray other) {
+		checkLength(real.length, other.real.length);
+		final double[] re = real;
+		final double[] im = imaginary;
+		final double[] otherRe = other.real;
+		final double[] otherIm = other.imaginary;
+		for (int i = 0; i < re.length; i++) {
+			final double a = re[i];
+			final double b = im[i];
+			re[i] = a * otherRe[i] - b * otherIm[i];
+			im[i] = a * otherIm[i] + b * otherRe[i];
+		}
+		return this;
+	}
+
+	/**
+	 * this[i] *= factor
+	 *
+	 * @return this
+	 */
+	public ComplexArray multiply(final double factor) {
+		final double[] re = real;
+		final double[] im = imaginary;
+		for (int i = 0; i < re.length; i++) {
+			re[i] *= factor;
+			im[i] *= factor;
+		}
+		return this;
+	}
+
+	/**
+	 * this[i] = conjugate(this[i])
+	 *
+	 * @return this
+	 */
+	public ComplexArray conjugate() {
+		final double[] im = imaginary;
+		for (int i = 0; i < im.length; i++) {
+			im[i] = -im[i];
+		}
+		return this;
+	}
+
+	/**
+	 * @param moduli filled with the modulus of each complex
+	 * @return <code>moduli</code>
+	 */
+	public double[] abs(final double[] moduli) {
+		if (moduli.length < real.length) {
+			throw new IllegalArgumentException("Destination too small: " + moduli.length + " < " + real.length);
+		}
+		final double[] re = real;
+		final double[] im = imaginary;
+		for (int i = 0; i < re.length; i++) {
+			// no overflow protection, unlike Complex.abs()
+			moduli[i] = Math.sqrt(re[i] * re[i] + im[i] * im[i]);
+		}
+		return moduli;
+	}
+
+	/**
+	 * @return the sum of all the complexes
+	 */
+	public Complex sum() {
+		double re = 0;
+		double im = 0;
+		for (int i = 0; i < real.length; i++) {
+			re += real[i];
+			im += imaginary[i];
+		}
+		return new Complex(re, im);
+	}
+
+	/**
+	 * @return the complex at <code>index</code> formatted like {@link NumberUtils#getComplexFormat()}
+	 */
+	public String format(final int index) {
+		return format(index, new StringBuilder()).toString();
+	}
+
+	/**
+	 * Append the complex at <code>index</code> formatted like {@link NumberUtils#getComplexFormat()}.
+	 *
+	 * @return <code>to</code>
+	 */
+	public StringBuilder format(final int index, final StringBuilder to) {
+		final FormatPool<ComplexCodec> complexCodecs = NumberUtils.complexCodecs();
+		final ComplexCodec codec = complexCodecs.acquire();
+		try {
+			return codec.format(real[index], imaginary[index], to);
+		} finally {
+			complexCodecs.release(codec);
+		}
+	}
+
+	/**
+	 * @return all the complexes formatted
+	 */
+	public String[] format() {
+		final String[] texts = new String[real.length];
+		final StringBuilder builder = new StringBuilder();
+		for (int i = 0; i < texts.length; i++) {
+			builder.setLength(0);
+			texts[i] = format(i, builder).toString();
+		}
+		return texts;
+	}
+
+	private static void checkLength(final int length, final int otherLength) {
+		if (length != otherLength) {
+			throw new IllegalArgumentException("Length mismatch: " + length + " != " + otherLength);
+		}
+	}
+}
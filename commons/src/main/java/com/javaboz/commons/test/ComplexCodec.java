@@ -0,0 +1,227 @@
+package com.javaboz.commons.test;
+
+import java.io.IOException;
+import java.nio.CharBuffer;
+import java.text.DecimalFormatSymbols;
+import java.util.Locale;
+
+import org.apache.commons.math.complex.Complex;
+
+/**
+ * Parser and formatter of complex numbers in the {@link NumberUtils#getComplexFormat()} syntax,
+ * <code>real + imaginaryIMAGINARY</code>, without {@link java.text.DecimalFormat} nor intermediate objects.<br>
+ * Texts are validated by {@link NumberClassifier} (integers, decimals and complexes, not hexadecimals), then each part
+ * is parsed by {@link NumberParser}. Output is identical to {@link org.apache.commons.math.complex.ComplexFormat}
+ * with {@link NumberUtils#getFormatter()}, non finite parts are written and parsed in parentheses, <code>(NaN)</code>,
+ * <code>(Infinity)</code> and <code>(-Infinity)</code>.<br>
+ * When the locale groups digits with <code>.</code>, a <code>.</code> is parsed as the classifier reads it, a decimal
+ * point whenever it can be one: <code>1.500</code> is 1.5 although 1500 is formatted so.<br>
+ * Not thread safe, buffers are reused.
+ *
+ * @author Julien Boz
+ */
+public final class ComplexCodec {
+
+	private final NumberClassifier classifier;
+	private final String imaginaryCharacter;
+	private final char groupingSeparator;
+	private final char decimalSeparator;
+	private final GroupedNumberFormat formatter;
+
+	/** part being parsed, normalized to ASCII */
+	private char[] buffer = new char[32];
+	private CharBuffer view = CharBuffer.wrap(buffer);
+	/** last parsed complex */
+	private double real;
+	private double imaginary;
+
+	/**
+	 * Codec of the default locale, with {@link NumberUtils#IMAGINARY}.
+	 */
+	public ComplexCodec() {
+		this(Locale.getDefault(), NumberUtils.IMAGINARY);
+	}
+
+	public ComplexCodec(final Locale locale, final String imaginaryCharacter) {
+		final DecimalFormatSymbols symbols = new DecimalFormatSymbols(locale);
+		this.classifier = new NumberClassifier(locale, imaginaryCharacter);
+		this.imaginaryCharacter = imaginaryCharacter;
+		this.groupingSeparator = symbols.getGroupingSeparator();
+		this.decimalSeparator = symbols.getDecimalSeparator();
+		this.formatter = new GroupedNumberFormat(symbols);
+	}
+
+	/**
+	 * @return the parsed complex, null if <code>text</code> is not a complex
+	 */
+	public Complex parse(final CharSequence text) {
+		return scan(text) ? new Complex(real, imaginary) : null;
+	}
+
+	/**
+	 * @return true if <code>text</code> is a complex, put in <code>values[index]</code>; false if not, values unchanged
+	 */
+	public boolean parse(final CharSequence text, final ComplexArray values, final int index) {
+		if (!scan(text)) {
+			return false;
+		}
+		values.set(index, real, imaginary);
+		return true;
+	}
+
+	/**
+	 * @return true if <code>text</code> is a complex, real part put in <code>parts[offset]</code> and imaginary part in
+	 *         <code>parts[offset + 1]</code>; false if not, parts unchanged
+	 */
+	public boolean parse(final CharSequence text, final double[] parts, final int offset) {
+		if (!scan(text)) {
+			return false;
+		}
+		parts[offset] = real;
+		parts[offset + 1] = imaginary;
+		return true;
+	}
+
+	/**
+	 * Parse <code>text</code> in {@link #real} and {@link #imaginary}.
+	 *
+	 * @return true if <code>text</code> is a complex
+	 */
+	private boolean scan(final CharSequence text) {
+		final NumberClassifier.Kind kind = classifier.classify(text);
+		if (kind == NumberClassifier.Kind.INTEGER || kind == NumberClassifier.Kind.DECIMAL) {
+			real = parsePart(text, 0, text.length());
+			imaginary = 0;
+			return true;
+		}
+		if (kind != NumberClassifier.Kind.COMPLEX) {
+			return false;
+		}
+		int start = 0;
+		while (Character.isWhitespace(text.charAt(start))) {
+			start++;
+		}
+		int end = text.length();
+		while (Character.isWhitespace(text.charAt(end - 1))) {
+			end--;
+		}
+		int pos = NumberClassifier.nonFiniteEnd(text, start, end);
+		if (pos < 0) {
+			pos = classifier.realEnd(text, start, end);
+			real = parsePart(text, start, pos);
+		} else {
+			real = nonFinite(text, start);
+		}
+		if (pos == end) {
+			// non finite real alone
+			imaginary = 0;
+			return true;
+		}
+		end -= imaginaryCharacter.length();
+		while (Character.isWhitespace(text.charAt(pos))) {
+			pos++;
+		}
+		final boolean negative = text.charAt(pos++) == '-';
+		while (Character.isWhitespace(text.charAt(pos))) {
+			pos++;
+		}
+		imaginary = text.charAt(pos) == '(' ? nonFinite(text, pos) : parsePart(text, pos, end);
+		if (negative) {
+			imaginary = -imaginary;
+		}
+		return true;
+	}
+
+	/**
+	 * @return the value of the valid non finite part starting at <code>start</code>
+	 */
+	private static double nonFinite(final CharSequence text, final int start) {
+		switch (text.charAt(start + 1)) {
+		case 'N':
+			return Double.NaN;
+		case '-':
+			return Double.NEGATIVE_INFINITY;
+		default:
+			return Double.POSITIVE_INFINITY;
+		}
+	}
+
+	/**
+	 * @return the value of the valid number <code>[start, end[</code>, surrounding whitespace allowed
+	 */
+	private double parsePart(final CharSequence text, final int start, final int end) {
+		if (buffer.length < end - start) {
+			buffer = new char[end - start];
+			view = CharBuffer.wrap(buffer);
+		}
+		final int point = groupingSeparator == '.' ? classifier.pointIndex(text, start, end) : -1;
+		int length = 0;
+		for (int i = start; i < end; i++) {
+			final char c = text.charAt(i);
+			if (c == decimalSeparator || i == point) {
+				buffer[length++] = '.';
+			} else if (c != groupingSeparator && c != 'L' && c != 'l') {
+				buffer[length++] = c;
+			}
+		}
+		return NumberParser.parseDouble(view, 0, length, Double.NaN);
+	}
+
+	/**
+	 * @return <code>complex</code> formatted
+	 */
+	public String format(final Complex complex) {
+		return format(complex.getReal(), complex.getImaginary(), new StringBuilder()).toString();
+	}
+
+	/**
+	 * @return <code>to</code>, with the complex formatted appended
+	 */
+	public StringBuilder format(final double re, final double im, final StringBuilder to) {
+		formatPart(re, to);
+		if (im < 0) {
+			formatPart(-im, to.append(" - ")).append(imaginaryCharacter);
+		} else if (im > 0 || Double.isNaN(im)) {
+			formatPart(im, to.append(" + ")).append(imaginaryCharacter);
+		}
+		return to;
+	}
+
+	/**
+	 * @return <code>to</code>, with the complex formatted appended
+	 * @throws IOException if <code>to</code> fails
+	 */
+	public Appendable format(final double re, final double im, final Appendable to) throws IOException {
+		if (to instanceof StringBuilder) {
+			return format(re, im, (StringBuilder) to);
+		}
+		formatPart(re, to);
+		if (im < 0) {
+			formatPart(-im, to.append(" - ")).append(imaginaryCharacter);
+		} else if (im > 0 || Double.isNaN(im)) {
+			formatPart(im, to.append(" + ")).append(imaginaryCharacter);
+		}
+		return to;
+	}
+
+	private StringBuilder formatPart(final double value, final StringBuilder to) {
+		if (Double.isNaN(value) || Double.isInfinite(value)) {
+			// like ComplexFormat
+			return to.append('(').append(value).append(')');
+		}
+		return formatter.format(value, to);
+	}
+
+	private Appendable formatPart(final double value, final Appendable to) throws IOException {
+		if (Double.isNaN(value) || Double.isInfinite(value)) {
+			return to.append('(').append(Double.toString(value)).append(')');
+		}
+		// formatted in the parse buffer, large enough for Double.MAX_VALUE grouped
+		if (buffer.length < 512) {
+			buffer = new char[512];
+			view = CharBuffer.wrap(buffer);
+		}
+		final int length = formatter.format(value, buffer, 0);
+		return to.append(view, 0, length);
+	}
+}
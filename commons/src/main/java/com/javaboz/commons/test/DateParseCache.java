@@ -0,0 +1,170 @@
+package com.javaboz.commons.test;
+
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.apache.commons.lang.StringUtils;
+
+/**
+ * Bounded LRU cache of parsed dates, keyed by (pattern, text).<br>
+ * Made for low cardinality date columns: only the epoch millis are stored, so callers always get a fresh {@link Date} and
+ * can't corrupt the cached values. Unparseable texts are cached too.<br>
+ * Dates are parsed like {@link DateUtils#parse(String, String)}, so cached values depend on the default time zone at parse
+ * time: {@link #clear()} the cache after changing it.<br>
+ * Thread safe.
+ *
+ * @author Julien Boz
+ * @see DateUtils#setParseCache(DateParseCache)
+ */
+public final class DateParseCache {
+
+	/** millis returned by {@link #parseMillis(String, String)} when the text is not a date */
+	public static final long NOT_A_DATE = Long.MIN_VALUE;
+
+	private final int capacity;
+	private final Map<Key, Long> entries;
+	private final StripedCounter hits = new StripedCounter();
+	private final StripedCounter misses = new StripedCounter();
+
+	/**
+	 * @param capacity max number of cached (pattern, text), must be positive
+	 */
+	public DateParseCache(final int capacity) {
+		if (capacity <= 0) {
+			throw new IllegalArgumentException("Capacity must be positive: " + capacity);
+		}
+		this.capacity = capacity;
+		// access order for LRU eviction
+		this.entries = new LinkedHashMap<Key, Long>(16, 0.75f, true) {
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			protected boolean removeEldestEntry(final Map.Entry<Key, Long> eldest) {
+				return size() > DateParseCache.this.capacity;
+			}
+		};
+	}
+
+	/**
+	 * @return a new date parsed from <code>date</code> at format <code>dateFormat</code>, null if not a date
+	 * @see DateUtils#parse(String, String)
+	 */
+	public Date parse(final String date, final String dateFormat) {
+		final long millis = parseMillis(date, dateFormat);
+		return millis == NOT_A_DATE ? null : new Date(millis);
+	}
+
+	/**
+	 * @return epoch millis of <code>date</code> at format <code>dateFormat</code>, {@link #NOT_A_DATE} if not a date
+	 */
+	public long parseMillis(final String date, final String dateFormat) {
+		if (StringUtils.isBlank(date) || dateFormat == null) {
+			return NOT_A_DATE;
+		}
+		final Key key = new Key(dateFormat, date);
+		Long millis;
+		synchronized (entries) {
+			millis = entries.get(key);
+		}
+		if (millis != null) {
+			hits.increment();
+			return millis.longValue();
+		}
+		misses.increment();
+
+		// parse outside the lock, concurrent misses on the same key compute the same value
+		millis = Long.valueOf(load(date, dateFormat));
+		synchronized (entries) {
+			entries.put(key, millis);
+		}
+		return millis.longValue();
+	}
+
+	private static long load(final String date, final String dateFormat) {
+		final Date parsed = DateUtils.parseUncached(date, dateFormat);
+		return parsed == null ? NOT_A_DATE : parsed.getTime();
+	}
+
+	/**
+	 * @return max number of cached (pattern, text)
+	 */
+	public int getCapacity() {
+		return capacity;
+	}
+
+	/**
+	 * @return current number of cached (pattern, text)
+	 */
+	public int size() {
+		synchronized (entries) {
+			return entries.size();
+		}
+	}
+
+	/**
+	 * @return number of lookups served by the cache
+	 */
+	public long getHitCount() {
+		return hits.sum();
+	}
+
+	/**
+	 * @return number of lookups that needed a parse
+	 */
+	public long getMissCount() {
+		return misses.sum();
+	}
+
+	/**
+	 * @return hits / lookups, 0 if no lookup was done
+	 */
+	public double getHitRate() {
+		final long hitCount = hits.sum();
+		final long total = hitCount + misses.sum();
+		return total == 0 ? 0 : (double) hitCount / total;
+	}
+
+	/**
+	 * Remove all cached dates and reset the counters.
+	 */
+	public void clear() {
+		synchronized (entries) {
+			entries.clear();
+		}
+		hits.reset();
+		misses.reset();
+	}
+
+	@Override
+	public String toString() {
+		return "DateParseCache[size=" + size() + ", capacity=" + capacity + ", hits=" + hits.sum()
+				+ ", misses=" + misses.sum() + "]";
+	}
+
+	private static final class Key {
+		private final String pattern;
+		private final String text;
+		private final int hash;
+
+		Key(final String pattern, final String text) {
+			this.pattern = pattern;
+			this.text = text;
+			this.hash = 31 * pattern.hashCode() + text.hashCode();
+		}
+
+		@Override
+		public int hashCode() {
+			return hash;
+		}
+
+		@Override
+		public boolean equals(final Object obj) {
+			if (!(obj instanceof Key)) {
+				return false;
+			}
+			final Key other = (Key) obj;
+			return hash == other.hash && text.equals(other.text) && pattern.equals(other.pattern);
+		}
+	}
+}
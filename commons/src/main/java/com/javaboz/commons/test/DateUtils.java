@@ -0,0 +1,450 @@
+package com.javaboz.commons.test;
+
+import java.text.SimpleDateFormat;
+import java.util.BitSet;
+import java.util.Calendar;
+import java.util.Date;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.apache.commons.lang.StringUtils;
+import org.joda.time.Chronology;
+import org.joda.time.DateTime;
+import org.joda.time.DateTimeUtils;
+import org.joda.time.DurationFieldType;
+import org.joda.time.LocalDate;
+import org.joda.time.ReadableInstant;
+
+/**
+ * Utilitaire sur les dates.
+ *
+ * @author Julien Boz
+ */
+public final class DateUtils {
+
+	public static final String FR_DATE_FORMAT = "dd.MM.yyyy";
+	public static final String ENDFILE_DATE_FORMAT = "yyyyMMddHHmmss";
+	public static final String ISO_FORMAT = "yyyy-MM-dd'T'HH:mm:ss.SSSZZ";
+	public static final String ISO_FORMAT_NO_TIMEZONE = "yyyy-MM-dd'T'HH:mm:ss";
+
+	/** value returned by {@link #parseTimeOfDay(CharSequence)} when the time is malformed */
+	public static final int INVALID_TIME = TimeParser.INVALID;
+
+	private DateUtils() {
+	}
+
+	/**
+	 * Thread safe date/time formatters.<br>
+	 * Pooled instead of kept per thread, so the number of formatters doesn't grow with the number of threads.
+	 */
+	private static final FormatPool<SimpleDateFormat> frenchFormatters = new FormatPool<SimpleDateFormat>() {
+
+		@Override
+		protected SimpleDateFormat create() {
+			return new SimpleDateFormat(FR_DATE_FORMAT);
+		}
+	};
+	private static final FormatPool<SimpleDateFormat> fileDateFormatters = new FormatPool<SimpleDateFormat>() {
+
+		@Override
+		protected SimpleDateFormat create() {
+			return new SimpleDateFormat(ENDFILE_DATE_FORMAT);
+		}
+	};
+
+	/**
+	 * @return a new date formatter, thread safe as long as it is not shared
+	 */
+	public static final SimpleDateFormat getFormatter(final String dateFormat) {
+		return new SimpleDateFormat(dateFormat);
+	}
+
+	/**
+	 * @return the pool of the formatters of <code>dateFormat</code>, null if not pooled
+	 */
+	private static FormatPool<SimpleDateFormat> getPool(final String dateFormat) {
+		if (FR_DATE_FORMAT.equals(dateFormat)) {
+			return frenchFormatters;
+		}
+		if (ENDFILE_DATE_FORMAT.equals(dateFormat)) {
+			return fileDateFormatters;
+		}
+		return null;
+	}
+
+	/** optional cache of {@link #parse(String, String)} */
+	private static volatile DateParseCache parseCache;
+
+	/** compiled validators by pattern */
+	private static final ConcurrentMap<String, DateValidator> validators = new ConcurrentHashMap<String, DateValidator>();
+
+	// défini après les formatters !
+	/** date min, take care of use, do not use instead of null value */
+	public static final Date MIN_VALUE = parse("01.01.0001");
+	/** date max, take care of use, do not use instead of null value */
+	public static final Date MAX_VALUE = parse("31.12.9999");
+
+	/**
+	 * Parse une chaîne au format ISO ou {@value #FR_DATE_FORMAT}.
+	 */
+	public static Date parse(final String date) {
+		if (StringUtils.isBlank(date)) {
+			return null;
+		}
+		try {
+			return DateTime.parse(date).toDate();
+		} catch (final Exception e) {
+			return parse(date, FR_DATE_FORMAT);
+		}
+	}
+
+	/**
+	 * Parse une chaîne en date.<br>
+	 * Use the parse cache if one is set.
+	 *
+	 * @see #setParseCache(DateParseCache)
+	 */
+	public static Date parse(final String date, final String dateFormat) {
+		if (StringUtils.isBlank(date)) {
+			return null;
+		}
+		final long start = LibraryMetrics.DATE_PARSE.start();
+		boolean success = false;
+		try {
+			final DateParseCache cache = parseCache;
+			final Date parsed = cache != null ? cache.parse(date, dateFormat) : parseUncached(date, dateFormat);
+			success = parsed != null;
+			return parsed;
+		} finally {
+			LibraryMetrics.DATE_PARSE.stop(start, success);
+		}
+	}
+
+	/**
+	 * Parse une chaîne non vide en date, sans passer par le cache.
+	 */
+	static Date parseUncached(final String date, final String dateFormat) {
+		final FormatPool<SimpleDateFormat> pool = getPool(dateFormat);
+		SimpleDateFormat formatter = null;
+		try {
+			formatter = pool == null ? getFormatter(dateFormat) : pool.acquire();
+			return formatter.parse(date);
+		} catch (final Exception e) {
+			return null;
+		} finally {
+			if (pool != null) {
+				pool.release(formatter);
+			}
+		}
+	}
+
+	/**
+	 * @return the cache used by {@link #parse(String, String)}, null if none
+	 */
+	public static DateParseCache getParseCache() {
+		return parseCache;
+	}
+
+	/**
+	 * Set the cache used by {@link #parse(String, String)}, useful for columns with few distinct dates.
+	 *
+	 * @param cache the cache, null to disable caching
+	 */
+	public static void setParseCache(final DateParseCache cache) {
+		parseCache = cache;
+	}
+
+	/**
+	 * Parse une chaîne en date.
+	 */
+	public static DateTime parseDateTime(final String date) {
+		return parseDateTime(date, FR_DATE_FORMAT);
+	}
+
+	/**
+	 * Parse une chaîne en date.
+	 */
+	public static DateTime parseDateTime(final String date, final String dateFormat) {
+		final Date parsed = parse(date, dateFormat);
+		if (parsed == null) {
+			return null;
+		}
+		return new DateTime(parsed);
+	}
+
+	/**
+	 * @return true si <code>date</code> match le pattern {@value #FR_DATE_FORMAT}.
+	 */
+	public static boolean isValidDate(final String date) {
+		return isValidDate(date, FR_DATE_FORMAT);
+	}
+
+	/**
+	 * @return true si <code>date</code> match strictement le pattern <code>dateFormat</code>.
+	 * @see DateValidator
+	 */
+	public static boolean isValidDate(final String date, final String dateFormat) {
+		return getValidator(dateFormat).isValid(date);
+	}
+
+	/**
+	 * Validate strictly a batch of dates against the pattern <code>dateFormat</code>.
+	 *
+	 * @param errorIndexes filled with the offending character index of each date, {@link DateValidator#VALID} for valid
+	 *            dates, may be null
+	 * @return the bitmap of the invalid dates indexes
+	 * @see DateValidator#validate(CharSequence[], int[])
+	 */
+	public static BitSet validateDates(final CharSequence[] dates, final String dateFormat, final int[] errorIndexes) {
+		return getValidator(dateFormat).validate(dates, errorIndexes);
+	}
+
+	/**
+	 * @return the compiled validator of the pattern <code>dateFormat</code>
+	 */
+	public static DateValidator getValidator(final String dateFormat) {
+		DateValidator validator = validators.get(dateFormat);
+		if (validator == null) {
+			validator = DateValidator.compile(dateFormat);
+			final DateValidator existing = validators.putIfAbsent(dateFormat, validator);
+			if (existing != null) {
+				validator = existing;
+			}
+		}
+		return validator;
+	}
+
+	/**
+	 * @return la date au format {@value #FR_DATE_FORMAT}.
+	 */
+	public static String format(final Date date) {
+		return format(date, FR_DATE_FORMAT);
+	}
+
+	/**
+	 * @return la date au format <code>dateFormat</code>
+	 */
+	public static String format(final Date date, final String dateFormat) {
+		if (date == null) {
+			return "null";
+		}
+		final long start = LibraryMetrics.DATE_FORMAT.start();
+		boolean success = false;
+		try {
+			final String formatted = formatNonNull(date, dateFormat);
+			success = true;
+			return formatted;
+		} finally {
+			LibraryMetrics.DATE_FORMAT.stop(start, success);
+		}
+	}
+
+	private static String formatNonNull(final Date date, final String dateFormat) {
+		final FormatPool<SimpleDateFormat> pool = getPool(dateFormat);
+		if (pool == null) {
+			return getFormatter(dateFormat).format(date);
+		}
+		final SimpleDateFormat formatter = pool.acquire();
+		try {
+			return formatter.format(date);
+		} finally {
+			pool.release(formatter);
+		}
+	}
+
+	/**
+	 * Supprime les heures de la date.
+	 */
+	public static Date clearTime(final Date date) {
+		if (date == null) {
+			return null;
+		}
+		return LocalDate.fromDateFields(date).toDate();
+	}
+
+	/**
+	 * @return la date du jour sans les heures.
+	 */
+	public static Date getToday() {
+		return now();
+	}
+
+	/**
+	 * @return la date du jour sans les heures.
+	 */
+	public static Date now() {
+		return LocalDate.now().toDate();
+	}
+
+	/**
+	 * @param date
+	 * @return a {@link Calendar}
+	 */
+	public static Calendar toCalendar(final Date date) {
+		final Calendar calendar = Calendar.getInstance();
+		calendar.setTime(date);
+
+		return calendar;
+	}
+
+	/**
+	 * Calculates the number of whole units between the two specified date.
+	 *
+	 * @see #between(ReadableInstant, ReadableInstant, DurationFieldType)
+	 */
+	public static int between(final Date start, final Date end, final DurationFieldType field) {
+		return between(new DateTime(start), new DateTime(end), field);
+	}
+
+	/**
+	 * Calculates the number of whole units between the two specified datetimes.
+	 *
+	 * @param start the start instant, validated to not be null
+	 * @param end the end instant, validated to not be null
+	 * @param field the field type to use, must not be null
+	 * @return the period
+	 * @throws IllegalArgumentException if the instants are null or invalid
+	 */
+	public static int between(final ReadableInstant start, final ReadableInstant end, final DurationFieldType field) {
+		if (start == null || end == null) {
+			throw new IllegalArgumentException("ReadableInstant objects must not be null");
+		}
+		final Chronology chrono = DateTimeUtils.getInstantChronology(start);
+
+		return field.getField(chrono).getDifference(end.getMillis(), start.getMillis());
+	}
+
+	/**
+	 * @return the maximum of two dates. A null date is treated as being less than any non-null date.
+	 */
+	public static Date max(final Date d1, final Date d2) {
+		if (d1 == null) {
+			return d2;
+		}
+		if (d2 == null) {
+			return d1;
+		}
+		return d2.after(d1) ? d2 : d1;
+	}
+
+	/**
+	 * Get time in milliseconds.
+	 *
+	 * @param time time at format <code>[T]H[H][:m[m][:s[s][.SSS]]]</code>
+	 * @throws IllegalArgumentException if the time is malformed
+	 * @see #parseTimeOfDay(CharSequence)
+	 */
+	public static long parseTime(final String time) {
+		final int millis = parseTimeOfDay(time);
+		if (millis == INVALID_TIME) {
+			throw new IllegalArgumentException("Invalid format: \"" + time + "\"");
+		}
+		return millis;
+	}
+
+	/**
+	 * Parse a time at format <code>[T]H[H][:m[m][:s[s][.SSS]]]</code> without any allocation nor exception.
+	 *
+	 * <pre>
+	 *   DateUtils.parseTimeOfDay("01")           = 3600000
+	 *   DateUtils.parseTimeOfDay("T1:05")        = 3900000
+	 *   DateUtils.parseTimeOfDay("01:03:10.5")   = 3790500
+	 *   DateUtils.parseTimeOfDay("25:00")        = DateUtils.INVALID_TIME
+	 *   DateUtils.parseTimeOfDay(null)           = DateUtils.INVALID_TIME
+	 * </pre>
+	 *
+	 * @return milliseconds of day, or {@link #INVALID_TIME} if the time is malformed
+	 */
+	public static int parseTimeOfDay(final CharSequence time) {
+		return time == null ? INVALID_TIME : TimeParser.parse(time, 0, time.length());
+	}
+
+	/**
+	 * Parse the time in <code>[start, end[</code> of <code>text</code>.
+	 *
+	 * @see #parseTimeOfDay(CharSequence)
+	 */
+	public static int parseTimeOfDay(final CharSequence text, final int start, final int end) {
+		return TimeParser.parse(text, start, end);
+	}
+
+	/**
+	 * Parse a column of times into milliseconds of day.<br>
+	 * Malformed or null times are set to {@link #INVALID_TIME}.
+	 *
+	 * @param times times at format <code>[T]H[H][:m[m][:s[s][.SSS]]]</code>
+	 * @param millis destination, at least as long as <code>times</code>
+	 * @return the number of malformed times
+	 */
+	public static int parseTimes(final CharSequence[] times, final int[] millis) {
+		checkDestination(times.length, millis.length);
+		int invalids = 0;
+		for (int i = 0; i < times.length; i++) {
+			millis[i] = parseTimeOfDay(times[i]);
+			if (millis[i] == INVALID_TIME) {
+				invalids++;
+			}
+		}
+		return invalids;
+	}
+
+	/**
+	 * Parse a column of times into milliseconds of day.
+	 *
+	 * @see #parseTimes(CharSequence[], int[])
+	 */
+	public static int parseTimes(final CharSequence[] times, final long[] millis) {
+		checkDestination(times.length, millis.length);
+		int invalids = 0;
+		for (int i = 0; i < times.length; i++) {
+			millis[i] = parseTimeOfDay(times[i]);
+			if (millis[i] == INVALID_TIME) {
+				invalids++;
+			}
+		}
+		return invalids;
+	}
+
+	private static void checkDestination(final int sourceLength, final int destinationLength) {
+		if (destinationLength < sourceLength) {
+			throw new IllegalArgumentException("Destination too small: " + destinationLength + " < " + sourceLength);
+		}
+	}
+
+	/**
+	 * Compare two dates, ignore hours, check null values.
+	 */
+	public static int compareTo(final Date dateA, final Date dateB) {
+		if (dateA == null && dateB != null) {
+			return -1;
+		}
+		if (dateA != null && dateB == null) {
+			return +1;
+		}
+		if (dateA == null && dateB == null || dateA == dateB) {
+			// optimisation
+			return 0;
+		}
+		return new LocalDate(dateA).compareTo(new LocalDate(dateB));
+	}
+
+	public static boolean isEquals(final Date dateA, final Date dateB) {
+		return compareTo(dateA, dateB) == 0;
+	}
+
+	public static boolean isBefore(final Date dateA, final Date dateB) {
+		return compareTo(dateA, dateB) == -1;
+	}
+
+	public static boolean isAfter(final Date dateA, final Date dateB) {
+		return compareTo(dateA, dateB) == 1;
+	}
+
+	public static boolean isBeforeOrEquals(final Date dateA, final Date dateB) {
+		return compareTo(dateA, dateB) <= 0;
+	}
+
+	public static boolean isAfterOrEquals(final Date dateA, final Date dateB) {
+		return compareTo(dateA, dateB) >= 0;
+	}
+}
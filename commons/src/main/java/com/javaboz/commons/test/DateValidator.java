@@ -0,0 +1,317 @@
+package com.javaboz.commons.test;
+
+import java.text.ParsePosition;
+import java.text.SimpleDateFormat;
+import java.util.BitSet;
+
+/**
+ * Strict date validator compiled from a {@link SimpleDateFormat} pattern.<br>
+ * Unlike {@link SimpleDateFormat#parse(String)}, the whole text must match, numeric fields must have the pattern width and
+ * out of range values (<code>32.01.2020</code>, <code>29.02.2021</code>) are rejected. Validation never throws exceptions,
+ * it reports the index of the offending character.<br>
+ * Numeric patterns (<code>y M d H k K h m s S</code> and literals) are validated by a char scanner, other patterns (month
+ * names, time zones...) fall back to a non lenient {@link SimpleDateFormat}.<br>
+ * Instances are immutable and thread safe.
+ *
+ * @author Julien Boz
+ */
+public final class DateValidator {
+
+	/** error index of a valid text */
+	public static final int VALID = -1;
+
+	private static final char LITERAL = 0;
+
+	private final String pattern;
+	/** pattern letter of each token, {@link #LITERAL} for literal chars, null if the pattern is not compiled */
+	private final char[] kinds;
+	/** width of each field token, literal char of each literal token */
+	private final int[] widths;
+	/** true if the field token accepts less digits than its width */
+	private final boolean[] variables;
+
+	private DateValidator(final String pattern, final char[] kinds, final int[] widths, final boolean[] variables) {
+		this.pattern = pattern;
+		this.kinds = kinds;
+		this.widths = widths;
+		this.variables = variables;
+	}
+
+	/**
+	 * Compile the validator of a {@link SimpleDateFormat} pattern.
+	 *
+	 * @throws IllegalArgumentException if the pattern is invalid
+	 */
+	public static DateValidator compile(final String pattern) {
+		// validate the pattern
+		new SimpleDateFormat(pattern);
+
+		final int length = pattern.length();
+		final char[] kinds = new char[length];
+		final int[] widths = new int[length];
+		final boolean[] variables = new boolean[length];
+		int count = 0;
+		int i = 0;
+		while (i < length) {
+			final char c = pattern.charAt(i);
+			if (c == '\'') {
+				i++;
+				if (i < length && pattern.charAt(i) == '\'') {
+					// '' is a single quote
+					kinds[count] = LITERAL;
+					widths[count++] = '\'';
+					i++;
+					continue;
+				}
+				while (i < length) {
+					if (pattern.charAt(i) == '\'') {
+						if (i + 1 < length && pattern.charAt(i + 1) == '\'') {
+							i++;
+						} else {
+							break;
+						}
+					}
+					kinds[count] = LITERAL;
+					widths[count++] = pattern.charAt(i++);
+				}
+				i++;
+			} else if (c >= 'a' && c <= 'z' || c >= 'A' && c <= 'Z') {
+				int end = i + 1;
+				while (end < length && pattern.charAt(end) == c) {
+					end++;
+				}
+				final int width = end - i;
+				if (maxDigits(c, width) == 0) {
+					// text or unsupported field
+					return new DateValidator(pattern, null, null, null);
+				}
+				kinds[count] = c;
+				widths[count++] = width;
+				i = end;
+			} else {
+				kinds[count] = LITERAL;
+				widths[count++] = c;
+				i++;
+			}
+		}
+
+		for (int t = 0; t < count; t++) {
+			// abutting numeric fields must have a fixed width
+			variables[t] = kinds[t] != LITERAL && widths[t] == 1 && (t + 1 == count || kinds[t + 1] == LITERAL);
+		}
+		return new DateValidator(pattern, copy(kinds, count), copy(widths, count), copy(variables, count));
+	}
+
+	/**
+	 * @return the pattern of this validator
+	 */
+	public String getPattern() {
+		return pattern;
+	}
+
+	/**
+	 * @return true if <code>text</code> strictly match the pattern
+	 */
+	public boolean isValid(final CharSequence text) {
+		return validate(text) == VALID;
+	}
+
+	/**
+	 * @return {@link #VALID} if <code>text</code> strictly match the pattern, the index of the offending character otherwise
+	 */
+	public int validate(final CharSequence text) {
+		if (text == null) {
+			return 0;
+		}
+		if (kinds == null) {
+			return validate(new SimpleDateFormat(pattern), text);
+		}
+		return scan(text);
+	}
+
+	/**
+	 * Validate a batch of texts.
+	 *
+	 * @param texts the texts to validate, null texts are invalid
+	 * @param errorIndexes filled with the result of {@link #validate(CharSequence)} for each text, may be null
+	 * @return the bitmap of the invalid texts indexes
+	 */
+	public BitSet validate(final CharSequence[] texts, final int[] errorIndexes) {
+		if (errorIndexes != null && errorIndexes.length < texts.length) {
+			throw new IllegalArgumentException("Error indexes too small: " + errorIndexes.length + " < " + texts.length);
+		}
+		final BitSet failures = new BitSet(texts.length);
+		// one fallback formatter for the whole batch
+		final SimpleDateFormat format = kinds == null ? new SimpleDateFormat(pattern) : null;
+		for (int i = 0; i < texts.length; i++) {
+			final CharSequence text = texts[i];
+			final int errorIndex;
+			if (text == null) {
+				errorIndex = 0;
+			} else {
+				errorIndex = format == null ? scan(text) : validate(format, text);
+			}
+			if (errorIndex != VALID) {
+				failures.set(i);
+			}
+			if (errorIndexes != null) {
+				errorIndexes[i] = errorIndex;
+			}
+		}
+		return failures;
+	}
+
+	private int scan(final CharSequence text) {
+		final int length = text.length();
+		int pos = 0;
+		int year = -1;
+		boolean shortYear = false;
+		int month = -1;
+		int day = -1;
+		int dayPos = -1;
+		for (int t = 0; t < kinds.length; t++) {
+			final char kind = kinds[t];
+			if (kind == LITERAL) {
+				if (pos >= length || text.charAt(pos) != widths[t]) {
+					return pos;
+				}
+				pos++;
+				continue;
+			}
+
+			final int start = pos;
+			final int max = variables[t] ? maxDigits(kind, 1) : widths[t];
+			final int min = variables[t] ? 1 : widths[t];
+			int value = 0;
+			while (pos < length && pos - start < max) {
+				final int digit = text.charAt(pos) - '0';
+				if (digit < 0 || digit > 9) {
+					break;
+				}
+				value = value * 10 + digit;
+				pos++;
+			}
+			if (pos - start < min) {
+				return pos;
+			}
+			if (!inRange(kind, pos - start, value)) {
+				return start;
+			}
+			if (kind == 'y') {
+				year = value;
+				shortYear = pos - start <= 2;
+			} else if (kind == 'M') {
+				month = value;
+			} else if (kind == 'd') {
+				day = value;
+				dayPos = start;
+			}
+		}
+		if (pos != length) {
+			return pos;
+		}
+		if (day > maxDay(month, year, shortYear)) {
+			return dayPos;
+		}
+		return VALID;
+	}
+
+	private static int validate(final SimpleDateFormat format, final CharSequence text) {
+		format.setLenient(false);
+		final String string = text.toString();
+		final ParsePosition position = new ParsePosition(0);
+		if (format.parse(string, position) == null) {
+			return Math.max(position.getErrorIndex(), 0);
+		}
+		return position.getIndex() == string.length() ? VALID : position.getIndex();
+	}
+
+	/**
+	 * @return the max number of digits of a numeric field, 0 for text or unsupported fields
+	 */
+	private static int maxDigits(final char kind, final int width) {
+		switch (kind) {
+		case 'y':
+			return Math.max(width, 4);
+		case 'M':
+			return width <= 2 ? 2 : 0;
+		case 'd':
+		case 'H':
+		case 'k':
+		case 'K':
+		case 'h':
+		case 'm':
+		case 's':
+			return Math.max(width, 2);
+		case 'S':
+			return Math.max(width, 3);
+		default:
+			return 0;
+		}
+	}
+
+	private static boolean inRange(final char kind, final int digits, final int value) {
+		switch (kind) {
+		case 'y':
+			return digits <= 2 || value >= 1;
+		case 'M':
+			return value >= 1 && value <= 12;
+		case 'd':
+			return value >= 1 && value <= 31;
+		case 'H':
+			return value <= 23;
+		case 'k':
+			return value >= 1 && value <= 24;
+		case 'K':
+			return value <= 11;
+		case 'h':
+			return value >= 1 && value <= 12;
+		case 'm':
+		case 's':
+			return value <= 59;
+		default:
+			return value <= 999;
+		}
+	}
+
+	private static int maxDay(final int month, final int year, final boolean shortYear) {
+		switch (month) {
+		case 2:
+			if (year == -1) {
+				return 29;
+			}
+			final boolean leap = year % 4 == 0 && (shortYear || year % 100 != 0 || year % 400 == 0);
+			return leap ? 29 : 28;
+		case 4:
+		case 6:
+		case 9:
+		case 11:
+			return 30;
+		default:
+			return 31;
+		}
+	}
+
+	private static char[] copy(final char[] array, final int length) {
+		final char[] copy = new char[length];
+		System.arraycopy(array, 0, copy, 0, length);
+		return copy;
+	}
+
+	private static int[] copy(final int[] array, final int length) {
+		final int[] copy = new int[length];
+		System.arraycopy(array, 0, copy, 0, length);
+		return copy;
+	}
+
+	private static boolean[] copy(final boolean[] array, final int length) {
+		final boolean[] copy = new boolean[length];
+		System.arraycopy(array, 0, copy, 0, length);
+		return copy;
+	}
+
+	@Override
+	public String toString() {
+		return "DateValidator[" + pattern + "]";
+	}
+}
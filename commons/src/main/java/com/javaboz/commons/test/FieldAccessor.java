@@ -0,0 +1,171 @@
+package com.javaboz.commons.test;
+
+import java.lang.reflect.Field;
+
+/**
+ * Getter and setter of a field resolved once, made accessible once.<br>
+ * Primitive variants read and write without boxing, with the widening conversions of {@link Field#getInt(Object)}
+ * and {@link Field#setInt(Object, int)}. Errors are reported like {@link ReflectionUtils#getFieldValue(Object, Field)}
+ * and {@link ReflectionUtils#setFieldValue(Object, Field, Object)}.<br>
+ * Java 5 implementation of the multi-release jar, backed by {@link Field}; the Java 17 one is backed by method
+ * handles. Thread safe.
+ *
+ * <pre>
+ * final FieldAccessor price = FieldAccessor.of(Product.class, &quot;price&quot;);
+ * for (final Product product : products) {
+ * 	total += price.getDouble(product);
+ * }
+ * </pre>
+ *
+ * @author Julien Boz
+ */
+public final class FieldAccessor {
+
+	private final Field field;
+
+	FieldAccessor(final Field field) {
+		field.setAccessible(true);
+		this.field = field;
+	}
+
+	/**
+	 * @return the accessor of <code>field</code>, cached by field
+	 */
+	public static FieldAccessor of(final Field field) {
+		return ClassMetadata.of(field.getDeclaringClass()).getAccessor(field);
+	}
+
+	/**
+	 * @return the accessor of the field found by {@link ReflectionUtils#getFieldByName(Class, String)}, null if none
+	 */
+	public static FieldAccessor of(final Class<?> clazz, final String name) {
+		final Field field = ClassMetadata.of(clazz).getFieldByName(name);
+		return field == null ? null : of(field);
+	}
+
+	public Field getField() {
+		return field;
+	}
+
+	/**
+	 * @param object the object containing the field, null for static fields
+	 * @return the value of the field, primitives boxed
+	 */
+	public Object get(final Object object) {
+		try {
+			return field.get(object);
+		} catch (final IllegalArgumentException e) {
+			throw accessError(e);
+		} catch (final IllegalAccessException e) {
+			throw accessError(e);
+		}
+	}
+
+	public int getInt(final Object object) {
+		try {
+			return field.getInt(object);
+		} catch (final IllegalArgumentException e) {
+			throw accessError(e);
+		} catch (final IllegalAccessException e) {
+			throw accessError(e);
+		}
+	}
+
+	public long getLong(final Object object) {
+		try {
+			return field.getLong(object);
+		} catch (final IllegalArgumentException e) {
+			throw accessError(e);
+		} catch (final IllegalAccessException e) {
+			throw accessError(e);
+		}
+	}
+
+	public double getDouble(final Object object) {
+		try {
+			return field.getDouble(object);
+		} catch (final IllegalArgumentException e) {
+			throw accessError(e);
+		} catch (final IllegalAccessException e) {
+			throw accessError(e);
+		}
+	}
+
+	public boolean getBoolean(final Object object) {
+		try {
+			return field.getBoolean(object);
+		} catch (final IllegalArgumentException e) {
+			throw accessError(e);
+		} catch (final IllegalAccessException e) {
+			throw accessError(e);
+		}
+	}
+
+	/**
+	 * @param object the object containing the field, null for static fields
+	 * @param value the new value, unboxed for primitive fields
+	 */
+	public void set(final Object object, final Object value) {
+		try {
+			field.set(object, value);
+		} catch (final IllegalArgumentException e) {
+			throw assignError(value, e);
+		} catch (final IllegalAccessException e) {
+			throw accessError(e);
+		}
+	}
+
+	public void setInt(final Object object, final int value) {
+		try {
+			field.setInt(object, value);
+		} catch (final IllegalArgumentException e) {
+			throw assignError(value, e);
+		} catch (final IllegalAccessException e) {
+			throw accessError(e);
+		}
+	}
+
+	public void setLong(final Object object, final long value) {
+		try {
+			field.setLong(object, value);
+		} catch (final IllegalArgumentException e) {
+			throw assignError(value, e);
+		} catch (final IllegalAccessException e) {
+			throw accessError(e);
+		}
+	}
+
+	public void setDouble(final Object object, final double value) {
+		try {
+			field.setDouble(object, value);
+		} catch (final IllegalArgumentException e) {
+			throw assignError(value, e);
+		} catch (final IllegalAccessException e) {
+			throw accessError(e);
+		}
+	}
+
+	public void setBoolean(final Object object, final boolean value) {
+		try {
+			field.setBoolean(object, value);
+		} catch (final IllegalArgumentException e) {
+			throw assignError(value, e);
+		} catch (final IllegalAccessException e) {
+			throw accessError(e);
+		}
+	}
+
+	private IllegalArgumentException accessError(final Exception cause) {
+		return new IllegalArgumentException("Error while trying to access field " + field, cause);
+	}
+
+	private IllegalArgumentException assignError(final Object value, final Exception cause) {
+		return new IllegalArgumentException("Unable to assign the value to field: " + field.getName()
+				+ ". Ensure that this field is of the correct type. Value: " + value, cause);
+	}
+
+	@Override
+	public String toString() {
+		return "FieldAccessor[" + field + "]";
+	}
+}
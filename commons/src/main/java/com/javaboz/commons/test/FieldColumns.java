@@ -0,0 +1,206 @@
+package com.javaboz.commons.test;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.RandomAccess;
+import java.util.concurrent.ExecutorService;
+
+/**
+ * Bulk extraction of a field of a list of objects into arrays.<br>
+ * Each method fills a destination array with the field value of each object, read by a {@link FieldAccessor}
+ * resolved once, and returns the bitmap of the non null objects, null objects are extracted as 0 or null. Primitive
+ * fields are read without boxing, with the widening conversions of {@link FieldAccessor#getInt(Object)}.<br>
+ * The methods taking an {@link ExecutorService} split large lists in chunks extracted concurrently, a null executor
+ * extracts in the calling thread.
+ *
+ * <pre>
+ * final double[] prices = new double[products.size()];
+ * FieldColumns.extractDoubles(products, FieldAccessor.of(Product.class, &quot;price&quot;), prices);
+ * </pre>
+ *
+ * @author Julien Boz
+ * @see NumberColumns
+ */
+public final class FieldColumns {
+
+	private FieldColumns() {
+	}
+
+	/**
+	 * @param objects the objects containing the field
+	 * @param field accessor of the field
+	 * @param values filled with the field values, at least as long as <code>objects</code>
+	 * @return the bitmap of the non null objects
+	 */
+	public static BitSet extractInts(final List<?> objects, final FieldAccessor field, final int[] values) {
+		return extractInts(objects, field, values, null);
+	}
+
+	/**
+	 * @param executor executor extracting the chunks, null to extract in the calling thread
+	 * @see #extractInts(List, FieldAccessor, int[])
+	 */
+	public static BitSet extractInts(final List<?> objects, final FieldAccessor field, final int[] values,
+			final ExecutorService executor) {
+		checkDestination(objects.size(), values.length);
+		return extract(new Column(objects) {
+			@Override
+			void extract(final Object object, final int index) {
+				values[index] = field.getInt(object);
+			}
+
+			@Override
+			void clear(final int index) {
+				values[index] = 0;
+			}
+		}, executor);
+	}
+
+	/**
+	 * @param objects the objects containing the field
+	 * @param field accessor of the field
+	 * @param values filled with the field values, at least as long as <code>objects</code>
+	 * @return the bitmap of the non null objects
+	 */
+	public static BitSet extractLongs(final List<?> objects, final FieldAccessor field, final long[] values) {
+		return extractLongs(objects, field, values, null);
+	}
+
+	/**
+	 * @param executor executor extracting the chunks, null to extract in the calling thread
+	 * @see #extractLongs(List, FieldAccessor, long[])
+	 */
+	public static BitSet extractLongs(final List<?> objects, final FieldAccessor field, final long[] values,
+			final ExecutorService executor) {
+		checkDestination(objects.size(), values.length);
+		return extract(new Column(objects) {
+			@Override
+			void extract(final Object object, final int index) {
+				values[index] = field.getLong(object);
+			}
+
+			@Override
+			void clear(final int index) {
+				values[index] = 0L;
+			}
+		}, executor);
+	}
+
+	/**
+	 * @param objects the objects containing the field
+	 * @param field accessor of the field
+	 * @param values filled with the field values, at least as long as <code>objects</code>
+	 * @return the bitmap of the non null objects
+	 */
+	public static BitSet extractDoubles(final List<?> objects, final FieldAccessor field, final double[] values) {
+		return extractDoubles(objects, field, values, null);
+	}
+
+	/**
+	 * @param executor executor extracting the chunks, null to extract in the calling thread
+	 * @see #extractDoubles(List, FieldAccessor, double[])
+	 */
+	public static BitSet extractDoubles(final List<?> objects, final FieldAccessor field, final double[] values,
+			final ExecutorService executor) {
+		checkDestination(objects.size(), values.length);
+		return extract(new Column(objects) {
+			@Override
+			void extract(final Object object, final int index) {
+				values[index] = field.getDouble(object);
+			}
+
+			@Override
+			void clear(final int index) {
+				values[index] = 0d;
+			}
+		}, executor);
+	}
+
+	/**
+	 * @param objects the objects containing the field
+	 * @param field accessor of the field
+	 * @param values filled with the field values, boxed for primitive fields, at least as long as
+	 *            <code>objects</code>
+	 * @return the bitmap of the non null objects
+	 */
+	public static BitSet extractObjects(final List<?> objects, final FieldAccessor field, final Object[] values) {
+		return extractObjects(objects, field, values, null);
+	}
+
+	/**
+	 * @param executor executor extracting the chunks, null to extract in the calling thread
+	 * @see #extractObjects(List, FieldAccessor, Object[])
+	 */
+	public static BitSet extractObjects(final List<?> objects, final FieldAccessor field, final Object[] values,
+			final ExecutorService executor) {
+		checkDestination(objects.size(), values.length);
+		return extract(new Column(objects) {
+			@Override
+			void extract(final Object object, final int index) {
+				values[index] = field.get(object);
+			}
+
+			@Override
+			void clear(final int index) {
+				values[index] = null;
+			}
+		}, executor);
+	}
+
+	private static void checkDestination(final int sourceLength, final int destinationLength) {
+		if (destinationLength < sourceLength) {
+			throw new IllegalArgumentException("Destination too small: " + destinationLength + " < " + sourceLength);
+		}
+	}
+
+	private static BitSet extract(final Column column, final ExecutorService executor) {
+		final ChunkedTask.Bits task = new ChunkedTask.Bits() {
+			@Override
+			BitSet compute(final int from, final int to) {
+				return column.extract(from, to);
+			}
+		};
+		task.run(column.objects.size(), NumberColumns.MIN_CHUNK_SIZE, executor);
+		return task.getBits();
+	}
+
+	/**
+	 * A field of a list of objects extracted into an array, the chunks write disjoint indexes.
+	 */
+	private abstract static class Column {
+		final List<?> objects;
+
+		Column(final List<?> objects) {
+			// indexed access for the chunks
+			this.objects = objects instanceof RandomAccess ? objects : new ArrayList<Object>(objects);
+		}
+
+		/**
+		 * Put the field value of the non null <code>object</code> at <code>index</code>.
+		 */
+		abstract void extract(Object object, int index);
+
+		/**
+		 * Put the default value at <code>index</code>, the object is null.
+		 */
+		abstract void clear(int index);
+
+		/**
+		 * @return the bitmap of the non null objects of <code>[from, to[</code>, relative to <code>from</code>
+		 */
+		BitSet extract(final int from, final int to) {
+			final BitSet nonNulls = new BitSet(to - from);
+			for (int i = from; i < to; i++) {
+				final Object object = objects.get(i);
+				if (object == null) {
+					clear(i);
+				} else {
+					extract(object, i);
+					nonNulls.set(i - from);
+				}
+			}
+			return nonNulls;
+		}
+	}
+}
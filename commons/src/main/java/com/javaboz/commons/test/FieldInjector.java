@@ -0,0 +1,225 @@
+package com.javaboz.commons.test;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Injector of values by type into the fields of a class and its super classes.<br>
+ * Unlike {@link ReflectionUtils#setFieldValue(Object, Class, Object)}, which sets the first field of exactly the given
+ * type, each value is injected into every field whose type is assignable from the type it is given for, boxing and
+ * unboxing allowed. When several of the given types are assignable to a field, the closest to the field type is
+ * injected, the field type itself first; a field with no closest type, such as a <code>Serializable</code> field
+ * given two unrelated types, is not injected. Static, final, synthetic and <code>Object</code> fields are not
+ * injected.<br>
+ * The injection plan of each set of types is computed once, an injection is then a loop over cached
+ * {@link FieldAccessor}. Thread safe.
+ *
+ * <pre>
+ * final Map&lt;Class&lt;?&gt;, Object&gt; collaborators = new HashMap&lt;Class&lt;?&gt;, Object&gt;();
+ * collaborators.put(ProductRepository.class, repository);
+ * collaborators.put(Clock.class, clock);
+ * FieldInjector.injectAll(services, collaborators);
+ * </pre>
+ *
+ * @author Julien Boz
+ */
+public final class FieldInjector {
+
+	private final Class<?> type;
+	private final List<Field> fields;
+	/** plans by list of injected types */
+	private final ConcurrentMap<List<Class<?>>, Plan> plans = new ConcurrentHashMap<List<Class<?>>, Plan>();
+
+	FieldInjector(final Class<?> type) {
+		this.type = type;
+		final List<Field> injectable = new ArrayList<Field>();
+		for (final Field field : ClassMetadata.of(type).getFields()) {
+			final int modifiers = field.getModifiers();
+			// an Object field accepts anything, it is not a collaborator
+			if (!Modifier.isStatic(modifiers) && !Modifier.isFinal(modifiers) && !field.isSynthetic()
+					&& field.getType() != Object.class) {
+				injectable.add(field);
+			}
+		}
+		this.fields = Collections.unmodifiableList(injectable);
+	}
+
+	/**
+	 * @return the injector of the fields of <code>type</code>, cached by class
+	 */
+	public static FieldInjector of(final Class<?> type) {
+		return ClassMetadata.of(type).getInjector();
+	}
+
+	/**
+	 * Inject <code>values</code> into each object of <code>targets</code>, whatever its class.
+	 *
+	 * @param targets the objects to inject, null elements are skipped
+	 * @param values the values by the type they are injected for
+	 * @throws IllegalArgumentException if a value is not of its type
+	 */
+	public static void injectAll(final Collection<?> targets, final Map<? extends Class<?>, ?> values) {
+		final Class<?>[] types = new Class<?>[values.size()];
+		final Object[] injected = new Object[types.length];
+		split(values, types, injected);
+		final List<Class<?>> key = Arrays.asList(types);
+		Class<?> previousClass = null;
+		Plan plan = null;
+		for (final Object target : targets) {
+			if (target == null) {
+				continue;
+			}
+			// targets usually share their class
+			if (target.getClass() != previousClass) {
+				previousClass = target.getClass();
+				plan = of(previousClass).getPlan(key);
+			}
+			plan.inject(target, injected);
+		}
+	}
+
+	public Class<?> getType() {
+		return type;
+	}
+
+	/**
+	 * @return the injectable fields of the class then of its super classes
+	 */
+	public List<Field> getFields() {
+		return fields;
+	}
+
+	/**
+	 * @return the fields <code>valueType</code> is injected into, when it is the only injected type
+	 */
+	public List<Field> getFields(final Class<?> valueType) {
+		final Plan plan = getPlan(Collections.<Class<?>> singletonList(valueType));
+		final List<Field> injected = new ArrayList<Field>(plan.accessors.length);
+		for (final FieldAccessor accessor : plan.accessors) {
+			injected.add(accessor.getField());
+		}
+		return injected;
+	}
+
+	/**
+	 * Inject <code>value</code> into every field of <code>target</code> whose type is assignable from
+	 * <code>valueType</code>.
+	 *
+	 * @throws IllegalArgumentException if <code>value</code> is not of <code>valueType</code>
+	 */
+	public void inject(final Object target, final Class<?> valueType, final Object value) {
+		if (value != null && !BeanCopier.isAssignable(value.getClass(), valueType)) {
+			throw new IllegalArgumentException("Value of type " + valueType.getName() + " expected: " + value);
+		}
+		getPlan(Collections.<Class<?>> singletonList(valueType)).inject(target, new Object[] { value });
+	}
+
+	/**
+	 * Inject <code>values</code> into the fields of <code>target</code>, in one pass.
+	 *
+	 * @param values the values by the type they are injected for
+	 * @throws IllegalArgumentException if a value is not of its type
+	 */
+	public void inject(final Object target, final Map<? extends Class<?>, ?> values) {
+		final Class<?>[] types = new Class<?>[values.size()];
+		final Object[] injected = new Object[types.length];
+		split(values, types, injected);
+		getPlan(Arrays.asList(types)).inject(target, injected);
+	}
+
+	private static void split(final Map<? extends Class<?>, ?> values, final Class<?>[] types, final Object[] injected) {
+		int i = 0;
+		for (final Map.Entry<? extends Class<?>, ?> entry : values.entrySet()) {
+			final Object value = entry.getValue();
+			if (value != null && !BeanCopier.isAssignable(value.getClass(), entry.getKey())) {
+				throw new IllegalArgumentException("Value of type " + entry.getKey().getName() + " expected: " + value);
+			}
+			types[i] = entry.getKey();
+			injected[i++] = value;
+		}
+	}
+
+	private Plan getPlan(final List<Class<?>> types) {
+		Plan plan = plans.get(types);
+		if (plan == null) {
+			plan = new Plan(types);
+			final Plan previous = plans.putIfAbsent(types, plan);
+			if (previous != null) {
+				plan = previous;
+			}
+		}
+		return plan;
+	}
+
+	/**
+	 * The fields a list of types is injected into, and the index of the type of each field. A field accepting several
+	 * types, none being the closest, is left out.
+	 */
+	private final class Plan {
+		final FieldAccessor[] accessors;
+		final int[] valueIndexes;
+
+		Plan(final List<Class<?>> types) {
+			final List<FieldAccessor> injected = new ArrayList<FieldAccessor>();
+			final List<Integer> indexes = new ArrayList<Integer>();
+			for (final Field field : fields) {
+				int best = -1;
+				for (int i = 0; i < types.size(); i++) {
+					if (BeanCopier.isAssignable(types.get(i), field.getType())
+							&& (best < 0 || isMoreSpecific(types.get(best), types.get(i)))) {
+						best = i;
+					}
+				}
+				if (best >= 0 && isClosest(types, best, field.getType())) {
+					injected.add(FieldAccessor.of(field));
+					indexes.add(best);
+				}
+			}
+			this.accessors = injected.toArray(new FieldAccessor[injected.size()]);
+			this.valueIndexes = new int[indexes.size()];
+			for (int i = 0; i < valueIndexes.length; i++) {
+				valueIndexes[i] = indexes.get(i);
+			}
+		}
+
+		void inject(final Object target, final Object[] values) {
+			for (int i = 0; i < accessors.length; i++) {
+				accessors[i].set(target, values[valueIndexes[i]]);
+			}
+		}
+	}
+
+	/**
+	 * @return true if every other type of <code>types</code> assignable to <code>fieldType</code> is more specific
+	 *         than the type at <code>best</code>
+	 */
+	private static boolean isClosest(final List<Class<?>> types, final int best, final Class<?> fieldType) {
+		for (int i = 0; i < types.size(); i++) {
+			if (i != best && BeanCopier.isAssignable(types.get(i), fieldType)
+					&& !isMoreSpecific(types.get(i), types.get(best))) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * @return true if <code>valueType</code> is assignable to <code>other</code>, and not the reverse
+	 */
+	private static boolean isMoreSpecific(final Class<?> valueType, final Class<?> other) {
+		return BeanCopier.isAssignable(valueType, other) && !BeanCopier.isAssignable(other, valueType);
+	}
+
+	@Override
+	public String toString() {
+		return "FieldInjector[" + type.getName() + ", " + fields.size() + " fields]";
+	}
+}
@@ -0,0 +1,301 @@
+package com.javaboz.commons.test;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.math.RoundingMode;
+
+/**
+ * Immutable fixed point decimal, <code>unscaled * 10^-scale</code> with a long unscaled value and a scale in [0, 18].<br>
+ * A small replacement of {@link BigDecimal} for amounts: operations are exact or rounded with an explicit
+ * {@link RoundingMode}, and throw an {@link ArithmeticException} on overflow instead of silently wrapping.
+ * {@link Long#MIN_VALUE} is not a valid unscaled value, so the range is symmetric.<br>
+ * Formatted and parsed like {@link NumberUtils#format(Number)}: grouped, at most 2 fraction digits rounded half even.
+ *
+ * @author Julien Boz
+ * @see FixedDecimalArray
+ */
+public final class FixedDecimal extends Number implements Comparable<FixedDecimal> {
+
+	private static final long serialVersionUID = 1L;
+
+	public static final int MAX_SCALE = 18;
+
+	/** 10^i */
+	static final long[] POWERS_OF_TEN = { 1L, 10L, 100L, 1000L, 10000L, 100000L, 1000000L, 10000000L, 100000000L,
+			1000000000L, 10000000000L, 100000000000L, 1000000000000L, 10000000000000L, 100000000000000L,
+			1000000000000000L, 10000000000000000L, 100000000000000000L, 1000000000000000000L };
+
+	private final long unscaled;
+	private final int scale;
+
+	private FixedDecimal(final long unscaled, final int scale) {
+		this.unscaled = unscaled;
+		this.scale = scale;
+	}
+
+	/**
+	 * @return <code>unscaled * 10^-scale</code>
+	 */
+	public static FixedDecimal valueOf(final long unscaled, final int scale) {
+		checkScale(scale);
+		return new FixedDecimal(checkUnscaled(unscaled), scale);
+	}
+
+	/**
+	 * @return <code>value</code> rounded half even at <code>scale</code>
+	 */
+	public static FixedDecimal valueOf(final BigDecimal value, final int scale) {
+		checkScale(scale);
+		final BigInteger rounded = value.setScale(scale, RoundingMode.HALF_EVEN).unscaledValue();
+		if (rounded.bitLength() >= Long.SIZE) {
+			throw new ArithmeticException("Overflow: " + value);
+		}
+		return new FixedDecimal(checkUnscaled(rounded.longValue()), scale);
+	}
+
+	/**
+	 * @return the exact binary value of <code>value</code> rounded half even at <code>scale</code>
+	 */
+	public static FixedDecimal valueOf(final double value, final int scale) {
+		if (Double.isNaN(value) || Double.isInfinite(value)) {
+			throw new IllegalArgumentException("Not a finite number: " + value);
+		}
+		return valueOf(new BigDecimal(value), scale);
+	}
+
+	/**
+	 * Parse a text formatted by {@link NumberUtils#format(Number)}, strictly.
+	 *
+	 * @return the decimal at <code>scale</code>, null if <code>text</code> is not a number or has more fraction digits
+	 *         than <code>scale</code>
+	 * @see GroupedNumberFormat#parseUnscaled(CharSequence, int, long)
+	 */
+	public static FixedDecimal parse(final CharSequence text, final int scale) {
+		checkScale(scale);
+		final FormatPool<GroupedNumberFormat> groupedFormats = NumberUtils.groupedFormats();
+		final GroupedNumberFormat format = groupedFormats.acquire();
+		try {
+			final long value = format.parseUnscaled(text, scale, Long.MIN_VALUE);
+			return value == Long.MIN_VALUE ? null : new FixedDecimal(value, scale);
+		} finally {
+			groupedFormats.release(format);
+		}
+	}
+
+	public long getUnscaled() {
+		return unscaled;
+	}
+
+	public int getScale() {
+		return scale;
+	}
+
+	/**
+	 * @return -1, 0 or 1
+	 */
+	public int signum() {
+		return unscaled < 0 ? -1 : unscaled == 0 ? 0 : 1;
+	}
+
+	/**
+	 * @return this + other, exact, at the largest scale
+	 */
+	public FixedDecimal add(final FixedDecimal other) {
+		final int resultScale = Math.max(scale, other.scale);
+		return new FixedDecimal(addExact(rescale(unscaled, scale, resultScale, RoundingMode.UNNECESSARY), rescale(
+				other.unscaled, other.scale, resultScale, RoundingMode.UNNECESSARY)), resultScale);
+	}
+
+	/**
+	 * @return this - other, exact, at the largest scale
+	 */
+	public FixedDecimal subtract(final FixedDecimal other) {
+		return add(other.negate());
+	}
+
+	/**
+	 * @return -this
+	 */
+	public FixedDecimal negate() {
+		return new FixedDecimal(-unscaled, scale);
+	}
+
+	/**
+	 * @return this * factor, exact
+	 */
+	public FixedDecimal multiply(final long factor) {
+		return new FixedDecimal(multiplyExact(unscaled, factor), scale);
+	}
+
+	/**
+	 * @return this * other, rounded at the scale of this
+	 */
+	public FixedDecimal multiply(final FixedDecimal other, final RoundingMode roundingMode) {
+		final long product = unscaled * other.unscaled;
+		if (unscaled != 0 && product / unscaled != other.unscaled) {
+			// rare, more than 63 bits before rounding
+			return valueOf(new BigDecimal(BigInteger.valueOf(unscaled).multiply(BigInteger.valueOf(other.unscaled)),
+					scale + other.scale).setScale(scale, roundingMode), scale);
+		}
+		return new FixedDecimal(checkUnscaled(rescale(product, scale + other.scale, scale, roundingMode)), scale);
+	}
+
+	/**
+	 * @return this at <code>newScale</code>, rounded if <code>newScale</code> is smaller
+	 */
+	public FixedDecimal round(final int newScale, final RoundingMode roundingMode) {
+		checkScale(newScale);
+		return new FixedDecimal(rescale(unscaled, scale, newScale, roundingMode), newScale);
+	}
+
+	/**
+	 * @return the exact value
+	 */
+	public BigDecimal toBigDecimal() {
+		return BigDecimal.valueOf(unscaled, scale);
+	}
+
+	@Override
+	public int intValue() {
+		return (int) longValue();
+	}
+
+	/**
+	 * @return the integer part
+	 */
+	@Override
+	public long longValue() {
+		return unscaled / POWERS_OF_TEN[scale];
+	}
+
+	@Override
+	public float floatValue() {
+		return (float) doubleValue();
+	}
+
+	@Override
+	public double doubleValue() {
+		// exact when the unscaled value is exact as a double, 10^scale always is
+		if (unscaled > -(1L << 53) && unscaled < 1L << 53) {
+			return (double) unscaled / POWERS_OF_TEN[scale];
+		}
+		return toBigDecimal().doubleValue();
+	}
+
+	/**
+	 * Numerical order, 1.0 and 1.00 are equal.
+	 */
+	public int compareTo(final FixedDecimal other) {
+		if (scale == other.scale) {
+			return unscaled < other.unscaled ? -1 : unscaled == other.unscaled ? 0 : 1;
+		}
+		return toBigDecimal().compareTo(other.toBigDecimal());
+	}
+
+	/**
+	 * Same value and scale, like {@link BigDecimal#equals(Object)}.
+	 */
+	@Override
+	public boolean equals(final Object obj) {
+		if (!(obj instanceof FixedDecimal)) {
+			return false;
+		}
+		final FixedDecimal other = (FixedDecimal) obj;
+		return unscaled == other.unscaled && scale == other.scale;
+	}
+
+	@Override
+	public int hashCode() {
+		return 31 * (int) (unscaled ^ unscaled >>> 32) + scale;
+	}
+
+	/**
+	 * @return the plain value, with all the fraction digits of the scale, like {@link BigDecimal#toPlainString()}
+	 */
+	@Override
+	public String toString() {
+		return toBigDecimal().toPlainString();
+	}
+
+	static void checkScale(final int scale) {
+		if (scale < 0 || scale > MAX_SCALE) {
+			throw new IllegalArgumentException("Scale out of [0, " + MAX_SCALE + "]: " + scale);
+		}
+	}
+
+	private static long checkUnscaled(final long unscaled) {
+		if (unscaled == Long.MIN_VALUE) {
+			throw new ArithmeticException("Overflow");
+		}
+		return unscaled;
+	}
+
+	static long addExact(final long a, final long b) {
+		final long sum = a + b;
+		// overflow if both operands have the sign opposite to the result
+		if (((a ^ sum) & (b ^ sum)) < 0 || sum == Long.MIN_VALUE) {
+			throw new ArithmeticException("Overflow: " + a + " + " + b);
+		}
+		return sum;
+	}
+
+	static long multiplyExact(final long a, final long b) {
+		final long product = a * b;
+		if (a != 0 && (product / a != b || product == Long.MIN_VALUE)) {
+			throw new ArithmeticException("Overflow: " + a + " * " + b);
+		}
+		return product;
+	}
+
+	/**
+	 * @return <code>unscaled</code> at scale <code>from</code> moved to scale <code>to</code>
+	 */
+	static long rescale(final long unscaled, final int from, final int to, final RoundingMode roundingMode) {
+		if (to >= from) {
+			return multiplyExact(unscaled, POWERS_OF_TEN[to - from]);
+		}
+		return divide(unscaled, POWERS_OF_TEN[from - to], roundingMode);
+	}
+
+	/**
+	 * @param divisor positive
+	 * @return <code>dividend / divisor</code> rounded
+	 */
+	static long divide(final long dividend, final long divisor, final RoundingMode roundingMode) {
+		final long quotient = dividend / divisor;
+		final long remainder = dividend % divisor;
+		if (remainder == 0) {
+			return quotient;
+		}
+		final int signum = dividend < 0 ? -1 : 1;
+		final boolean increment;
+		switch (roundingMode) {
+		case UP:
+			increment = true;
+			break;
+		case DOWN:
+			increment = false;
+			break;
+		case CEILING:
+			increment = signum > 0;
+			break;
+		case FLOOR:
+			increment = signum < 0;
+			break;
+		case UNNECESSARY:
+			throw new ArithmeticException("Rounding necessary: " + dividend + " / " + divisor);
+		default:
+			// half modes, compare the remainder to the other half without overflow
+			final long absRemainder = Math.abs(remainder);
+			final long other = divisor - absRemainder;
+			if (absRemainder != other) {
+				increment = absRemainder > other;
+			} else if (roundingMode == RoundingMode.HALF_EVEN) {
+				increment = (quotient & 1) != 0;
+			} else {
+				increment = roundingMode == RoundingMode.HALF_UP;
+			}
+		}
+		return increment ? quotient + signum : quotient;
+	}
+}
@@ -0,0 +1,133 @@
+package com.javaboz.commons.test;
+
+import java.math.RoundingMode;
+import java.util.BitSet;
+
+/**
+ * Column of {@link FixedDecimal} sharing a scale, stored as a <code>long[]</code> of unscaled values.<br>
+ * Aggregations are done on the longs, with overflow detection, without creating any object per row.<br>
+ * Not thread safe.
+ *
+ * @author Julien Boz
+ */
+public final class FixedDecimalArray {
+
+	private final long[] unscaled;
+	private final int scale;
+
+	/**
+	 * @param length number of decimals, initialized to 0
+	 */
+	public FixedDecimalArray(final int length, final int scale) {
+		this(new long[length], scale);
+	}
+
+	/**
+	 * @param unscaled unscaled values, used as is
+	 */
+	public FixedDecimalArray(final long[] unscaled, final int scale) {
+		FixedDecimal.checkScale(scale);
+		this.unscaled = unscaled;
+		this.scale = scale;
+	}
+
+	/**
+	 * Parse texts formatted by {@link NumberUtils#format(Number)}, strictly.
+	 *
+	 * @param values filled with the parsed decimals, invalid texts as 0
+	 * @return the bitmap of the valid indexes
+	 * @see FixedDecimal#parse(CharSequence, int)
+	 */
+	public static BitSet parse(final CharSequence[] texts, final FixedDecimalArray values) {
+		if (values.length() < texts.length) {
+			throw new IllegalArgumentException("Destination too small: " + values.length() + " < " + texts.length);
+		}
+		final BitSet valids = new BitSet(texts.length);
+		final FormatPool<GroupedNumberFormat> groupedFormats = NumberUtils.groupedFormats();
+		final GroupedNumberFormat format = groupedFormats.acquire();
+		try {
+			for (int i = 0; i < texts.length; i++) {
+				final long value = format.parseUnscaled(texts[i], values.scale, Long.MIN_VALUE);
+				if (value == Long.MIN_VALUE) {
+					values.unscaled[i] = 0;
+				} else {
+					values.unscaled[i] = value;
+					valids.set(i);
+				}
+			}
+		} finally {
+			groupedFormats.release(format);
+		}
+		return valids;
+	}
+
+	/**
+	 * @return number of decimals
+	 */
+	public int length() {
+		return unscaled.length;
+	}
+
+	public int getScale() {
+		return scale;
+	}
+
+	/**
+	 * @return the unscaled values, backing array
+	 */
+	public long[] getUnscaled() {
+		return unscaled;
+	}
+
+	public long getUnscaled(final int index) {
+		return unscaled[index];
+	}
+
+	/**
+	 * @return a new decimal of the value at <code>index</code>
+	 */
+	public FixedDecimal get(final int index) {
+		return FixedDecimal.valueOf(unscaled[index], scale);
+	}
+
+	/**
+	 * @param value decimal rounded half even at the scale of the array
+	 */
+	public void set(final int index, final FixedDecimal value) {
+		unscaled[index] = FixedDecimal.rescale(value.getUnscaled(), value.getScale(), scale, RoundingMode.HALF_EVEN);
+	}
+
+	/**
+	 * @return the exact sum of all the decimals
+	 * @throws ArithmeticException on overflow
+	 */
+	public FixedDecimal sum() {
+		long sum = 0;
+		for (int i = 0; i < unscaled.length; i++) {
+			sum = FixedDecimal.addExact(sum, unscaled[i]);
+		}
+		return FixedDecimal.valueOf(sum, scale);
+	}
+
+	/**
+	 * @return the decimal at <code>index</code> formatted like {@link NumberUtils#format(Number)}
+	 */
+	public String format(final int index) {
+		return format(index, new StringBuilder()).toString();
+	}
+
+	/**
+	 * Append the decimal at <code>index</code> formatted like {@link NumberUtils#format(Number)}.
+	 *
+	 * @return <code>to</code>
+	 */
+	public StringBuilder format(final int index, final StringBuilder to) {
+		final FormatPool<GroupedNumberFormat> groupedFormats = NumberUtils.groupedFormats();
+		final GroupedNumberFormat format = groupedFormats.acquire();
+		try {
+			return format.formatUnscaled(unscaled[index], scale, to);
+		} finally {
+			groupedFormats.release(format);
+		}
+	}
+}
@@ -0,0 +1,82 @@
+package com.javaboz.commons.test;
+
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Small lock free pool of non thread safe formatters.<br>
+ * Unlike a {@link ThreadLocal}, the number of kept instances doesn't grow with the number of threads: the pool has a fixed
+ * number of stripes, selected by thread id, each one keeping at most one idle formatter. A formatter is created when the
+ * stripe is empty and dropped when the stripe is already full, so short lived (virtual) threads don't retain anything.
+ *
+ * <pre>
+ * final NumberFormat format = pool.acquire();
+ * try {
+ * 	return format.format(number);
+ * } finally {
+ * 	pool.release(format);
+ * }
+ * </pre>
+ *
+ * @author Julien Boz
+ */
+abstract class FormatPool<T> {
+
+	private static final int MAX_STRIPES = 64;
+
+	private final AtomicReferenceArray<T> idles;
+	private final int mask;
+
+	FormatPool() {
+		this(Runtime.getRuntime().availableProcessors() * 2);
+	}
+
+	FormatPool(final int stripes) {
+		int size = 1;
+		while (size < stripes && size < MAX_STRIPES) {
+			size <<= 1;
+		}
+		this.idles = new AtomicReferenceArray<T>(size);
+		this.mask = size - 1;
+	}
+
+	/**
+	 * @return a new formatter
+	 */
+	protected abstract T create();
+
+	/**
+	 * @return a formatter owned by the caller until {@link #release(Object)}
+	 */
+	T acquire() {
+		final T idle = idles.getAndSet(stripe(), null);
+		if (idle == null) {
+			LibraryMetrics.FORMAT_POOLS.miss();
+			return create();
+		}
+		LibraryMetrics.FORMAT_POOLS.hit();
+		return idle;
+	}
+
+	/**
+	 * Give back a formatter acquired from this pool, it must not be used anymore.
+	 *
+	 * @return true if kept, false if dropped because the stripe is already full
+	 */
+	boolean release(final T formatter) {
+		return idles.compareAndSet(stripe(), null, formatter);
+	}
+
+	/**
+	 * @return number of stripes, max number of idle formatters
+	 */
+	int getStripes() {
+		return idles.length();
+	}
+
+	private int stripe() {
+		final long id = Thread.currentThread().getId();
+		// spread the ids, consecutive threads use different stripes
+		final int hash = (int) (id ^ id >>> 32) * 0x9E3779B9;
+		return hash >>> 16 & mask;
+	}
+}
@@ -0,0 +1,20 @@
+package com.javaboz.commons.test;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Opt a class in the generation of its {@link GeneratedAccessors} at build time, by the annotation processor of the
+ * <code>commons-processor</code> module.<br>
+ * The class must not be private. {@link ReflectionUtils} finds the generated table by name, nothing else to register.
+ *
+ * @author Julien Boz
+ */
+@Documented
+@Retention(RetentionPolicy.SOURCE)
+@Target(ElementType.TYPE)
+public @interface GenerateAccessors {
+}
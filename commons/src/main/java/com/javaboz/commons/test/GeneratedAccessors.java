@@ -0,0 +1,69 @@
+package com.javaboz.commons.test;
+
+import java.lang.annotation.Annotation;
+
+/**
+ * Reflection-free accessors of a class, generated at build time for the classes annotated with
+ * {@link GenerateAccessors}, in the same package, named after the binary name of the class with <code>$</code>
+ * replaced by <code>_</code> followed by {@link #SUFFIX}.<br>
+ * The tables index the fields by name, type and runtime annotation, the runtime class level annotations and the
+ * methods by name. They only cover the members the generated code can reach: the members {@link ReflectionUtils}
+ * would resolve to a private, final (written) or otherwise inaccessible member, an overloaded method or a variable
+ * arity method are left to reflection, and so are the class level annotations when a class of the hierarchy or one of
+ * its annotation types can't be named. {@link ReflectionUtils} uses the table first and falls back to reflection,
+ * errors included.
+ *
+ * @author Julien Boz
+ */
+public interface GeneratedAccessors {
+
+	/** suffix of the generated class name */
+	String SUFFIX = "_Accessors";
+
+	/** returned by {@link #invoke(Object, String, Object[])} when the call is left to reflection */
+	Object NOT_GENERATED = new Object();
+
+	/**
+	 * @return the index of the field {@link ReflectionUtils#getFieldByName(Class, String)} would find, -1 if not
+	 *         generated
+	 */
+	int indexOfField(String name);
+
+	/**
+	 * @return the index of the field {@link ReflectionUtils#getFieldByType(Class, Class)} would find, -1 if not
+	 *         generated
+	 */
+	int indexOfFieldType(Class<?> type);
+
+	/**
+	 * @return the index of the field {@link ReflectionUtils#getFieldAnnotatedWith(Class, Class)} would find, -1 if
+	 *         not generated
+	 */
+	int indexOfFieldAnnotatedWith(Class<? extends Annotation> annotation);
+
+	/**
+	 * @return the annotation {@link ReflectionUtils#getClassLevelAnnotation(Class, Class)} would find, null if none,
+	 *         {@link #NOT_GENERATED} if the lookup is left to reflection
+	 */
+	Object getClassLevelAnnotation(Class<? extends Annotation> annotation);
+
+	/**
+	 * @param object the object containing the field, ignored for static fields
+	 * @param index an index returned by {@link #indexOfField(String)} or {@link #indexOfFieldType(Class)}
+	 * @return the value of the field, primitives boxed
+	 */
+	Object get(Object object, int index);
+
+	/**
+	 * @param value the new value, the wrapper of the field type for primitive fields
+	 * @return false if the field can't be written without reflection, final fields
+	 */
+	boolean set(Object object, int index, Object value);
+
+	/**
+	 * @return the result of the method {@link ReflectionUtils#invokeMethod(Object, String, Object...)} would call,
+	 *         null for void methods, {@link #NOT_GENERATED} if the call is left to reflection
+	 * @throws Throwable what the method throws
+	 */
+	Object invoke(Object target, String name, Object[] args) throws Throwable;
+}
@@ -0,0 +1,547 @@
+package com.javaboz.commons.test;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.math.RoundingMode;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.text.DecimalFormat;
+import java.text.DecimalFormatSymbols;
+
+/**
+ * Formatter of grouped decimals, same output as <code>new DecimalFormat("#,###.##", symbols)</code>: grouping by 3, at
+ * most 2 fraction digits rounded half even, without trailing zeros.<br>
+ * Numbers are written in a {@link StringBuilder}, a <code>char[]</code> or a {@link ByteBuffer} (UTF-8) without
+ * allocation for longs and for doubles below 10<sup>13</sup>. Larger doubles, infinities and NaN go through a
+ * {@link DecimalFormat}, {@link BigDecimal}s are rounded by {@link BigDecimal#setScale(int, RoundingMode)}.<br>
+ * Texts in this format are parsed back strictly to primitives or exact {@link BigDecimal}s: <code>[-]integer[.digits]</code>
+ * with the integer part either without grouping or grouped exactly like the formatter does, no leading zero, no
+ * whitespace. The NaN and infinity symbols are parsed as doubles.<br>
+ * Not thread safe, like {@link DecimalFormat}.
+ *
+ * @author Julien Boz
+ * @see NumberUtils#getFormatter()
+ */
+public final class GroupedNumberFormat {
+
+	private static final int FRACTION_SCALE = 100;
+	/** doubles above it don't have an exact fraction scaled to a long */
+	private static final double MAX_FAST = 1e13;
+	/** doubles below it round to 0 */
+	private static final double MIN_FAST = 1e-10;
+	/** 2^27 + 1, splits a double into two 26 bits halves */
+	private static final double SPLITTER = 134217729d;
+
+	private final DecimalFormatSymbols symbols;
+	private final char zeroDigit;
+	private final char groupingSeparator;
+	private final char decimalSeparator;
+	/** affixes of the negative numbers, several characters with some locale data */
+	private final String negativePrefix;
+	private final String negativeSuffix;
+	private final String negativeInfinity;
+
+	/** formatted number is in <code>[start, buffer.length[</code> */
+	private char[] buffer;
+	private int start;
+	private DecimalFormat fallback;
+	/** parsed texts normalized to ASCII <code>[-]digits[.digits]</code> */
+	private char[] normalized = new char[32];
+	private CharBuffer normalizedView = CharBuffer.wrap(normalized);
+
+	/**
+	 * Formatter with the symbols of the default locale.
+	 */
+	public GroupedNumberFormat() {
+		this(new DecimalFormatSymbols());
+	}
+
+	public GroupedNumberFormat(final DecimalFormatSymbols symbols) {
+		this.symbols = (DecimalFormatSymbols) symbols.clone();
+		this.zeroDigit = symbols.getZeroDigit();
+		this.groupingSeparator = symbols.getGroupingSeparator();
+		this.decimalSeparator = symbols.getDecimalSeparator();
+		// the affixes DecimalFormat writes, not only the minus sign
+		final DecimalFormat format = new DecimalFormat("#,###.##", symbols);
+		this.negativePrefix = format.getNegativePrefix();
+		this.negativeSuffix = format.getNegativeSuffix();
+		this.negativeInfinity = negativePrefix + symbols.getInfinity() + negativeSuffix;
+		this.buffer = new char[32 + negativePrefix.length() + negativeSuffix.length()];
+	}
+
+	/**
+	 * @return a copy of the symbols used
+	 */
+	public DecimalFormatSymbols getDecimalFormatSymbols() {
+		return (DecimalFormatSymbols) symbols.clone();
+	}
+
+	/**
+	 * @return <code>value</code> formatted
+	 */
+	public String format(final long value) {
+		write(value);
+		return new String(buffer, start, buffer.length - start);
+	}
+
+	/**
+	 * @return <code>value</code> formatted
+	 */
+	public String format(final double value) {
+		write(value);
+		return new String(buffer, start, buffer.length - start);
+	}
+
+	/**
+	 * @return <code>value</code> formatted
+	 */
+	public String format(final BigDecimal value) {
+		write(value);
+		return new String(buffer, start, buffer.length - start);
+	}
+
+	/**
+	 * @return <code>to</code>, with <code>value</code> formatted appended
+	 */
+	public StringBuilder format(final long value, final StringBuilder to) {
+		write(value);
+		return to.append(buffer, start, buffer.length - start);
+	}
+
+	/**
+	 * @return <code>to</code>, with <code>value</code> formatted appended
+	 */
+	public StringBuilder format(final double value, final StringBuilder to) {
+		write(value);
+		return to.append(buffer, start, buffer.length - start);
+	}
+
+	/**
+	 * @return <code>to</code>, with <code>value</code> formatted appended
+	 */
+	public StringBuilder format(final BigDecimal value, final StringBuilder to) {
+		write(value);
+		return to.append(buffer, start, buffer.length - start);
+	}
+
+	/**
+	 * @return the offset after <code>value</code> formatted in <code>to</code> at <code>offset</code>
+	 */
+	public int format(final long value, final char[] to, final int offset) {
+		write(value);
+		return copy(to, offset);
+	}
+
+	/**
+	 * @return the offset after <code>value</code> formatted in <code>to</code> at <code>offset</code>
+	 */
+	public int format(final double value, final char[] to, final int offset) {
+		write(value);
+		return copy(to, offset);
+	}
+
+	/**
+	 * @return the offset after <code>value</code> formatted in <code>to</code> at <code>offset</code>
+	 */
+	public int format(final BigDecimal value, final char[] to, final int offset) {
+		write(value);
+		return copy(to, offset);
+	}
+
+	/**
+	 * @return <code>to</code>, with <code>unscaled * 10^-scale</code> formatted appended, same as the
+	 *         {@link BigDecimal}
+	 * @see FixedDecimal
+	 */
+	public StringBuilder formatUnscaled(final long unscaled, final int scale, final StringBuilder to) {
+		writeUnscaled(unscaled, scale);
+		return to.append(buffer, start, buffer.length - start);
+	}
+
+	/**
+	 * @return <code>to</code>, with <code>value</code> formatted put in UTF-8
+	 */
+	public ByteBuffer format(final long value, final ByteBuffer to) {
+		write(value);
+		return encode(to);
+	}
+
+	/**
+	 * @return <code>to</code>, with <code>value</code> formatted put in UTF-8
+	 */
+	public ByteBuffer format(final double value, final ByteBuffer to) {
+		write(value);
+		return encode(to);
+	}
+
+	/**
+	 * @return <code>to</code>, with <code>value</code> formatted put in UTF-8
+	 */
+	public ByteBuffer format(final BigDecimal value, final ByteBuffer to) {
+		write(value);
+		return encode(to);
+	}
+
+	/**
+	 * @return the long value of <code>text</code>, or <code>defaultValue</code> if it is not an integer in this format
+	 */
+	public long parseLong(final CharSequence text, final long defaultValue) {
+		final int length = normalize(text);
+		if (length < 0 || fractionStart(length) >= 0) {
+			return defaultValue;
+		}
+		return NumberParser.parseLong(normalizedView, 0, length, defaultValue);
+	}
+
+	/**
+	 * @return the double value of <code>text</code>, or <code>defaultValue</code> if it is not a number in this format
+	 */
+	public double parseDouble(final CharSequence text, final double defaultValue) {
+		final int length = normalize(text);
+		if (length >= 0) {
+			return NumberParser.parseDouble(normalizedView, 0, length, defaultValue);
+		}
+		if (text == null) {
+			return defaultValue;
+		}
+		final String nan = symbols.getNaN();
+		if (equals(text, 0, nan)) {
+			return Double.NaN;
+		}
+		final String infinity = symbols.getInfinity();
+		if (equals(text, 0, infinity)) {
+			return Double.POSITIVE_INFINITY;
+		}
+		if (equals(text, 0, negativeInfinity)) {
+			return Double.NEGATIVE_INFINITY;
+		}
+		return defaultValue;
+	}
+
+	/**
+	 * @return the exact value of <code>text</code>, with the scale of its fraction digits, null if it is not a number
+	 *         in this format
+	 */
+	public BigDecimal parseBigDecimal(final CharSequence text) {
+		final int length = normalize(text);
+		return length < 0 ? null : new BigDecimal(normalized, 0, length);
+	}
+
+	/**
+	 * @return the value of <code>text</code> scaled by 10^<code>scale</code>, or <code>defaultValue</code> if it is not a
+	 *         number in this format, has more fraction digits than <code>scale</code> or overflows
+	 * @see FixedDecimal
+	 */
+	public long parseUnscaled(final CharSequence text, final int scale, final long defaultValue) {
+		final int length = normalize(text);
+		if (length < 0) {
+			return defaultValue;
+		}
+		final boolean negative = normalized[0] == '-';
+		final int fractionStart = fractionStart(length);
+		final int integerEnd = fractionStart < 0 ? length : fractionStart;
+		if (fractionStart >= 0 && length - fractionStart - 1 > scale) {
+			return defaultValue;
+		}
+		// accumulated negatively, like Long.parseLong
+		long value = 0;
+		int digits = 0;
+		for (int i = negative ? 1 : 0; i < length; i++) {
+			if (i == integerEnd) {
+				continue;
+			}
+			final long next = value * 10 - (normalized[i] - '0');
+			if (value < Long.MIN_VALUE / 10 || next > value) {
+				return defaultValue;
+			}
+			value = next;
+			digits += i > integerEnd ? 1 : 0;
+		}
+		for (; digits < scale; digits++) {
+			if (value < Long.MIN_VALUE / 10) {
+				return defaultValue;
+			}
+			value *= 10;
+		}
+		if (value == Long.MIN_VALUE) {
+			// excluded, symmetric range
+			return defaultValue;
+		}
+		return negative ? value : -value;
+	}
+
+	/**
+	 * Validate <code>text</code> and copy it in {@link #normalized}.
+	 *
+	 * @return the normalized length, -1 if <code>text</code> is not a number in this format
+	 */
+	private int normalize(final CharSequence text) {
+		if (text == null || text.length() == 0) {
+			return -1;
+		}
+		int end = text.length();
+		// separators are dropped or replaced, never longer than the text
+		if (normalized.length < end) {
+			normalized = new char[end];
+			normalizedView = CharBuffer.wrap(normalized);
+		}
+		int pos = 0;
+		int length = 0;
+		if (isNegative(text)) {
+			normalized[length++] = '-';
+			pos = negativePrefix.length();
+			end -= negativeSuffix.length();
+		}
+		// digits since the last grouping separator, -1 before the first one
+		int groupDigits = -1;
+		int integerDigits = 0;
+		while (pos < end) {
+			final char c = text.charAt(pos);
+			final int digit = c - zeroDigit;
+			if (digit >= 0 && digit <= 9) {
+				if (integerDigits == 1 && normalized[length - 1] == '0' || groupDigits == 3) {
+					// leading zero, or a group too long
+					return -1;
+				}
+				normalized[length++] = (char) ('0' + digit);
+				integerDigits++;
+				if (groupDigits >= 0) {
+					groupDigits++;
+				}
+			} else if (c == groupingSeparator) {
+				if (integerDigits == 0 || groupDigits >= 0 && groupDigits != 3 || groupDigits < 0 && integerDigits > 3) {
+					return -1;
+				}
+				groupDigits = 0;
+			} else {
+				break;
+			}
+			pos++;
+		}
+		if (integerDigits == 0 || groupDigits >= 0 && groupDigits != 3) {
+			return -1;
+		}
+		if (pos < end) {
+			if (text.charAt(pos) != decimalSeparator || ++pos == end) {
+				return -1;
+			}
+			normalized[length++] = '.';
+			while (pos < end) {
+				final int digit = text.charAt(pos++) - zeroDigit;
+				if (digit < 0 || digit > 9) {
+					return -1;
+				}
+				normalized[length++] = (char) ('0' + digit);
+			}
+		}
+		return length;
+	}
+
+	/**
+	 * @return true if <code>text</code> has the negative prefix and suffix, around at least one character
+	 */
+	private boolean isNegative(final CharSequence text) {
+		final int affixes = negativePrefix.length() + negativeSuffix.length();
+		if (negativePrefix.length() == 0 || text.length() <= affixes) {
+			return false;
+		}
+		for (int i = 0; i < negativePrefix.length(); i++) {
+			if (text.charAt(i) != negativePrefix.charAt(i)) {
+				return false;
+			}
+		}
+		final int suffixStart = text.length() - negativeSuffix.length();
+		for (int i = 0; i < negativeSuffix.length(); i++) {
+			if (text.charAt(suffixStart + i) != negativeSuffix.charAt(i)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private int fractionStart(final int length) {
+		for (int i = length - 1; i >= 0; i--) {
+			if (normalized[i] == '.') {
+				return i;
+			}
+		}
+		return -1;
+	}
+
+	private static boolean equals(final CharSequence text, final int offset, final String symbol) {
+		if (text.length() - offset != symbol.length()) {
+			return false;
+		}
+		for (int i = 0; i < symbol.length(); i++) {
+			if (text.charAt(offset + i) != symbol.charAt(i)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private void write(final long value) {
+		// negative magnitude, Long.MIN_VALUE has no positive one
+		write(value < 0, value < 0 ? value : -value, 0);
+	}
+
+	private void write(final double value) {
+		if (Double.isNaN(value)) {
+			write(symbols.getNaN());
+			return;
+		}
+		final boolean negative = value < 0 || value == 0 && 1 / value < 0;
+		final double abs = Math.abs(value);
+		if (abs < MIN_FAST) {
+			write(negative, 0, 0);
+			return;
+		}
+		if (abs >= MAX_FAST) {
+			write(getFallback().format(value));
+			return;
+		}
+		final double scaled = abs * FRACTION_SCALE;
+		final double floor = Math.floor(scaled);
+		long hundredths = (long) floor;
+		// fraction of the rounded product, its rounding error is computed exactly
+		final double fraction = scaled - floor;
+		if (fraction != 0) {
+			final double halfDistance = fraction - 0.5;
+			final double error = -productError(abs, FRACTION_SCALE, scaled);
+			if (halfDistance > error || halfDistance == error && (hundredths & 1) != 0) {
+				hundredths++;
+			}
+		}
+		write(negative, -(hundredths / FRACTION_SCALE), (int) (hundredths % FRACTION_SCALE));
+	}
+
+	private void write(final BigDecimal value) {
+		final BigInteger hundredths = value.setScale(2, RoundingMode.HALF_EVEN).unscaledValue().abs();
+		if (hundredths.bitLength() >= Long.SIZE) {
+			write(getFallback().format(value));
+			return;
+		}
+		final long longValue = hundredths.longValue();
+		write(value.signum() < 0, -(longValue / FRACTION_SCALE), (int) (longValue % FRACTION_SCALE));
+	}
+
+	/**
+	 * @param scale in [0, {@link FixedDecimal#MAX_SCALE}]
+	 */
+	private void writeUnscaled(final long unscaled, final int scale) {
+		// negative magnitudes, Long.MIN_VALUE has no positive one
+		final long negated = unscaled < 0 ? unscaled : -unscaled;
+		final long power = FixedDecimal.POWERS_OF_TEN[scale];
+		long integer = negated / power;
+		final long fraction = negated % power;
+		long hundredths;
+		if (scale <= 2) {
+			hundredths = -fraction * FixedDecimal.POWERS_OF_TEN[2 - scale];
+		} else {
+			hundredths = -FixedDecimal.divide(fraction, FixedDecimal.POWERS_OF_TEN[scale - 2], RoundingMode.HALF_EVEN);
+		}
+		if (hundredths == FRACTION_SCALE) {
+			integer--;
+			hundredths = 0;
+		}
+		write(unscaled < 0, integer, (int) hundredths);
+	}
+
+	/**
+	 * @param integer opposite of the integer part
+	 * @param hundredths fraction digits, in [0, 99]
+	 */
+	private void write(final boolean negative, final long integer, final int hundredths) {
+		int pos = buffer.length;
+		if (negative) {
+			pos -= negativeSuffix.length();
+			negativeSuffix.getChars(0, negativeSuffix.length(), buffer, pos);
+		}
+		if (hundredths != 0) {
+			if (hundredths % 10 != 0) {
+				buffer[--pos] = digit(hundredths % 10);
+			}
+			buffer[--pos] = digit(hundredths / 10);
+			buffer[--pos] = decimalSeparator;
+		}
+		long remaining = integer;
+		int digits = 0;
+		do {
+			if (digits > 0 && digits % 3 == 0) {
+				buffer[--pos] = groupingSeparator;
+			}
+			buffer[--pos] = digit((int) -(remaining % 10));
+			remaining /= 10;
+			digits++;
+		} while (remaining != 0);
+		if (negative) {
+			pos -= negativePrefix.length();
+			negativePrefix.getChars(0, negativePrefix.length(), buffer, pos);
+		}
+		start = pos;
+	}
+
+	private void write(final String text) {
+		if (text.length() > buffer.length) {
+			buffer = new char[text.length()];
+		}
+		start = buffer.length - text.length();
+		text.getChars(0, text.length(), buffer, start);
+	}
+
+	private char digit(final int digit) {
+		return (char) (zeroDigit + digit);
+	}
+
+	private int copy(final char[] to, final int offset) {
+		final int length = buffer.length - start;
+		if (to.length - offset < length) {
+			throw new IllegalArgumentException("Destination too small: " + (to.length - offset) + " < " + length);
+		}
+		System.arraycopy(buffer, start, to, offset, length);
+		return offset + length;
+	}
+
+	private ByteBuffer encode(final ByteBuffer to) {
+		for (int i = start; i < buffer.length; i++) {
+			final char c = buffer[i];
+			if (c < 0x80) {
+				to.put((byte) c);
+			} else if (c < 0x800) {
+				to.put((byte) (0xC0 | c >> 6));
+				to.put((byte) (0x80 | c & 0x3F));
+			} else if (Character.isHighSurrogate(c) && i + 1 < buffer.length) {
+				final int codePoint = Character.toCodePoint(c, buffer[++i]);
+				to.put((byte) (0xF0 | codePoint >> 18));
+				to.put((byte) (0x80 | codePoint >> 12 & 0x3F));
+				to.put((byte) (0x80 | codePoint >> 6 & 0x3F));
+				to.put((byte) (0x80 | codePoint & 0x3F));
+			} else {
+				to.put((byte) (0xE0 | c >> 12));
+				to.put((byte) (0x80 | c >> 6 & 0x3F));
+				to.put((byte) (0x80 | c & 0x3F));
+			}
+		}
+		return to;
+	}
+
+	private DecimalFormat getFallback() {
+		if (fallback == null) {
+			fallback = new DecimalFormat("#,###.##", symbols);
+		}
+		return fallback;
+	}
+
+	/**
+	 * @return exact <code>a * b - product</code>, Dekker's product
+	 */
+	private static double productError(final double a, final double b, final double product) {
+		double split = SPLITTER * a;
+		final double aHigh = split - (split - a);
+		final double aLow = a - aHigh;
+		split = SPLITTER * b;
+		final double bHigh = split - (split - b);
+		final double bLow = b - bHigh;
+		return aHigh * bHigh - product + aHigh * bLow + aLow * bHigh + aLow * bLow;
+	}
+}
@@ -0,0 +1,179 @@
+package com.javaboz.commons.test;
+
+import java.lang.management.ManagementFactory;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import javax.management.StandardMBean;
+
+/**
+ * Metrics of the hot paths of the library: {@link DateUtils}, {@link NumberUtils}, {@link ReflectionUtils} and
+ * {@link CloneUtils} operations, formatter pools and class metadata cache.<br>
+ * Disabled by default: instrumented code then only reads a volatile flag. Once enabled, counts are kept in striped
+ * counters and latencies are sampled, see {@link OperationMetrics}. The metrics are exposed as MBeans by
+ * {@link #registerMBeans()}, under the domain {@value #DOMAIN}, and can be enabled from the JMX console.
+ *
+ * <pre>
+ * LibraryMetrics.registerMBeans();
+ * LibraryMetrics.setEnabled(true);
+ * </pre>
+ *
+ * @author Julien Boz
+ */
+public final class LibraryMetrics {
+
+	public static final String DOMAIN = "com.javaboz.commons";
+
+	/** {@link DateUtils#parse(String, String)}, failure when not a date */
+	public static final OperationMetrics DATE_PARSE = new OperationMetrics("DateUtils.parse");
+	/** {@link DateUtils#format(java.util.Date, String)} */
+	public static final OperationMetrics DATE_FORMAT = new OperationMetrics("DateUtils.format");
+	/** {@link NumberUtils} conversions to Integer, Long, Double or Complex, failure when not a number */
+	public static final OperationMetrics NUMBER_PARSE = new OperationMetrics("NumberUtils.parse");
+	/** {@link NumberUtils#format(Number)} */
+	public static final OperationMetrics NUMBER_FORMAT = new OperationMetrics("NumberUtils.format");
+	/** {@link ReflectionUtils} field reads and writes by name or type, failure when the field can not be accessed */
+	public static final OperationMetrics FIELD_ACCESS = new OperationMetrics("ReflectionUtils.fieldAccess");
+	/** {@link ReflectionUtils#invokeMethod(Object, String, Object...)}, failure when the call throws */
+	public static final OperationMetrics METHOD_INVOKE = new OperationMetrics("ReflectionUtils.invokeMethod");
+	/** {@link CloneUtils#clone(Object)}, failure when the clone throws */
+	public static final OperationMetrics CLONE = new OperationMetrics("CloneUtils.clone");
+
+	/** formatters reused from the pools or created */
+	public static final CacheMetrics FORMAT_POOLS = new CacheMetrics("FormatPool");
+	/** class metadata found in the cache or built */
+	public static final CacheMetrics CLASS_METADATA = new CacheMetrics("ClassMetadata");
+
+	private static final List<OperationMetrics> OPERATIONS = Collections.unmodifiableList(Arrays.asList(DATE_PARSE,
+			DATE_FORMAT, NUMBER_PARSE, NUMBER_FORMAT, FIELD_ACCESS, METHOD_INVOKE, CLONE));
+	private static final List<CacheMetrics> CACHES = Collections.unmodifiableList(Arrays.asList(FORMAT_POOLS,
+			CLASS_METADATA));
+
+	private static volatile boolean enabled;
+
+	private LibraryMetrics() {
+	}
+
+	public static boolean isEnabled() {
+		return enabled;
+	}
+
+	/**
+	 * Start or stop counting, the counts are kept.
+	 */
+	public static void setEnabled(final boolean enabled) {
+		LibraryMetrics.enabled = enabled;
+	}
+
+	public static List<OperationMetrics> getOperations() {
+		return OPERATIONS;
+	}
+
+	public static List<CacheMetrics> getCaches() {
+		return CACHES;
+	}
+
+	public static void reset() {
+		for (final OperationMetrics operation : OPERATIONS) {
+			operation.reset();
+		}
+		for (final CacheMetrics cache : CACHES) {
+			cache.reset();
+		}
+	}
+
+	/**
+	 * Register the MBeans in the platform MBean server, if not already registered.
+	 *
+	 * @throws IllegalStateException if an MBean can not be registered
+	 */
+	public static void registerMBeans() {
+		final MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+		try {
+			register(server, new StandardMBean(new Registry(), LibraryMetricsMBean.class), objectName("LibraryMetrics",
+					null));
+			for (final OperationMetrics operation : OPERATIONS) {
+				register(server, new StandardMBean(operation, OperationMetricsMBean.class), objectName("Operation",
+						operation.getName()));
+			}
+			for (final CacheMetrics cache : CACHES) {
+				register(server, new StandardMBean(cache, CacheMetricsMBean.class), objectName("Cache", cache
+						.getName()));
+			}
+		} catch (final JMException e) {
+			throw new IllegalStateException("Unable to register the metrics MBeans", e);
+		}
+	}
+
+	/**
+	 * Unregister the MBeans from the platform MBean server, if registered.
+	 *
+	 * @throws IllegalStateException if an MBean can not be unregistered
+	 */
+	public static void unregisterMBeans() {
+		final MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+		try {
+			unregister(server, objectName("LibraryMetrics", null));
+			for (final OperationMetrics operation : OPERATIONS) {
+				unregister(server, objectName("Operation", operation.getName()));
+			}
+			for (final CacheMetrics cache : CACHES) {
+				unregister(server, objectName("Cache", cache.getName()));
+			}
+		} catch (final JMException e) {
+			throw new IllegalStateException("Unable to unregister the metrics MBeans", e);
+		}
+	}
+
+	/**
+	 * @param name name of the MBean, null for the single MBean of <code>type</code>
+	 */
+	static ObjectName objectName(final String type, final String name) throws JMException {
+		return new ObjectName(DOMAIN + ":type=" + type + (name == null ? "" : ",name=" + name));
+	}
+
+	private static void register(final MBeanServer server, final Object mbean, final ObjectName name)
+			throws JMException {
+		if (!server.isRegistered(name)) {
+			server.registerMBean(mbean, name);
+		}
+	}
+
+	private static void unregister(final MBeanServer server, final ObjectName name) throws JMException {
+		if (server.isRegistered(name)) {
+			server.unregisterMBean(name);
+		}
+	}
+
+	/**
+	 * The MBean of the static registry.
+	 */
+	private static final class Registry implements LibraryMetricsMBean {
+
+		public boolean isEnabled() {
+			return LibraryMetrics.isEnabled();
+		}
+
+		public void setEnabled(final boolean enabled) {
+			LibraryMetrics.setEnabled(enabled);
+		}
+
+		public double getDateParseCacheHitRate() {
+			final DateParseCache cache = DateUtils.getParseCache();
+			return cache == null ? Double.NaN : cache.getHitRate();
+		}
+
+		public double getNumberParseCacheHitRate() {
+			final NumberParseCache cache = NumberUtils.getParseCache();
+			return cache == null ? Double.NaN : cache.getHitRate();
+		}
+
+		public void reset() {
+			LibraryMetrics.reset();
+		}
+	}
+}
@@ -0,0 +1,28 @@
+package com.javaboz.commons.test;
+
+/**
+ * JMX view of {@link LibraryMetrics}.
+ *
+ * @author Julien Boz
+ */
+public interface LibraryMetricsMBean {
+
+	boolean isEnabled();
+
+	void setEnabled(boolean enabled);
+
+	/**
+	 * @return hit rate of {@link DateUtils#getParseCache()}, NaN if no cache is set
+	 */
+	double getDateParseCacheHitRate();
+
+	/**
+	 * @return hit rate of {@link NumberUtils#getParseCache()}, NaN if no cache is set
+	 */
+	double getNumberParseCacheHitRate();
+
+	/**
+	 * Reset all the operation and cache metrics.
+	 */
+	void reset();
+}
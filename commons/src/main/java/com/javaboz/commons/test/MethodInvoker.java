@@ -0,0 +1,68 @@
+package com.javaboz.commons.test;
+
+import java.lang.reflect.Array;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+
+/**
+ * Invoker of a method resolved once for a call shape, made accessible once.<br>
+ * For a variable arity call the trailing arguments are collected into the array parameter. Errors are reported like
+ * {@link ReflectionUtils#invokeMethod(Object, String, Object...)}.<br>
+ * Java 5 implementation of the multi-release jar, backed by {@link Method}; the Java 17 one is backed by a method
+ * handle spread over the arguments. Thread safe.
+ *
+ * @author Julien Boz
+ */
+public final class MethodInvoker {
+
+	private final Method method;
+	/** number of arguments of a variable arity call, -1 for a fixed arity call */
+	private final int varargsCount;
+
+	MethodInvoker(final Method method, final int varargsCount) {
+		method.setAccessible(true);
+		this.method = method;
+		this.varargsCount = varargsCount;
+	}
+
+	public Method getMethod() {
+		return method;
+	}
+
+	/**
+	 * @param target the object, null for static methods
+	 * @param args the arguments of the call shape resolved
+	 * @return the result, null for void methods
+	 */
+	public Object invoke(final Object target, final Object... args) {
+		try {
+			return method.invoke(target, varargsCount < 0 ? args : collectVarargs(method, args));
+		} catch (final IllegalAccessException e) {
+			// Cannot occur, since method.accessible has been set to true
+			throw new IllegalArgumentException("Error while trying to access method " + method.getName(), e);
+		} catch (final InvocationTargetException e) {
+			throw new IllegalArgumentException("Error while trying to access method " + method.getName(), e);
+		}
+	}
+
+	/**
+	 * @return the fixed arguments followed by an array of the trailing ones
+	 */
+	static Object[] collectVarargs(final Method method, final Object[] args) {
+		final Class<?>[] parameters = method.getParameterTypes();
+		final int fixed = parameters.length - 1;
+		final Object[] collected = new Object[parameters.length];
+		System.arraycopy(args, 0, collected, 0, fixed);
+		final Object varargs = Array.newInstance(parameters[fixed].getComponentType(), args.length - fixed);
+		for (int i = fixed; i < args.length; i++) {
+			Array.set(varargs, i - fixed, args[i]);
+		}
+		collected[fixed] = varargs;
+		return collected;
+	}
+
+	@Override
+	public String toString() {
+		return "MethodInvoker[" + method + (varargsCount < 0 ? "" : ", " + varargsCount + " arguments") + "]";
+	}
+}
@@ -0,0 +1,436 @@
+package com.javaboz.commons.test;
+
+import java.text.DecimalFormatSymbols;
+import java.util.Locale;
+
+/**
+ * Single pass classifier of numeric texts, without exception nor allocation.<br>
+ * Recognized texts, surrounding whitespace ignored:
+ * <ul>
+ * <li>{@link Kind#INTEGER}: <code>[-]digits[L|l]</code>, digits grouped by 3 with the locale grouping separator or not
+ * grouped at all</li>
+ * <li>{@link Kind#DECIMAL}: an integer followed by a fraction (<code>.</code> or the locale decimal separator), an
+ * exponent or a <code>f|F|d|D</code> qualifier, the integer part may be empty if there is a fraction</li>
+ * <li>{@link Kind#HEXADECIMAL}: <code>[-]0(x|X)hexdigits</code></li>
+ * <li>{@link Kind#COMPLEX}: <code>real (+|-) imaginary</code> followed by the imaginary character, real and imaginary
+ * being integers or decimals without qualifier, or the non finite parts written by
+ * {@link org.apache.commons.math.complex.ComplexFormat}, <code>(NaN)</code>, <code>(Infinity)</code> and
+ * <code>(-Infinity)</code>; a non finite real alone is a complex too</li>
+ * </ul>
+ * When the locale groups digits with <code>.</code>, as in German, a <code>.</code> is a decimal point whenever it can
+ * be one: it is a grouping separator only after 1 to 3 digits and before a group of 3 digits followed by another
+ * grouping separator or by the locale decimal separator, <code>1.500</code> being the decimal 1.5 and
+ * <code>1.500.000</code> or <code>1.500,5</code> grouped.<br>
+ * Thread safe.
+ *
+ * @author Julien Boz
+ * @see NumberUtils#isNumber(String)
+ */
+public final class NumberClassifier {
+
+	/**
+	 * Kind of number, tells which parser to use.
+	 */
+	public enum Kind {
+		/** parsed by {@link NumberParser#parseLong(CharSequence, long)} once grouping and qualifier removed */
+		INTEGER,
+		/** parsed by {@link NumberParser#parseDouble(CharSequence, double)} once grouping removed */
+		DECIMAL,
+		/** parsed by {@link Long#decode(String)} */
+		HEXADECIMAL,
+		/** parsed by {@link NumberUtils#parse(String)} */
+		COMPLEX
+	}
+
+	// states of the real number automaton
+	private static final int REJECT = 0;
+	private static final int START = 1;
+	private static final int SIGN = 2;
+	/** a leading 0, may start an hexadecimal */
+	private static final int ZERO = 3;
+	/** 1 to 3 digits, may be followed by a grouping separator */
+	private static final int INT_1 = 4;
+	private static final int INT_2 = 5;
+	private static final int INT_3 = 6;
+	/** more than 3 digits without grouping */
+	private static final int INT = 7;
+	/** digits of a group after a grouping separator */
+	private static final int GROUP_0 = 8;
+	private static final int GROUP_1 = 9;
+	private static final int GROUP_2 = 10;
+	private static final int GROUP_3 = 11;
+	private static final int LEADING_POINT = 12;
+	private static final int POINT = 13;
+	private static final int FRACTION = 14;
+	private static final int EXPONENT = 15;
+	private static final int EXPONENT_SIGN = 16;
+	private static final int EXPONENT_DIGITS = 17;
+	private static final int INTEGER_QUALIFIER = 18;
+	private static final int DECIMAL_QUALIFIER = 19;
+	private static final int HEX_PREFIX = 20;
+	private static final int HEX = 21;
+	/** digits after a <code>.</code> that is either a decimal point or a grouping separator */
+	private static final int POINT_OR_GROUP_0 = 22;
+	private static final int POINT_OR_GROUP_1 = 23;
+	private static final int POINT_OR_GROUP_2 = 24;
+	private static final int POINT_OR_GROUP_3 = 25;
+
+	// classes of characters
+	private static final int OTHER = 0;
+	/** 0, a digit that may start an hexadecimal */
+	private static final int ZERO_DIGIT = 1;
+	private static final int DIGIT = 2;
+	private static final int GROUPING = 3;
+	private static final int DECIMAL_POINT = 4;
+	private static final int MINUS = 5;
+	private static final int PLUS = 6;
+	private static final int EXPONENT_MARK = 7;
+	private static final int LONG_MARK = 8;
+	private static final int FLOAT_MARK = 9;
+	private static final int HEX_MARK = 10;
+	private static final int HEX_LETTER = 11;
+	/** <code>.</code> when it is also the locale grouping separator */
+	private static final int POINT_OR_GROUPING = 12;
+
+	/** non finite parts of complexes, like {@link org.apache.commons.math.complex.ComplexFormat} writes them */
+	private static final String[] NON_FINITE_PARTS = { "(NaN)", "(Infinity)", "(-Infinity)" };
+
+	/** next state by state and class of character */
+	private static final int[][] TRANSITIONS = new int[POINT_OR_GROUP_3 + 1][POINT_OR_GROUPING + 1];
+
+	static {
+		transition(START, DIGIT, INT_1);
+		transition(START, ZERO_DIGIT, ZERO);
+		transition(START, MINUS, SIGN);
+		transition(START, DECIMAL_POINT, LEADING_POINT);
+		transition(START, POINT_OR_GROUPING, LEADING_POINT);
+		transition(SIGN, DIGIT, INT_1);
+		transition(SIGN, ZERO_DIGIT, ZERO);
+		transition(SIGN, DECIMAL_POINT, LEADING_POINT);
+		transition(SIGN, POINT_OR_GROUPING, LEADING_POINT);
+		integerTransitions(ZERO, INT_2, true);
+		transition(ZERO, HEX_MARK, HEX_PREFIX);
+		integerTransitions(INT_1, INT_2, true);
+		integerTransitions(INT_2, INT_3, true);
+		integerTransitions(INT_3, INT, true);
+		integerTransitions(INT, INT, false);
+		transition(GROUP_0, DIGIT, GROUP_1);
+		transition(GROUP_1, DIGIT, GROUP_2);
+		transition(GROUP_2, DIGIT, GROUP_3);
+		integerTransitions(GROUP_3, REJECT, true);
+		// once grouped, a point can only be a grouping separator
+		transition(GROUP_3, POINT_OR_GROUPING, GROUP_0);
+		fractionTransitions(POINT_OR_GROUP_0, POINT_OR_GROUP_1);
+		fractionTransitions(POINT_OR_GROUP_1, POINT_OR_GROUP_2);
+		fractionTransitions(POINT_OR_GROUP_2, POINT_OR_GROUP_3);
+		fractionTransitions(POINT_OR_GROUP_3, FRACTION);
+		transition(POINT_OR_GROUP_3, POINT_OR_GROUPING, GROUP_0);
+		transition(POINT_OR_GROUP_3, DECIMAL_POINT, POINT);
+		transition(LEADING_POINT, DIGIT, FRACTION);
+		fractionTransitions(POINT, FRACTION);
+		fractionTransitions(FRACTION, FRACTION);
+		transition(EXPONENT, DIGIT, EXPONENT_DIGITS);
+		transition(EXPONENT, MINUS, EXPONENT_SIGN);
+		transition(EXPONENT, PLUS, EXPONENT_SIGN);
+		transition(EXPONENT_SIGN, DIGIT, EXPONENT_DIGITS);
+		transition(EXPONENT_DIGITS, DIGIT, EXPONENT_DIGITS);
+		transition(EXPONENT_DIGITS, FLOAT_MARK, DECIMAL_QUALIFIER);
+		transition(HEX_PREFIX, DIGIT, HEX);
+		transition(HEX_PREFIX, HEX_LETTER, HEX);
+		transition(HEX_PREFIX, EXPONENT_MARK, HEX);
+		transition(HEX_PREFIX, FLOAT_MARK, HEX);
+		transition(HEX, DIGIT, HEX);
+		transition(HEX, HEX_LETTER, HEX);
+		transition(HEX, EXPONENT_MARK, HEX);
+		transition(HEX, FLOAT_MARK, HEX);
+	}
+
+	private static void transition(final int from, final int charClass, final int to) {
+		TRANSITIONS[from][charClass] = to;
+		if (charClass == DIGIT && TRANSITIONS[from][ZERO_DIGIT] == REJECT) {
+			TRANSITIONS[from][ZERO_DIGIT] = to;
+		}
+	}
+
+	private static void integerTransitions(final int from, final int nextDigit, final boolean groupable) {
+		transition(from, DIGIT, nextDigit);
+		if (groupable) {
+			transition(from, GROUPING, GROUP_0);
+			transition(from, POINT_OR_GROUPING, POINT_OR_GROUP_0);
+		} else {
+			transition(from, POINT_OR_GROUPING, POINT);
+		}
+		transition(from, DECIMAL_POINT, POINT);
+		transition(from, EXPONENT_MARK, EXPONENT);
+		transition(from, LONG_MARK, INTEGER_QUALIFIER);
+		transition(from, FLOAT_MARK, DECIMAL_QUALIFIER);
+	}
+
+	private static void fractionTransitions(final int from, final int nextDigit) {
+		transition(from, DIGIT, nextDigit);
+		transition(from, EXPONENT_MARK, EXPONENT);
+		transition(from, FLOAT_MARK, DECIMAL_QUALIFIER);
+	}
+
+	private final Locale locale;
+	private final char groupingSeparator;
+	private final char decimalSeparator;
+	private final String imaginaryCharacter;
+
+	/**
+	 * @param locale locale of the grouping and decimal separators
+	 * @param imaginaryCharacter suffix of the complex numbers
+	 */
+	public NumberClassifier(final Locale locale, final String imaginaryCharacter) {
+		final DecimalFormatSymbols symbols = new DecimalFormatSymbols(locale);
+		this.locale = locale;
+		this.groupingSeparator = symbols.getGroupingSeparator();
+		this.decimalSeparator = symbols.getDecimalSeparator();
+		this.imaginaryCharacter = imaginaryCharacter;
+	}
+
+	/**
+	 * @return locale of the grouping and decimal separators
+	 */
+	public Locale getLocale() {
+		return locale;
+	}
+
+	/**
+	 * @return true if <code>text</code> is a number
+	 */
+	public boolean isNumber(final CharSequence text) {
+		return classify(text) != null;
+	}
+
+	/**
+	 * @return the kind of number of <code>text</code>, null if it is not a number
+	 */
+	public Kind classify(final CharSequence text) {
+		if (text == null) {
+			return null;
+		}
+		int start = 0;
+		int end = text.length();
+		while (start < end && Character.isWhitespace(text.charAt(start))) {
+			start++;
+		}
+		while (end > start && Character.isWhitespace(text.charAt(end - 1))) {
+			end--;
+		}
+		if (start == end) {
+			return null;
+		}
+
+		int pos = start;
+		int state = START;
+		if (text.charAt(pos) == '(') {
+			pos = nonFiniteEnd(text, pos, end);
+			if (pos < 0) {
+				return null;
+			}
+			if (pos == end) {
+				return Kind.COMPLEX;
+			}
+		} else {
+			while (pos < end) {
+				final int next = TRANSITIONS[state][charClass(text.charAt(pos))];
+				if (next == REJECT) {
+					break;
+				}
+				state = next;
+				pos++;
+			}
+			if (pos == end) {
+				return kind(state);
+			}
+			if (!isComplexPart(state)) {
+				return null;
+			}
+		}
+
+		// complex tail: (+|-) imaginary
+		while (Character.isWhitespace(text.charAt(pos))) {
+			pos++;
+		}
+		final char operator = text.charAt(pos++);
+		if (operator != '+' && operator != '-') {
+			return null;
+		}
+		while (pos < end && Character.isWhitespace(text.charAt(pos))) {
+			pos++;
+		}
+		if (pos < end && text.charAt(pos) == '(') {
+			pos = nonFiniteEnd(text, pos, end);
+			return pos >= 0 && endsWith(text, pos, end, imaginaryCharacter) ? Kind.COMPLEX : null;
+		}
+		state = SIGN;
+		while (pos < end) {
+			final int next = TRANSITIONS[state][charClass(text.charAt(pos))];
+			if (next == REJECT) {
+				break;
+			}
+			state = next;
+			pos++;
+		}
+		if (!isComplexPart(state) || !endsWith(text, pos, end, imaginaryCharacter)) {
+			return null;
+		}
+		return Kind.COMPLEX;
+	}
+
+	/**
+	 * @return the end of the non finite part <code>(NaN)</code>, <code>(Infinity)</code> or <code>(-Infinity)</code>
+	 *         starting at <code>start</code>, -1 if there is none
+	 */
+	static int nonFiniteEnd(final CharSequence text, final int start, final int end) {
+		for (final String part : NON_FINITE_PARTS) {
+			if (end - start >= part.length() && startsWith(text, start, part)) {
+				return start + part.length();
+			}
+		}
+		return -1;
+	}
+
+	private static boolean startsWith(final CharSequence text, final int start, final String prefix) {
+		for (int i = 0; i < prefix.length(); i++) {
+			if (text.charAt(start + i) != prefix.charAt(i)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * @return the end of the real number starting at <code>start</code>, where the operator of a complex begins
+	 */
+	int realEnd(final CharSequence text, final int start, final int end) {
+		int pos = start;
+		int state = START;
+		while (pos < end) {
+			state = TRANSITIONS[state][charClass(text.charAt(pos))];
+			if (state == REJECT) {
+				break;
+			}
+			pos++;
+		}
+		return pos;
+	}
+
+	/**
+	 * @return the index of the <code>.</code> that is the decimal point of the valid real number in
+	 *         <code>[start, end[</code>, leading whitespace allowed, -1 if it has none or if its <code>.</code> are
+	 *         grouping separators
+	 */
+	int pointIndex(final CharSequence text, final int start, final int end) {
+		int pos = start;
+		while (pos < end && Character.isWhitespace(text.charAt(pos))) {
+			pos++;
+		}
+		int point = -1;
+		int state = START;
+		for (; pos < end; pos++) {
+			final char c = text.charAt(pos);
+			state = TRANSITIONS[state][charClass(c)];
+			if (state == REJECT) {
+				break;
+			}
+			if (state == GROUP_0 || state == POINT && c != '.') {
+				// the previous point was a grouping separator
+				point = -1;
+			} else if (c == '.' && (state == POINT || state == LEADING_POINT || state == POINT_OR_GROUP_0)) {
+				point = pos;
+			}
+		}
+		return point;
+	}
+
+	private int charClass(final char c) {
+		if (c == '0') {
+			return ZERO_DIGIT;
+		}
+		if (c >= '1' && c <= '9') {
+			return DIGIT;
+		}
+		if (c == groupingSeparator) {
+			return c == '.' ? POINT_OR_GROUPING : GROUPING;
+		}
+		if (c == decimalSeparator || c == '.') {
+			return DECIMAL_POINT;
+		}
+		switch (c) {
+		case '-':
+			return MINUS;
+		case '+':
+			return PLUS;
+		case 'e':
+		case 'E':
+			return EXPONENT_MARK;
+		case 'l':
+		case 'L':
+			return LONG_MARK;
+		case 'f':
+		case 'F':
+		case 'd':
+		case 'D':
+			return FLOAT_MARK;
+		case 'x':
+		case 'X':
+			return HEX_MARK;
+		case 'a':
+		case 'A':
+		case 'b':
+		case 'B':
+		case 'c':
+		case 'C':
+			return HEX_LETTER;
+		default:
+			return OTHER;
+		}
+	}
+
+	private static Kind kind(final int state) {
+		switch (state) {
+		case ZERO:
+		case INT_1:
+		case INT_2:
+		case INT_3:
+		case INT:
+		case GROUP_3:
+		case INTEGER_QUALIFIER:
+			return Kind.INTEGER;
+		case POINT:
+		case POINT_OR_GROUP_0:
+		case POINT_OR_GROUP_1:
+		case POINT_OR_GROUP_2:
+		case POINT_OR_GROUP_3:
+		case FRACTION:
+		case EXPONENT_DIGITS:
+		case DECIMAL_QUALIFIER:
+			return Kind.DECIMAL;
+		case HEX:
+			return Kind.HEXADECIMAL;
+		default:
+			return null;
+		}
+	}
+
+	/**
+	 * @return true if <code>state</code> ends a real or imaginary part of a complex
+	 */
+	private static boolean isComplexPart(final int state) {
+		return state != INTEGER_QUALIFIER && state != DECIMAL_QUALIFIER && state != HEX && kind(state) != null;
+	}
+
+	private static boolean endsWith(final CharSequence text, final int pos, final int end, final String suffix) {
+		if (end - pos != suffix.length()) {
+			return false;
+		}
+		for (int i = 0; i < suffix.length(); i++) {
+			if (text.charAt(pos + i) != suffix.charAt(i)) {
+				return false;
+			}
+		}
+		return true;
+	}
+}
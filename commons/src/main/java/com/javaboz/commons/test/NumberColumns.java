@@ -0,0 +1,251 @@
+package com.javaboz.commons.test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+import java.util.RandomAccess;
+import java.util.concurrent.ExecutorService;
+
+/**
+ * Bulk decoding of numeric columns into primitive arrays.<br>
+ * Each method fills a destination array and returns the bitmap of the valid indexes, invalid or null texts are decoded
+ * as 0. Texts are parsed like {@link NumberParser}: no exception, no boxing.<br>
+ * The methods taking an {@link ExecutorService} split large columns in chunks decoded concurrently, a null executor
+ * decodes in the calling thread.
+ *
+ * <pre>
+ * final double[] prices = new double[lines.size()];
+ * final BitSet valids = NumberColumns.parseDoubles(lines, prices);
+ * </pre>
+ *
+ * @author Julien Boz
+ */
+public final class NumberColumns {
+
+	/** min number of texts decoded by a concurrent task */
+	static final int MIN_CHUNK_SIZE = 4096;
+
+	private NumberColumns() {
+	}
+
+	/**
+	 * @param texts the texts to decode
+	 * @param values filled with the decoded ints, at least as long as <code>texts</code>
+	 * @return the bitmap of the valid indexes
+	 */
+	public static BitSet parseInts(final CharSequence[] texts, final int[] values) {
+		return parseInts(Arrays.asList(texts), values, null);
+	}
+
+	/**
+	 * @see #parseInts(CharSequence[], int[])
+	 */
+	public static BitSet parseInts(final List<? extends CharSequence> texts, final int[] values) {
+		return parseInts(texts, values, null);
+	}
+
+	/**
+	 * @param executor executor decoding the chunks, null to decode in the calling thread
+	 * @see #parseInts(CharSequence[], int[])
+	 */
+	public static BitSet parseInts(final List<? extends CharSequence> texts, final int[] values,
+			final ExecutorService executor) {
+		checkDestination(texts.size(), values.length);
+		return decode(new Column(texts) {
+			@Override
+			boolean decode(final CharSequence text, final int index) {
+				final long value = text == null ? NumberParser.NOT_AN_INT : NumberParser.scanInt(text, 0, text.length());
+				final boolean valid = value != NumberParser.NOT_AN_INT;
+				values[index] = valid ? (int) value : 0;
+				return valid;
+			}
+		}, executor);
+	}
+
+	/**
+	 * @param texts the texts to decode
+	 * @param values filled with the decoded longs, at least as long as <code>texts</code>
+	 * @return the bitmap of the valid indexes
+	 */
+	public static BitSet parseLongs(final CharSequence[] texts, final long[] values) {
+		return parseLongs(Arrays.asList(texts), values, null);
+	}
+
+	/**
+	 * @see #parseLongs(CharSequence[], long[])
+	 */
+	public static BitSet parseLongs(final List<? extends CharSequence> texts, final long[] values) {
+		return parseLongs(texts, values, null);
+	}
+
+	/**
+	 * @param executor executor decoding the chunks, null to decode in the calling thread
+	 * @see #parseLongs(CharSequence[], long[])
+	 */
+	public static BitSet parseLongs(final List<? extends CharSequence> texts, final long[] values,
+			final ExecutorService executor) {
+		checkDestination(texts.size(), values.length);
+		return decode(new Column(texts) {
+			@Override
+			boolean decode(final CharSequence text, final int index) {
+				final long value = NumberParser.parseLong(text, 0L);
+				// 0 is also the default value, parse again only in that case
+				final boolean valid = value != 0L || NumberParser.parseLong(text, 1L) != 1L;
+				values[index] = value;
+				return valid;
+			}
+		}, executor);
+	}
+
+	/**
+	 * @param texts the texts to decode
+	 * @param values filled with the decoded doubles, at least as long as <code>texts</code>
+	 * @return the bitmap of the valid indexes
+	 */
+	public static BitSet parseDoubles(final CharSequence[] texts, final double[] values) {
+		return parseDoubles(Arrays.asList(texts), values, null);
+	}
+
+	/**
+	 * @see #parseDoubles(CharSequence[], double[])
+	 */
+	public static BitSet parseDoubles(final List<? extends CharSequence> texts, final double[] values) {
+		return parseDoubles(texts, values, null);
+	}
+
+	/**
+	 * @param executor executor decoding the chunks, null to decode in the calling thread
+	 * @see #parseDoubles(CharSequence[], double[])
+	 */
+	public static BitSet parseDoubles(final List<? extends CharSequence> texts, final double[] values,
+			final ExecutorService executor) {
+		checkDestination(texts.size(), values.length);
+		return decode(new Column(texts) {
+			@Override
+			boolean decode(final CharSequence text, final int index) {
+				final double value = NumberParser.parseDouble(text, 0d);
+				// 0 is also the default value, parse again only in that case
+				final boolean valid = value != 0d || NumberParser.parseDouble(text, 1d) != 1d;
+				values[index] = value;
+				return valid;
+			}
+		}, executor);
+	}
+
+	/**
+	 * Decode the ASCII fields of <code>[start, end[</code> separated by <code>delimiter</code>, a delimiter at the end
+	 * doesn't start a new field.
+	 *
+	 * @param values filled with the decoded ints
+	 * @param valids the valid fields indexes are set, the other ones cleared
+	 * @return the number of fields
+	 */
+	public static int parseInts(final byte[] buffer, final int start, final int end, final byte delimiter,
+			final int[] values, final BitSet valids) {
+		int count = 0;
+		int from = start;
+		while (from < end) {
+			final int to = indexOf(buffer, delimiter, from, end);
+			checkDestination(count + 1, values.length);
+			final long value = NumberParser.parseLong(buffer, from, to, NumberParser.NOT_AN_INT);
+			final boolean valid = value >= Integer.MIN_VALUE && value <= Integer.MAX_VALUE;
+			values[count] = valid ? (int) value : 0;
+			valids.set(count++, valid);
+			from = to + 1;
+		}
+		return count;
+	}
+
+	/**
+	 * @see #parseInts(byte[], int, int, byte, int[], BitSet)
+	 */
+	public static int parseLongs(final byte[] buffer, final int start, final int end, final byte delimiter,
+			final long[] values, final BitSet valids) {
+		int count = 0;
+		int from = start;
+		while (from < end) {
+			final int to = indexOf(buffer, delimiter, from, end);
+			checkDestination(count + 1, values.length);
+			final long value = NumberParser.parseLong(buffer, from, to, 0L);
+			values[count] = value;
+			valids.set(count++, value != 0L || NumberParser.parseLong(buffer, from, to, 1L) != 1L);
+			from = to + 1;
+		}
+		return count;
+	}
+
+	/**
+	 * @see #parseInts(byte[], int, int, byte, int[], BitSet)
+	 */
+	public static int parseDoubles(final byte[] buffer, final int start, final int end, final byte delimiter,
+			final double[] values, final BitSet valids) {
+		int count = 0;
+		int from = start;
+		while (from < end) {
+			final int to = indexOf(buffer, delimiter, from, end);
+			checkDestination(count + 1, values.length);
+			final double value = NumberParser.parseDouble(buffer, from, to, 0d);
+			values[count] = value;
+			valids.set(count++, value != 0d || NumberParser.parseDouble(buffer, from, to, 1d) != 1d);
+			from = to + 1;
+		}
+		return count;
+	}
+
+	static int indexOf(final byte[] buffer, final byte delimiter, final int from, final int end) {
+		for (int i = from; i < end; i++) {
+			if (buffer[i] == delimiter) {
+				return i;
+			}
+		}
+		return end;
+	}
+
+	private static void checkDestination(final int sourceLength, final int destinationLength) {
+		if (destinationLength < sourceLength) {
+			throw new IllegalArgumentException("Destination too small: " + destinationLength + " < " + sourceLength);
+		}
+	}
+
+	private static BitSet decode(final Column column, final ExecutorService executor) {
+		final ChunkedTask.Bits task = new ChunkedTask.Bits() {
+			@Override
+			BitSet compute(final int from, final int to) {
+				return column.decode(from, to);
+			}
+		};
+		task.run(column.texts.size(), MIN_CHUNK_SIZE, executor);
+		return task.getBits();
+	}
+
+	/**
+	 * A column of texts decoded into a primitive array, the chunks write disjoint indexes.
+	 */
+	private abstract static class Column {
+		final List<? extends CharSequence> texts;
+
+		Column(final List<? extends CharSequence> texts) {
+			// indexed access for the chunks
+			this.texts = texts instanceof RandomAccess ? texts : new ArrayList<CharSequence>(texts);
+		}
+
+		/**
+		 * @return true if <code>text</code> is valid
+		 */
+		abstract boolean decode(CharSequence text, int index);
+
+		/**
+		 * @return the bitmap of the valid indexes of <code>[from, to[</code>, relative to <code>from</code>
+		 */
+		BitSet decode(final int from, final int to) {
+			final BitSet valids = new BitSet(to - from);
+			for (int i = from; i < to; i++) {
+				if (decode(texts.get(i), i)) {
+					valids.set(i - from);
+				}
+			}
+			return valids;
+		}
+	}
+}
@@ -0,0 +1,173 @@
+package com.javaboz.commons.test;
+
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Bounded cache of parsed integers, keyed by text.<br>
+ * Made for repetitive numeric columns (codes, quantities, status): a hit returns the canonical boxed instance without
+ * parsing, so duplicated values share a single object. Texts that are not numbers are cached too.<br>
+ * Direct mapped like {@link FormatPool}: each text has a single slot, selected by hash, and a miss replaces the text
+ * cached in that slot. Lookups neither lock nor allocate, hits and misses are counted in {@link StripedCounter}s.<br>
+ * Thread safe.
+ *
+ * @author Julien Boz
+ * @see NumberUtils#setParseCache(NumberParseCache)
+ */
+public final class NumberParseCache {
+
+	/** cached value of the texts that are not numbers */
+	private static final Object NOT_A_NUMBER = new Object();
+
+	private final AtomicReferenceArray<Entry> entries;
+	private final int mask;
+	private final StripedCounter hits = new StripedCounter();
+	private final StripedCounter misses = new StripedCounter();
+
+	/**
+	 * @param capacity max number of cached texts, must be positive, rounded up to a power of two
+	 */
+	public NumberParseCache(final int capacity) {
+		if (capacity <= 0) {
+			throw new IllegalArgumentException("Capacity must be positive: " + capacity);
+		}
+		int size = 1;
+		while (size < capacity) {
+			size <<= 1;
+		}
+		this.entries = new AtomicReferenceArray<Entry>(size);
+		this.mask = size - 1;
+	}
+
+	/**
+	 * @return the canonical Integer of <code>text</code>, null if not an int
+	 * @see NumberParser#parseInt(CharSequence, int)
+	 */
+	public Integer toIntObject(final String text) {
+		if (text == null) {
+			return null;
+		}
+		final int index = index(false, text);
+		final Object value = get(index, false, text);
+		if (value != null) {
+			return value == NOT_A_NUMBER ? null : (Integer) value;
+		}
+		final long parsed = NumberParser.scanInt(text, 0, text.length());
+		final Integer result = parsed == NumberParser.NOT_AN_INT ? null : Integer.valueOf((int) parsed);
+		put(index, false, text, result);
+		return result;
+	}
+
+	/**
+	 * @return the canonical Long of <code>text</code>, null if not a long
+	 * @see NumberParser#parseLong(CharSequence, long)
+	 */
+	public Long toLongObject(final String text) {
+		if (text == null) {
+			return null;
+		}
+		final int index = index(true, text);
+		final Object value = get(index, true, text);
+		if (value != null) {
+			return value == NOT_A_NUMBER ? null : (Long) value;
+		}
+		final long parsed = NumberParser.parseLong(text, 0L);
+		final Long result = parsed == 0L && !NumberParser.isLong(text) ? null : Long.valueOf(parsed);
+		put(index, true, text, result);
+		return result;
+	}
+
+	private int index(final boolean longValue, final String text) {
+		// same text cached as int and as long, in different slots
+		final int hash = (longValue ? ~text.hashCode() : text.hashCode()) * 0x9E3779B9;
+		return (hash ^ hash >>> 16) & mask;
+	}
+
+	private Object get(final int index, final boolean longValue, final String text) {
+		final Entry entry = entries.get(index);
+		if (entry != null && entry.longValue == longValue && entry.text.equals(text)) {
+			hits.increment();
+			return entry.value;
+		}
+		misses.increment();
+		return null;
+	}
+
+	private void put(final int index, final boolean longValue, final String text, final Number value) {
+		// concurrent misses on the same text compute equal values, the last one wins
+		entries.set(index, new Entry(longValue, text, value == null ? NOT_A_NUMBER : value));
+	}
+
+	/**
+	 * @return max number of cached texts
+	 */
+	public int getCapacity() {
+		return entries.length();
+	}
+
+	/**
+	 * @return current number of cached texts
+	 */
+	public int size() {
+		int size = 0;
+		for (int i = 0; i < entries.length(); i++) {
+			if (entries.get(i) != null) {
+				size++;
+			}
+		}
+		return size;
+	}
+
+	/**
+	 * @return number of lookups served by the cache
+	 */
+	public long getHitCount() {
+		return hits.sum();
+	}
+
+	/**
+	 * @return number of lookups that needed a parse
+	 */
+	public long getMissCount() {
+		return misses.sum();
+	}
+
+	/**
+	 * @return hits / lookups, 0 if no lookup was done
+	 */
+	public double getHitRate() {
+		final long hitCount = hits.sum();
+		final long total = hitCount + misses.sum();
+		return total == 0 ? 0 : (double) hitCount / total;
+	}
+
+	/**
+	 * Remove all cached numbers and reset the counters.
+	 */
+	public void clear() {
+		for (int i = 0; i < entries.length(); i++) {
+			entries.set(i, null);
+		}
+		hits.reset();
+		misses.reset();
+	}
+
+	@Override
+	public String toString() {
+		return "NumberParseCache[size=" + size() + ", capacity=" + getCapacity() + ", hits=" + hits.sum()
+				+ ", misses=" + misses.sum() + "]";
+	}
+
+	private static final class Entry {
+		/** same text cached as int and as long */
+		private final boolean longValue;
+		private final String text;
+		/** canonical number, or {@link NumberParseCache#NOT_A_NUMBER} */
+		private final Object value;
+
+		Entry(final boolean longValue, final String text, final Object value) {
+			this.longValue = longValue;
+			this.text = text;
+			this.value = value;
+		}
+	}
+}
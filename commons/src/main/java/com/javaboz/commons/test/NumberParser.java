@@ -0,0 +1,466 @@
+package com.javaboz.commons.test;
+
+/**
+ * Exception free number parsers working on {@link CharSequence} and ASCII byte ranges.<br>
+ * Failures are reported by returning the caller's default value, no exception nor intermediate string is created.
+ * <ul>
+ * <li>integers: <code>[+-]digits</code>, without whitespace, like {@link Long#parseLong(String)}</li>
+ * <li>decimals: <code>[+-](digits[.digits]|.digits)[(e|E)[+-]digits][fFdD]</code>, <code>NaN</code> and
+ * <code>[+-]Infinity</code>, surrounding whitespace ignored, like {@link Double#parseDouble(String)} (hexadecimal
+ * floats are delegated to it)</li>
+ * </ul>
+ * Only ASCII digits are accepted. Decimals with up to 15 significant digits and a small exponent are computed directly,
+ * exactly rounded; the others are validated then delegated to {@link Double#parseDouble(String)}.
+ *
+ * @author Julien Boz
+ */
+public final class NumberParser {
+
+	/** value of {@link #scanInt(CharSequence, int, int)} when the text is not an int, out of the int range */
+	static final long NOT_AN_INT = Long.MIN_VALUE;
+
+	/** max significant digits of the exact decimal path, 10^15 < 2^53 */
+	private static final int EXACT_DIGITS = 15;
+	/** exact powers of ten as doubles */
+	private static final double[] POWERS_OF_TEN = { 1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11, 1e12, 1e13,
+			1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22 };
+	/** max significant digits kept in the mantissa, the next ones only matter to Double.parseDouble */
+	private static final int MAX_DIGITS = 18;
+	/** exponents above it overflow or underflow anyway */
+	private static final int MAX_EXPONENT = 100000;
+
+	private NumberParser() {
+	}
+
+	/**
+	 * @return the int value of <code>text</code>, or <code>defaultValue</code> if it is not an int
+	 */
+	public static int parseInt(final CharSequence text, final int defaultValue) {
+		return text == null ? defaultValue : parseInt(text, 0, text.length(), defaultValue);
+	}
+
+	/**
+	 * @return the int value of <code>[start, end[</code>, or <code>defaultValue</code> if it is not an int
+	 */
+	public static int parseInt(final CharSequence text, final int start, final int end, final int defaultValue) {
+		final long value = scanInt(text, start, end);
+		return value == NOT_AN_INT ? defaultValue : (int) value;
+	}
+
+	/**
+	 * @return the int value of the ASCII bytes <code>[start, end[</code>, or <code>defaultValue</code> if it is not an int
+	 */
+	public static int parseInt(final byte[] bytes, final int start, final int end, final int defaultValue) {
+		final long value = parseLong(bytes, start, end, NOT_AN_INT);
+		return value < Integer.MIN_VALUE || value > Integer.MAX_VALUE ? defaultValue : (int) value;
+	}
+
+	/**
+	 * @return the long value of <code>text</code>, or <code>defaultValue</code> if it is not a long
+	 */
+	public static long parseLong(final CharSequence text, final long defaultValue) {
+		return text == null ? defaultValue : parseLong(text, 0, text.length(), defaultValue);
+	}
+
+	/**
+	 * @return the long value of <code>[start, end[</code>, or <code>defaultValue</code> if it is not a long
+	 */
+	public static long parseLong(final CharSequence text, final int start, final int end, final long defaultValue) {
+		if (text == null || start < 0 || end > text.length() || start >= end) {
+			return defaultValue;
+		}
+		int pos = start;
+		final char first = text.charAt(pos);
+		final boolean negative = first == '-';
+		if (negative || first == '+') {
+			if (++pos == end) {
+				return defaultValue;
+			}
+		}
+		// accumulate negatively to reach Long.MIN_VALUE
+		final long limit = negative ? Long.MIN_VALUE : -Long.MAX_VALUE;
+		final long multiplyLimit = limit / 10;
+		long result = 0;
+		for (; pos < end; pos++) {
+			final int digit = text.charAt(pos) - '0';
+			if (digit < 0 || digit > 9 || result < multiplyLimit) {
+				return defaultValue;
+			}
+			result *= 10;
+			if (result < limit + digit) {
+				return defaultValue;
+			}
+			result -= digit;
+		}
+		return negative ? result : -result;
+	}
+
+	/**
+	 * @return the long value of the ASCII bytes <code>[start, end[</code>, or <code>defaultValue</code> if it is not a long
+	 */
+	public static long parseLong(final byte[] bytes, final int start, final int end, final long defaultValue) {
+		if (bytes == null || start < 0 || end > bytes.length || start >= end) {
+			return defaultValue;
+		}
+		int pos = start;
+		final byte first = bytes[pos];
+		final boolean negative = first == '-';
+		if (negative || first == '+') {
+			if (++pos == end) {
+				return defaultValue;
+			}
+		}
+		final long limit = negative ? Long.MIN_VALUE : -Long.MAX_VALUE;
+		final long multiplyLimit = limit / 10;
+		long result = 0;
+		for (; pos < end; pos++) {
+			final int digit = bytes[pos] - '0';
+			if (digit < 0 || digit > 9 || result < multiplyLimit) {
+				return defaultValue;
+			}
+			result *= 10;
+			if (result < limit + digit) {
+				return defaultValue;
+			}
+			result -= digit;
+		}
+		return negative ? result : -result;
+	}
+
+	/**
+	 * @return the double value of <code>text</code>, or <code>defaultValue</code> if it is not a double
+	 */
+	public static double parseDouble(final CharSequence text, final double defaultValue) {
+		return text == null ? defaultValue : parseDouble(text, 0, text.length(), defaultValue);
+	}
+
+	/**
+	 * @return the double value of <code>[start, end[</code>, or <code>defaultValue</code> if it is not a double
+	 */
+	public static double parseDouble(final CharSequence text, final int start, final int end, final double defaultValue) {
+		if (text == null || start < 0 || end > text.length()) {
+			return defaultValue;
+		}
+		int from = start;
+		int to = end;
+		while (from < to && text.charAt(from) <= ' ') {
+			from++;
+		}
+		while (to > from && text.charAt(to - 1) <= ' ') {
+			to--;
+		}
+		if (from == to) {
+			return defaultValue;
+		}
+
+		int pos = from;
+		final char first = text.charAt(pos);
+		final boolean negative = first == '-';
+		if (negative || first == '+') {
+			pos++;
+		}
+		if (pos < to && (text.charAt(pos) == 'N' || text.charAt(pos) == 'I')) {
+			return special(text, pos, to, negative, defaultValue);
+		}
+		if (pos + 1 < to && text.charAt(pos) == '0' && (text.charAt(pos + 1) == 'x' || text.charAt(pos + 1) == 'X')) {
+			return hexadecimal(text.subSequence(from, to).toString(), defaultValue);
+		}
+
+		long mantissa = 0;
+		int digits = 0;
+		int exponent = 0;
+		boolean any = false;
+		boolean truncated = false;
+		for (; pos < to; pos++) {
+			final int digit = text.charAt(pos) - '0';
+			if (digit < 0 || digit > 9) {
+				break;
+			}
+			any = true;
+			if (digits < MAX_DIGITS) {
+				if (mantissa != 0 || digit != 0) {
+					mantissa = mantissa * 10 + digit;
+					digits++;
+				}
+			} else {
+				exponent++;
+				truncated |= digit != 0;
+			}
+		}
+		if (pos < to && text.charAt(pos) == '.') {
+			for (pos++; pos < to; pos++) {
+				final int digit = text.charAt(pos) - '0';
+				if (digit < 0 || digit > 9) {
+					break;
+				}
+				any = true;
+				if (digits < MAX_DIGITS) {
+					if (mantissa != 0 || digit != 0) {
+						mantissa = mantissa * 10 + digit;
+						digits++;
+					}
+					exponent--;
+				} else {
+					truncated |= digit != 0;
+				}
+			}
+		}
+		if (!any) {
+			return defaultValue;
+		}
+		if (pos < to && (text.charAt(pos) == 'e' || text.charAt(pos) == 'E')) {
+			pos++;
+			boolean negativeExponent = false;
+			if (pos < to && (text.charAt(pos) == '-' || text.charAt(pos) == '+')) {
+				negativeExponent = text.charAt(pos++) == '-';
+			}
+			final int exponentStart = pos;
+			int value = 0;
+			for (; pos < to; pos++) {
+				final int digit = text.charAt(pos) - '0';
+				if (digit < 0 || digit > 9) {
+					break;
+				}
+				if (value < MAX_EXPONENT) {
+					value = value * 10 + digit;
+				}
+			}
+			if (pos == exponentStart) {
+				return defaultValue;
+			}
+			exponent += negativeExponent ? -value : value;
+		}
+		if (pos < to && isTypeSuffix(text.charAt(pos))) {
+			pos++;
+		}
+		if (pos != to) {
+			return defaultValue;
+		}
+		if (!truncated && digits <= EXACT_DIGITS && exponent >= -22 && exponent <= 22) {
+			return toDouble(negative, mantissa, exponent);
+		}
+		return Double.parseDouble(text.subSequence(from, to).toString());
+	}
+
+	/**
+	 * @return the double value of the ASCII bytes <code>[start, end[</code>, or <code>defaultValue</code> if it is not a
+	 *         double
+	 */
+	public static double parseDouble(final byte[] bytes, final int start, final int end, final double defaultValue) {
+		if (bytes == null || start < 0 || end > bytes.length) {
+			return defaultValue;
+		}
+		int from = start;
+		int to = end;
+		while (from < to && bytes[from] <= ' ' && bytes[from] >= 0) {
+			from++;
+		}
+		while (to > from && bytes[to - 1] <= ' ' && bytes[to - 1] >= 0) {
+			to--;
+		}
+		if (from == to) {
+			return defaultValue;
+		}
+
+		int pos = from;
+		final byte first = bytes[pos];
+		final boolean negative = first == '-';
+		if (negative || first == '+') {
+			pos++;
+		}
+		if (pos < to && (bytes[pos] == 'N' || bytes[pos] == 'I')) {
+			return special(new AsciiSequence(bytes), pos, to, negative, defaultValue);
+		}
+		if (pos + 1 < to && bytes[pos] == '0' && (bytes[pos + 1] == 'x' || bytes[pos + 1] == 'X')) {
+			return hexadecimal(new AsciiSequence(bytes).subSequence(from, to).toString(), defaultValue);
+		}
+
+		long mantissa = 0;
+		int digits = 0;
+		int exponent = 0;
+		boolean any = false;
+		boolean truncated = false;
+		for (; pos < to; pos++) {
+			final int digit = bytes[pos] - '0';
+			if (digit < 0 || digit > 9) {
+				break;
+			}
+			any = true;
+			if (digits < MAX_DIGITS) {
+				if (mantissa != 0 || digit != 0) {
+					mantissa = mantissa * 10 + digit;
+					digits++;
+				}
+			} else {
+				exponent++;
+				truncated |= digit != 0;
+			}
+		}
+		if (pos < to && bytes[pos] == '.') {
+			for (pos++; pos < to; pos++) {
+				final int digit = bytes[pos] - '0';
+				if (digit < 0 || digit > 9) {
+					break;
+				}
+				any = true;
+				if (digits < MAX_DIGITS) {
+					if (mantissa != 0 || digit != 0) {
+						mantissa = mantissa * 10 + digit;
+						digits++;
+					}
+					exponent--;
+				} else {
+					truncated |= digit != 0;
+				}
+			}
+		}
+		if (!any) {
+			return defaultValue;
+		}
+		if (pos < to && (bytes[pos] == 'e' || bytes[pos] == 'E')) {
+			pos++;
+			boolean negativeExponent = false;
+			if (pos < to && (bytes[pos] == '-' || bytes[pos] == '+')) {
+				negativeExponent = bytes[pos++] == '-';
+			}
+			final int exponentStart = pos;
+			int value = 0;
+			for (; pos < to; pos++) {
+				final int digit = bytes[pos] - '0';
+				if (digit < 0 || digit > 9) {
+					break;
+				}
+				if (value < MAX_EXPONENT) {
+					value = value * 10 + digit;
+				}
+			}
+			if (pos == exponentStart) {
+				return defaultValue;
+			}
+			exponent += negativeExponent ? -value : value;
+		}
+		if (pos < to && isTypeSuffix((char) bytes[pos])) {
+			pos++;
+		}
+		if (pos != to) {
+			return defaultValue;
+		}
+		if (!truncated && digits <= EXACT_DIGITS && exponent >= -22 && exponent <= 22) {
+			return toDouble(negative, mantissa, exponent);
+		}
+		return Double.parseDouble(new AsciiSequence(bytes).subSequence(from, to).toString());
+	}
+
+	/**
+	 * @return the int value of <code>[start, end[</code> as a long, {@link #NOT_AN_INT} if it is not an int
+	 */
+	static long scanInt(final CharSequence text, final int start, final int end) {
+		final long value = parseLong(text, start, end, NOT_AN_INT);
+		return value < Integer.MIN_VALUE || value > Integer.MAX_VALUE ? NOT_AN_INT : value;
+	}
+
+	/**
+	 * @return true if <code>text</code> is a long, useful to check a {@link #parseLong(CharSequence, long)} result equal to
+	 *         the default value
+	 */
+	public static boolean isLong(final CharSequence text) {
+		return parseLong(text, 0L) != 0L || parseLong(text, 1L) != 1L;
+	}
+
+	/**
+	 * @return true if <code>text</code> is a double, useful to check a {@link #parseDouble(CharSequence, double)} result
+	 *         equal to the default value
+	 */
+	public static boolean isDouble(final CharSequence text) {
+		return parseDouble(text, 0d) != 0d || parseDouble(text, 1d) != 1d;
+	}
+
+	private static double toDouble(final boolean negative, final long mantissa, final int exponent) {
+		// mantissa and power of ten are exact, one rounding only
+		double value = mantissa;
+		if (exponent < 0) {
+			value /= POWERS_OF_TEN[-exponent];
+		} else {
+			value *= POWERS_OF_TEN[exponent];
+		}
+		return negative ? -value : value;
+	}
+
+	private static double special(final CharSequence text, final int pos, final int end, final boolean negative,
+			final double defaultValue) {
+		if (matches(text, pos, end, "NaN")) {
+			return Double.NaN;
+		}
+		if (matches(text, pos, end, "Infinity")) {
+			return negative ? Double.NEGATIVE_INFINITY : Double.POSITIVE_INFINITY;
+		}
+		return defaultValue;
+	}
+
+	/**
+	 * Hexadecimal floats are rare, they are left to {@link Double#parseDouble(String)}.
+	 */
+	private static double hexadecimal(final String text, final double defaultValue) {
+		try {
+			return Double.parseDouble(text);
+		} catch (final NumberFormatException e) {
+			return defaultValue;
+		}
+	}
+
+	private static boolean matches(final CharSequence text, final int pos, final int end, final String expected) {
+		if (end - pos != expected.length()) {
+			return false;
+		}
+		for (int i = 0; i < expected.length(); i++) {
+			if (text.charAt(pos + i) != expected.charAt(i)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private static boolean isTypeSuffix(final char c) {
+		return c == 'd' || c == 'D' || c == 'f' || c == 'F';
+	}
+
+	/**
+	 * Read only view of ASCII bytes, only used on the slow paths.
+	 */
+	private static final class AsciiSequence implements CharSequence {
+		private final byte[] bytes;
+		private final int offset;
+		private final int length;
+
+		AsciiSequence(final byte[] bytes) {
+			this(bytes, 0, bytes.length);
+		}
+
+		AsciiSequence(final byte[] bytes, final int offset, final int length) {
+			this.bytes = bytes;
+			this.offset = offset;
+			this.length = length;
+		}
+
+		public int length() {
+			return length;
+		}
+
+		public char charAt(final int index) {
+			return (char) (bytes[offset + index] & 0xFF);
+		}
+
+		public CharSequence subSequence(final int start, final int end) {
+			return new AsciiSequence(bytes, offset + start, end - start);
+		}
+
+		@Override
+		public String toString() {
+			final char[] chars = new char[length];
+			for (int i = 0; i < length; i++) {
+				chars[i] = charAt(i);
+			}
+			return new String(chars);
+		}
+	}
+}
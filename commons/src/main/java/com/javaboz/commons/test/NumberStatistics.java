@@ -0,0 +1,475 @@
+package com.javaboz.commons.test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.RandomAccess;
+import java.util.concurrent.ExecutorService;
+
+/**
+ * Single pass statistics of a numeric column: count, sum, min, max, mean, variance and quantiles.<br>
+ * Values are added one by one as primitives or texts parsed like {@link NumberParser}, nothing is kept but the
+ * aggregates: a compensated sum, the Welford mean and variance, and a logarithmic histogram giving the quantiles with
+ * a bounded relative error. NaN, infinite and invalid texts are only counted as invalid, only exact zeros are counted as
+ * zeros: subnormal values have their own bins, at the relative accuracy their fewer significant bits allow.<br>
+ * Statistics of partitions are combined with {@link #merge(NumberStatistics)}, so large columns can be split between
+ * threads. Not thread safe.
+ *
+ * <pre>
+ * final NumberStatistics stats = new NumberStatistics();
+ * for (final String line : lines) {
+ * 	stats.add(line);
+ * }
+ * final double median = stats.getQuantile(0.5);
+ * </pre>
+ *
+ * @author Julien Boz
+ */
+public final class NumberStatistics {
+
+	/** relative error of the quantiles by default, 1% */
+	public static final double DEFAULT_RELATIVE_ACCURACY = 0.01;
+
+	/** max number of bins by sign, the smallest magnitudes are collapsed beyond */
+	static final int MAX_BINS = 2048;
+
+	/** ratio between the largest and smallest magnitudes that {@link #MAX_BINS} bins must keep apart */
+	static final double MIN_RANGE = 1e6;
+
+	/** smallest relative error of the quantiles, below {@link #MAX_BINS} bins cover less than {@link #MIN_RANGE} */
+	public static final double MIN_RELATIVE_ACCURACY = Math.tanh(Math.log(MIN_RANGE) / (2 * (MAX_BINS - 1)));
+
+	private final double relativeAccuracy;
+	/** log of the ratio between two bins */
+	private final double logGamma;
+	/** value of a bin, <code>2 / (gamma + 1)</code> of its upper bound */
+	private final double binFactor;
+
+	private long count;
+	private long invalidCount;
+	private double sum;
+	/** lost low-order bits of the sum, Kahan summation */
+	private double compensation;
+	private double min = Double.NaN;
+	private double max = Double.NaN;
+	private double mean;
+	/** sum of the squared differences to the mean */
+	private double squares;
+	private final Bins positives = new Bins();
+	private final Bins negatives = new Bins();
+	private long zeros;
+
+	/**
+	 * Statistics with quantiles at {@link #DEFAULT_RELATIVE_ACCURACY}.
+	 */
+	public NumberStatistics() {
+		this(DEFAULT_RELATIVE_ACCURACY);
+	}
+
+	/**
+	 * @param relativeAccuracy max relative error of the quantiles, in [{@link #MIN_RELATIVE_ACCURACY}, 1[
+	 */
+	public NumberStatistics(final double relativeAccuracy) {
+		if (!(relativeAccuracy > 0 && relativeAccuracy < 1)) {
+			throw new IllegalArgumentException("Relative accuracy out of ]0, 1[: " + relativeAccuracy);
+		}
+		if (relativeAccuracy < MIN_RELATIVE_ACCURACY) {
+			// the bins would cover too narrow a range, and their indexes could overflow
+			throw new IllegalArgumentException("Relative accuracy below " + MIN_RELATIVE_ACCURACY + ": "
+					+ relativeAccuracy);
+		}
+		final double gamma = (1 + relativeAccuracy) / (1 - relativeAccuracy);
+		this.relativeAccuracy = relativeAccuracy;
+		this.logGamma = Math.log(gamma);
+		this.binFactor = 2 / (gamma + 1);
+	}
+
+	/**
+	 * @return true if <code>value</code> is finite and was added, false if counted as invalid
+	 */
+	public boolean add(final double value) {
+		if (Double.isNaN(value) || Double.isInfinite(value)) {
+			invalidCount++;
+			return false;
+		}
+		count++;
+		addToSum(value);
+		if (count == 1) {
+			min = value;
+			max = value;
+		} else if (value < min) {
+			min = value;
+		} else if (value > max) {
+			max = value;
+		}
+		final double delta = value - mean;
+		mean += delta / count;
+		squares += delta * (value - mean);
+		addToBins(value, 1);
+		return true;
+	}
+
+	/**
+	 * @return true if <code>text</code> is a finite number and was added, false if counted as invalid
+	 * @see NumberParser#parseDouble(CharSequence, double)
+	 */
+	public boolean add(final CharSequence text) {
+		return add(NumberParser.parseDouble(text, Double.NaN));
+	}
+
+	/**
+	 * @see #add(CharSequence)
+	 */
+	public boolean add(final byte[] bytes, final int start, final int end) {
+		return add(NumberParser.parseDouble(bytes, start, end, Double.NaN));
+	}
+
+	/**
+	 * @return this
+	 */
+	public NumberStatistics addAll(final double[] values) {
+		for (int i = 0; i < values.length; i++) {
+			add(values[i]);
+		}
+		return this;
+	}
+
+	/**
+	 * @return this
+	 */
+	public NumberStatistics addAll(final Iterable<? extends CharSequence> texts) {
+		for (final CharSequence text : texts) {
+			add(text);
+		}
+		return this;
+	}
+
+	/**
+	 * Add the texts in chunks computed concurrently then merged.
+	 *
+	 * @param executor executor computing the chunks, null to add in the calling thread
+	 * @return this
+	 */
+	public NumberStatistics addAll(final List<? extends CharSequence> texts, final ExecutorService executor) {
+		final int size = texts.size();
+		if (executor == null || size < 2 * NumberColumns.MIN_CHUNK_SIZE) {
+			return addAll(texts);
+		}
+		// indexed access for the chunks
+		final List<? extends CharSequence> list = texts instanceof RandomAccess ? texts : new ArrayList<CharSequence>(
+				texts);
+		new ChunkedTask<NumberStatistics>() {
+			@Override
+			NumberStatistics compute(final int from, final int to) {
+				return new NumberStatistics(relativeAccuracy).addAll(list.subList(from, to));
+			}
+
+			@Override
+			void combine(final int from, final NumberStatistics chunk) {
+				merge(chunk);
+			}
+		}.run(size, NumberColumns.MIN_CHUNK_SIZE, executor);
+		return this;
+	}
+
+	/**
+	 * Add the ASCII fields of <code>[start, end[</code> separated by <code>delimiter</code>, a delimiter at the end
+	 * doesn't start a new field.
+	 *
+	 * @return the number of fields
+	 * @see NumberColumns#parseDoubles(byte[], int, int, byte, double[], java.util.BitSet)
+	 */
+	public int addAll(final byte[] buffer, final int start, final int end, final byte delimiter) {
+		int fields = 0;
+		int from = start;
+		while (from < end) {
+			final int to = NumberColumns.indexOf(buffer, delimiter, from, end);
+			add(buffer, from, to);
+			fields++;
+			from = to + 1;
+		}
+		return fields;
+	}
+
+	/**
+	 * Add all the values of <code>other</code>, as if they had been added to this.
+	 *
+	 * @param other statistics with the same relative accuracy, unchanged
+	 * @return this
+	 */
+	public NumberStatistics merge(final NumberStatistics other) {
+		if (other.relativeAccuracy != relativeAccuracy) {
+			throw new IllegalArgumentException("Relative accuracy mismatch: " + relativeAccuracy + " != "
+					+ other.relativeAccuracy);
+		}
+		invalidCount += other.invalidCount;
+		if (other.count == 0) {
+			return this;
+		}
+		if (count == 0) {
+			min = other.min;
+			max = other.max;
+		} else {
+			min = Math.min(min, other.min);
+			max = Math.max(max, other.max);
+		}
+		addToSum(other.sum);
+		addToSum(-other.compensation);
+		// Chan et al. pairwise combination
+		final long total = count + other.count;
+		final double delta = other.mean - mean;
+		mean += delta * other.count / total;
+		squares += other.squares + delta * delta * count / total * other.count;
+		count = total;
+		positives.merge(other.positives);
+		negatives.merge(other.negatives);
+		zeros += other.zeros;
+		return this;
+	}
+
+	private void addToSum(final double value) {
+		final double y = value - compensation;
+		final double t = sum + y;
+		compensation = t - sum - y;
+		sum = t;
+	}
+
+	private void addToBins(final double value, final long n) {
+		if (value > 0) {
+			positives.add(index(value), n);
+		} else if (value < 0) {
+			negatives.add(index(-value), n);
+		} else {
+			zeros += n;
+		}
+	}
+
+	/**
+	 * @return the bin of the positive <code>value</code>, <code>ceil(log_gamma(value))</code>
+	 */
+	private int index(final double value) {
+		return (int) Math.ceil(Math.log(value) / logGamma);
+	}
+
+	/**
+	 * @return the value of the bin, at most <code>relativeAccuracy</code> from any value of the bin
+	 */
+	private double value(final int index) {
+		return Math.exp(index * logGamma) * binFactor;
+	}
+
+	/**
+	 * @return max relative error of the quantiles
+	 */
+	public double getRelativeAccuracy() {
+		return relativeAccuracy;
+	}
+
+	/**
+	 * @return number of values added
+	 */
+	public long getCount() {
+		return count;
+	}
+
+	/**
+	 * @return number of NaN, infinite and invalid texts rejected
+	 */
+	public long getInvalidCount() {
+		return invalidCount;
+	}
+
+	/**
+	 * @return sum of the values, 0 if empty
+	 */
+	public double getSum() {
+		return sum;
+	}
+
+	/**
+	 * @return smallest value, NaN if empty
+	 */
+	public double getMin() {
+		return min;
+	}
+
+	/**
+	 * @return largest value, NaN if empty
+	 */
+	public double getMax() {
+		return max;
+	}
+
+	/**
+	 * @return arithmetic mean, NaN if empty
+	 */
+	public double getMean() {
+		return count == 0 ? Double.NaN : mean;
+	}
+
+	/**
+	 * @return sample variance, NaN if less than 2 values
+	 */
+	public double getVariance() {
+		return count < 2 ? Double.NaN : squares / (count - 1);
+	}
+
+	/**
+	 * @return population variance, NaN if empty
+	 */
+	public double getPopulationVariance() {
+		return count == 0 ? Double.NaN : squares / count;
+	}
+
+	/**
+	 * @return sample standard deviation, NaN if less than 2 values
+	 */
+	public double getStandardDeviation() {
+		return Math.sqrt(getVariance());
+	}
+
+	/**
+	 * @param quantile in [0, 1], 0.5 for the median
+	 * @return the value of rank <code>floor(quantile * (count - 1))</code>, within the relative accuracy but exact for
+	 *         the min and max; NaN if empty
+	 */
+	public double getQuantile(final double quantile) {
+		if (!(quantile >= 0 && quantile <= 1)) {
+			throw new IllegalArgumentException("Quantile out of [0, 1]: " + quantile);
+		}
+		if (count == 0) {
+			return Double.NaN;
+		}
+		final long rank = (long) (quantile * (count - 1));
+		if (rank == 0) {
+			return min;
+		}
+		if (rank == count - 1) {
+			return max;
+		}
+		// ascending order: negatives by decreasing magnitude, zeros, positives
+		long seen = 0;
+		double value = 0;
+		if (rank < negatives.total) {
+			for (int i = negatives.maxIndex; i >= negatives.minIndex; i--) {
+				seen += negatives.get(i);
+				if (seen > rank) {
+					value = -value(i);
+					break;
+				}
+			}
+		} else if (rank >= negatives.total + zeros) {
+			seen = negatives.total + zeros;
+			for (int i = positives.minIndex; i <= positives.maxIndex; i++) {
+				seen += positives.get(i);
+				if (seen > rank) {
+					value = value(i);
+					break;
+				}
+			}
+		}
+		return Math.max(min, Math.min(max, value));
+	}
+
+	/**
+	 * @return the median, within the relative accuracy
+	 */
+	public double getMedian() {
+		return getQuantile(0.5);
+	}
+
+	@Override
+	public String toString() {
+		return "NumberStatistics[count=" + count + ", invalid=" + invalidCount + ", min=" + min + ", max=" + max
+				+ ", mean=" + getMean() + ", variance=" + getVariance() + "]";
+	}
+
+	/**
+	 * Counts by bin index of one sign, dense between the smallest and largest index.
+	 */
+	private static final class Bins {
+		private long[] counts;
+		/** index of <code>counts[0]</code> */
+		private int offset;
+		private int minIndex;
+		private int maxIndex;
+		private long total;
+
+		long get(final int index) {
+			return counts[index - offset];
+		}
+
+		void add(final int index, final long n) {
+			int target = index;
+			if (total == 0) {
+				minIndex = target;
+				maxIndex = target;
+				ensureCapacity(target, target);
+			} else if (target < minIndex) {
+				// the smallest magnitudes share the lowest bin
+				target = Math.max(target, maxIndex - MAX_BINS + 1);
+				if (target < minIndex) {
+					ensureCapacity(target, maxIndex);
+					minIndex = target;
+				}
+			} else if (target > maxIndex) {
+				final int newMin = target - MAX_BINS + 1;
+				if (newMin > minIndex) {
+					collapse(newMin);
+				}
+				ensureCapacity(minIndex, target);
+				maxIndex = target;
+			}
+			counts[target - offset] += n;
+			total += n;
+		}
+
+		void merge(final Bins other) {
+			if (other.total == 0) {
+				return;
+			}
+			for (int i = other.minIndex; i <= other.maxIndex; i++) {
+				final long n = other.get(i);
+				if (n != 0) {
+					add(i, n);
+				}
+			}
+		}
+
+		/**
+		 * Move the counts below <code>newMin</code> into <code>newMin</code>.
+		 */
+		private void collapse(final int newMin) {
+			long folded = 0;
+			for (int i = minIndex; i <= maxIndex && i < newMin; i++) {
+				folded += counts[i - offset];
+				counts[i - offset] = 0;
+			}
+			if (newMin > maxIndex) {
+				ensureCapacity(newMin, newMin);
+				maxIndex = newMin;
+			}
+			minIndex = newMin;
+			counts[newMin - offset] += folded;
+		}
+
+		private void ensureCapacity(final int low, final int high) {
+			final int needed = high - low + 1;
+			if (counts != null && low >= offset && high < offset + counts.length) {
+				return;
+			}
+			final int grown = counts == null ? 64 : Math.min(counts.length * 2, MAX_BINS);
+			final long[] newCounts = new long[Math.max(needed, grown)];
+			final int newOffset = low - (newCounts.length - needed) / 2;
+			if (counts != null) {
+				// bins outside of the new range are empty
+				final int from = Math.max(offset, newOffset);
+				final int to = Math.min(offset + counts.length, newOffset + newCounts.length);
+				if (from < to) {
+					System.arraycopy(counts, from - offset, newCounts, from - newOffset, to - from);
+				}
+			}
+			counts = newCounts;
+			offset = newOffset;
+		}
+	}
+}
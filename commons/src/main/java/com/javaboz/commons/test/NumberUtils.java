@@ -0,0 +1,566 @@
+package com.javaboz.commons.test;
+
+import java.math.BigDecimal;
+import java.text.DecimalFormat;
+import java.text.DecimalFormatSymbols;
+import java.text.NumberFormat;
+import java.util.Locale;
+
+import org.apache.commons.math.complex.Complex;
+import org.apache.commons.math.complex.ComplexFormat;
+
+/**
+ * Utilisataire sur les nombres.
+ *
+ * @author Julien Boz
+ */
+public final class NumberUtils extends org.apache.commons.lang.math.NumberUtils {
+
+	/* imaginary symbol */
+	public static final String IMAGINARY = "IMAGINARY";
+
+	private NumberUtils() {
+	}
+
+	/** optional cache of {@link #toIntObject(String, Integer)} and {@link #toLongObject(String, Long)} */
+	private static volatile NumberParseCache parseCache;
+
+	/** classifier and formatters of the last default locale used */
+	private static volatile LocaleFormats localeFormats;
+
+	/**
+	 * Classifier and thread safe formatters of a locale, replaced together when the default locale changes so that
+	 * classifying, parsing and formatting agree.<br>
+	 * Formatters are pooled instead of kept per thread, so their number doesn't grow with the number of threads.
+	 */
+	static final class LocaleFormats {
+
+		final Locale locale;
+		final NumberClassifier classifier;
+		final FormatPool<NumberFormat> formatters = new FormatPool<NumberFormat>() {
+
+			@Override
+			protected NumberFormat create() {
+				return new DecimalFormat("#,###.##", new DecimalFormatSymbols(locale));
+			}
+		};
+		final FormatPool<GroupedNumberFormat> groupedFormats = new FormatPool<GroupedNumberFormat>() {
+
+			@Override
+			protected GroupedNumberFormat create() {
+				return new GroupedNumberFormat(new DecimalFormatSymbols(locale));
+			}
+		};
+		final FormatPool<ComplexCodec> complexCodecs = new FormatPool<ComplexCodec>() {
+
+			@Override
+			protected ComplexCodec create() {
+				return new ComplexCodec(locale, IMAGINARY);
+			}
+		};
+
+		LocaleFormats(final Locale locale) {
+			this.locale = locale;
+			this.classifier = new NumberClassifier(locale, IMAGINARY);
+		}
+	}
+
+	/**
+	 * @return a new number formatter, thread safe as long as it is not shared
+	 */
+	public static final NumberFormat getFormatter() {
+		return new DecimalFormat("#,###.##", new DecimalFormatSymbols());
+	}
+
+	/**
+	 * @return a new complex formatter, thread safe as long as it is not shared
+	 */
+	public static final ComplexFormat getComplexFormat() {
+		return new ComplexFormat(IMAGINARY, getFormatter());
+	}
+
+	/**
+	 * @return the cache used by {@link #toIntObject(String, Integer)} and {@link #toLongObject(String, Long)}, null if
+	 *         none
+	 */
+	public static NumberParseCache getParseCache() {
+		return parseCache;
+	}
+
+	/**
+	 * Set the cache used by {@link #toIntObject(String, Integer)} and {@link #toLongObject(String, Long)}, useful for
+	 * columns with few distinct numbers.
+	 *
+	 * @param cache the cache, null to disable caching
+	 */
+	public static void setParseCache(final NumberParseCache cache) {
+		parseCache = cache;
+	}
+
+	/**
+	 * @return number formatted
+	 */
+	public static String format(final Number number) {
+		if (number == null) {
+			return null;
+		}
+		final long start = LibraryMetrics.NUMBER_FORMAT.start();
+		boolean success = false;
+		try {
+			final String formatted = formatNonNull(number);
+			success = true;
+			return formatted;
+		} finally {
+			LibraryMetrics.NUMBER_FORMAT.stop(start, success);
+		}
+	}
+
+	private static String formatNonNull(final Number number) {
+		if (number instanceof Double || number instanceof Float || number instanceof Long || number instanceof Integer
+				|| number instanceof Short || number instanceof Byte || number instanceof BigDecimal
+				|| number instanceof FixedDecimal) {
+			final FormatPool<GroupedNumberFormat> groupedFormats = groupedFormats();
+			final GroupedNumberFormat formatter = groupedFormats.acquire();
+			try {
+				if (number instanceof FixedDecimal) {
+					final FixedDecimal decimal = (FixedDecimal) number;
+					return formatter.formatUnscaled(decimal.getUnscaled(), decimal.getScale(), new StringBuilder())
+							.toString();
+				}
+				if (number instanceof BigDecimal) {
+					return formatter.format((BigDecimal) number);
+				}
+				if (number instanceof Double || number instanceof Float) {
+					return formatter.format(number.doubleValue());
+				}
+				return formatter.format(number.longValue());
+			} finally {
+				groupedFormats.release(formatter);
+			}
+		}
+		final FormatPool<NumberFormat> formatters = getLocaleFormats().formatters;
+		final NumberFormat formatter = formatters.acquire();
+		try {
+			return formatter.format(number);
+		} finally {
+			formatters.release(formatter);
+		}
+	}
+
+	/**
+	 * @return <code>to</code>, with number formatted appended
+	 */
+	public static StringBuilder format(final long number, final StringBuilder to) {
+		final FormatPool<GroupedNumberFormat> groupedFormats = groupedFormats();
+		final GroupedNumberFormat formatter = groupedFormats.acquire();
+		try {
+			return formatter.format(number, to);
+		} finally {
+			groupedFormats.release(formatter);
+		}
+	}
+
+	/**
+	 * @return <code>to</code>, with number formatted appended
+	 */
+	public static StringBuilder format(final double number, final StringBuilder to) {
+		final FormatPool<GroupedNumberFormat> groupedFormats = groupedFormats();
+		final GroupedNumberFormat formatter = groupedFormats.acquire();
+		try {
+			return formatter.format(number, to);
+		} finally {
+			groupedFormats.release(formatter);
+		}
+	}
+
+	/**
+	 * Parse back a number formatted by {@link #format(Number)}, strictly.
+	 *
+	 * @return the double value of <code>str</code>, or <code>defaultValue</code> if it is not a formatted number
+	 * @see GroupedNumberFormat#parseDouble(CharSequence, double)
+	 */
+	public static double parseFormatted(final String str, final double defaultValue) {
+		final FormatPool<GroupedNumberFormat> groupedFormats = groupedFormats();
+		final GroupedNumberFormat formatter = groupedFormats.acquire();
+		try {
+			return formatter.parseDouble(str, defaultValue);
+		} finally {
+			groupedFormats.release(formatter);
+		}
+	}
+
+	/**
+	 * Parse back a number formatted by {@link #format(Number)}, strictly and exactly.
+	 *
+	 * @return the value of <code>str</code>, null if it is not a formatted number
+	 * @see GroupedNumberFormat#parseBigDecimal(CharSequence)
+	 */
+	public static BigDecimal parseFormattedDecimal(final String str) {
+		final FormatPool<GroupedNumberFormat> groupedFormats = groupedFormats();
+		final GroupedNumberFormat formatter = groupedFormats.acquire();
+		try {
+			return formatter.parseBigDecimal(str);
+		} finally {
+			groupedFormats.release(formatter);
+		}
+	}
+
+	/**
+	 * @return number formatted
+	 */
+	public static String toString(final Number number) {
+		return format(number);
+	}
+
+	/**
+	 * @return the smallest value of type double.
+	 */
+	public static String getDecimalMinValue() {
+		return Double.toString(Double.MIN_VALUE);
+	}
+
+	/**
+	 * <p>
+	 * Convert a <code>String</code> to an <code>Integer</code>, returning a default value if the conversion fails.
+	 * </p>
+	 * <p>
+	 * If the string is <code>null</code>, the default value is returned.
+	 * </p>
+	 *
+	 * <pre>
+	 *   NumberUtils.toIntObject(null, 1) = 1
+	 *   NumberUtils.toIntObject("", 1)   = 1
+	 *   NumberUtils.toIntObject("1", 0)  = 1
+	 * </pre>
+	 *
+	 * @param str : the string to convert, may be null
+	 * @param defaultValue : the default value
+	 * @return the Integer represented by the string, or the default if conversion fails
+	 */
+	public static Integer toIntObject(final String str, final Integer defaultValue) {
+		final long start = LibraryMetrics.NUMBER_PARSE.start();
+		boolean success = false;
+		try {
+			final Integer value = parseIntObject(str);
+			success = value != null;
+			return value == null ? defaultValue : value;
+		} finally {
+			LibraryMetrics.NUMBER_PARSE.stop(start, success);
+		}
+	}
+
+	private static Integer parseIntObject(final String str) {
+		final NumberParseCache cache = parseCache;
+		if (cache != null) {
+			return cache.toIntObject(str);
+		}
+		final long value = str == null ? NumberParser.NOT_AN_INT : NumberParser.scanInt(str, 0, str.length());
+		return value == NumberParser.NOT_AN_INT ? null : Integer.valueOf((int) value);
+	}
+
+	/**
+	 * <p>
+	 * Convert a <code>String</code> to an <code>Integer</code>, returning a null value if the conversion fails.
+	 * </p>
+	 *
+	 * <pre>
+	 *   NumberUtils.toIntObject(null) = null
+	 *   NumberUtils.toIntObject("")   = null
+	 *   NumberUtils.toIntObject("1")  = 1
+	 * </pre>
+	 *
+	 * @param str the string to convert, may be null
+	 * @return the Integer represented by the string, or null if conversion fails
+	 */
+	public static Integer toIntObject(final String str) {
+		return toIntObject(str, null);
+	}
+
+	/**
+	 * <p>
+	 * Convert a <code>String</code> to an <code>int</code>, returning <code>Integer.MIN_VALUE</code> if the conversion fails.
+	 * </p>
+	 * <p>
+	 * If the string is <code>null</code>, <code>Integer.MIN_VALUE</code> is returned.
+	 * </p>
+	 *
+	 * <pre>
+	 *   NumberUtils.toInt(null) = Integer.MIN_VALUE
+	 *   NumberUtils.toInt("")   = Integer.MIN_VALUE
+	 *   NumberUtils.toInt("1")  = 1
+	 * </pre>
+	 *
+	 * @param str the string to convert, may be null
+	 * @return the int represented by the string, or <code>Integer.MIN_VALUE</code> if conversion fails
+	 */
+	public static int toInt(final String str) {
+		return toInt(str, Integer.MIN_VALUE);
+	}
+
+	/**
+	 * <p>
+	 * Convert a <code>String</code> to an <code>int</code>, returning a default value if the conversion fails.
+	 * </p>
+	 * <p>
+	 * Same as {@link org.apache.commons.lang.math.NumberUtils#toInt(String, int)} without exception on invalid strings.
+	 * </p>
+	 *
+	 * @see NumberParser#parseInt(CharSequence, int)
+	 */
+	public static int toInt(final String str, final int defaultValue) {
+		return NumberParser.parseInt(str, defaultValue);
+	}
+
+	/**
+	 * <p>
+	 * Convert a <code>String</code> to an <code>Long</code>, returning a default value if the conversion fails.
+	 * </p>
+	 * <p>
+	 * If the string is <code>null</code>, the default value is returned.
+	 * </p>
+	 *
+	 * <pre>
+	 *   NumberUtils.toLongObject(null, 1) = 1
+	 *   NumberUtils.toLongObject("", 1)   = 1
+	 *   NumberUtils.toLongObject("1", 0)  = 1
+	 * </pre>
+	 *
+	 * @param str : the string to convert, may be null
+	 * @param defaultValue : the default value
+	 * @return the Long represented by the string, or the default if conversion fails
+	 */
+	public static Long toLongObject(final String str, final Long defaultValue) {
+		final long start = LibraryMetrics.NUMBER_PARSE.start();
+		boolean success = false;
+		try {
+			final Long value = parseLongObject(str);
+			success = value != null;
+			return value == null ? defaultValue : value;
+		} finally {
+			LibraryMetrics.NUMBER_PARSE.stop(start, success);
+		}
+	}
+
+	private static Long parseLongObject(final String str) {
+		final NumberParseCache cache = parseCache;
+		if (cache != null) {
+			return cache.toLongObject(str);
+		}
+		final long value = NumberParser.parseLong(str, Long.MIN_VALUE);
+		if (value == Long.MIN_VALUE && !NumberParser.isLong(str)) {
+			return null;
+		}
+		return Long.valueOf(value);
+	}
+
+	/**
+	 * <p>
+	 * Convert a <code>String</code> to an <code>Long</code>, returning a null value if the conversion fails.
+	 * </p>
+	 *
+	 * <pre>
+	 *   NumberUtils.toLongObject(null) = null
+	 *   NumberUtils.toLongObject("")   = null
+	 *   NumberUtils.toLongObject("1")  = 1
+	 * </pre>
+	 *
+	 * @param str the string to convert, may be null
+	 * @return the Long represented by the string, or null if conversion fails
+	 */
+	public static Long toLongObject(final String str) {
+		return toLongObject(str, null);
+	}
+
+	/**
+	 * <p>
+	 * Convert a <code>String</code> to a <code>long</code>, returning <code>Long.MIN_VALUE</code> if the conversion fails.
+	 * </p>
+	 * <p>
+	 * If the string is <code>null</code>, <code>Long.MIN_VALUE</code> is returned.
+	 * </p>
+	 *
+	 * <pre>
+	 *   NumberUtils.toLong(null) = Long.MIN_VALUE
+	 *   NumberUtils.toLong("")   = Long.MIN_VALUE
+	 *   NumberUtils.toLong("1")  = 1L
+	 * </pre>
+	 *
+	 * @param str the string to convert, may be null
+	 * @return the long represented by the string, or <code>Long.MIN_VALUE</code> if conversion fails
+	 */
+	public static long toLong(final String str) {
+		return toLong(str, Long.MIN_VALUE);
+	}
+
+	/**
+	 * <p>
+	 * Convert a <code>String</code> to a <code>long</code>, returning a default value if the conversion fails.
+	 * </p>
+	 * <p>
+	 * Same as {@link org.apache.commons.lang.math.NumberUtils#toLong(String, long)} without exception on invalid strings.
+	 * </p>
+	 *
+	 * @see NumberParser#parseLong(CharSequence, long)
+	 */
+	public static long toLong(final String str, final long defaultValue) {
+		return NumberParser.parseLong(str, defaultValue);
+	}
+
+	/**
+	 * <p>
+	 * Convert a <code>String</code> to an <code>Double</code>, returning a default value if the conversion fails.
+	 * </p>
+	 * <p>
+	 * If the string is <code>null</code>, the default value is returned.
+	 * </p>
+	 *
+	 * <pre>
+	 *   NumberUtils.toDoubleObject(null, 1) = 1
+	 *   NumberUtils.toDoubleObject("", 1)   = 1
+	 *   NumberUtils.toDoubleObject("1", 0)  = 1
+	 * </pre>
+	 *
+	 * @param str : the string to convert, may be null
+	 * @param defaultValue : the default value
+	 * @return the Double represented by the string, or the default if conversion fails
+	 */
+	public static Double toDoubleObject(final String str, final Double defaultValue) {
+		final long start = LibraryMetrics.NUMBER_PARSE.start();
+		boolean success = false;
+		try {
+			final double value = NumberParser.parseDouble(str, Double.NaN);
+			success = !Double.isNaN(value) || NumberParser.isDouble(str);
+			return success ? Double.valueOf(value) : defaultValue;
+		} finally {
+			LibraryMetrics.NUMBER_PARSE.stop(start, success);
+		}
+	}
+
+	/**
+	 * <p>
+	 * Convert a <code>String</code> to an <code>Double</code>, returning a null value if the conversion fails.
+	 * </p>
+	 *
+	 * <pre>
+	 *   NumberUtils.toDoubleObject(null) = null
+	 *   NumberUtils.toDoubleObject("")   = null
+	 *   NumberUtils.toDoubleObject("1")  = 1
+	 * </pre>
+	 *
+	 * @param str the string to convert, may be null
+	 * @return the Double represented by the string, or null if conversion fails
+	 */
+	public static Double toDoubleObject(final String str) {
+		return toDoubleObject(str, null);
+	}
+
+	/**
+	 * <p>
+	 * Convert a <code>String</code> to a <code>double</code>, returning <code>Long.MIN_VALUE</code> if the conversion fails.
+	 * </p>
+	 * <p>
+	 * If the string is <code>null</code>, <code>Double.MIN_VALUE</code> is returned.
+	 * </p>
+	 *
+	 * <pre>
+	 *   NumberUtils.toDouble(null) = Double.MIN_VALUE
+	 *   NumberUtils.toDouble("")   = Double.MIN_VALUE
+	 *   NumberUtils.toDouble("1")  = 1L
+	 * </pre>
+	 *
+	 * @param str the string to convert, may be null
+	 * @return the double represented by the string, or <code>Double.MIN_VALUE</code> if conversion fails
+	 */
+	public static double toDouble(final String str) {
+		return toDouble(str, Double.MIN_VALUE);
+	}
+
+	/**
+	 * <p>
+	 * Convert a <code>String</code> to a <code>double</code>, returning a default value if the conversion fails.
+	 * </p>
+	 * <p>
+	 * Same as {@link org.apache.commons.lang.math.NumberUtils#toDouble(String, double)} without exception on invalid
+	 * strings.
+	 * </p>
+	 *
+	 * @see NumberParser#parseDouble(CharSequence, double)
+	 */
+	public static double toDouble(final String str, final double defaultValue) {
+		return NumberParser.parseDouble(str, defaultValue);
+	}
+
+	/**
+	 * Manage formatted value.
+	 *
+	 * @see org.apache.commons.lang.math.NumberUtils#isNumber(String)
+	 * @see NumberClassifier
+	 */
+	public static boolean isNumber(final String str) {
+		return getNumberKind(str) != null;
+	}
+
+	/**
+	 * @return the kind of number of <code>str</code> in the default locale, null if it is not a number
+	 */
+	public static NumberClassifier.Kind getNumberKind(final String str) {
+		return getClassifier().classify(str);
+	}
+
+	/**
+	 * @return the classifier of the default locale
+	 */
+	static NumberClassifier getClassifier() {
+		return getLocaleFormats().classifier;
+	}
+
+	/**
+	 * @return the pool of grouped formats of the default locale, to release the acquired formats to
+	 */
+	static FormatPool<GroupedNumberFormat> groupedFormats() {
+		return getLocaleFormats().groupedFormats;
+	}
+
+	/**
+	 * @return the pool of complex codecs of the default locale, to release the acquired codecs to
+	 */
+	static FormatPool<ComplexCodec> complexCodecs() {
+		return getLocaleFormats().complexCodecs;
+	}
+
+	/**
+	 * @return the classifier and formatters of the default locale
+	 */
+	static LocaleFormats getLocaleFormats() {
+		final Locale locale = Locale.getDefault();
+		LocaleFormats current = localeFormats;
+		if (current == null || !current.locale.equals(locale)) {
+			current = new LocaleFormats(locale);
+			localeFormats = current;
+		}
+		return current;
+	}
+
+	/**
+	 * @return the complex of <code>str</code>, null if it is not a complex
+	 * @see ComplexCodec
+	 */
+	public static Complex parse(final String str) {
+		if (str == null) {
+			return null;
+		}
+		final long start = LibraryMetrics.NUMBER_PARSE.start();
+		boolean success = false;
+		final FormatPool<ComplexCodec> complexCodecs = complexCodecs();
+		final ComplexCodec codec = complexCodecs.acquire();
+		try {
+			final Complex complex = codec.parse(str);
+			success = complex != null;
+			return complex;
+		} finally {
+			complexCodecs.release(codec);
+			LibraryMetrics.NUMBER_PARSE.stop(start, success);
+		}
+	}
+}
+
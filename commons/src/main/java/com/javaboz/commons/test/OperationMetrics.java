@@ -0,0 +1,156 @@
+package com.javaboz.commons.test;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Counters of an instrumented operation: calls, failures and a latency histogram of sampled calls.<br>
+ * Counting is a no-op while {@link LibraryMetrics} is disabled, a single volatile read. Once enabled, calls and
+ * failures are counted in {@link StripedCounter} and one call out of {@link #SAMPLE_RATE} per stripe is timed, in
+ * power of 2 buckets of nanoseconds.
+ *
+ * <pre>
+ * final long start = metrics.start();
+ * final Date parsed = parseUncached(date, dateFormat);
+ * metrics.stop(start, parsed != null);
+ * </pre>
+ *
+ * @author Julien Boz
+ */
+public final class OperationMetrics implements OperationMetricsMBean {
+
+	/** one call out of SAMPLE_RATE is timed, a power of 2 */
+	public static final int SAMPLE_RATE = 64;
+
+	/** returned by {@link #start()} when disabled */
+	private static final long DISABLED = Long.MIN_VALUE;
+	/** returned by {@link #start()} when the call is not timed */
+	private static final long NOT_SAMPLED = Long.MIN_VALUE + 1;
+	private static final int BUCKETS = 64;
+
+	private final String name;
+	private final StripedCounter calls = new StripedCounter();
+	private final StripedCounter failures = new StripedCounter();
+	/** timed calls by bucket, contention is low as few calls are timed */
+	private final AtomicLongArray latencies = new AtomicLongArray(BUCKETS);
+	private final StripedCounter totalLatency = new StripedCounter();
+
+	OperationMetrics(final String name) {
+		this.name = name;
+	}
+
+	/**
+	 * @return the token of the call, for {@link #stop(long, boolean)}
+	 */
+	public long start() {
+		if (!LibraryMetrics.isEnabled()) {
+			return DISABLED;
+		}
+		return (calls.increment() & SAMPLE_RATE - 1) == 0 ? System.nanoTime() : NOT_SAMPLED;
+	}
+
+	/**
+	 * @param start the token returned by {@link #start()}
+	 * @param success false to count a failure
+	 */
+	public void stop(final long start, final boolean success) {
+		if (start == DISABLED) {
+			return;
+		}
+		if (!success) {
+			failures.increment();
+		}
+		if (start != NOT_SAMPLED) {
+			final long latency = Math.max(0L, System.nanoTime() - start);
+			// bucket of the highest bit, in [0, 63] for a non negative latency
+			latencies.incrementAndGet(BUCKETS - Long.numberOfLeadingZeros(latency));
+			totalLatency.add(latency);
+		}
+	}
+
+	public String getName() {
+		return name;
+	}
+
+	public long getCount() {
+		return calls.sum();
+	}
+
+	public long getFailureCount() {
+		return failures.sum();
+	}
+
+	public double getFailureRate() {
+		final long count = getCount();
+		return count == 0 ? 0 : (double) getFailureCount() / count;
+	}
+
+	public long getSampleCount() {
+		long samples = 0;
+		for (int i = 0; i < BUCKETS; i++) {
+			samples += latencies.get(i);
+		}
+		return samples;
+	}
+
+	public double getMeanLatency() {
+		final long samples = getSampleCount();
+		return samples == 0 ? 0 : (double) totalLatency.sum() / samples;
+	}
+
+	public long getMedianLatency() {
+		return getLatency(0.5);
+	}
+
+	public long getP99Latency() {
+		return getLatency(0.99);
+	}
+
+	/**
+	 * @param quantile in [0, 1]
+	 * @return the upper bound of the bucket of the latency at <code>quantile</code>, 0 if no call is timed
+	 */
+	public long getLatency(final double quantile) {
+		if (quantile < 0 || quantile > 1) {
+			throw new IllegalArgumentException("Quantile out of [0, 1]: " + quantile);
+		}
+		final long[] histogram = getLatencyHistogram();
+		long samples = 0;
+		for (final long count : histogram) {
+			samples += count;
+		}
+		if (samples == 0) {
+			return 0;
+		}
+		final long rank = Math.max(1L, (long) Math.ceil(quantile * samples));
+		long seen = 0;
+		for (int i = 0; i < BUCKETS; i++) {
+			seen += histogram[i];
+			if (seen >= rank) {
+				return i == BUCKETS - 1 ? Long.MAX_VALUE : 1L << i;
+			}
+		}
+		return Long.MAX_VALUE;
+	}
+
+	public long[] getLatencyHistogram() {
+		final long[] histogram = new long[BUCKETS];
+		for (int i = 0; i < BUCKETS; i++) {
+			histogram[i] = latencies.get(i);
+		}
+		return histogram;
+	}
+
+	public void reset() {
+		calls.reset();
+		failures.reset();
+		totalLatency.reset();
+		for (int i = 0; i < BUCKETS; i++) {
+			latencies.set(i, 0);
+		}
+	}
+
+	@Override
+	public String toString() {
+		return name + "[count=" + getCount() + ", failures=" + getFailureCount() + ", p99=" + getP99Latency() + "ns]";
+	}
+}
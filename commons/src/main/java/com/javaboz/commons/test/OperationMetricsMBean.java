@@ -0,0 +1,47 @@
+package com.javaboz.commons.test;
+
+/**
+ * JMX view of {@link OperationMetrics}, latencies in nanoseconds.
+ *
+ * @author Julien Boz
+ */
+public interface OperationMetricsMBean {
+
+	String getName();
+
+	long getCount();
+
+	long getFailureCount();
+
+	/**
+	 * @return failures / count, 0 if no call
+	 */
+	double getFailureRate();
+
+	/**
+	 * @return number of timed calls
+	 */
+	long getSampleCount();
+
+	/**
+	 * @return mean latency of the timed calls, 0 if none
+	 */
+	double getMeanLatency();
+
+	/**
+	 * @return upper bound of the median latency of the timed calls, 0 if none
+	 */
+	long getMedianLatency();
+
+	/**
+	 * @return upper bound of the 99th percentile latency of the timed calls, 0 if none
+	 */
+	long getP99Latency();
+
+	/**
+	 * @return timed calls by power of 2 bucket: index i counts the latencies in [2^(i-1), 2^i[
+	 */
+	long[] getLatencyHistogram();
+
+	void reset();
+}
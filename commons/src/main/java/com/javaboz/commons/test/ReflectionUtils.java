@@ -0,0 +1,332 @@
+package com.javaboz.commons.test;
+
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Field;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+
+/**
+ * Field values and method calls by name are served by the {@link GeneratedAccessors} of the class when it has been
+ * generated, by cached reflection otherwise.
+ *
+ * @author Julien Boz
+ */
+public class ReflectionUtils {
+
+	/**
+	 * Annotation of the method, else of the class or its nearest super class, memoized by class, method and annotation
+	 * type (missing annotations too).
+	 */
+	public static <T extends Annotation> T getMethodOrClassLevelAnnotation(final Class<T> annotationClass, final Method method,
+			final Class<?> clazz) {
+		return ClassMetadata.of(clazz).getMethodOrClassLevelAnnotation(annotationClass, method);
+	}
+
+	/**
+	 * Annotation of the class or its nearest super class, memoized by class and annotation type (missing annotations
+	 * too), or found by the generated accessors of the class.
+	 */
+	public static <T extends Annotation> T getClassLevelAnnotation(final Class<T> annotationClass, final Class<?> clazz) {
+		final ClassMetadata metadata = ClassMetadata.of(clazz);
+		final GeneratedAccessors generated = metadata.getGeneratedAccessors();
+		if (generated != null) {
+			final Object annotation = generated.getClassLevelAnnotation(annotationClass);
+			if (annotation != GeneratedAccessors.NOT_GENERATED) {
+				return annotationClass.cast(annotation);
+			}
+		}
+		return metadata.getClassLevelAnnotation(annotationClass);
+	}
+
+	/**
+	 * Returns the given class's declared field that are marked with the given annotation
+	 *
+	 * @param clazz The class, not null
+	 * @param annotation The annotation, not null
+	 * @return The first field annotated with the given annotation, empty list if none found
+	 */
+	public static <T extends Annotation> Field getFieldAnnotatedWith(final Class<? extends Object> clazz, final Class<T> annotation) {
+		return ClassMetadata.of(clazz).getFieldAnnotatedWith(annotation);
+	}
+
+	/**
+	 * Search field by type in class and super class, indexed once per class.
+	 */
+	public static <T> Field getFieldByType(final Class<? extends Object> clazz, final Class<T> type) {
+		return ClassMetadata.of(clazz).getFieldByType(type);
+	}
+
+	/**
+	 * Search field by name, ignoring case, in class and super class, indexed once per class.
+	 */
+	public static <T> Field getFieldByName(final Class<? extends Object> clazz, final String name) {
+		return ClassMetadata.of(clazz).getFieldByName(name);
+	}
+
+	/**
+	 * Sets the given value to the given field on the given object
+	 *
+	 * @param object The object containing the field, not null
+	 * @param fieldType The field type, not null
+	 * @param value The value for the given field in the given object
+	 * @throws UnitilsException if the field could not be accessed
+	 * @see FieldInjector to inject into fields of assignable types
+	 */
+	public static <T> void setFieldValue(final Object object, final Class<T> fieldType, final Object value) {
+		final long start = LibraryMetrics.FIELD_ACCESS.start();
+		boolean success = false;
+		try {
+			setFieldValueByType(object, fieldType, value);
+			success = true;
+		} finally {
+			LibraryMetrics.FIELD_ACCESS.stop(start, success);
+		}
+	}
+
+	private static void setFieldValueByType(final Object object, final Class<?> fieldType, final Object value) {
+		final GeneratedAccessors generated = getGeneratedAccessors(object.getClass());
+		if (generated != null && setGenerated(generated, generated.indexOfFieldType(fieldType), object, value)) {
+			return;
+		}
+		setFieldValue(object, getFieldByType(object.getClass(), fieldType), value);
+	}
+
+	/**
+	 * Sets the given value to the given field on the given object
+	 *
+	 * @param object The object containing the field, not null
+	 * @param fieldName The field name, not null
+	 * @param value The value for the given field in the given object
+	 * @throws UnitilsException if the field could not be accessed
+	 */
+	public static void setFieldValue(final Object object, final String fieldName, final Object value) {
+		if (object == null) {
+			return;
+		}
+		final long start = LibraryMetrics.FIELD_ACCESS.start();
+		boolean success = false;
+		try {
+			setFieldValueByName(object, fieldName, value);
+			success = true;
+		} finally {
+			LibraryMetrics.FIELD_ACCESS.stop(start, success);
+		}
+	}
+
+	private static void setFieldValueByName(final Object object, final String fieldName, final Object value) {
+		final GeneratedAccessors generated = getGeneratedAccessors(object.getClass());
+		if (generated != null && setGenerated(generated, generated.indexOfField(fieldName), object, value)) {
+			return;
+		}
+		setFieldValue(object, getFieldByName(object.getClass(), fieldName), value);
+	}
+
+	/**
+	 * Sets the given value to the given field on the given object
+	 *
+	 * @param object The object containing the field, not null
+	 * @param field The field, not null
+	 * @param value The value for the given field in the given object
+	 * @throws UnitilsException if the field could not be accessed
+	 */
+	public static void setFieldValue(final Object object, final Field field, final Object value) {
+		if (field == null) {
+			return;
+		}
+		FieldAccessor.of(field).set(object, value);
+	}
+
+	/**
+	 * Returns the value of the given field (may be private) in the given object
+	 *
+	 * @param object The object containing the field, null for static fields
+	 * @param field The field, not null
+	 * @return The value of the given field in the given object
+	 * @throws UnitilsException if the field could not be accessed
+	 */
+	@SuppressWarnings("unchecked")
+	public static <T> T getFieldValue(final Object object, final Field field) {
+		return (T) FieldAccessor.of(field).get(object);
+	}
+
+	/**
+	 * Returns the value of the given field (may be private and/or static) for the given object instance (may be null for static
+	 * field).
+	 */
+	public static <T, O> O getFieldValue(final Class<T> clazz, final Object object, final String fieldName) {
+		final long start = LibraryMetrics.FIELD_ACCESS.start();
+		boolean success = false;
+		try {
+			final O value = ReflectionUtils.<O> getFieldValueByName(clazz, object, fieldName);
+			success = true;
+			return value;
+		} finally {
+			LibraryMetrics.FIELD_ACCESS.stop(start, success);
+		}
+	}
+
+	@SuppressWarnings("unchecked")
+	private static <O> O getFieldValueByName(final Class<?> clazz, final Object object, final String fieldName) {
+		final GeneratedAccessors generated = getGeneratedAccessors(clazz);
+		final int index = generated == null ? -1 : generated.indexOfField(fieldName);
+		if (index >= 0) {
+			try {
+				return (O) generated.get(object, index);
+			} catch (final RuntimeException e) {
+				// wrong or null object, reflection reports it
+			}
+		}
+		return getFieldValue(object, getFieldByName(clazz, fieldName));
+	}
+
+	/**
+	 * Returns the value of the field {@link #getFieldAnnotatedWith(Class, Class)} finds in the class of the given
+	 * object, null if none.
+	 */
+	public static <O> O getFieldValueAnnotatedWith(final Object object, final Class<? extends Annotation> annotation) {
+		final long start = LibraryMetrics.FIELD_ACCESS.start();
+		boolean success = false;
+		try {
+			final O value = ReflectionUtils.<O> getFieldValueByAnnotation(object, annotation);
+			success = true;
+			return value;
+		} finally {
+			LibraryMetrics.FIELD_ACCESS.stop(start, success);
+		}
+	}
+
+	@SuppressWarnings("unchecked")
+	private static <O> O getFieldValueByAnnotation(final Object object, final Class<? extends Annotation> annotation) {
+		final GeneratedAccessors generated = getGeneratedAccessors(object.getClass());
+		final int index = generated == null ? -1 : generated.indexOfFieldAnnotatedWith(annotation);
+		if (index >= 0) {
+			return (O) generated.get(object, index);
+		}
+		final Field field = getFieldAnnotatedWith(object.getClass(), annotation);
+		return field == null ? null : ReflectionUtils.<O> getFieldValue(object, field);
+	}
+
+	/**
+	 * Returns the value of the given field (may be private) for the given object instance.
+	 */
+	public static <T, O> O getFieldValue(final Object object, final String fieldName) {
+		return getFieldValue(object.getClass(), object, fieldName);
+	}
+
+	/**
+	 * Returns the value of the given static field (may be private).
+	 */
+	public static <T, O> O getFieldValue(final Class<T> clazz, final String fieldName) {
+		return getFieldValue(clazz, null, fieldName);
+	}
+
+	/**
+	 * Copy the fields of <code>source</code> to the fields of the same name, ignoring case, of <code>target</code>,
+	 * with the {@link BeanCopier} of their classes.
+	 *
+	 * @return <code>target</code>
+	 */
+	@SuppressWarnings("unchecked")
+	public static <T> T copyFieldValues(final Object source, final T target) {
+		return BeanCopier.of((Class<Object>) source.getClass(), (Class<T>) target.getClass()).copy(source, target);
+	}
+
+	/**
+	 * Invoke method (may be private), declared by the class of the object or a super class.<br>
+	 * The overload is chosen from the classes of the parameters like the compiler does, and cached by class, name and
+	 * parameter classes.
+	 *
+	 * @return the result, null if the object is null or has no method named <code>methodName</code>
+	 * @throws IllegalArgumentException if no overload is applicable to the parameters, or the method throws
+	 */
+	public static <T> T invokeMethod(final Object object, final String methodName, final Object... params) {
+		if (object == null) {
+			return null;
+		}
+		final long start = LibraryMetrics.METHOD_INVOKE.start();
+		boolean success = false;
+		try {
+			final T result = ReflectionUtils.<T> invoke(object, methodName, params);
+			success = true;
+			return result;
+		} finally {
+			LibraryMetrics.METHOD_INVOKE.stop(start, success);
+		}
+	}
+
+	@SuppressWarnings("unchecked")
+	private static <T> T invoke(final Object object, final String methodName, final Object[] params) {
+		final Object[] args = params == null ? new Object[0] : params;
+		final GeneratedAccessors generated = getGeneratedAccessors(object.getClass());
+		if (generated != null) {
+			final Object result;
+			try {
+				result = generated.invoke(object, methodName, args);
+			} catch (final Throwable e) {
+				throw new IllegalArgumentException("Error while trying to access method " + methodName,
+						new InvocationTargetException(e));
+			}
+			if (result != GeneratedAccessors.NOT_GENERATED) {
+				return (T) result;
+			}
+		}
+		final MethodInvoker invoker = ClassMetadata.of(object.getClass()).getInvoker(methodName, args);
+		return invoker == null ? null : (T) invoker.invoke(object, args);
+	}
+
+	/**
+	 * Index the fields, methods and annotations of <code>classes</code> and look up their generated accessors now, at
+	 * startup, instead of on the first calls. Classes are split in a few chunks per processor, run by
+	 * <code>executor</code>; a null executor runs them in the calling thread.
+	 *
+	 * @return the time spent, in milliseconds
+	 * @throws IllegalStateException if interrupted, or if a class can not be introspected
+	 */
+	public static long warmUp(final Collection<? extends Class<?>> classes, final ExecutorService executor) {
+		final long start = System.nanoTime();
+		final List<Class<?>> all = new ArrayList<Class<?>>(classes);
+		new ChunkedTask<Object>() {
+			@Override
+			Object compute(final int from, final int to) {
+				for (final Class<?> clazz : all.subList(from, to)) {
+					ClassMetadata.of(clazz).warmUp();
+					getGeneratedAccessors(clazz);
+				}
+				return null;
+			}
+
+			@Override
+			void combine(final int from, final Object result) {
+				// nothing to combine
+			}
+		}.run(all.size(), 1, executor);
+		return (System.nanoTime() - start) / 1000000;
+	}
+
+	/**
+	 * @return the accessors generated for <code>clazz</code>, null if none
+	 */
+	static GeneratedAccessors getGeneratedAccessors(final Class<?> clazz) {
+		return ClassMetadata.of(clazz).getGeneratedAccessors();
+	}
+
+	/**
+	 * @return true if the generated accessors wrote the field, false to fall back to reflection
+	 */
+	private static boolean setGenerated(final GeneratedAccessors generated, final int index, final Object object,
+			final Object value) {
+		if (index < 0) {
+			return false;
+		}
+		try {
+			return generated.set(object, index, value);
+		} catch (final RuntimeException e) {
+			// wrong value type, reflection converts it or reports it
+			return false;
+		}
+	}
+}
@@ -0,0 +1,61 @@
+package com.javaboz.commons.test;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Lock free counter spread over a few stripes, selected by thread id like {@link FormatPool}, so that threads
+ * counting concurrently don't contend on the same cache line.<br>
+ * Each stripe is padded to 64 bytes. The sum is not an atomic snapshot while counting goes on.
+ *
+ * @author Julien Boz
+ */
+final class StripedCounter {
+
+	private static final int MAX_STRIPES = 64;
+	/** longs per stripe, one cache line */
+	private static final int PADDING = 8;
+
+	private final AtomicLongArray cells;
+	private final int mask;
+
+	StripedCounter() {
+		int size = 1;
+		final int stripes = Runtime.getRuntime().availableProcessors() * 2;
+		while (size < stripes && size < MAX_STRIPES) {
+			size <<= 1;
+		}
+		this.cells = new AtomicLongArray(size * PADDING);
+		this.mask = size - 1;
+	}
+
+	/**
+	 * @return the new count of the stripe of the calling thread, not the sum
+	 */
+	long increment() {
+		return cells.incrementAndGet(stripe());
+	}
+
+	void add(final long delta) {
+		cells.addAndGet(stripe(), delta);
+	}
+
+	long sum() {
+		long sum = 0;
+		for (int i = 0; i < cells.length(); i += PADDING) {
+			sum += cells.get(i);
+		}
+		return sum;
+	}
+
+	void reset() {
+		for (int i = 0; i < cells.length(); i += PADDING) {
+			cells.set(i, 0);
+		}
+	}
+
+	private int stripe() {
+		final long id = Thread.currentThread().getId();
+		final int hash = (int) (id ^ id >>> 32) * 0x9E3779B9;
+		return (hash >>> 16 & mask) * PADDING;
+	}
+}
@@ -0,0 +1,110 @@
+package com.javaboz.commons.test;
+
+/**
+ * Char scanning parser for <code>[T]H[H][:m[m][:s[s][.SSS]]]</code> times of day, the local times Joda
+ * <code>LocalTime.parse</code> accepts: one or two digits by field, an optional ISO <code>T</code> designator and a
+ * <code>.</code> or <code>,</code> before the fraction.<br>
+ * Work directly on the characters, without intermediate objects nor exceptions.
+ *
+ * @author Julien Boz
+ */
+final class TimeParser {
+
+	/** value returned when the time is malformed */
+	static final int INVALID = -1;
+
+	private TimeParser() {
+	}
+
+	/**
+	 * @return milliseconds of day of the time in <code>[start, end[</code>, or {@link #INVALID} if malformed
+	 */
+	static int parse(final CharSequence time, final int start, final int end) {
+		if (time == null || start < 0 || end > time.length() || start >= end) {
+			return INVALID;
+		}
+		int pos = start;
+		if (time.charAt(pos) == 'T' || time.charAt(pos) == 't') {
+			pos++;
+		}
+		int to = digitsEnd(time, pos, end);
+		final int hours = value(time, pos, to);
+		if (hours < 0 || hours > 23) {
+			return INVALID;
+		}
+		pos = to;
+
+		int minutes = 0;
+		int seconds = 0;
+		int millis = 0;
+		if (pos < end) {
+			to = digitsEnd(time, pos + 1, end);
+			minutes = field(time, pos, to);
+			if (minutes < 0) {
+				return INVALID;
+			}
+			pos = to;
+			if (pos < end) {
+				to = digitsEnd(time, pos + 1, end);
+				seconds = field(time, pos, to);
+				if (seconds < 0) {
+					return INVALID;
+				}
+				pos = to;
+				if (pos < end) {
+					final char separator = time.charAt(pos++);
+					if (separator != '.' && separator != ',' || pos == end) {
+						return INVALID;
+					}
+					// only milliseconds are kept, next digits are truncated
+					int scale = 100;
+					for (; pos < end; pos++) {
+						final int digit = time.charAt(pos) - '0';
+						if (digit < 0 || digit > 9) {
+							return INVALID;
+						}
+						millis += digit * scale;
+						scale /= 10;
+					}
+				}
+			}
+		}
+		return ((hours * 60 + minutes) * 60 + seconds) * 1000 + millis;
+	}
+
+	/**
+	 * @return value of the <code>:m[m]</code> minutes or seconds field in <code>[pos, to[</code>, -1 if malformed
+	 */
+	private static int field(final CharSequence time, final int pos, final int to) {
+		if (time.charAt(pos) != ':') {
+			return -1;
+		}
+		final int value = value(time, pos + 1, to);
+		return value > 59 ? -1 : value;
+	}
+
+	/**
+	 * @return end of the one or two digits at <code>pos</code>, <code>pos</code> if none
+	 */
+	private static int digitsEnd(final CharSequence text, final int pos, final int end) {
+		int to = pos;
+		while (to < end && to - pos < 2 && text.charAt(to) >= '0' && text.charAt(to) <= '9') {
+			to++;
+		}
+		return to;
+	}
+
+	/**
+	 * @return value of the digits <code>[from, to[</code>, -1 if none
+	 */
+	private static int value(final CharSequence text, final int from, final int to) {
+		if (from >= to) {
+			return -1;
+		}
+		int value = 0;
+		for (int i = from; i < to; i++) {
+			value = value * 10 + text.charAt(i) - '0';
+		}
+		return value;
+	}
+}
@@ -0,0 +1,44 @@
+package com.javaboz.commons.test;
+
+/**
+ * Cache of the {@link ClassMetadata} by class.<br>
+ * Java 17+ implementation of the multi-release jar: the metadata is a {@link ClassValue} of its class, kept by the
+ * class itself, so a class and its loader are unloaded with their metadata as soon as they are unreachable. Thread
+ * safe.
+ *
+ * @author Julien Boz
+ */
+final class ClassMetadataCache {
+
+	/** set by the thread building a metadata, to count the lookup as a miss */
+	private static final ThreadLocal<Boolean> BUILT = new ThreadLocal<>();
+
+	private static final ClassValue<ClassMetadata> CACHE = new ClassValue<>() {
+		@Override
+		protected ClassMetadata computeValue(final Class<?> type) {
+			if (LibraryMetrics.isEnabled()) {
+				BUILT.set(Boolean.TRUE);
+			}
+			return new ClassMetadata(type);
+		}
+	};
+
+	private ClassMetadataCache() {
+	}
+
+	/**
+	 * @return the metadata of <code>clazz</code>, built on first use
+	 */
+	static ClassMetadata get(final Class<?> clazz) {
+		final ClassMetadata metadata = CACHE.get(clazz);
+		if (LibraryMetrics.isEnabled()) {
+			if (BUILT.get() == null) {
+				LibraryMetrics.CLASS_METADATA.hit();
+			} else {
+				BUILT.remove();
+				LibraryMetrics.CLASS_METADATA.miss();
+			}
+		}
+		return metadata;
+	}
+}
@@ -0,0 +1,598 @@
+package com.javaboz.commons.test;
+
+import static java.time.temporal.ChronoField.DAY_OF_MONTH;
+import static java.time.temporal.ChronoField.HOUR_OF_DAY;
+import static java.time.temporal.ChronoField.MINUTE_OF_HOUR;
+import static java.time.temporal.ChronoField.MONTH_OF_YEAR;
+import static java.time.temporal.ChronoField.NANO_OF_SECOND;
+import static java.time.temporal.ChronoField.OFFSET_SECONDS;
+import static java.time.temporal.ChronoField.SECOND_OF_MINUTE;
+import static java.time.temporal.ChronoField.YEAR;
+
+import java.text.ParsePosition;
+import java.text.SimpleDateFormat;
+import java.time.DateTimeException;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeFormatterBuilder;
+import java.time.format.ResolverStyle;
+import java.time.temporal.TemporalAccessor;
+import java.util.BitSet;
+import java.util.Calendar;
+import java.util.Date;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.apache.commons.lang.StringUtils;
+import org.joda.time.Chronology;
+import org.joda.time.DateTime;
+import org.joda.time.DateTimeUtils;
+import org.joda.time.DurationFieldType;
+import org.joda.time.ReadableInstant;
+
+/**
+ * Utilitaire sur les dates.<br>
+ * Java 17+ implementation of the multi-release jar: {@value #FR_DATE_FORMAT}, {@value #ENDFILE_DATE_FORMAT} and ISO dates
+ * are handled by immutable <code>java.time</code> formatters and epoch day math, without thread local formatters.<br>
+ * <code>java.time</code> zone rules and {@link java.util.TimeZone} only agree on modern dates, and {@link SimpleDateFormat}
+ * switches to the julian calendar before 1582: the fast paths are limited to 1901-2036, other dates go through the same
+ * code as the Java 5 implementation so results stay identical.
+ *
+ * @author Julien Boz
+ */
+public final class DateUtils {
+
+	public static final String FR_DATE_FORMAT = "dd.MM.yyyy";
+	public static final String ENDFILE_DATE_FORMAT = "yyyyMMddHHmmss";
+	public static final String ISO_FORMAT = "yyyy-MM-dd'T'HH:mm:ss.SSSZZ";
+	public static final String ISO_FORMAT_NO_TIMEZONE = "yyyy-MM-dd'T'HH:mm:ss";
+
+	/** value returned by {@link #parseTimeOfDay(CharSequence)} when the time is malformed */
+	public static final int INVALID_TIME = TimeParser.INVALID;
+
+	private static final long MILLIS_PER_DAY = 24L * 60 * 60 * 1000;
+
+	/** first year of the fast paths */
+	private static final int FAST_MIN_YEAR = 1901;
+	/** last year of the fast paths */
+	private static final int FAST_MAX_YEAR = 2036;
+	private static final long FAST_MIN_MILLIS = LocalDate.of(FAST_MIN_YEAR, 1, 1).toEpochDay() * MILLIS_PER_DAY;
+	private static final long FAST_MAX_MILLIS = LocalDate.of(FAST_MAX_YEAR + 1, 1, 1).toEpochDay() * MILLIS_PER_DAY;
+
+	private static final DateTimeFormatter FRENCH_FORMATTER = DateTimeFormatter.ofPattern("dd.MM.uuuu");
+	private static final DateTimeFormatter FILE_DATE_FORMATTER = DateTimeFormatter.ofPattern("uuuuMMddHHmmss");
+
+	/** extended ISO forms of {@link DateTime#parse(String)}: <code>yyyy[-MM[-dd]][T[HH[:mm[:ss[.S]]]][offset]]</code> */
+	private static final DateTimeFormatter ISO_PARSER = new DateTimeFormatterBuilder() //
+			.appendValue(YEAR, 4) //
+			.optionalStart().appendLiteral('-').appendValue(MONTH_OF_YEAR, 2) //
+			.optionalStart().appendLiteral('-').appendValue(DAY_OF_MONTH, 2) //
+			.optionalEnd().optionalEnd() //
+			.optionalStart().appendLiteral('T') //
+			.optionalStart().appendValue(HOUR_OF_DAY, 2) //
+			.optionalStart().appendLiteral(':').appendValue(MINUTE_OF_HOUR, 2) //
+			.optionalStart().appendLiteral(':').appendValue(SECOND_OF_MINUTE, 2) //
+			.optionalStart().appendFraction(NANO_OF_SECOND, 1, 9, true) //
+			.optionalEnd().optionalEnd().optionalEnd().optionalEnd() //
+			.optionalStart().appendOffset("+HH:mm", "Z").optionalEnd() //
+			.optionalEnd() //
+			.parseDefaulting(MONTH_OF_YEAR, 1).parseDefaulting(DAY_OF_MONTH, 1) //
+			.parseDefaulting(HOUR_OF_DAY, 0).parseDefaulting(MINUTE_OF_HOUR, 0) //
+			.parseDefaulting(SECOND_OF_MINUTE, 0).parseDefaulting(NANO_OF_SECOND, 0) //
+			.toFormatter().withResolverStyle(ResolverStyle.STRICT);
+
+	private DateUtils() {
+	}
+
+	/**
+	 * @return a new date formatter, thread safe as long as it is not shared
+	 */
+	public static final SimpleDateFormat getFormatter(final String dateFormat) {
+		return new SimpleDateFormat(dateFormat);
+	}
+
+	/** optional cache of {@link #parse(String, String)} */
+	private static volatile DateParseCache parseCache;
+
+	/** compiled validators by pattern */
+	private static final ConcurrentMap<String, DateValidator> validators = new ConcurrentHashMap<String, DateValidator>();
+
+	/** date min, take care of use, do not use instead of null value */
+	public static final Date MIN_VALUE = parse("01.01.0001");
+	/** date max, take care of use, do not use instead of null value */
+	public static final Date MAX_VALUE = parse("31.12.9999");
+
+	/**
+	 * Parse une chaîne au format ISO ou {@value #FR_DATE_FORMAT}.
+	 */
+	public static Date parse(final String date) {
+		if (StringUtils.isBlank(date)) {
+			return null;
+		}
+		final Date iso = parseIso(date);
+		if (iso != null) {
+			return iso;
+		}
+		final Date french = parse(date, FR_DATE_FORMAT);
+		if (french != null || !isIsoStart(date.charAt(0))) {
+			return french;
+		}
+		// ISO forms not handled by the fast path (week dates, ordinal dates, times...)
+		try {
+			return DateTime.parse(date).toDate();
+		} catch (final Exception e) {
+			return null;
+		}
+	}
+
+	/**
+	 * @return the date in the fast path ISO form and range, null otherwise
+	 */
+	private static Date parseIso(final String date) {
+		final ParsePosition position = new ParsePosition(0);
+		if (ISO_PARSER.parseUnresolved(date, position) == null || position.getIndex() != date.length()) {
+			return null;
+		}
+		try {
+			final TemporalAccessor parsed = ISO_PARSER.parse(date);
+			final LocalDateTime dateTime = LocalDateTime.of(LocalDate.from(parsed), LocalTime.from(parsed));
+			if (!isFast(dateTime.getYear())) {
+				return null;
+			}
+			if (parsed.isSupported(OFFSET_SECONDS)) {
+				return new Date(dateTime.toInstant(ZoneOffset.from(parsed)).toEpochMilli());
+			}
+			return new Date(toEpochMilli(dateTime));
+		} catch (final DateTimeException e) {
+			return null;
+		}
+	}
+
+	/**
+	 * @return true if the char can start an ISO date or time
+	 */
+	private static boolean isIsoStart(final char c) {
+		return c >= '0' && c <= '9' || c == '+' || c == '-' || c == 'T';
+	}
+
+	/**
+	 * Parse une chaîne en date.<br>
+	 * Use the parse cache if one is set.
+	 *
+	 * @see #setParseCache(DateParseCache)
+	 */
+	public static Date parse(final String date, final String dateFormat) {
+		if (StringUtils.isBlank(date)) {
+			return null;
+		}
+		final long start = LibraryMetrics.DATE_PARSE.start();
+		boolean success = false;
+		try {
+			final DateParseCache cache = parseCache;
+			final Date parsed = cache != null ? cache.parse(date, dateFormat) : parseUncached(date, dateFormat);
+			success = parsed != null;
+			return parsed;
+		} finally {
+			LibraryMetrics.DATE_PARSE.stop(start, success);
+		}
+	}
+
+	/**
+	 * Parse une chaîne non vide en date, sans passer par le cache.
+	 */
+	static Date parseUncached(final String date, final String dateFormat) {
+		Date parsed = null;
+		if (FR_DATE_FORMAT.equals(dateFormat)) {
+			parsed = parseFrench(date);
+		} else if (ENDFILE_DATE_FORMAT.equals(dateFormat)) {
+			parsed = parseFileDate(date);
+		}
+		if (parsed != null) {
+			return parsed;
+		}
+		try {
+			// same as SimpleDateFormat.parse(String), without the ParseException
+			final ParsePosition position = new ParsePosition(0);
+			final Date legacy = getFormatter(dateFormat).parse(date, position);
+			return position.getIndex() == 0 ? null : legacy;
+		} catch (final Exception e) {
+			return null;
+		}
+	}
+
+	/**
+	 * @return the date if <code>date</code> is a strict {@value #FR_DATE_FORMAT} date in the fast path range, null otherwise
+	 */
+	private static Date parseFrench(final String date) {
+		if (date.length() != 10 || date.charAt(2) != '.' || date.charAt(5) != '.') {
+			return null;
+		}
+		return toDate(digits(date, 6, 4), digits(date, 3, 2), digits(date, 0, 2), 0, 0, 0);
+	}
+
+	/**
+	 * @return the date if <code>date</code> is a strict {@value #ENDFILE_DATE_FORMAT} date in the fast path range, null
+	 *         otherwise
+	 */
+	private static Date parseFileDate(final String date) {
+		if (date.length() != 14) {
+			return null;
+		}
+		return toDate(digits(date, 0, 4), digits(date, 4, 2), digits(date, 6, 2), digits(date, 8, 2), digits(date, 10, 2),
+				digits(date, 12, 2));
+	}
+
+	/**
+	 * @return the date of the local fields in the default time zone, null if a field is out of range
+	 */
+	private static Date toDate(final int year, final int month, final int day, final int hour, final int minute, final int second) {
+		if (!isFast(year) || month < 1 || month > 12 || day < 1 || day > LocalDate.of(year, month, 1).lengthOfMonth()
+				|| hour < 0 || hour > 23 || minute < 0 || minute > 59 || second < 0 || second > 59) {
+			return null;
+		}
+		return new Date(toEpochMilli(LocalDateTime.of(year, month, day, hour, minute, second)));
+	}
+
+	/**
+	 * @return value of the <code>count</code> digits at <code>start</code>, -1 if one is not a digit
+	 */
+	private static int digits(final String text, final int start, final int count) {
+		int value = 0;
+		for (int i = start; i < start + count; i++) {
+			final int digit = text.charAt(i) - '0';
+			if (digit < 0 || digit > 9) {
+				return -1;
+			}
+			value = value * 10 + digit;
+		}
+		return value;
+	}
+
+	private static boolean isFast(final int year) {
+		return year >= FAST_MIN_YEAR && year <= FAST_MAX_YEAR;
+	}
+
+	private static boolean isFast(final long millis) {
+		return millis >= FAST_MIN_MILLIS && millis < FAST_MAX_MILLIS;
+	}
+
+	/**
+	 * @return epoch millis of the local date time in the default time zone, the later offset is used on overlaps like
+	 *         {@link java.util.GregorianCalendar}
+	 */
+	private static long toEpochMilli(final LocalDateTime dateTime) {
+		return ZonedDateTime.ofLocal(dateTime, ZoneId.systemDefault(), null).withLaterOffsetAtOverlap().toInstant().toEpochMilli();
+	}
+
+	/**
+	 * @return millis since the local epoch in the default time zone
+	 */
+	private static long toLocalMillis(final long millis) {
+		final ZoneOffset offset = ZoneId.systemDefault().getRules().getOffset(Instant.ofEpochMilli(millis));
+		return millis + offset.getTotalSeconds() * 1000L;
+	}
+
+	/**
+	 * @return the cache used by {@link #parse(String, String)}, null if none
+	 */
+	public static DateParseCache getParseCache() {
+		return parseCache;
+	}
+
+	/**
+	 * Set the cache used by {@link #parse(String, String)}, useful for columns with few distinct dates.
+	 *
+	 * @param cache the cache, null to disable caching
+	 */
+	public static void setParseCache(final DateParseCache cache) {
+		parseCache = cache;
+	}
+
+	/**
+	 * Parse une chaîne en date.
+	 */
+	public static DateTime parseDateTime(final String date) {
+		return parseDateTime(date, FR_DATE_FORMAT);
+	}
+
+	/**
+	 * Parse une chaîne en date.
+	 */
+	public static DateTime parseDateTime(final String date, final String dateFormat) {
+		final Date parsed = parse(date, dateFormat);
+		if (parsed == null) {
+			return null;
+		}
+		return new DateTime(parsed);
+	}
+
+	/**
+	 * @return true si <code>date</code> match le pattern {@value #FR_DATE_FORMAT}.
+	 */
+	public static boolean isValidDate(final String date) {
+		return isValidDate(date, FR_DATE_FORMAT);
+	}
+
+	/**
+	 * @return true si <code>date</code> match strictement le pattern <code>dateFormat</code>.
+	 * @see DateValidator
+	 */
+	public static boolean isValidDate(final String date, final String dateFormat) {
+		return getValidator(dateFormat).isValid(date);
+	}
+
+	/**
+	 * Validate strictly a batch of dates against the pattern <code>dateFormat</code>.
+	 *
+	 * @param errorIndexes filled with the offending character index of each date, {@link DateValidator#VALID} for valid
+	 *            dates, may be null
+	 * @return the bitmap of the invalid dates indexes
+	 * @see DateValidator#validate(CharSequence[], int[])
+	 */
+	public static BitSet validateDates(final CharSequence[] dates, final String dateFormat, final int[] errorIndexes) {
+		return getValidator(dateFormat).validate(dates, errorIndexes);
+	}
+
+	/**
+	 * @return the compiled validator of the pattern <code>dateFormat</code>
+	 */
+	public static DateValidator getValidator(final String dateFormat) {
+		return validators.computeIfAbsent(dateFormat, DateValidator::compile);
+	}
+
+	/**
+	 * @return la date au format {@value #FR_DATE_FORMAT}.
+	 */
+	public static String format(final Date date) {
+		return format(date, FR_DATE_FORMAT);
+	}
+
+	/**
+	 * @return la date au format <code>dateFormat</code>
+	 */
+	public static String format(final Date date, final String dateFormat) {
+		if (date == null) {
+			return "null";
+		}
+		final long start = LibraryMetrics.DATE_FORMAT.start();
+		boolean success = false;
+		try {
+			final String formatted = formatNonNull(date, dateFormat);
+			success = true;
+			return formatted;
+		} finally {
+			LibraryMetrics.DATE_FORMAT.stop(start, success);
+		}
+	}
+
+	private static String formatNonNull(final Date date, final String dateFormat) {
+		final long millis = date.getTime();
+		if (isFast(millis)) {
+			if (FR_DATE_FORMAT.equals(dateFormat)) {
+				return FRENCH_FORMATTER.format(LocalDate.ofEpochDay(Math.floorDiv(toLocalMillis(millis), MILLIS_PER_DAY)));
+			}
+			if (ENDFILE_DATE_FORMAT.equals(dateFormat)) {
+				return FILE_DATE_FORMATTER.format(toLocalDateTime(toLocalMillis(millis)));
+			}
+		}
+		return getFormatter(dateFormat).format(date);
+	}
+
+	private static LocalDateTime toLocalDateTime(final long localMillis) {
+		final LocalDate day = LocalDate.ofEpochDay(Math.floorDiv(localMillis, MILLIS_PER_DAY));
+		return day.atTime(LocalTime.ofNanoOfDay(Math.floorMod(localMillis, MILLIS_PER_DAY) * 1000000L));
+	}
+
+	/**
+	 * Supprime les heures de la date.
+	 */
+	public static Date clearTime(final Date date) {
+		if (date == null) {
+			return null;
+		}
+		final long millis = date.getTime();
+		if (isFast(millis)) {
+			final LocalDate day = LocalDate.ofEpochDay(Math.floorDiv(toLocalMillis(millis), MILLIS_PER_DAY));
+			return new Date(toEpochMilli(day.atStartOfDay()));
+		}
+		return org.joda.time.LocalDate.fromDateFields(date).toDate();
+	}
+
+	/**
+	 * @return la date du jour sans les heures.
+	 */
+	public static Date getToday() {
+		return now();
+	}
+
+	/**
+	 * @return la date du jour sans les heures.
+	 */
+	public static Date now() {
+		return new Date(toEpochMilli(LocalDate.now().atStartOfDay()));
+	}
+
+	/**
+	 * @param date
+	 * @return a {@link Calendar}
+	 */
+	public static Calendar toCalendar(final Date date) {
+		final Calendar calendar = Calendar.getInstance();
+		calendar.setTime(date);
+
+		return calendar;
+	}
+
+	/**
+	 * Calculates the number of whole units between the two specified date.
+	 *
+	 * @see #between(ReadableInstant, ReadableInstant, DurationFieldType)
+	 */
+	public static int between(final Date start, final Date end, final DurationFieldType field) {
+		return between(new DateTime(start), new DateTime(end), field);
+	}
+
+	/**
+	 * Calculates the number of whole units between the two specified datetimes.
+	 *
+	 * @param start the start instant, validated to not be null
+	 * @param end the end instant, validated to not be null
+	 * @param field the field type to use, must not be null
+	 * @return the period
+	 * @throws IllegalArgumentException if the instants are null or invalid
+	 */
+	public static int between(final ReadableInstant start, final ReadableInstant end, final DurationFieldType field) {
+		if (start == null || end == null) {
+			throw new IllegalArgumentException("ReadableInstant objects must not be null");
+		}
+		final Chronology chrono = DateTimeUtils.getInstantChronology(start);
+
+		return field.getField(chrono).getDifference(end.getMillis(), start.getMillis());
+	}
+
+	/**
+	 * @return the maximum of two dates. A null date is treated as being less than any non-null date.
+	 */
+	public static Date max(final Date d1, final Date d2) {
+		if (d1 == null) {
+			return d2;
+		}
+		if (d2 == null) {
+			return d1;
+		}
+		return d2.after(d1) ? d2 : d1;
+	}
+
+	/**
+	 * Get time in milliseconds.
+	 *
+	 * @param time time at format <code>[T]H[H][:m[m][:s[s][.SSS]]]</code>
+	 * @throws IllegalArgumentException if the time is malformed
+	 * @see #parseTimeOfDay(CharSequence)
+	 */
+	public static long parseTime(final String time) {
+		final int millis = parseTimeOfDay(time);
+		if (millis == INVALID_TIME) {
+			throw new IllegalArgumentException("Invalid format: \"" + time + "\"");
+		}
+		return millis;
+	}
+
+	/**
+	 * Parse a time at format <code>[T]H[H][:m[m][:s[s][.SSS]]]</code> without any allocation nor exception.
+	 *
+	 * <pre>
+	 *   DateUtils.parseTimeOfDay("01")           = 3600000
+	 *   DateUtils.parseTimeOfDay("T1:05")        = 3900000
+	 *   DateUtils.parseTimeOfDay("01:03:10.5")   = 3790500
+	 *   DateUtils.parseTimeOfDay("25:00")        = DateUtils.INVALID_TIME
+	 *   DateUtils.parseTimeOfDay(null)           = DateUtils.INVALID_TIME
+	 * </pre>
+	 *
+	 * @return milliseconds of day, or {@link #INVALID_TIME} if the time is malformed
+	 */
+	public static int parseTimeOfDay(final CharSequence time) {
+		return time == null ? INVALID_TIME : TimeParser.parse(time, 0, time.length());
+	}
+
+	/**
+	 * Parse the time in <code>[start, end[</code> of <code>text</code>.
+	 *
+	 * @see #parseTimeOfDay(CharSequence)
+	 */
+	public static int parseTimeOfDay(final CharSequence text, final int start, final int end) {
+		return TimeParser.parse(text, start, end);
+	}
+
+	/**
+	 * Parse a column of times into milliseconds of day.<br>
+	 * Malformed or null times are set to {@link #INVALID_TIME}.
+	 *
+	 * @param times times at format <code>[T]H[H][:m[m][:s[s][.SSS]]]</code>
+	 * @param millis destination, at least as long as <code>times</code>
+	 * @return the number of malformed times
+	 */
+	public static int parseTimes(final CharSequence[] times, final int[] millis) {
+		checkDestination(times.length, millis.length);
+		int invalids = 0;
+		for (int i = 0; i < times.length; i++) {
+			millis[i] = parseTimeOfDay(times[i]);
+			if (millis[i] == INVALID_TIME) {
+				invalids++;
+			}
+		}
+		return invalids;
+	}
+
+	/**
+	 * Parse a column of times into milliseconds of day.
+	 *
+	 * @see #parseTimes(CharSequence[], int[])
+	 */
+	public static int parseTimes(final CharSequence[] times, final long[] millis) {
+		checkDestination(times.length, millis.length);
+		int invalids = 0;
+		for (int i = 0; i < times.length; i++) {
+			millis[i] = parseTimeOfDay(times[i]);
+			if (millis[i] == INVALID_TIME) {
+				invalids++;
+			}
+		}
+		return invalids;
+	}
+
+	private static void checkDestination(final int sourceLength, final int destinationLength) {
+		if (destinationLength < sourceLength) {
+			throw new IllegalArgumentException("Destination too small: " + destinationLength + " < " + sourceLength);
+		}
+	}
+
+	/**
+	 * Compare two dates, ignore hours, check null values.
+	 */
+	public static int compareTo(final Date dateA, final Date dateB) {
+		if (dateA == null && dateB != null) {
+			return -1;
+		}
+		if (dateA != null && dateB == null) {
+			return +1;
+		}
+		if (dateA == null && dateB == null || dateA == dateB) {
+			// optimisation
+			return 0;
+		}
+		final long millisA = dateA.getTime();
+		final long millisB = dateB.getTime();
+		if (isFast(millisA) && isFast(millisB)) {
+			return Long.compare(Math.floorDiv(toLocalMillis(millisA), MILLIS_PER_DAY),
+					Math.floorDiv(toLocalMillis(millisB), MILLIS_PER_DAY));
+		}
+		return new org.joda.time.LocalDate(dateA).compareTo(new org.joda.time.LocalDate(dateB));
+	}
+
+	public static boolean isEquals(final Date dateA, final Date dateB) {
+		return compareTo(dateA, dateB) == 0;
+	}
+
+	public static boolean isBefore(final Date dateA, final Date dateB) {
+		return compareTo(dateA, dateB) == -1;
+	}
+
+	public static boolean isAfter(final Date dateA, final Date dateB) {
+		return compareTo(dateA, dateB) == 1;
+	}
+
+	public static boolean isBeforeOrEquals(final Date dateA, final Date dateB) {
+		return compareTo(dateA, dateB) <= 0;
+	}
+
+	public static boolean isAfterOrEquals(final Date dateA, final Date dateB) {
+		return compareTo(dateA, dateB) >= 0;
+	}
+}
@@ -0,0 +1,348 @@
+package com.javaboz.commons.test;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.invoke.WrongMethodTypeException;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+
+/**
+ * Getter and setter of a field resolved once, made accessible once.<br>
+ * Primitive variants read and write without boxing, with the widening conversions of {@link Field#getInt(Object)}
+ * and {@link Field#setInt(Object, int)}. Errors are reported like {@link ReflectionUtils#getFieldValue(Object, Field)}
+ * and {@link ReflectionUtils#setFieldValue(Object, Field, Object)}.<br>
+ * Java 17+ implementation of the multi-release jar: the field is unreflected once into method handles adapted to
+ * <code>(Object)Object</code> and to each primitive shape, invoked exactly. Shapes the field type can't be widened to
+ * have no handle and fail like {@link Field}. Final fields keep the reflective semantics: instance ones are writable,
+ * static ones aren't. Thread safe.
+ *
+ * <pre>
+ * final FieldAccessor price = FieldAccessor.of(Product.class, &quot;price&quot;);
+ * for (final Product product : products) {
+ * 	total += price.getDouble(product);
+ * }
+ * </pre>
+ *
+ * @author Julien Boz
+ */
+public final class FieldAccessor {
+
+	private final Field field;
+	private final MethodHandle getter;
+	private final MethodHandle intGetter;
+	private final MethodHandle longGetter;
+	private final MethodHandle doubleGetter;
+	private final MethodHandle booleanGetter;
+	/** null if the field can't be written, static final */
+	private final MethodHandle setter;
+	private final MethodHandle intSetter;
+	private final MethodHandle longSetter;
+	private final MethodHandle doubleSetter;
+	private final MethodHandle booleanSetter;
+
+	FieldAccessor(final Field field) {
+		field.setAccessible(true);
+		this.field = field;
+		final MethodHandles.Lookup lookup = MethodHandles.lookup();
+		final boolean isStatic = Modifier.isStatic(field.getModifiers());
+		MethodHandle get;
+		try {
+			get = lookup.unreflectGetter(field);
+		} catch (final IllegalAccessException e) {
+			// cannot occur, the field is accessible
+			throw new IllegalArgumentException("Error while trying to access field " + field, e);
+		}
+		MethodHandle set;
+		try {
+			set = lookup.unreflectSetter(field);
+		} catch (final IllegalAccessException e) {
+			set = null;
+		}
+		if (isStatic) {
+			// same shape as instance fields, the object is ignored
+			get = MethodHandles.dropArguments(get, 0, Object.class);
+			set = set == null ? null : MethodHandles.dropArguments(set, 0, Object.class);
+		}
+		final Class<?> type = field.getType();
+		this.getter = adapt(get, Object.class, Object.class);
+		this.intGetter = adapt(get, int.class, Object.class);
+		this.longGetter = adapt(get, long.class, Object.class);
+		this.doubleGetter = adapt(get, double.class, Object.class);
+		this.booleanGetter = adapt(get, boolean.class, Object.class);
+		this.setter = set == null ? null : adapt(set, void.class, Object.class, Object.class);
+		// a primitive value is only widened to the field type, like Field.setInt
+		this.intSetter = widens(int.class, type) ? adapt(set, void.class, Object.class, int.class) : null;
+		this.longSetter = widens(long.class, type) ? adapt(set, void.class, Object.class, long.class) : null;
+		this.doubleSetter = widens(double.class, type) ? adapt(set, void.class, Object.class, double.class) : null;
+		this.booleanSetter = type == boolean.class ? adapt(set, void.class, Object.class, boolean.class) : null;
+	}
+
+	/**
+	 * @return the accessor of <code>field</code>, cached by field
+	 */
+	public static FieldAccessor of(final Field field) {
+		return ClassMetadata.of(field.getDeclaringClass()).getAccessor(field);
+	}
+
+	/**
+	 * @return the accessor of the field found by {@link ReflectionUtils#getFieldByName(Class, String)}, null if none
+	 */
+	public static FieldAccessor of(final Class<?> clazz, final String name) {
+		final Field field = ClassMetadata.of(clazz).getFieldByName(name);
+		return field == null ? null : of(field);
+	}
+
+	public Field getField() {
+		return field;
+	}
+
+	/**
+	 * @param object the object containing the field, null for static fields
+	 * @return the value of the field, primitives boxed
+	 */
+	public Object get(final Object object) {
+		checkObject(object);
+		try {
+			return getter.invokeExact(object);
+		} catch (final ClassCastException e) {
+			throw accessError(e);
+		} catch (final RuntimeException e) {
+			throw e;
+		} catch (final Throwable e) {
+			throw rethrow(e);
+		}
+	}
+
+	public int getInt(final Object object) {
+		checkObject(object);
+		if (intGetter == null) {
+			throw accessError(null);
+		}
+		try {
+			return (int) intGetter.invokeExact(object);
+		} catch (final ClassCastException e) {
+			throw accessError(e);
+		} catch (final RuntimeException e) {
+			throw e;
+		} catch (final Throwable e) {
+			throw rethrow(e);
+		}
+	}
+
+	public long getLong(final Object object) {
+		checkObject(object);
+		if (longGetter == null) {
+			throw accessError(null);
+		}
+		try {
+			return (long) longGetter.invokeExact(object);
+		} catch (final ClassCastException e) {
+			throw accessError(e);
+		} catch (final RuntimeException e) {
+			throw e;
+		} catch (final Throwable e) {
+			throw rethrow(e);
+		}
+	}
+
+	public double getDouble(final Object object) {
+		checkObject(object);
+		if (doubleGetter == null) {
+			throw accessError(null);
+		}
+		try {
+			return (double) doubleGetter.invokeExact(object);
+		} catch (final ClassCastException e) {
+			throw accessError(e);
+		} catch (final RuntimeException e) {
+			throw e;
+		} catch (final Throwable e) {
+			throw rethrow(e);
+		}
+	}
+
+	public boolean getBoolean(final Object object) {
+		checkObject(object);
+		if (booleanGetter == null) {
+			throw accessError(null);
+		}
+		try {
+			return (boolean) booleanGetter.invokeExact(object);
+		} catch (final ClassCastException e) {
+			throw accessError(e);
+		} catch (final RuntimeException e) {
+			throw e;
+		} catch (final Throwable e) {
+			throw rethrow(e);
+		}
+	}
+
+	/**
+	 * @param object the object containing the field, null for static fields
+	 * @param value the new value, unboxed for primitive fields
+	 */
+	public void set(final Object object, final Object value) {
+		checkObject(object);
+		if (setter == null) {
+			throw accessError(null);
+		}
+		if (value == null && field.getType().isPrimitive()) {
+			throw assignError(null, null);
+		}
+		try {
+			setter.invokeExact(object, value);
+		} catch (final ClassCastException e) {
+			throw assignError(value, e);
+		} catch (final RuntimeException e) {
+			throw e;
+		} catch (final Throwable e) {
+			throw rethrow(e);
+		}
+	}
+
+	public void setInt(final Object object, final int value) {
+		checkObject(object);
+		if (intSetter == null) {
+			throw setter == null ? accessError(null) : assignError(value, null);
+		}
+		try {
+			intSetter.invokeExact(object, value);
+		} catch (final ClassCastException e) {
+			throw assignError(value, e);
+		} catch (final RuntimeException e) {
+			throw e;
+		} catch (final Throwable e) {
+			throw rethrow(e);
+		}
+	}
+
+	public void setLong(final Object object, final long value) {
+		checkObject(object);
+		if (longSetter == null) {
+			throw setter == null ? accessError(null) : assignError(value, null);
+		}
+		try {
+			longSetter.invokeExact(object, value);
+		} catch (final ClassCastException e) {
+			throw assignError(value, e);
+		} catch (final RuntimeException e) {
+			throw e;
+		} catch (final Throwable e) {
+			throw rethrow(e);
+		}
+	}
+
+	public void setDouble(final Object object, final double value) {
+		checkObject(object);
+		if (doubleSetter == null) {
+			throw setter == null ? accessError(null) : assignError(value, null);
+		}
+		try {
+			doubleSetter.invokeExact(object, value);
+		} catch (final ClassCastException e) {
+			throw assignError(value, e);
+		} catch (final RuntimeException e) {
+			throw e;
+		} catch (final Throwable e) {
+			throw rethrow(e);
+		}
+	}
+
+	public void setBoolean(final Object object, final boolean value) {
+		checkObject(object);
+		if (booleanSetter == null) {
+			throw setter == null ? accessError(null) : assignError(value, null);
+		}
+		try {
+			booleanSetter.invokeExact(object, value);
+		} catch (final ClassCastException e) {
+			throw assignError(value, e);
+		} catch (final RuntimeException e) {
+			throw e;
+		} catch (final Throwable e) {
+			throw rethrow(e);
+		}
+	}
+
+	/**
+	 * Null objects fail like {@link Field}: NullPointerException for instance fields, ignored for static fields.
+	 */
+	private void checkObject(final Object object) {
+		if (object == null && !Modifier.isStatic(field.getModifiers())) {
+			throw new NullPointerException("Cannot access instance field " + field + " of null object");
+		}
+	}
+
+	/**
+	 * @return <code>handle</code> adapted to <code>(parameters)returnType</code>, null if the types don't convert
+	 */
+	private static MethodHandle adapt(final MethodHandle handle, final Class<?> returnType,
+			final Class<?>... parameters) {
+		if (handle == null) {
+			return null;
+		}
+		final MethodType type = MethodType.methodType(returnType, parameters);
+		final Class<?> value = returnType == void.class ? handle.type().parameterType(1) : handle.type().returnType();
+		final Class<?> target = returnType == void.class ? parameters[1] : returnType;
+		if (target.isPrimitive() && (returnType == void.class ? !widens(target, value) : !widens(value, target))) {
+			// asType would accept some narrowing through boxing, Field doesn't
+			return null;
+		}
+		try {
+			return handle.asType(type);
+		} catch (final WrongMethodTypeException e) {
+			return null;
+		}
+	}
+
+	/**
+	 * @return true if a <code>from</code> converts to a <code>to</code> by identity or primitive widening
+	 */
+	private static boolean widens(final Class<?> from, final Class<?> to) {
+		if (from == to) {
+			return true;
+		}
+		if (!from.isPrimitive() || !to.isPrimitive() || from == boolean.class || to == boolean.class) {
+			return false;
+		}
+		return rank(from) < rank(to) && to != char.class;
+	}
+
+	private static int rank(final Class<?> type) {
+		if (type == byte.class) {
+			return 0;
+		}
+		if (type == short.class || type == char.class) {
+			return 1;
+		}
+		if (type == int.class) {
+			return 2;
+		}
+		if (type == long.class) {
+			return 3;
+		}
+		return type == float.class ? 4 : 5;
+	}
+
+	private IllegalArgumentException accessError(final Exception cause) {
+		return new IllegalArgumentException("Error while trying to access field " + field, cause);
+	}
+
+	private IllegalArgumentException assignError(final Object value, final Exception cause) {
+		return new IllegalArgumentException("Unable to assign the value to field: " + field.getName()
+				+ ". Ensure that this field is of the correct type. Value: " + value, cause);
+	}
+
+	private static RuntimeException rethrow(final Throwable e) {
+		if (e instanceof Error) {
+			throw (Error) e;
+		}
+		return new IllegalStateException(e);
+	}
+
+	@Override
+	public String toString() {
+		return "FieldAccessor[" + field + "]";
+	}
+}
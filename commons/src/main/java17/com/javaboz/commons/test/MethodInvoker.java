@@ -0,0 +1,91 @@
+package com.javaboz.commons.test;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+
+/**
+ * Invoker of a method resolved once for a call shape, made accessible once.<br>
+ * For a variable arity call the trailing arguments are collected into the array parameter. Errors are reported like
+ * {@link ReflectionUtils#invokeMethod(Object, String, Object...)}.<br>
+ * Java 17+ implementation of the multi-release jar: the method is unreflected once into a handle of shape
+ * <code>(Object, Object[])Object</code>, variable arity arguments collected by the handle itself, invoked exactly.
+ * Arguments of another call shape fail with a {@link ClassCastException} wrapped like an exception of the method.
+ * Thread safe.
+ *
+ * @author Julien Boz
+ */
+public final class MethodInvoker {
+
+	private final Method method;
+	/** number of arguments of a variable arity call, -1 for a fixed arity call */
+	private final int varargsCount;
+	private final boolean isStatic;
+	/** number of arguments of the call */
+	private final int arity;
+	/** (Object target, Object[] args)Object */
+	private final MethodHandle handle;
+
+	MethodInvoker(final Method method, final int varargsCount) {
+		method.setAccessible(true);
+		this.method = method;
+		this.varargsCount = varargsCount;
+		this.isStatic = Modifier.isStatic(method.getModifiers());
+		MethodHandle unreflected;
+		try {
+			unreflected = MethodHandles.lookup().unreflect(method).asFixedArity();
+		} catch (final IllegalAccessException e) {
+			// cannot occur, the method is accessible
+			throw new IllegalArgumentException("Error while trying to access method " + method.getName(), e);
+		}
+		if (isStatic) {
+			// same shape as instance methods, the target is ignored
+			unreflected = MethodHandles.dropArguments(unreflected, 0, Object.class);
+		}
+		int arity = method.getParameterTypes().length;
+		if (varargsCount >= 0) {
+			final Class<?>[] parameters = method.getParameterTypes();
+			unreflected = unreflected.asCollector(parameters[parameters.length - 1], varargsCount - arity + 1);
+			arity = varargsCount;
+		}
+		this.arity = arity;
+		this.handle = unreflected.asType(MethodType.genericMethodType(arity + 1)).asSpreader(Object[].class, arity);
+	}
+
+	public Method getMethod() {
+		return method;
+	}
+
+	/**
+	 * @param target the object, null for static methods
+	 * @param args the arguments of the call shape resolved
+	 * @return the result, null for void methods
+	 */
+	public Object invoke(final Object target, final Object... args) {
+		if (!isStatic) {
+			if (target == null) {
+				throw new NullPointerException("Cannot invoke " + method + " on null object");
+			}
+			if (!method.getDeclaringClass().isInstance(target)) {
+				throw new IllegalArgumentException("object is not an instance of declaring class");
+			}
+		}
+		if (args.length != arity) {
+			throw new IllegalArgumentException("wrong number of arguments: " + args.length + " != " + arity);
+		}
+		try {
+			return handle.invokeExact(target, args);
+		} catch (final Throwable e) {
+			throw new IllegalArgumentException("Error while trying to access method " + method.getName(),
+					new InvocationTargetException(e));
+		}
+	}
+
+	@Override
+	public String toString() {
+		return "MethodInvoker[" + method + (varargsCount < 0 ? "" : ", " + varargsCount + " arguments") + "]";
+	}
+}
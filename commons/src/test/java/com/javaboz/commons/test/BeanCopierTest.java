@@ -0,0 +1,147 @@
+package com.javaboz.commons.test;
+
+import static org.fest.assertions.Assertions.assertThat;
+
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+/**
+ * Test de la classe {@link BeanCopier}.
+ *
+ * @author Julien Boz
+ */
+public class BeanCopierTest {
+
+	@Rule
+	public final ExpectedException thrown = ExpectedException.none();
+
+	private static class BaseEntity {
+		protected Long id;
+	}
+
+	private static class Entity extends BaseEntity {
+		static String shared = "shared";
+		private String name;
+		private int quantity;
+		private double price;
+		private boolean active;
+		private Integer stock;
+		private Integer missing;
+		private String internal;
+	}
+
+	@SuppressWarnings("unused")
+	private static class Dto {
+		static String shared;
+		private final String internal = null;
+		private long id;
+		private String NAME;
+		private int quantity;
+		private double price;
+		private boolean active;
+		private int stock = -1;
+		private int missing = -1;
+		private Number number;
+		private String other;
+	}
+
+	private static class NoDefault {
+		@SuppressWarnings("unused")
+		private String name;
+
+		NoDefault(final String name) {
+			this.name = name;
+		}
+	}
+
+	private static Entity entity(final String name) {
+		final Entity entity = new Entity();
+		entity.id = 7L;
+		entity.name = name;
+		entity.quantity = 3;
+		entity.price = 2.5;
+		entity.active = true;
+		entity.stock = 12;
+		entity.internal = "internal";
+		return entity;
+	}
+
+	@Test
+	public void testPlan() {
+		final BeanCopier<Entity, Dto> copier = BeanCopier.of(Entity.class, Dto.class);
+		assertThat(copier.getSource()).isEqualTo(Entity.class);
+		assertThat(copier.getTarget()).isEqualTo(Dto.class);
+		// static, final, unmatched and incompatible fields are left out
+		assertThat(copier.getFieldNames()).containsOnly("id", "NAME", "quantity", "price", "active", "stock",
+				"missing");
+		assertThat(BeanCopier.of(Entity.class, Dto.class)).isSameAs(copier);
+	}
+
+	@Test
+	public void testCopy() {
+		final Dto dto = BeanCopier.of(Entity.class, Dto.class).copy(entity("product"), new Dto());
+		assertThat(dto.id).isEqualTo(7L);
+		assertThat(dto.NAME).isEqualTo("product");
+		assertThat(dto.quantity).isEqualTo(3);
+		assertThat(dto.price).isEqualTo(2.5);
+		assertThat(dto.active).isTrue();
+		assertThat(dto.stock).isEqualTo(12);
+		// null not copied to a primitive
+		assertThat(dto.missing).isEqualTo(-1);
+		assertThat(dto.internal).isNull();
+		assertThat(dto.number).isNull();
+	}
+
+	@Test
+	public void testCopy_boxing() {
+		final Dto dto = new Dto();
+		dto.quantity = 5;
+		dto.stock = 9;
+		final Entity entity = BeanCopier.of(Dto.class, Entity.class).copy(dto, new Entity());
+		assertThat(entity.quantity).isEqualTo(5);
+		assertThat(entity.stock).isEqualTo(9);
+		assertThat(entity.missing).isEqualTo(-1);
+		// long to Long
+		assertThat(entity.id).isEqualTo(0L);
+	}
+
+	@Test
+	public void testCopyAll() {
+		final List<Dto> dtos = BeanCopier.of(Entity.class, Dto.class).copyAll(
+				Arrays.asList(entity("first"), null, entity("second")));
+		assertThat(dtos).hasSize(3);
+		assertThat(dtos.get(0).NAME).isEqualTo("first");
+		assertThat(dtos.get(1)).isNull();
+		assertThat(dtos.get(2).NAME).isEqualTo("second");
+	}
+
+	@Test
+	public void testCopy_noDefaultConstructor() {
+		thrown.expect(IllegalArgumentException.class);
+		thrown.expectMessage("No default constructor in " + NoDefault.class.getName());
+
+		BeanCopier.of(Entity.class, NoDefault.class).copy(entity("product"));
+	}
+
+	@Test
+	public void testIsAssignable() {
+		assertThat(BeanCopier.isAssignable(int.class, int.class)).isTrue();
+		assertThat(BeanCopier.isAssignable(int.class, Integer.class)).isTrue();
+		assertThat(BeanCopier.isAssignable(Integer.class, int.class)).isTrue();
+		assertThat(BeanCopier.isAssignable(int.class, Number.class)).isTrue();
+		assertThat(BeanCopier.isAssignable(String.class, Object.class)).isTrue();
+		assertThat(BeanCopier.isAssignable(Number.class, int.class)).isFalse();
+		assertThat(BeanCopier.isAssignable(int.class, long.class)).isFalse();
+		assertThat(BeanCopier.isAssignable(Object.class, String.class)).isFalse();
+	}
+
+	@Test
+	public void testCopyFieldValues() {
+		final Dto dto = ReflectionUtils.copyFieldValues(entity("product"), new Dto());
+		assertThat(dto.NAME).isEqualTo("product");
+	}
+}
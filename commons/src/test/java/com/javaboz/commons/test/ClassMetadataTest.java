@@ -0,0 +1,153 @@
+package com.javaboz.commons.test;
+
+import static org.fest.assertions.Assertions.assertThat;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+
+import org.junit.Test;
+import org.junit.experimental.theories.DataPoint;
+
+/**
+ * Test de la classe {@link ClassMetadata}.
+ *
+ * @author Julien Boz
+ */
+public class ClassMetadataTest {
+
+	@Deprecated
+	private static class Parent {
+		@DataPoint
+		protected String name;
+		protected Integer count;
+	}
+
+	private static class Child extends Parent {
+		// hides the parent field, found first
+		protected String NAME;
+		@DataPoint
+		private Long total;
+
+		@SuppressWarnings("unused")
+		@Deprecated
+		private void annotated() {
+		}
+
+		@SuppressWarnings("unused")
+		private void plain() {
+		}
+	}
+
+	public static class Isolated {
+	}
+
+	/**
+	 * Loader of a copy of a class, unrelated to the loader of the test.
+	 */
+	private static final class IsolatedLoader extends ClassLoader {
+		IsolatedLoader() {
+			super(null);
+		}
+
+		Class<?> copy(final Class<?> clazz) throws IOException {
+			final InputStream in = clazz.getResourceAsStream("/" + clazz.getName().replace('.', '/') + ".class");
+			try {
+				final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+				final byte[] buffer = new byte[4096];
+				int read;
+				while ((read = in.read(buffer)) > 0) {
+					bytes.write(buffer, 0, read);
+				}
+				return defineClass(clazz.getName(), bytes.toByteArray(), 0, bytes.size());
+			} finally {
+				in.close();
+			}
+		}
+	}
+
+	@Test
+	public void testOf() {
+		assertThat(ClassMetadata.of(Child.class)).isSameAs(ClassMetadata.of(Child.class));
+		assertThat(ClassMetadata.of(Object.class).getFields()).isEmpty();
+	}
+
+	@Test
+	public void testGetFields() throws NoSuchFieldException {
+		assertThat(ClassMetadata.of(Child.class).getFields()).containsOnly(Child.class.getDeclaredField("NAME"),
+				Child.class.getDeclaredField("total"), Parent.class.getDeclaredField("name"),
+				Parent.class.getDeclaredField("count"));
+	}
+
+	@Test
+	public void testGetFieldByName() {
+		final ClassMetadata metadata = ClassMetadata.of(Child.class);
+
+		assertThat(metadata.getFieldByName("name").getDeclaringClass()).isEqualTo(Child.class);
+		assertThat(metadata.getFieldByName("Count").getDeclaringClass()).isEqualTo(Parent.class);
+		assertThat(metadata.getFieldByName("unknown")).isNull();
+		assertThat(metadata.getFieldByName(null)).isNull();
+		assertThat(ClassMetadata.of(Parent.class).getFieldByName("NAME").getName()).isEqualTo("name");
+	}
+
+	@Test
+	public void testGetFieldByType() {
+		final ClassMetadata metadata = ClassMetadata.of(Child.class);
+
+		final Field field = metadata.getFieldByType(String.class);
+		assertThat(field.getName()).isEqualTo("NAME");
+		assertThat(metadata.getFieldByType(Integer.class).getName()).isEqualTo("count");
+		// exact type only
+		assertThat(metadata.getFieldByType(Number.class)).isNull();
+	}
+
+	@Test
+	public void testGetFieldAnnotatedWith() {
+		assertThat(ClassMetadata.of(Child.class).getFieldAnnotatedWith(DataPoint.class).getName()).isEqualTo("total");
+		assertThat(ClassMetadata.of(Parent.class).getFieldAnnotatedWith(DataPoint.class).getName()).isEqualTo("name");
+		assertThat(ClassMetadata.of(Parent.class).getFieldAnnotatedWith(Deprecated.class)).isNull();
+	}
+
+	@Test
+	public void testGetClassLevelAnnotation() {
+		final ClassMetadata metadata = ClassMetadata.of(Child.class);
+
+		final Deprecated annotation = metadata.getClassLevelAnnotation(Deprecated.class);
+		assertThat(annotation).isSameAs(Parent.class.getAnnotation(Deprecated.class));
+		assertThat(metadata.getClassLevelAnnotation(Deprecated.class)).isSameAs(annotation);
+		assertThat(metadata.getClassLevelAnnotation(DataPoint.class)).isNull();
+		assertThat(metadata.getClassLevelAnnotation(DataPoint.class)).isNull();
+		assertThat(ClassMetadata.of(Object.class).getClassLevelAnnotation(Deprecated.class)).isNull();
+	}
+
+	@Test
+	public void testGetMethodOrClassLevelAnnotation() throws NoSuchMethodException {
+		final ClassMetadata metadata = ClassMetadata.of(Child.class);
+		final Method annotated = Child.class.getDeclaredMethod("annotated");
+		final Method plain = Child.class.getDeclaredMethod("plain");
+
+		assertThat(metadata.getMethodOrClassLevelAnnotation(Deprecated.class, annotated)).isSameAs(
+				annotated.getAnnotation(Deprecated.class));
+		assertThat(metadata.getMethodOrClassLevelAnnotation(Deprecated.class, plain)).isSameAs(
+				Parent.class.getAnnotation(Deprecated.class));
+		assertThat(metadata.getMethodOrClassLevelAnnotation(Deprecated.class, plain)).isSameAs(
+				Parent.class.getAnnotation(Deprecated.class));
+		assertThat(metadata.getMethodOrClassLevelAnnotation(DataPoint.class, plain)).isNull();
+		assertThat(metadata.getMethodOrClassLevelAnnotation(DataPoint.class, plain)).isNull();
+	}
+
+	@Test
+	public void testGetInvoker_otherLoader() throws Exception {
+		final ClassMetadata metadata = ClassMetadata.of(String.class);
+		final Object isolated = new IsolatedLoader().copy(Isolated.class).newInstance();
+
+		final MethodInvoker invoker = metadata.getInvoker("valueOf", new Object[] { isolated });
+		assertThat(invoker.invoke(null, isolated)).isEqualTo(String.valueOf(isolated));
+		// not cached, it would keep the isolated loader
+		assertThat(metadata.getInvoker("valueOf", new Object[] { isolated })).isNotSameAs(invoker);
+		assertThat(metadata.getInvoker("valueOf", new Object[] { 1 })).isSameAs(
+				metadata.getInvoker("valueOf", new Object[] { 2 }));
+	}
+}
@@ -0,0 +1,96 @@
+package com.javaboz.commons.test;
+
+import static org.fest.assertions.Assertions.assertThat;
+
+import java.util.BitSet;
+import java.util.Locale;
+
+import org.apache.commons.math.complex.Complex;
+import org.apache.commons.math.complex.ComplexFormat;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+/**
+ * Test de la classe {@link ComplexArray}.
+ *
+ * @author Julien Boz
+ */
+public class ComplexArrayTest {
+
+	private static Locale defaultLocale;
+
+	@BeforeClass
+	public static void setup() {
+		defaultLocale = Locale.getDefault();
+		Locale.setDefault(new Locale("fr", "CH"));
+	}
+
+	@AfterClass
+	public static void tearDown() {
+		Locale.setDefault(defaultLocale);
+	}
+
+	@Test
+	public void testParse() {
+		final ComplexArray array = new ComplexArray(7);
+		final BitSet valids = ComplexArray.parse(new String[] { "1'000.5", "-2+3.5IMAGINARY", " 1E3 - 2IMAGINARY ",
+				"3x", null, "12L", "0x1F" }, array);
+		assertThat(valids.toString()).isEqualTo("{0, 1, 2, 5}");
+		assertThat(array.get(0)).isEqualTo(new Complex(1000.5, 0));
+		assertThat(array.get(1)).isEqualTo(new Complex(-2, 3.5));
+		assertThat(array.get(2)).isEqualTo(new Complex(1000, -2));
+		assertThat(array.getReal(3)).isNaN();
+		assertThat(array.getImaginary(4)).isNaN();
+		assertThat(array.get(5)).isEqualTo(new Complex(12, 0));
+		assertThat(array.getReal(6)).isNaN();
+	}
+
+	@Test
+	public void testParse_sameAsComplexFormat() {
+		final String[] texts = { "1", "-1.25", "3'000'125.15", "1 + 2IMAGINARY", "-1.5-2.25IMAGINARY", "0+0IMAGINARY" };
+		final ComplexArray array = ComplexArray.parse(texts);
+		for (int i = 0; i < texts.length; i++) {
+			assertThat(array.get(i)).as(texts[i]).isEqualTo(NumberUtils.parse(texts[i]));
+		}
+	}
+
+	@Test
+	public void testFormat() {
+		final ComplexFormat format = NumberUtils.getComplexFormat();
+		final Complex[] complexes = { new Complex(1000.556, 2), new Complex(-1, -2.5), new Complex(3, 0),
+				new Complex(3, -0d), new Complex(Double.NaN, 1), new Complex(1, Double.NEGATIVE_INFINITY),
+				new Complex(0, Double.NaN) };
+		final String[] texts = ComplexArray.valueOf(complexes).format();
+		for (int i = 0; i < complexes.length; i++) {
+			assertThat(texts[i]).isEqualTo(format.format(complexes[i]));
+		}
+		assertThat(texts[0]).isEqualTo("1'000.56 + 2IMAGINARY");
+	}
+
+	@Test
+	public void testOperations() {
+		final ComplexArray a = ComplexArray.valueOf(new Complex[] { new Complex(1, 2), new Complex(-3, 0.5), null });
+		final ComplexArray b = new ComplexArray(new double[] { 2, 1, 0 }, new double[] { -1, 4, 0 });
+		final Complex[] expected = { new Complex(1, 2).multiply(new Complex(2, -1)),
+				new Complex(-3, 0.5).multiply(new Complex(1, 4)) };
+
+		a.multiply(b);
+		assertThat(a.get(0)).isEqualTo(expected[0]);
+		assertThat(a.get(1)).isEqualTo(expected[1]);
+		assertThat(a.getReal(2)).isNaN();
+
+		a.add(b).subtract(b).multiply(2).conjugate();
+		assertThat(a.get(0)).isEqualTo(expected[0].multiply(2).conjugate());
+
+		final double[] moduli = b.abs(new double[3]);
+		assertThat(moduli[0]).isEqualTo(new Complex(2, -1).abs());
+		assertThat(b.sum()).isEqualTo(new Complex(3, 3));
+		assertThat(b.toComplexArray()).isEqualTo(new Complex[] { new Complex(2, -1), new Complex(1, 4), new Complex(0, 0) });
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testOperations_lengthMismatch() {
+		new ComplexArray(2).add(new ComplexArray(3));
+	}
+}
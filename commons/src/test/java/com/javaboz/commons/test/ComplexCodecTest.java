@@ -0,0 +1,108 @@
+package com.javaboz.commons.test;
+
+import static org.fest.assertions.Assertions.assertThat;
+
+import java.io.StringWriter;
+import java.util.Locale;
+import java.util.Random;
+
+import org.apache.commons.math.complex.Complex;
+import org.apache.commons.math.complex.ComplexFormat;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+/**
+ * Test de la classe {@link ComplexCodec}.
+ *
+ * @author Julien Boz
+ */
+public class ComplexCodecTest {
+
+	private static Locale defaultLocale;
+
+	@BeforeClass
+	public static void setup() {
+		defaultLocale = Locale.getDefault();
+		Locale.setDefault(new Locale("fr", "CH"));
+	}
+
+	@AfterClass
+	public static void tearDown() {
+		Locale.setDefault(defaultLocale);
+	}
+
+	@Test
+	public void testParse() {
+		final ComplexCodec codec = new ComplexCodec();
+		assertThat(codec.parse("1'000.5")).isEqualTo(new Complex(1000.5, 0));
+		assertThat(codec.parse("1 + 2IMAGINARY")).isEqualTo(new Complex(1, 2));
+		assertThat(codec.parse("-1.5-2.25IMAGINARY")).isEqualTo(new Complex(-1.5, -2.25));
+		assertThat(codec.parse("1E3 - 1'000IMAGINARY")).isEqualTo(new Complex(1000, -1000));
+		assertThat(codec.parse("3x")).isNull();
+		assertThat(codec.parse("0x1F")).isNull();
+		assertThat(codec.parse("2IMAGINARY")).isNull();
+		assertThat(codec.parse(null)).isNull();
+
+		final double[] parts = { 7, 7, 7 };
+		assertThat(codec.parse("5 - 6IMAGINARY", parts, 1)).isTrue();
+		assertThat(parts).isEqualTo(new double[] { 7, 5, -6 });
+		assertThat(codec.parse("x", parts, 0)).isFalse();
+		assertThat(parts).isEqualTo(new double[] { 7, 5, -6 });
+	}
+
+	@Test
+	public void testFormat_sameAsComplexFormat() throws Exception {
+		final ComplexCodec codec = new ComplexCodec();
+		final ComplexFormat format = NumberUtils.getComplexFormat();
+		final Random random = new Random(42);
+		for (int i = 0; i < 10000; i++) {
+			final Complex complex = new Complex((random.nextDouble() - 0.5) * Math.pow(10, random.nextInt(16) - 4),
+					i % 5 == 0 ? 0 : (random.nextDouble() - 0.5) * Math.pow(10, random.nextInt(16) - 4));
+			final String expected = format.format(complex);
+			assertThat(codec.format(complex)).isEqualTo(expected);
+			final StringWriter writer = new StringWriter();
+			codec.format(complex.getReal(), complex.getImaginary(), writer);
+			assertThat(writer.toString()).isEqualTo(expected);
+
+			// round trip at the formatted precision
+			assertThat(codec.parse(expected)).as(expected).isEqualTo(format.parse(expected));
+		}
+		for (final Complex complex : new Complex[] { new Complex(Double.NaN, 1), new Complex(1, Double.NaN),
+				new Complex(Double.POSITIVE_INFINITY, Double.NEGATIVE_INFINITY), new Complex(Double.MAX_VALUE, -0d) }) {
+			assertThat(codec.format(complex)).isEqualTo(format.format(complex));
+			final StringWriter writer = new StringWriter();
+			codec.format(complex.getReal(), complex.getImaginary(), writer);
+			assertThat(writer.toString()).isEqualTo(format.format(complex));
+		}
+	}
+
+	@Test
+	public void testParse_nonFinite() {
+		final ComplexCodec codec = new ComplexCodec();
+		assertThat(codec.parse("(NaN)")).isEqualTo(new Complex(Double.NaN, 0));
+		assertThat(codec.parse("(NaN) + 1IMAGINARY")).isEqualTo(new Complex(Double.NaN, 1));
+		assertThat(codec.parse("1'000 - (Infinity)IMAGINARY")).isEqualTo(
+				new Complex(1000, Double.NEGATIVE_INFINITY));
+		assertThat(codec.parse(" (-Infinity) + (NaN)IMAGINARY ")).isEqualTo(
+				new Complex(Double.NEGATIVE_INFINITY, Double.NaN));
+		assertThat(codec.parse("(Infinite)")).isNull();
+		assertThat(codec.parse("(NaN")).isNull();
+		assertThat(codec.parse("(NaN)IMAGINARY")).isNull();
+		assertThat(codec.parse("1(NaN)")).isNull();
+		assertThat(codec.parse("(NaN) + (NaN)")).isNull();
+		assertThat(codec.parse("1 + (NaN)IMAGINARY - 1IMAGINARY")).isNull();
+
+		// round trip
+		final double[] values = { Double.NaN, Double.POSITIVE_INFINITY, Double.NEGATIVE_INFINITY, 0, -1.5, 1000 };
+		for (final double re : values) {
+			for (final double im : values) {
+				final String formatted = codec.format(new Complex(re, im));
+				final Complex parsed = codec.parse(formatted);
+				assertThat(parsed).as(formatted).isNotNull();
+				assertThat(parsed.getReal()).as(formatted).isEqualTo(re);
+				assertThat(parsed.getImaginary()).as(formatted).isEqualTo(im);
+			}
+		}
+	}
+}
@@ -0,0 +1,109 @@
+package com.javaboz.commons.test;
+
+import static com.javaboz.commons.test.DateParseCache.NOT_A_DATE;
+import static org.fest.assertions.Assertions.assertThat;
+
+import java.util.Date;
+
+import org.junit.After;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+/**
+ * Test de la classe {@link DateParseCache}.
+ *
+ * @author Julien Boz
+ */
+public class DateParseCacheTest {
+
+	@Rule
+	public final ExpectedException thrown = ExpectedException.none();
+
+	@After
+	public void tearDown() {
+		DateUtils.setParseCache(null);
+	}
+
+	@Test
+	public void testParse() {
+		final DateParseCache cache = new DateParseCache(10);
+
+		final Date date = cache.parse("31.12.2015", DateUtils.FR_DATE_FORMAT);
+		assertThat(date).isEqualTo(DateUtils.parse("31.12.2015", DateUtils.FR_DATE_FORMAT));
+		assertThat(cache.getMissCount()).isEqualTo(1);
+		assertThat(cache.getHitCount()).isEqualTo(0);
+
+		// fresh instance on each hit
+		date.setTime(0);
+		final Date cached = cache.parse("31.12.2015", DateUtils.FR_DATE_FORMAT);
+		assertThat(cached).isNotSameAs(date).isEqualTo(DateUtils.parse("31.12.2015", DateUtils.FR_DATE_FORMAT));
+		assertThat(cache.getHitCount()).isEqualTo(1);
+		assertThat(cache.getHitRate()).isEqualTo(0.5);
+
+		assertThat(cache.parseMillis("31.12.2015", DateUtils.FR_DATE_FORMAT)).isEqualTo(cached.getTime());
+		assertThat(cache.getHitCount()).isEqualTo(2);
+	}
+
+	@Test
+	public void testParse_invalid() {
+		final DateParseCache cache = new DateParseCache(10);
+
+		assertThat(cache.parse(null, DateUtils.FR_DATE_FORMAT)).isNull();
+		assertThat(cache.parse(" ", DateUtils.FR_DATE_FORMAT)).isNull();
+		assertThat(cache.parse("31.12.2015", null)).isNull();
+		assertThat(cache.getMissCount()).isEqualTo(0);
+
+		assertThat(cache.parseMillis("as4df5687", DateUtils.FR_DATE_FORMAT)).isEqualTo(NOT_A_DATE);
+		assertThat(cache.parse("as4df5687", DateUtils.FR_DATE_FORMAT)).isNull();
+		assertThat(cache.getMissCount()).isEqualTo(1);
+		assertThat(cache.getHitCount()).isEqualTo(1);
+	}
+
+	@Test
+	public void testEviction() {
+		final DateParseCache cache = new DateParseCache(2);
+
+		cache.parse("01.01.2000", DateUtils.FR_DATE_FORMAT);
+		cache.parse("02.01.2000", DateUtils.FR_DATE_FORMAT);
+		// 01.01.2000 becomes the most recently used
+		cache.parse("01.01.2000", DateUtils.FR_DATE_FORMAT);
+		cache.parse("03.01.2000", DateUtils.FR_DATE_FORMAT);
+		assertThat(cache.size()).isEqualTo(2);
+		assertThat(cache.getMissCount()).isEqualTo(3);
+
+		cache.parse("01.01.2000", DateUtils.FR_DATE_FORMAT);
+		assertThat(cache.getHitCount()).isEqualTo(2);
+		cache.parse("02.01.2000", DateUtils.FR_DATE_FORMAT);
+		assertThat(cache.getMissCount()).isEqualTo(4);
+
+		// same text, other pattern
+		cache.parse("01.01.2000", "MM.dd.yyyy");
+		assertThat(cache.getMissCount()).isEqualTo(5);
+
+		cache.clear();
+		assertThat(cache.size()).isEqualTo(0);
+		assertThat(cache.getHitCount()).isEqualTo(0);
+		assertThat(cache.getHitRate()).isEqualTo(0.0);
+	}
+
+	@Test
+	public void testDateUtils() {
+		final DateParseCache cache = new DateParseCache(10);
+		DateUtils.setParseCache(cache);
+		assertThat(DateUtils.getParseCache()).isSameAs(cache);
+
+		assertThat(DateUtils.parse("31.12.2015")).isEqualTo(DateUtils.parse("31.12.2015", DateUtils.FR_DATE_FORMAT));
+		assertThat(DateUtils.parse("as4df5687", DateUtils.FR_DATE_FORMAT)).isNull();
+		assertThat(cache.getHitCount()).isEqualTo(1);
+		assertThat(cache.getMissCount()).isEqualTo(2);
+	}
+
+	@Test
+	public void testCapacity() {
+		thrown.expect(IllegalArgumentException.class);
+		thrown.expectMessage("Capacity must be positive: 0");
+
+		new DateParseCache(0);
+	}
+}
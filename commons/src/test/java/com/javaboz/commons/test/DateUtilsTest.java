@@ -2,6 +2,7 @@ package com.javaboz.commons.test;
 
 import static com.javaboz.commons.test.DateUtils.ENDFILE_DATE_FORMAT;
 import static com.javaboz.commons.test.DateUtils.FR_DATE_FORMAT;
+import static com.javaboz.commons.test.DateUtils.INVALID_TIME;
 import static com.javaboz.commons.test.DateUtils.between;
 import static com.javaboz.commons.test.DateUtils.clearTime;
 import static com.javaboz.commons.test.DateUtils.compareTo;
@@ -12,11 +13,15 @@ import static com.javaboz.commons.test.DateUtils.isAfterOrEquals;
 import static com.javaboz.commons.test.DateUtils.isBefore;
 import static com.javaboz.commons.test.DateUtils.isBeforeOrEquals;
 import static com.javaboz.commons.test.DateUtils.isEquals;
+import static com.javaboz.commons.test.DateUtils.isValidDate;
 import static com.javaboz.commons.test.DateUtils.max;
 import static com.javaboz.commons.test.DateUtils.parse;
 import static com.javaboz.commons.test.DateUtils.parseDateTime;
 import static com.javaboz.commons.test.DateUtils.parseTime;
+import static com.javaboz.commons.test.DateUtils.parseTimeOfDay;
+import static com.javaboz.commons.test.DateUtils.parseTimes;
 import static com.javaboz.commons.test.DateUtils.toCalendar;
+import static com.javaboz.commons.test.DateUtils.validateDates;
 import static org.fest.assertions.Assertions.assertThat;
 
 import java.util.Calendar;
@@ -25,6 +30,7 @@ import java.util.Locale;
 
 import org.joda.time.DateTime;
 import org.joda.time.DurationFieldType;
+import org.joda.time.LocalTime;
 import org.joda.time.ReadableInstant;
 import org.junit.AfterClass;
 import org.junit.BeforeClass;
@@ -111,6 +117,24 @@ public class DateUtilsTest {
 				createDate(2015, 12, 25, 10, 20, 0, 0));
 	}
 
+	@Test
+	public void testIsValidDate() {
+		assertThat(isValidDate("31.12.2015")).isTrue();
+		assertThat(isValidDate(null)).isFalse();
+		assertThat(isValidDate("32.01.2020")).isFalse();
+		assertThat(isValidDate("31.12.2015 garbage")).isFalse();
+		assertThat(isValidDate("20120225155619", ENDFILE_DATE_FORMAT)).isTrue();
+		assertThat(isValidDate("25 Décembre 2015 à 10h20", "dd MMMM yyyy 'à' hh'h'mm")).isTrue();
+	}
+
+	@Test
+	public void testValidateDates() {
+		final int[] errorIndexes = new int[2];
+		assertThat(validateDates(new String[] { "31.12.2015", "31.11.2015" }, FR_DATE_FORMAT, errorIndexes).cardinality())
+				.isEqualTo(1);
+		assertThat(errorIndexes).isEqualTo(new int[] { DateValidator.VALID, 0 });
+	}
+
 	@Test
 	public void testFormat() {
 		assertThat(format(null)).isEqualTo("null");
@@ -200,6 +224,72 @@ public class DateUtilsTest {
 		assertThat(parseTime("01")).isEqualTo(3600000);
 		assertThat(parseTime("01:00:10")).isEqualTo(3610000);
 		assertThat(parseTime("01:03:10")).isEqualTo(3790000);
+		assertThat(parseTime("01:03:10.250")).isEqualTo(3790250);
+		assertThat(parseTime("23:59:59,999")).isEqualTo(86399999);
+	}
+
+	@Test
+	public void testParseTime_error() {
+		thrown.expect(IllegalArgumentException.class);
+		thrown.expectMessage("Invalid format: \"24:00\"");
+
+		parseTime("24:00");
+	}
+
+	@Test
+	public void testParseTimeOfDay() {
+		assertThat(parseTimeOfDay("01:03:10")).isEqualTo(3790000);
+		assertThat(parseTimeOfDay("01:03:10.5")).isEqualTo(3790500);
+		assertThat(parseTimeOfDay("01:03:10.0509")).isEqualTo(3790050);
+		assertThat(parseTimeOfDay("at 01:03 o'clock", 3, 8)).isEqualTo(3780000);
+		// forms of the Joda LocalTime.parse
+		assertThat(parseTimeOfDay("1")).isEqualTo(3600000);
+		assertThat(parseTimeOfDay("1:00")).isEqualTo(3600000);
+		assertThat(parseTimeOfDay("T01:00")).isEqualTo(3600000);
+		assertThat(parseTimeOfDay("t1:2:3.4")).isEqualTo(3723400);
+
+		assertThat(parseTimeOfDay(null)).isEqualTo(INVALID_TIME);
+		assertThat(parseTimeOfDay("")).isEqualTo(INVALID_TIME);
+		assertThat(parseTimeOfDay("T")).isEqualTo(INVALID_TIME);
+		assertThat(parseTimeOfDay("1:")).isEqualTo(INVALID_TIME);
+		assertThat(parseTimeOfDay("123")).isEqualTo(INVALID_TIME);
+		assertThat(parseTimeOfDay("01:003")).isEqualTo(INVALID_TIME);
+		assertThat(parseTimeOfDay(" 01:00")).isEqualTo(INVALID_TIME);
+		assertThat(parseTimeOfDay("24:00")).isEqualTo(INVALID_TIME);
+		assertThat(parseTimeOfDay("12:60")).isEqualTo(INVALID_TIME);
+		assertThat(parseTimeOfDay("12:00:60")).isEqualTo(INVALID_TIME);
+		assertThat(parseTimeOfDay("12:00:")).isEqualTo(INVALID_TIME);
+		assertThat(parseTimeOfDay("12:00:00.")).isEqualTo(INVALID_TIME);
+		assertThat(parseTimeOfDay("12:00:00.1a")).isEqualTo(INVALID_TIME);
+		assertThat(parseTimeOfDay("12h00")).isEqualTo(INVALID_TIME);
+	}
+
+	@Test
+	public void testParseTimeOfDay_sameAsJoda() {
+		for (final String time : new String[] { "1", "01", "T1", "1:00", "T01:00", "1:5", "01:5", "01:03:1",
+				"1:00:00.5", "01:03:10,5", "23:59:59.999", "T", "t01:00", "0100", "01:00Z", "24:00", "123", "1:",
+				"01:003", "1:00:00.", " 01:00", "12h00" }) {
+			int expected;
+			try {
+				expected = LocalTime.parse(time).getMillisOfDay();
+			} catch (final IllegalArgumentException e) {
+				expected = INVALID_TIME;
+			}
+			assertThat(parseTimeOfDay(time)).as(time).isEqualTo(expected);
+		}
+	}
+
+	@Test
+	public void testParseTimes() {
+		final String[] times = { "00:00", "01:00:10", null, "x", "23:59:59.999" };
+
+		final int[] millis = new int[times.length];
+		assertThat(parseTimes(times, millis)).isEqualTo(2);
+		assertThat(millis).isEqualTo(new int[] { 0, 3610000, INVALID_TIME, INVALID_TIME, 86399999 });
+
+		final long[] longMillis = new long[times.length];
+		assertThat(parseTimes(times, longMillis)).isEqualTo(2);
+		assertThat(longMillis).isEqualTo(new long[] { 0, 3610000, INVALID_TIME, INVALID_TIME, 86399999 });
 	}
 
 	@Test
@@ -0,0 +1,135 @@
+package com.javaboz.commons.test;
+
+import static com.javaboz.commons.test.DateValidator.VALID;
+import static org.fest.assertions.Assertions.assertThat;
+
+import java.util.BitSet;
+import java.util.Locale;
+
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+/**
+ * Test de la classe {@link DateValidator}.
+ *
+ * @author Julien Boz
+ */
+public class DateValidatorTest {
+
+	@Rule
+	public final ExpectedException thrown = ExpectedException.none();
+
+	private static Locale defaultLocale;
+
+	@BeforeClass
+	public static void setup() {
+		defaultLocale = Locale.getDefault();
+		Locale.setDefault(Locale.FRANCE);
+	}
+
+	@AfterClass
+	public static void tearDown() {
+		Locale.setDefault(defaultLocale);
+	}
+
+	@Test
+	public void testValidate() {
+		final DateValidator validator = DateValidator.compile(DateUtils.FR_DATE_FORMAT);
+
+		assertThat(validator.validate("31.12.2015")).isEqualTo(VALID);
+		assertThat(validator.validate("29.02.2000")).isEqualTo(VALID);
+		assertThat(validator.validate("29.02.2012")).isEqualTo(VALID);
+
+		assertThat(validator.validate(null)).isEqualTo(0);
+		assertThat(validator.validate("")).isEqualTo(0);
+		assertThat(validator.validate("32.01.2020")).isEqualTo(0);
+		assertThat(validator.validate("29.02.2021")).isEqualTo(0);
+		assertThat(validator.validate("29.02.1900")).isEqualTo(0);
+		assertThat(validator.validate("31.04.2020")).isEqualTo(0);
+		assertThat(validator.validate("01.13.2020")).isEqualTo(3);
+		assertThat(validator.validate("01.1.2020")).isEqualTo(4);
+		assertThat(validator.validate("01-01-2020")).isEqualTo(2);
+		assertThat(validator.validate("01.01.20")).isEqualTo(8);
+		assertThat(validator.validate("01.01.2020 garbage")).isEqualTo(10);
+		assertThat(validator.validate("01.01.0000")).isEqualTo(6);
+	}
+
+	@Test
+	public void testValidate_fixedWidth() {
+		final DateValidator validator = DateValidator.compile(DateUtils.ENDFILE_DATE_FORMAT);
+
+		assertThat(validator.isValid("20120225155619")).isTrue();
+		assertThat(validator.validate("20120225245619")).isEqualTo(8);
+		assertThat(validator.validate("2012022515561")).isEqualTo(13);
+		assertThat(validator.validate("201202251556190")).isEqualTo(14);
+	}
+
+	@Test
+	public void testValidate_variableWidth() {
+		final DateValidator validator = DateValidator.compile("d/M/yy 'à' H'h'mm");
+
+		assertThat(validator.isValid("1/2/12 à 9h05")).isTrue();
+		assertThat(validator.isValid("31/12/12 à 23h59")).isTrue();
+		assertThat(validator.validate("1/2/12 a 9h05")).isEqualTo(7);
+		assertThat(validator.validate("1/2/12 à 9h5")).isEqualTo(12);
+	}
+
+	@Test
+	public void testValidate_quotes() {
+		final DateValidator validator = DateValidator.compile("dd''MM''yy''");
+
+		assertThat(validator.isValid("01'02'12'")).isTrue();
+		assertThat(validator.validate("01'02'12")).isEqualTo(8);
+
+		assertThat(DateValidator.compile("HH 'o''clock'").isValid("10 o'clock")).isTrue();
+		assertThat(DateValidator.compile("HH 'o''clock'").validate("10 oclock")).isEqualTo(4);
+	}
+
+	@Test
+	public void testValidate_fallback() {
+		final DateValidator validator = DateValidator.compile("dd MMMM yyyy");
+
+		assertThat(validator.isValid("25 décembre 2015")).isTrue();
+		assertThat(validator.validate("25 decembre 2015")).isEqualTo(3);
+		// calendar errors are reported at the end of the parsed field
+		assertThat(validator.validate("32 décembre 2015")).isEqualTo(16);
+		assertThat(validator.validate("25 décembre 2015 garbage")).isEqualTo(16);
+	}
+
+	@Test
+	public void testValidate_bulk() {
+		final DateValidator validator = DateValidator.compile(DateUtils.FR_DATE_FORMAT);
+		final String[] dates = { "31.12.2015", null, "32.01.2020", "01.01.2020", "01.01.2020x" };
+		final int[] errorIndexes = new int[dates.length];
+
+		final BitSet failures = validator.validate(dates, errorIndexes);
+
+		assertThat(failures.cardinality()).isEqualTo(3);
+		assertThat(failures.get(0)).isFalse();
+		assertThat(failures.get(1)).isTrue();
+		assertThat(failures.get(2)).isTrue();
+		assertThat(failures.get(3)).isFalse();
+		assertThat(failures.get(4)).isTrue();
+		assertThat(errorIndexes).isEqualTo(new int[] { VALID, 0, 0, VALID, 10 });
+
+		assertThat(validator.validate(dates, null)).isEqualTo(failures);
+	}
+
+	@Test
+	public void testValidate_bulkTooSmall() {
+		thrown.expect(IllegalArgumentException.class);
+		thrown.expectMessage("Error indexes too small: 1 < 2");
+
+		DateValidator.compile(DateUtils.FR_DATE_FORMAT).validate(new String[] { "a", "b" }, new int[1]);
+	}
+
+	@Test
+	public void testCompile_invalidPattern() {
+		thrown.expect(IllegalArgumentException.class);
+
+		DateValidator.compile("dd.MM.yyyy'");
+	}
+}
@@ -0,0 +1,155 @@
+package com.javaboz.commons.test;
+
+import static org.fest.assertions.Assertions.assertThat;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+/**
+ * Test de la classe {@link FieldAccessor}.
+ *
+ * @author Julien Boz
+ */
+public class FieldAccessorTest {
+
+	@Rule
+	public final ExpectedException thrown = ExpectedException.none();
+
+	private static class Bean {
+		private static String label = "static";
+		private static final String CONSTANT = "constant";
+		private final String name = "final";
+		private int count;
+		private short small;
+		private long total;
+		private double price;
+		private boolean active;
+		private Integer boxed;
+	}
+
+	@Test
+	public void testOf() {
+		final FieldAccessor accessor = FieldAccessor.of(Bean.class, "COUNT");
+		assertThat(accessor.getField().getName()).isEqualTo("count");
+		assertThat(FieldAccessor.of(accessor.getField())).isSameAs(accessor);
+		assertThat(FieldAccessor.of(Bean.class, "unknown")).isNull();
+	}
+
+	@Test
+	public void testGetSet() {
+		final Bean bean = new Bean();
+		final FieldAccessor boxed = FieldAccessor.of(Bean.class, "boxed");
+		boxed.set(bean, 7);
+		assertThat(bean.boxed).isEqualTo(7);
+		assertThat(boxed.get(bean)).isEqualTo(7);
+		boxed.set(bean, null);
+		assertThat(boxed.get(bean)).isNull();
+
+		final FieldAccessor count = FieldAccessor.of(Bean.class, "count");
+		count.set(bean, 3);
+		assertThat(count.get(bean)).isEqualTo(3);
+		// final instance fields are writable
+		FieldAccessor.of(Bean.class, "name").set(bean, "other");
+		assertThat(FieldAccessor.of(Bean.class, "name").get(bean)).isEqualTo("other");
+	}
+
+	@Test
+	public void testPrimitives() {
+		final Bean bean = new Bean();
+		FieldAccessor.of(Bean.class, "count").setInt(bean, 42);
+		FieldAccessor.of(Bean.class, "total").setLong(bean, 1L << 40);
+		FieldAccessor.of(Bean.class, "price").setDouble(bean, 1.5);
+		FieldAccessor.of(Bean.class, "active").setBoolean(bean, true);
+		FieldAccessor.of(Bean.class, "small").set(bean, Short.valueOf((short) 5));
+
+		assertThat(bean.count).isEqualTo(42);
+		assertThat(bean.total).isEqualTo(1L << 40);
+		assertThat(bean.price).isEqualTo(1.5);
+		assertThat(bean.active).isTrue();
+		assertThat(FieldAccessor.of(Bean.class, "count").getInt(bean)).isEqualTo(42);
+		assertThat(FieldAccessor.of(Bean.class, "total").getLong(bean)).isEqualTo(1L << 40);
+		assertThat(FieldAccessor.of(Bean.class, "price").getDouble(bean)).isEqualTo(1.5);
+		assertThat(FieldAccessor.of(Bean.class, "active").getBoolean(bean)).isTrue();
+	}
+
+	@Test
+	public void testPrimitives_widening() {
+		final Bean bean = new Bean();
+		FieldAccessor.of(Bean.class, "total").setInt(bean, 12);
+		FieldAccessor.of(Bean.class, "price").set(bean, 3);
+		FieldAccessor.of(Bean.class, "small").set(bean, Byte.valueOf((byte) 2));
+
+		assertThat(bean.total).isEqualTo(12L);
+		assertThat(bean.price).isEqualTo(3.0);
+		assertThat(FieldAccessor.of(Bean.class, "small").getInt(bean)).isEqualTo(2);
+		assertThat(FieldAccessor.of(Bean.class, "count").getDouble(bean)).isEqualTo(0.0);
+	}
+
+	@Test
+	public void testStatic() {
+		final FieldAccessor label = FieldAccessor.of(Bean.class, "label");
+		assertThat(label.get(null)).isEqualTo("static");
+		label.set(null, "changed");
+		assertThat(label.get(new Bean())).isEqualTo("changed");
+		label.set(null, "static");
+	}
+
+	@Test
+	public void testStaticFinal() {
+		thrown.expect(IllegalArgumentException.class);
+		thrown.expectMessage("Error while trying to access field");
+
+		FieldAccessor.of(Bean.class, "CONSTANT").set(null, "changed");
+	}
+
+	@Test
+	public void testGetInt_narrowing() {
+		thrown.expect(IllegalArgumentException.class);
+		thrown.expectMessage("Error while trying to access field");
+
+		FieldAccessor.of(Bean.class, "total").getInt(new Bean());
+	}
+
+	@Test
+	public void testSetInt_narrowing() {
+		thrown.expect(IllegalArgumentException.class);
+		thrown.expectMessage("Unable to assign the value to field: small. "
+				+ "Ensure that this field is of the correct type. Value: 1");
+
+		FieldAccessor.of(Bean.class, "small").setInt(new Bean(), 1);
+	}
+
+	@Test
+	public void testSet_wrongType() {
+		thrown.expect(IllegalArgumentException.class);
+		thrown.expectMessage("Unable to assign the value to field: count. "
+				+ "Ensure that this field is of the correct type. Value: 1");
+
+		FieldAccessor.of(Bean.class, "count").set(new Bean(), "1");
+	}
+
+	@Test
+	public void testSet_nullPrimitive() {
+		thrown.expect(IllegalArgumentException.class);
+		thrown.expectMessage("Unable to assign the value to field: count. "
+				+ "Ensure that this field is of the correct type. Value: null");
+
+		FieldAccessor.of(Bean.class, "count").set(new Bean(), null);
+	}
+
+	@Test
+	public void testGet_wrongObject() {
+		thrown.expect(IllegalArgumentException.class);
+		thrown.expectMessage("Error while trying to access field");
+
+		FieldAccessor.of(Bean.class, "count").get("not a bean");
+	}
+
+	@Test
+	public void testGet_nullObject() {
+		thrown.expect(NullPointerException.class);
+
+		FieldAccessor.of(Bean.class, "count").getInt(null);
+	}
+}
@@ -0,0 +1,121 @@
+package com.javaboz.commons.test;
+
+import static org.fest.assertions.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+/**
+ * Test de la classe {@link FieldColumns}.
+ *
+ * @author Julien Boz
+ */
+public class FieldColumnsTest {
+
+	@Rule
+	public final ExpectedException thrown = ExpectedException.none();
+
+	private static class Product {
+		private final int quantity;
+		private final long id;
+		private final double price;
+		private final String name;
+
+		Product(final int quantity, final long id, final double price, final String name) {
+			this.quantity = quantity;
+			this.id = id;
+			this.price = price;
+			this.name = name;
+		}
+	}
+
+	private static final FieldAccessor QUANTITY = FieldAccessor.of(Product.class, "quantity");
+	private static final FieldAccessor PRICE = FieldAccessor.of(Product.class, "price");
+
+	private static List<Product> products() {
+		return Arrays.asList(new Product(1, 10L, 1.5, "a"), null, new Product(3, 30L, 3.5, "c"));
+	}
+
+	@Test
+	public void testExtractInts() {
+		final int[] values = { -1, -1, -1, -1 };
+		final BitSet nonNulls = FieldColumns.extractInts(products(), QUANTITY, values);
+		assertThat(values).isEqualTo(new int[] { 1, 0, 3, -1 });
+		assertThat(nonNulls.cardinality()).isEqualTo(2);
+		assertThat(nonNulls.get(1)).isFalse();
+	}
+
+	@Test
+	public void testExtractLongs() {
+		final long[] values = new long[3];
+		FieldColumns.extractLongs(products(), FieldAccessor.of(Product.class, "ID"), values);
+		assertThat(values).isEqualTo(new long[] { 10L, 0L, 30L });
+		// widened
+		FieldColumns.extractLongs(products(), QUANTITY, values);
+		assertThat(values).isEqualTo(new long[] { 1L, 0L, 3L });
+	}
+
+	@Test
+	public void testExtractDoubles() {
+		final double[] values = new double[3];
+		FieldColumns.extractDoubles(new LinkedList<Product>(products()), PRICE, values);
+		assertThat(values).isEqualTo(new double[] { 1.5, 0d, 3.5 });
+	}
+
+	@Test
+	public void testExtractObjects() {
+		final Object[] values = new Object[3];
+		FieldColumns.extractObjects(products(), FieldAccessor.of(Product.class, "name"), values);
+		assertThat(values).isEqualTo(new Object[] { "a", null, "c" });
+		FieldColumns.extractObjects(products(), QUANTITY, values);
+		assertThat(values).isEqualTo(new Object[] { 1, null, 3 });
+	}
+
+	@Test
+	public void testExtract_destinationTooSmall() {
+		thrown.expect(IllegalArgumentException.class);
+		thrown.expectMessage("Destination too small: 2 < 3");
+		FieldColumns.extractInts(products(), QUANTITY, new int[2]);
+	}
+
+	@Test
+	public void testExtract_wrongType() {
+		thrown.expect(IllegalArgumentException.class);
+		FieldColumns.extractInts(products(), PRICE, new int[3]);
+	}
+
+	@Test
+	public void testExtract_parallel() throws Exception {
+		final int size = NumberColumns.MIN_CHUNK_SIZE * 10 + 7;
+		final List<Product> products = new ArrayList<Product>(size);
+		for (int i = 0; i < size; i++) {
+			products.add(i % 5 == 0 ? null : new Product(i, i, i + 0.5, null));
+		}
+		final double[] sequential = new double[size];
+		final BitSet expected = FieldColumns.extractDoubles(products, PRICE, sequential);
+
+		final ExecutorService executor = Executors.newFixedThreadPool(4);
+		try {
+			final double[] values = new double[size];
+			final BitSet nonNulls = FieldColumns.extractDoubles(products, PRICE, values, executor);
+			assertThat(nonNulls).isEqualTo(expected);
+			assertThat(nonNulls.cardinality()).isEqualTo(size - (size + 4) / 5);
+			assertThat(values).isEqualTo(sequential);
+
+			final int[] ints = new int[size];
+			FieldColumns.extractInts(products, QUANTITY, ints, executor);
+			assertThat(ints[size - 1]).isEqualTo(size - 1);
+		} finally {
+			executor.shutdown();
+		}
+	}
+}
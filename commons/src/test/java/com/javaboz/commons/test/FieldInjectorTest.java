@@ -0,0 +1,168 @@
+package com.javaboz.commons.test;
+
+import static org.fest.assertions.Assertions.assertThat;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+/**
+ * Test de la classe {@link FieldInjector}.
+ *
+ * @author Julien Boz
+ */
+public class FieldInjectorTest {
+
+	@Rule
+	public final ExpectedException thrown = ExpectedException.none();
+
+	private static class BaseService {
+		protected CharSequence label;
+	}
+
+	private static class Service extends BaseService {
+		static String shared;
+		private String name;
+		private Collection<String> items;
+		private List<String> list;
+		private int count;
+		private Serializable serializable;
+	}
+
+	private static class Other {
+		private String name;
+	}
+
+	private static class Repository {
+	}
+
+	private static class Clock {
+	}
+
+	private static class Collaborating {
+		private final Object lock = new Object();
+		private final String name = new String("svc");
+		private Object attachment;
+		private Repository repository;
+		private Clock clock;
+	}
+
+	@Test
+	public void testFields() {
+		final FieldInjector injector = FieldInjector.of(Service.class);
+		assertThat(injector.getType()).isEqualTo(Service.class);
+		assertThat(injector.getFields()).hasSize(6);
+		assertThat(FieldInjector.of(Service.class)).isSameAs(injector);
+		// assignable types
+		assertThat(injector.getFields(String.class)).hasSize(3);
+		assertThat(injector.getFields(ArrayList.class)).hasSize(3);
+		assertThat(injector.getFields(Integer.class)).hasSize(2);
+		assertThat(injector.getFields(Object.class)).isEmpty();
+	}
+
+	@Test
+	public void testInject() {
+		final Service service = new Service();
+		FieldInjector.of(Service.class).inject(service, String.class, "value");
+		assertThat(service.name).isEqualTo("value");
+		assertThat(service.label).isEqualTo("value");
+		assertThat(service.serializable).isEqualTo("value");
+		assertThat(Service.shared).isNull();
+	}
+
+	@Test
+	public void testInject_map() {
+		final Map<Class<?>, Object> values = new LinkedHashMap<Class<?>, Object>();
+		final List<String> list = new ArrayList<String>();
+		values.put(String.class, "value");
+		values.put(List.class, list);
+		values.put(CharSequence.class, new StringBuilder("label"));
+		final Service service = new Service();
+		FieldInjector.of(Service.class).inject(service, values);
+		// the closest type wins
+		assertThat(service.name).isEqualTo("value");
+		assertThat(service.label.toString()).isEqualTo("label");
+		assertThat(service.items).isSameAs(list);
+		assertThat(service.list).isSameAs(list);
+		assertThat(service.serializable).isEqualTo("value");
+
+		// unboxed
+		FieldInjector.of(Service.class).inject(service, Integer.class, 3);
+		assertThat(service.count).isEqualTo(3);
+		assertThat(service.serializable).isEqualTo(3);
+	}
+
+	@Test
+	public void testInject_noClosestType() {
+		final Map<Class<?>, Object> values = new LinkedHashMap<Class<?>, Object>();
+		values.put(String.class, "value");
+		values.put(Integer.class, 1);
+		final Service service = new Service();
+		FieldInjector.of(Service.class).inject(service, values);
+		assertThat(service.name).isEqualTo("value");
+		assertThat(service.count).isEqualTo(1);
+		// both serializable, none injected
+		assertThat(service.serializable).isNull();
+	}
+
+	@Test
+	public void testInject_finalAndObjectFields() {
+		final FieldInjector injector = FieldInjector.of(Collaborating.class);
+		assertThat(injector.getFields()).hasSize(2);
+		assertThat(injector.getFields(String.class)).isEmpty();
+		final Collaborating collaborating = new Collaborating();
+		final Object lock = collaborating.lock;
+		final Repository repository = new Repository();
+		injector.inject(collaborating, Repository.class, repository);
+		injector.inject(collaborating, String.class, "other");
+		assertThat(collaborating.repository).isSameAs(repository);
+		assertThat(collaborating.lock).isSameAs(lock);
+		assertThat(collaborating.name).isEqualTo("svc");
+		assertThat(collaborating.attachment).isNull();
+	}
+
+	@Test
+	public void testInject_collaborators() {
+		final Map<Class<?>, Object> values = new LinkedHashMap<Class<?>, Object>();
+		final Repository repository = new Repository();
+		final Clock clock = new Clock();
+		values.put(Repository.class, repository);
+		values.put(Clock.class, clock);
+		final Collaborating first = new Collaborating();
+		final Collaborating second = new Collaborating();
+		FieldInjector.injectAll(Arrays.asList(first, second), values);
+		assertThat(first.repository).isSameAs(repository);
+		assertThat(first.clock).isSameAs(clock);
+		assertThat(second.repository).isSameAs(repository);
+		assertThat(second.clock).isSameAs(clock);
+		assertThat(first.attachment).isNull();
+	}
+
+	@Test
+	public void testInject_wrongValue() {
+		thrown.expect(IllegalArgumentException.class);
+		thrown.expectMessage("Value of type java.lang.String expected: 1");
+		FieldInjector.of(Service.class).inject(new Service(), String.class, 1);
+	}
+
+	@Test
+	public void testInjectAll() {
+		final Map<Class<?>, Object> values = new LinkedHashMap<Class<?>, Object>();
+		values.put(String.class, "value");
+		final Service first = new Service();
+		final Other other = new Other();
+		final Service second = new Service();
+		FieldInjector.injectAll(Arrays.asList(first, null, other, second), values);
+		assertThat(first.name).isEqualTo("value");
+		assertThat(other.name).isEqualTo("value");
+		assertThat(second.name).isEqualTo("value");
+	}
+}
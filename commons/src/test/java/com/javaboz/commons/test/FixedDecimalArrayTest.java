@@ -0,0 +1,51 @@
+package com.javaboz.commons.test;
+
+import static org.fest.assertions.Assertions.assertThat;
+
+import java.math.BigDecimal;
+import java.util.BitSet;
+import java.util.Locale;
+
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+/**
+ * Test de la classe {@link FixedDecimalArray}.
+ *
+ * @author Julien Boz
+ */
+public class FixedDecimalArrayTest {
+
+	private static Locale defaultLocale;
+
+	@BeforeClass
+	public static void setup() {
+		defaultLocale = Locale.getDefault();
+		Locale.setDefault(new Locale("fr", "CH"));
+	}
+
+	@AfterClass
+	public static void tearDown() {
+		Locale.setDefault(defaultLocale);
+	}
+
+	@Test
+	public void testParseSumFormat() {
+		final FixedDecimalArray amounts = new FixedDecimalArray(5, 2);
+		final BitSet valids = FixedDecimalArray.parse(new String[] { "1'000.5", "-0.25", "x", "12.345", null }, amounts);
+		assertThat(valids.toString()).isEqualTo("{0, 1}");
+		assertThat(amounts.getUnscaled()).isEqualTo(new long[] { 100050, -25, 0, 0, 0 });
+		assertThat(amounts.sum()).isEqualTo(FixedDecimal.valueOf(100025, 2));
+		assertThat(amounts.format(0)).isEqualTo("1'000.5");
+		assertThat(amounts.format(1, new StringBuilder(">")).toString()).isEqualTo(">-0.25");
+
+		amounts.set(2, FixedDecimal.valueOf(new BigDecimal("0.125"), 3));
+		assertThat(amounts.get(2)).isEqualTo(FixedDecimal.valueOf(12, 2));
+	}
+
+	@Test(expected = ArithmeticException.class)
+	public void testSum_overflow() {
+		new FixedDecimalArray(new long[] { Long.MAX_VALUE, 1 }, 0).sum();
+	}
+}
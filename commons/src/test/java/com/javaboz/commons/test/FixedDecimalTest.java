@@ -0,0 +1,134 @@
+package com.javaboz.commons.test;
+
+import static org.fest.assertions.Assertions.assertThat;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Locale;
+import java.util.Random;
+
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+/**
+ * Test de la classe {@link FixedDecimal}.
+ *
+ * @author Julien Boz
+ */
+public class FixedDecimalTest {
+
+	@Rule
+	public final ExpectedException thrown = ExpectedException.none();
+
+	private static Locale defaultLocale;
+
+	@BeforeClass
+	public static void setup() {
+		defaultLocale = Locale.getDefault();
+		Locale.setDefault(new Locale("fr", "CH"));
+	}
+
+	@AfterClass
+	public static void tearDown() {
+		Locale.setDefault(defaultLocale);
+	}
+
+	private static FixedDecimal decimal(final String value) {
+		final BigDecimal bigDecimal = new BigDecimal(value);
+		return FixedDecimal.valueOf(bigDecimal, bigDecimal.scale());
+	}
+
+	@Test
+	public void testValueOf() {
+		assertThat(FixedDecimal.valueOf(12345, 2).toString()).isEqualTo("123.45");
+		assertThat(FixedDecimal.valueOf(new BigDecimal("1.005"), 2).toString()).isEqualTo("1.00");
+		assertThat(FixedDecimal.valueOf(new BigDecimal("1.015"), 2).toString()).isEqualTo("1.02");
+		// exact binary value of 1.005 is below
+		assertThat(FixedDecimal.valueOf(1.005, 2).toString()).isEqualTo("1.00");
+		assertThat(FixedDecimal.valueOf(-0.125, 2).toString()).isEqualTo("-0.12");
+		assertThat(FixedDecimal.valueOf(12345, 2).toBigDecimal()).isEqualTo(new BigDecimal("123.45"));
+		assertThat(FixedDecimal.valueOf(-12345, 2).doubleValue()).isEqualTo(-123.45);
+		assertThat(FixedDecimal.valueOf(-12345, 2).longValue()).isEqualTo(-123);
+	}
+
+	@Test
+	public void testValueOf_overflow() {
+		thrown.expect(ArithmeticException.class);
+		FixedDecimal.valueOf(new BigDecimal("92233720368547758.08"), 2);
+	}
+
+	@Test
+	public void testValueOf_invalidScale() {
+		thrown.expect(IllegalArgumentException.class);
+		thrown.expectMessage("Scale out of [0, 18]: 19");
+		FixedDecimal.valueOf(1, 19);
+	}
+
+	@Test
+	public void testArithmetic() {
+		assertThat(decimal("1.5").add(decimal("2.25"))).isEqualTo(decimal("3.75"));
+		assertThat(decimal("1.5").subtract(decimal("2.25"))).isEqualTo(decimal("-0.75"));
+		assertThat(decimal("1.25").multiply(-3)).isEqualTo(decimal("-3.75"));
+		assertThat(decimal("10.00").multiply(decimal("0.075"), RoundingMode.HALF_EVEN)).isEqualTo(decimal("0.75"));
+		assertThat(decimal("1.25").multiply(decimal("0.5"), RoundingMode.HALF_EVEN)).isEqualTo(decimal("0.62"));
+		assertThat(decimal("1.25").multiply(decimal("0.5"), RoundingMode.HALF_UP)).isEqualTo(decimal("0.63"));
+		assertThat(decimal("-1.25").multiply(decimal("0.5"), RoundingMode.FLOOR)).isEqualTo(decimal("-0.63"));
+		assertThat(decimal("2.675").round(2, RoundingMode.HALF_EVEN)).isEqualTo(decimal("2.68"));
+		assertThat(decimal("2.665").round(2, RoundingMode.HALF_EVEN)).isEqualTo(decimal("2.66"));
+		assertThat(decimal("2.5").round(4, RoundingMode.UNNECESSARY)).isEqualTo(decimal("2.5000"));
+		// product above 63 bits before rounding
+		assertThat(decimal("92233720368.54775807").multiply(decimal("0.50000000"), RoundingMode.DOWN)).isEqualTo(
+				decimal("46116860184.27387903"));
+
+		assertThat(decimal("1.50").compareTo(decimal("1.5"))).isEqualTo(0);
+		assertThat(decimal("1.50")).isNotEqualTo(decimal("1.5"));
+		assertThat(decimal("-1.5").compareTo(decimal("1.25"))).isEqualTo(-1);
+	}
+
+	@Test
+	public void testArithmetic_sameAsBigDecimal() {
+		final Random random = new Random(42);
+		final RoundingMode[] modes = RoundingMode.values();
+		for (int i = 0; i < 20000; i++) {
+			final FixedDecimal a = FixedDecimal.valueOf(random.nextInt() * 1000L + random.nextInt(1000), 3);
+			final FixedDecimal b = FixedDecimal.valueOf(random.nextInt(2000000) - 1000000, random.nextInt(7));
+			final RoundingMode mode = modes[random.nextInt(modes.length)];
+			assertThat(a.add(b).toBigDecimal()).isEqualTo(a.toBigDecimal().add(b.toBigDecimal()));
+			if (mode != RoundingMode.UNNECESSARY) {
+				assertThat(a.multiply(b, mode).toBigDecimal()).isEqualTo(
+						a.toBigDecimal().multiply(b.toBigDecimal()).setScale(3, mode));
+				assertThat(a.round(1, mode).toBigDecimal()).isEqualTo(a.toBigDecimal().setScale(1, mode));
+			}
+		}
+	}
+
+	@Test
+	public void testAdd_overflow() {
+		thrown.expect(ArithmeticException.class);
+		FixedDecimal.valueOf(Long.MAX_VALUE, 2).add(FixedDecimal.valueOf(1, 2));
+	}
+
+	@Test
+	public void testRound_unnecessary() {
+		thrown.expect(ArithmeticException.class);
+		decimal("2.675").round(2, RoundingMode.UNNECESSARY);
+	}
+
+	@Test
+	public void testFormatParse() {
+		assertThat(NumberUtils.format(decimal("1234567.895"))).isEqualTo("1'234'567.9");
+		assertThat(NumberUtils.format(decimal("-0.004"))).isEqualTo("-0");
+		assertThat(NumberUtils.format(FixedDecimal.valueOf(-Long.MAX_VALUE, 0))).isEqualTo(
+				NumberUtils.format(new BigDecimal(-Long.MAX_VALUE)));
+
+		assertThat(FixedDecimal.parse("1'234.5", 2)).isEqualTo(decimal("1234.50"));
+		assertThat(FixedDecimal.parse("-12", 0)).isEqualTo(decimal("-12"));
+		assertThat(FixedDecimal.parse("1.234", 2)).isNull();
+		assertThat(FixedDecimal.parse("92'233'720'368'547'758.08", 2)).isNull();
+		assertThat(FixedDecimal.parse("-92'233'720'368'547'758.07", 2)).isEqualTo(FixedDecimal.valueOf(-Long.MAX_VALUE, 2));
+		assertThat(FixedDecimal.parse("x", 2)).isNull();
+	}
+}
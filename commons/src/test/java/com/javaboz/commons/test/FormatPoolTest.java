@@ -0,0 +1,116 @@
+package com.javaboz.commons.test;
+
+import static org.fest.assertions.Assertions.assertThat;
+
+import java.text.NumberFormat;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+/**
+ * Test de la classe {@link FormatPool}.
+ *
+ * @author Julien Boz
+ */
+public class FormatPoolTest {
+
+	private static class CountingPool extends FormatPool<NumberFormat> {
+		final AtomicInteger created = new AtomicInteger();
+
+		CountingPool(final int stripes) {
+			super(stripes);
+		}
+
+		@Override
+		protected NumberFormat create() {
+			created.incrementAndGet();
+			return NumberFormat.getInstance();
+		}
+	}
+
+	@Test
+	public void testAcquireRelease() {
+		final CountingPool pool = new CountingPool(4);
+
+		final NumberFormat first = pool.acquire();
+		pool.release(first);
+		assertThat(pool.acquire()).isSameAs(first);
+
+		// the stripe is empty while the formatter is acquired
+		final NumberFormat second = pool.acquire();
+		assertThat(second).isNotSameAs(first);
+		assertThat(pool.created.get()).isEqualTo(2);
+
+		assertThat(pool.release(first)).isTrue();
+		// stripe full, the second one is dropped
+		assertThat(pool.release(second)).isFalse();
+		assertThat(pool.acquire()).isSameAs(first);
+	}
+
+	@Test
+	public void testStripes() {
+		assertThat(new CountingPool(1).getStripes()).isEqualTo(1);
+		assertThat(new CountingPool(3).getStripes()).isEqualTo(4);
+		assertThat(new CountingPool(1000).getStripes()).isEqualTo(64);
+	}
+
+	@Test
+	public void testManyThreads() throws InterruptedException {
+		final CountingPool pool = new CountingPool(2);
+		final AtomicInteger dropped = new AtomicInteger();
+		final List<Thread> threads = new ArrayList<Thread>();
+		final CountDownLatch latch = new CountDownLatch(1);
+		for (int i = 0; i < 200; i++) {
+			final Thread thread = new Thread() {
+				@Override
+				public void run() {
+					try {
+						latch.await();
+					} catch (final InterruptedException e) {
+						return;
+					}
+					for (int j = 0; j < 100; j++) {
+						final NumberFormat format = pool.acquire();
+						format.format(j);
+						if (!pool.release(format)) {
+							dropped.incrementAndGet();
+						}
+					}
+				}
+			};
+			thread.start();
+			threads.add(thread);
+		}
+		latch.countDown();
+		for (final Thread thread : threads) {
+			thread.join();
+		}
+		// formatters are only created when threads contend for a stripe, at most one per stripe is kept
+		assertThat(pool.created.get()).isLessThan(200 * 100);
+		assertThat(pool.created.get() - dropped.get()).isLessThanOrEqualTo(pool.getStripes());
+	}
+
+	@Test
+	public void testManyThreads_oneAfterAnother() throws InterruptedException {
+		final CountingPool pool = new CountingPool(2);
+		for (int i = 0; i < 200; i++) {
+			final Thread thread = new Thread() {
+				@Override
+				public void run() {
+					for (int j = 0; j < 100; j++) {
+						final NumberFormat format = pool.acquire();
+						format.format(j);
+						pool.release(format);
+					}
+				}
+			};
+			thread.start();
+			thread.join();
+		}
+		// without contention, formatters are reused across threads: at most one per stripe
+		assertThat(pool.created.get()).isLessThanOrEqualTo(pool.getStripes());
+	}
+}
@@ -0,0 +1,57 @@
+package com.javaboz.commons.test;
+
+import static org.fest.assertions.Assertions.assertThat;
+
+import java.math.BigDecimal;
+import java.text.DecimalFormat;
+import java.text.DecimalFormatSymbols;
+import java.text.ParsePosition;
+import java.util.Locale;
+
+import org.junit.Test;
+
+/**
+ * Test de la classe {@link GroupedNumberFormat} in every available locale.<br>
+ * Also run without <code>-Djava.locale.providers=COMPAT</code> on Java 17, where the CLDR data of some locales, like
+ * ar_EG, have a negative prefix longer than the minus sign.
+ *
+ * @author Julien Boz
+ */
+public class GroupedNumberFormatLocalesTest {
+
+	private static final double[] DOUBLES = { 0, -0d, 0.5, -0.5, 1000526.159, -1000526.159, -0.001, 123456789.125,
+			-9999999999999.99, -1e20, Double.NaN, Double.NEGATIVE_INFINITY, Double.POSITIVE_INFINITY };
+	private static final long[] LONGS = { 0, 999, -1000, 1234567, -1234567, Long.MAX_VALUE, Long.MIN_VALUE };
+
+	@Test
+	public void testFormat_sameAsDecimalFormat() {
+		for (final Locale locale : DecimalFormatSymbols.getAvailableLocales()) {
+			final DecimalFormatSymbols symbols = new DecimalFormatSymbols(locale);
+			final GroupedNumberFormat format = new GroupedNumberFormat(symbols);
+			final DecimalFormat expected = new DecimalFormat("#,###.##", symbols);
+			for (final long value : LONGS) {
+				assertThat(format.format(value)).as(locale + " " + value).isEqualTo(expected.format(value));
+				assertThat(format.parseLong(format.format(value), 0)).as(locale + " " + value).isEqualTo(value);
+			}
+			for (final double value : DOUBLES) {
+				final String formatted = expected.format(value);
+				assertThat(format.format(value)).as(locale + " " + value).isEqualTo(formatted);
+				final Number parsed = expected.parse(formatted, new ParsePosition(0));
+				assertThat(format.parseDouble(formatted, 0)).as(locale + " " + formatted).isEqualTo(
+						parsed.doubleValue());
+			}
+			final BigDecimal decimal = new BigDecimal("-1234.565");
+			assertThat(format.format(decimal)).as(locale + " " + decimal).isEqualTo(expected.format(decimal));
+		}
+	}
+
+	@Test
+	public void testNegativePrefix() {
+		final DecimalFormatSymbols symbols = new DecimalFormatSymbols(new Locale("ar", "EG"));
+		final GroupedNumberFormat format = new GroupedNumberFormat(symbols);
+		final String negative = new DecimalFormat("#,###.##", symbols).format(-1000);
+		assertThat(format.format(-1000L)).isEqualTo(negative);
+		assertThat(format.parseLong(negative, 0)).isEqualTo(-1000L);
+		assertThat(format.parseBigDecimal(negative)).isEqualTo(new BigDecimal(-1000));
+	}
+}
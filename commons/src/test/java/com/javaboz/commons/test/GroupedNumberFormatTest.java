@@ -0,0 +1,195 @@
+package com.javaboz.commons.test;
+
+import static org.fest.assertions.Assertions.assertThat;
+
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.text.DecimalFormat;
+import java.text.DecimalFormatSymbols;
+import java.util.Locale;
+import java.util.Random;
+
+import org.junit.Test;
+
+/**
+ * Test de la classe {@link GroupedNumberFormat}.
+ *
+ * @author Julien Boz
+ */
+public class GroupedNumberFormatTest {
+
+	private static final DecimalFormatSymbols SYMBOLS = new DecimalFormatSymbols(Locale.FRANCE);
+
+	private final GroupedNumberFormat format = new GroupedNumberFormat(SYMBOLS);
+	private final DecimalFormat expected = new DecimalFormat("#,###.##", SYMBOLS);
+
+	private static String sep(final String text) {
+		return text.replace('\'', SYMBOLS.getGroupingSeparator()).replace('.', SYMBOLS.getDecimalSeparator());
+	}
+
+	@Test
+	public void testFormatLong() {
+		assertThat(format.format(0L)).isEqualTo("0");
+		assertThat(format.format(999L)).isEqualTo("999");
+		assertThat(format.format(-1000L)).isEqualTo(sep("-1'000"));
+		assertThat(format.format(Long.MAX_VALUE)).isEqualTo(sep("9'223'372'036'854'775'807"));
+		assertThat(format.format(Long.MIN_VALUE)).isEqualTo(sep("-9'223'372'036'854'775'808"));
+	}
+
+	@Test
+	public void testFormatDouble() {
+		assertThat(format.format(0d)).isEqualTo("0");
+		assertThat(format.format(-0d)).isEqualTo("-0");
+		assertThat(format.format(-0.001)).isEqualTo("-0");
+		assertThat(format.format(0.5)).isEqualTo(sep("0.5"));
+		assertThat(format.format(1000526.159)).isEqualTo(sep("1'000'526.16"));
+		// half even on the exact binary value
+		assertThat(format.format(0.125)).isEqualTo(sep("0.12"));
+		assertThat(format.format(0.375)).isEqualTo(sep("0.38"));
+		assertThat(format.format(0.135)).isEqualTo(sep("0.14"));
+		assertThat(format.format(1.005)).isEqualTo("1");
+		assertThat(format.format(0.995)).isEqualTo(sep("0.99"));
+		assertThat(format.format(0.005)).isEqualTo(sep("0.01"));
+		assertThat(format.format(1e20)).isEqualTo(expected.format(1e20));
+		assertThat(format.format(Double.NaN)).isEqualTo(SYMBOLS.getNaN());
+		assertThat(format.format(Double.NEGATIVE_INFINITY)).isEqualTo(SYMBOLS.getMinusSign() + SYMBOLS.getInfinity());
+		assertThat(format.format(Double.MAX_VALUE)).isEqualTo(expected.format(Double.MAX_VALUE));
+	}
+
+	@Test
+	public void testFormatDouble_sameAsDecimalFormat() {
+		final Random random = new Random(42);
+		for (int i = 0; i < 200000; i++) {
+			final double value;
+			switch (i % 4) {
+			case 0:
+				value = Double.longBitsToDouble(random.nextLong());
+				break;
+			case 1:
+				value = (random.nextDouble() - 0.5) * Math.pow(10, random.nextInt(30) - 12);
+				break;
+			case 2:
+				// ties and near ties
+				value = (random.nextInt(2000000) - 1000000) / 1000d + 0.005;
+				break;
+			default:
+				value = random.nextInt(100000) / 8d;
+			}
+			assertThat(format.format(value)).as(Double.toString(value)).isEqualTo(expected.format(value));
+		}
+	}
+
+	@Test
+	public void testFormatBigDecimal() {
+		assertThat(format.format(new BigDecimal("0.125"))).isEqualTo(sep("0.12"));
+		assertThat(format.format(new BigDecimal("-0.001"))).isEqualTo("-0");
+		assertThat(format.format(new BigDecimal("-0.00"))).isEqualTo("0");
+		assertThat(format.format(new BigDecimal("1E+5"))).isEqualTo(sep("100'000"));
+		final BigDecimal big = new BigDecimal("-123456789012345678901234.565");
+		assertThat(format.format(big)).isEqualTo(expected.format(big));
+	}
+
+	@Test
+	public void testFormat_destinations() {
+		final StringBuilder builder = new StringBuilder("x=");
+		assertThat(format.format(-1234.5, builder).toString()).isEqualTo(sep("x=-1'234.5"));
+		assertThat(format.format(7L, builder).toString()).isEqualTo(sep("x=-1'234.57"));
+
+		final char[] chars = new char[10];
+		assertThat(format.format(1234L, chars, 1)).isEqualTo(6);
+		assertThat(new String(chars, 1, 5)).isEqualTo(sep("1'234"));
+
+		final ByteBuffer bytes = ByteBuffer.allocate(16);
+		format.format(new BigDecimal("1234.5"), bytes);
+		assertThat(new String(bytes.array(), 0, bytes.position(), java.nio.charset.Charset.forName("UTF-8"))).isEqualTo(
+				sep("1'234.5"));
+	}
+
+	@Test
+	public void testParseLong() {
+		assertThat(format.parseLong("0", -1)).isEqualTo(0);
+		assertThat(format.parseLong("1234", -1)).isEqualTo(1234);
+		assertThat(format.parseLong(sep("-1'234"), -1)).isEqualTo(-1234);
+		assertThat(format.parseLong(sep("-9'223'372'036'854'775'808"), -1)).isEqualTo(Long.MIN_VALUE);
+		assertThat(format.parseLong(sep("9'223'372'036'854'775'808"), -1)).isEqualTo(-1);
+		assertThat(format.parseLong(sep("1'234.5"), -1)).isEqualTo(-1);
+	}
+
+	@Test
+	public void testParseDouble() {
+		assertThat(format.parseDouble(sep("1'000'526.16"), -1)).isEqualTo(1000526.16);
+		assertThat(format.parseDouble(sep("0.5"), -1)).isEqualTo(0.5);
+		assertThat(1 / format.parseDouble("-0", -1)).isEqualTo(Double.NEGATIVE_INFINITY);
+		assertThat(format.parseDouble(SYMBOLS.getNaN(), -1)).isNaN();
+		assertThat(format.parseDouble(SYMBOLS.getMinusSign() + SYMBOLS.getInfinity(), -1)).isEqualTo(
+				Double.NEGATIVE_INFINITY);
+		assertThat(format.parseDouble(format.format(Double.MAX_VALUE), -1)).isEqualTo(Double.MAX_VALUE);
+
+		// strict
+		for (final String invalid : new String[] { "", "-", sep("1'23"), sep("1'2345"), sep("1234'567"), sep("'123"),
+				sep("123'"), sep("0'123"), "01", sep(".5"), sep("1."), sep("1.2.3"), sep("1.2'3"), " 1", "1 ", "+1",
+				"1e3", sep("1'234.5x") }) {
+			assertThat(format.parseDouble(invalid, -1)).as(invalid).isEqualTo(-1.0);
+			assertThat(format.parseBigDecimal(invalid)).as(invalid).isNull();
+		}
+		assertThat(format.parseDouble(null, -1)).isEqualTo(-1.0);
+	}
+
+	@Test
+	public void testParseBigDecimal() {
+		assertThat(format.parseBigDecimal(sep("-12'345.678"))).isEqualTo(new BigDecimal("-12345.678"));
+		assertThat(format.parseBigDecimal("1234567890123456789012345")).isEqualTo(
+				new BigDecimal("1234567890123456789012345"));
+		assertThat(format.parseBigDecimal(SYMBOLS.getNaN())).isNull();
+	}
+
+	@Test
+	public void testParse_roundTrip() {
+		final Random random = new Random(42);
+		for (int i = 0; i < 100000; i++) {
+			final double value = (random.nextDouble() - 0.5) * Math.pow(10, random.nextInt(20) - 4);
+			final String text = format.format(value);
+			// + 0 ignores the sign of zero, "-0" is parsed as -0.0
+			assertThat(format.parseDouble(text, Double.NaN) + 0d).as(text).isEqualTo(
+					new BigDecimal(value).setScale(2, java.math.RoundingMode.HALF_EVEN).doubleValue());
+			assertThat(format.format(format.parseDouble(text, Double.NaN))).isEqualTo(text);
+			if (!"-0".equals(text)) {
+				// no negative zero in BigDecimal
+				assertThat(format.format(format.parseBigDecimal(text))).isEqualTo(text);
+			}
+		}
+	}
+
+	@Test
+	public void testFormatUnscaled_sameAsBigDecimal() {
+		final Random random = new Random(42);
+		final StringBuilder builder = new StringBuilder();
+		for (int i = 0; i < 100000; i++) {
+			final long unscaled = i % 10 == 0 ? random.nextLong() : random.nextInt();
+			final int scale = random.nextInt(FixedDecimal.MAX_SCALE + 1);
+			builder.setLength(0);
+			assertThat(format.formatUnscaled(unscaled, scale, builder).toString()).isEqualTo(
+					expected.format(BigDecimal.valueOf(unscaled, scale)));
+		}
+		builder.setLength(0);
+		assertThat(format.formatUnscaled(Long.MIN_VALUE, 3, builder).toString()).isEqualTo(
+				expected.format(BigDecimal.valueOf(Long.MIN_VALUE, 3)));
+	}
+
+	@Test
+	public void testParseUnscaled() {
+		assertThat(format.parseUnscaled(sep("1'234.5"), 2, -1)).isEqualTo(123450);
+		assertThat(format.parseUnscaled(sep("-0.05"), 2, -1)).isEqualTo(-5);
+		assertThat(format.parseUnscaled(sep("12"), 0, -1)).isEqualTo(12);
+		assertThat(format.parseUnscaled(sep("1.234"), 2, -1)).isEqualTo(-1);
+		assertThat(format.parseUnscaled("9223372036854775807", 0, -1)).isEqualTo(Long.MAX_VALUE);
+		assertThat(format.parseUnscaled("-9223372036854775808", 0, -1)).isEqualTo(-1);
+		assertThat(format.parseUnscaled("922337203685477580", 2, -1)).isEqualTo(-1);
+		assertThat(format.parseUnscaled("x", 2, -1)).isEqualTo(-1);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testFormat_destinationTooSmall() {
+		format.format(1234L, new char[5], 1);
+	}
+}
@@ -0,0 +1,179 @@
+package com.javaboz.commons.test;
+
+import static org.fest.assertions.Assertions.assertThat;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.Locale;
+
+import javax.management.Attribute;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Test de la classe {@link LibraryMetrics}.
+ *
+ * @author Julien Boz
+ */
+public class LibraryMetricsTest {
+
+	private static class Bean {
+		@SuppressWarnings("unused")
+		private String name;
+
+		@SuppressWarnings("unused")
+		private String fail() {
+			throw new IllegalStateException("failed");
+		}
+	}
+
+	@Before
+	public void enable() {
+		// same locale as NumberUtilsTest
+		Locale.setDefault(new Locale("fr", "CH"));
+		// class initialization parses MIN_VALUE and MAX_VALUE
+		assertThat(DateUtils.MIN_VALUE).isNotNull();
+		LibraryMetrics.reset();
+		LibraryMetrics.setEnabled(true);
+	}
+
+	@After
+	public void disable() {
+		LibraryMetrics.setEnabled(false);
+		LibraryMetrics.reset();
+		LibraryMetrics.unregisterMBeans();
+	}
+
+	@Test
+	public void testDateUtils() {
+		assertThat(DateUtils.parse("12.03.2024", DateUtils.FR_DATE_FORMAT)).isNotNull();
+		assertThat(DateUtils.parse("not a date", DateUtils.FR_DATE_FORMAT)).isNull();
+		DateUtils.format(new Date(), DateUtils.FR_DATE_FORMAT);
+		assertThat(LibraryMetrics.DATE_PARSE.getCount()).isEqualTo(2);
+		assertThat(LibraryMetrics.DATE_PARSE.getFailureCount()).isEqualTo(1);
+		assertThat(LibraryMetrics.DATE_FORMAT.getCount()).isEqualTo(1);
+	}
+
+	@Test
+	public void testNumberUtils() {
+		assertThat(NumberUtils.toIntObject("12")).isEqualTo(12);
+		assertThat(NumberUtils.toLongObject("x")).isNull();
+		assertThat(NumberUtils.toDoubleObject("1.5")).isEqualTo(1.5);
+		NumberUtils.format(12.5);
+		assertThat(LibraryMetrics.NUMBER_PARSE.getCount()).isEqualTo(3);
+		assertThat(LibraryMetrics.NUMBER_PARSE.getFailureCount()).isEqualTo(1);
+		assertThat(LibraryMetrics.NUMBER_FORMAT.getCount()).isEqualTo(1);
+		assertThat(LibraryMetrics.FORMAT_POOLS.getHitCount() + LibraryMetrics.FORMAT_POOLS.getMissCount())
+				.isGreaterThanOrEqualTo(1);
+	}
+
+	@Test
+	@SuppressWarnings("serial")
+	public void testFailures() {
+		try {
+			DateUtils.format(new Date(), "qq");
+		} catch (final IllegalArgumentException e) {
+			// counted as a failure
+		}
+		try {
+			NumberUtils.format(new Number() {
+
+				@Override
+				public int intValue() {
+					throw new IllegalStateException("failed");
+				}
+
+				@Override
+				public long longValue() {
+					throw new IllegalStateException("failed");
+				}
+
+				@Override
+				public float floatValue() {
+					throw new IllegalStateException("failed");
+				}
+
+				@Override
+				public double doubleValue() {
+					throw new IllegalStateException("failed");
+				}
+			});
+		} catch (final IllegalStateException e) {
+			// counted as a failure
+		}
+		assertThat(LibraryMetrics.DATE_FORMAT.getCount()).isEqualTo(1);
+		assertThat(LibraryMetrics.DATE_FORMAT.getFailureCount()).isEqualTo(1);
+		assertThat(LibraryMetrics.NUMBER_FORMAT.getCount()).isEqualTo(1);
+		assertThat(LibraryMetrics.NUMBER_FORMAT.getFailureCount()).isEqualTo(1);
+	}
+
+	@Test
+	public void testReflectionUtils() {
+		final Bean bean = new Bean();
+		ReflectionUtils.setFieldValue(bean, "name", "value");
+		final Object name = ReflectionUtils.getFieldValue(bean, "name");
+		assertThat(name).isEqualTo("value");
+		try {
+			ReflectionUtils.setFieldValue(bean, "name", 1);
+		} catch (final IllegalArgumentException e) {
+			// counted as a failure
+		}
+		try {
+			ReflectionUtils.invokeMethod(bean, "fail");
+		} catch (final IllegalArgumentException e) {
+			// counted as a failure
+		}
+		assertThat(LibraryMetrics.FIELD_ACCESS.getCount()).isEqualTo(3);
+		assertThat(LibraryMetrics.FIELD_ACCESS.getFailureCount()).isEqualTo(1);
+		assertThat(LibraryMetrics.METHOD_INVOKE.getCount()).isEqualTo(1);
+		assertThat(LibraryMetrics.METHOD_INVOKE.getFailureCount()).isEqualTo(1);
+		assertThat(LibraryMetrics.CLASS_METADATA.getHitCount()).isGreaterThan(0);
+	}
+
+	@Test
+	public void testCloneUtils() {
+		CloneUtils.clone(new ArrayList<String>());
+		assertThat(LibraryMetrics.CLONE.getCount()).isEqualTo(1);
+		assertThat(LibraryMetrics.CLONE.getFailureCount()).isEqualTo(0);
+	}
+
+	@Test
+	public void testDisabled() {
+		LibraryMetrics.setEnabled(false);
+		DateUtils.parse("12.03.2024", DateUtils.FR_DATE_FORMAT);
+		ReflectionUtils.getFieldValue(new Bean(), "name");
+		assertThat(LibraryMetrics.DATE_PARSE.getCount()).isEqualTo(0);
+		assertThat(LibraryMetrics.FIELD_ACCESS.getCount()).isEqualTo(0);
+		assertThat(LibraryMetrics.CLASS_METADATA.getHitCount()).isEqualTo(0);
+	}
+
+	@Test
+	public void testMBeans() throws Exception {
+		LibraryMetrics.registerMBeans();
+		// idempotent
+		LibraryMetrics.registerMBeans();
+		final MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+		final ObjectName registry = new ObjectName("com.javaboz.commons:type=LibraryMetrics");
+		assertThat(server.getAttribute(registry, "Enabled")).isEqualTo(true);
+		assertThat((Double) server.getAttribute(registry, "DateParseCacheHitRate")).isNaN();
+
+		DateUtils.parse("12.03.2024", DateUtils.FR_DATE_FORMAT);
+		final ObjectName parse = new ObjectName("com.javaboz.commons:type=Operation,name=DateUtils.parse");
+		assertThat(server.getAttribute(parse, "Count")).isEqualTo(1L);
+		assertThat(server.getAttribute(parse, "LatencyHistogram")).isInstanceOf(long[].class);
+		assertThat(server.isRegistered(new ObjectName("com.javaboz.commons:type=Cache,name=ClassMetadata"))).isTrue();
+
+		server.setAttribute(registry, new Attribute("Enabled", false));
+		assertThat(LibraryMetrics.isEnabled()).isFalse();
+		server.invoke(registry, "reset", null, null);
+		assertThat(LibraryMetrics.DATE_PARSE.getCount()).isEqualTo(0);
+
+		LibraryMetrics.unregisterMBeans();
+		assertThat(server.isRegistered(parse)).isFalse();
+	}
+}
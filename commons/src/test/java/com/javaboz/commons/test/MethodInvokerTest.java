@@ -0,0 +1,199 @@
+package com.javaboz.commons.test;
+
+import static org.fest.assertions.Assertions.assertThat;
+
+import java.lang.reflect.InvocationTargetException;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+/**
+ * Test de la classe {@link MethodInvoker}, resolved by {@link ReflectionUtils#invokeMethod(Object, String, Object...)}.
+ *
+ * @author Julien Boz
+ */
+public class MethodInvokerTest {
+
+	@Rule
+	public final ExpectedException thrown = ExpectedException.none();
+
+	private static class Parent {
+		@SuppressWarnings("unused")
+		private String inherited() {
+			return "parent";
+		}
+
+		protected String describe(final Object value) {
+			return "object";
+		}
+
+		protected String describe(final Number value) {
+			return "number";
+		}
+	}
+
+	private static class Child extends Parent {
+		@Override
+		protected String describe(final Number value) {
+			return "child number";
+		}
+
+		@SuppressWarnings("unused")
+		private String describe(final Integer value) {
+			return "integer";
+		}
+
+		@SuppressWarnings("unused")
+		private long widen(final long value) {
+			return value * 2;
+		}
+
+		@SuppressWarnings("unused")
+		private String join(final String separator, final int... values) {
+			final StringBuilder builder = new StringBuilder();
+			for (final int value : values) {
+				builder.append(separator).append(value);
+			}
+			return builder.toString();
+		}
+
+		@SuppressWarnings("unused")
+		private static String twice(final String value) {
+			return value + value;
+		}
+
+		@SuppressWarnings("unused")
+		private void fail() {
+			throw new IllegalStateException("failed");
+		}
+
+		@SuppressWarnings("unused")
+		private String ambiguous(final Comparable<?> value) {
+			return "comparable";
+		}
+
+		@SuppressWarnings("unused")
+		private String ambiguous(final java.io.Serializable value) {
+			return "serializable";
+		}
+	}
+
+	@SuppressWarnings("unused")
+	private static class Pairs {
+		private String pair(final Object first, final String second) {
+			return "object, string";
+		}
+
+		private String pair(final String first, final Object second) {
+			return "string, object";
+		}
+
+		private String pair(final CharSequence first, final String second) {
+			return "char sequence, string";
+		}
+	}
+
+	@SuppressWarnings("unused")
+	private static class ReversedPairs {
+		private String pair(final CharSequence first, final String second) {
+			return "char sequence, string";
+		}
+
+		private String pair(final String first, final Object second) {
+			return "string, object";
+		}
+
+		private String pair(final Object first, final String second) {
+			return "object, string";
+		}
+	}
+
+	@Test
+	public void testInvokeMethod_overloads() {
+		final Child child = new Child();
+		assertThat(ReflectionUtils.<String> invokeMethod(child, "describe", 1)).isEqualTo("integer");
+		assertThat(ReflectionUtils.<String> invokeMethod(child, "describe", 1L)).isEqualTo("child number");
+		assertThat(ReflectionUtils.<String> invokeMethod(child, "describe", "1")).isEqualTo("object");
+		assertThat(ReflectionUtils.<String> invokeMethod(child, "describe", (Object) null)).isEqualTo("integer");
+	}
+
+	@Test
+	public void testInvokeMethod_inherited() {
+		assertThat(ReflectionUtils.<String> invokeMethod(new Child(), "inherited")).isEqualTo("parent");
+		assertThat(ReflectionUtils.<String> invokeMethod(new Child(), "toString")).startsWith(Child.class.getName());
+		assertThat(ReflectionUtils.<Object> invokeMethod(new Child(), "unknown")).isNull();
+	}
+
+	@Test
+	public void testInvokeMethod_unboxing() {
+		assertThat(ReflectionUtils.<Long> invokeMethod(new Child(), "widen", 21)).isEqualTo(42L);
+	}
+
+	@Test
+	public void testInvokeMethod_varargs() {
+		final Child child = new Child();
+		assertThat(ReflectionUtils.<String> invokeMethod(child, "join", "-", 1, 2, 3)).isEqualTo("-1-2-3");
+		assertThat(ReflectionUtils.<String> invokeMethod(child, "join", "-")).isEqualTo("");
+		assertThat(ReflectionUtils.<String> invokeMethod(child, "join", "-", new int[] { 4 })).isEqualTo("-4");
+		// cached shape, again
+		assertThat(ReflectionUtils.<String> invokeMethod(child, "join", "+", 5, 6, 7)).isEqualTo("+5+6+7");
+	}
+
+	@Test
+	public void testInvokeMethod_static() {
+		assertThat(ReflectionUtils.<String> invokeMethod(new Child(), "twice", "ab")).isEqualTo("abab");
+	}
+
+	@Test
+	public void testInvokeMethod_void() {
+		assertThat(ReflectionUtils.<Object> invokeMethod(new Child(), "inherited", (Object[]) null)).isEqualTo(
+				"parent");
+		try {
+			ReflectionUtils.invokeMethod(new Child(), "fail");
+		} catch (final IllegalArgumentException e) {
+			assertThat(e.getMessage()).isEqualTo("Error while trying to access method fail");
+			assertThat(e.getCause()).isInstanceOf(InvocationTargetException.class);
+			assertThat(e.getCause().getCause()).isInstanceOf(IllegalStateException.class);
+			return;
+		}
+		throw new AssertionError("expected failure");
+	}
+
+	@Test
+	public void testInvokeMethod_notApplicable() {
+		thrown.expect(IllegalArgumentException.class);
+		thrown.expectMessage("No method widen applicable to [class java.lang.String]");
+
+		ReflectionUtils.invokeMethod(new Child(), "widen", "1");
+	}
+
+	@Test
+	public void testInvokeMethod_ambiguous() {
+		thrown.expect(IllegalArgumentException.class);
+		thrown.expectMessage("Ambiguous method ambiguous");
+
+		ReflectionUtils.invokeMethod(new Child(), "ambiguous", "1");
+	}
+
+	@Test
+	public void testInvokeMethod_ambiguousWhateverTheOrder() {
+		for (final Object target : new Object[] { new Pairs(), new ReversedPairs() }) {
+			try {
+				ReflectionUtils.invokeMethod(target, "pair", "a", "b");
+				throw new AssertionError("expected failure for " + target.getClass());
+			} catch (final IllegalArgumentException e) {
+				// (CharSequence, String) and (String, Object) are both maximally specific
+				assertThat(e.getMessage()).startsWith("Ambiguous method pair");
+			}
+		}
+	}
+
+	@Test
+	public void testGetMethod() {
+		final MethodInvoker invoker = ClassMetadata.of(Child.class).getInvoker("describe", new Object[] { 1 });
+		assertThat(invoker.getMethod().getParameterTypes()).isEqualTo(new Class<?>[] { Integer.class });
+		assertThat(ClassMetadata.of(Child.class).getInvoker("describe", new Object[] { 2 })).isSameAs(invoker);
+		assertThat(invoker.invoke(new Child(), 3)).isEqualTo("integer");
+	}
+}
@@ -0,0 +1,93 @@
+package com.javaboz.commons.test;
+
+import static com.javaboz.commons.test.NumberClassifier.Kind.COMPLEX;
+import static com.javaboz.commons.test.NumberClassifier.Kind.DECIMAL;
+import static com.javaboz.commons.test.NumberClassifier.Kind.HEXADECIMAL;
+import static com.javaboz.commons.test.NumberClassifier.Kind.INTEGER;
+import static org.fest.assertions.Assertions.assertThat;
+
+import java.text.DecimalFormatSymbols;
+import java.util.Locale;
+
+import org.junit.Test;
+
+/**
+ * Test de la classe {@link NumberClassifier}.
+ *
+ * @author Julien Boz
+ */
+public class NumberClassifierTest {
+
+	private static final Locale LOCALE = Locale.FRANCE;
+	private static final DecimalFormatSymbols SYMBOLS = new DecimalFormatSymbols(LOCALE);
+
+	private final NumberClassifier classifier = new NumberClassifier(LOCALE, "i");
+
+	private static String sep(final String text) {
+		return text.replace('\'', SYMBOLS.getGroupingSeparator()).replace(',', SYMBOLS.getDecimalSeparator());
+	}
+
+	@Test
+	public void testClassify() {
+		assertThat(classifier.classify("0")).isEqualTo(INTEGER);
+		assertThat(classifier.classify("-123")).isEqualTo(INTEGER);
+		assertThat(classifier.classify("07")).isEqualTo(INTEGER);
+		assertThat(classifier.classify("12L")).isEqualTo(INTEGER);
+		assertThat(classifier.classify(sep("1'234'567"))).isEqualTo(INTEGER);
+		assertThat(classifier.classify(" 12 ")).isEqualTo(INTEGER);
+
+		assertThat(classifier.classify("1.5")).isEqualTo(DECIMAL);
+		assertThat(classifier.classify(sep("-1'234,5"))).isEqualTo(DECIMAL);
+		assertThat(classifier.classify("1.")).isEqualTo(DECIMAL);
+		assertThat(classifier.classify("-.5")).isEqualTo(DECIMAL);
+		assertThat(classifier.classify("1e10")).isEqualTo(DECIMAL);
+		assertThat(classifier.classify("1.5E-3")).isEqualTo(DECIMAL);
+		assertThat(classifier.classify("1.5f")).isEqualTo(DECIMAL);
+		assertThat(classifier.classify("2d")).isEqualTo(DECIMAL);
+
+		assertThat(classifier.classify("0x1F")).isEqualTo(HEXADECIMAL);
+		assertThat(classifier.classify("-0XcafeBABE")).isEqualTo(HEXADECIMAL);
+
+		assertThat(classifier.classify("1+2i")).isEqualTo(COMPLEX);
+		assertThat(classifier.classify("-1.5 - 2e3i")).isEqualTo(COMPLEX);
+		assertThat(classifier.classify(sep("1'000,5+0i"))).isEqualTo(COMPLEX);
+		// non finite parts
+		assertThat(classifier.classify(" (NaN) ")).isEqualTo(COMPLEX);
+		assertThat(classifier.classify("(-Infinity) - 1i")).isEqualTo(COMPLEX);
+		assertThat(classifier.classify("1.0 + (NaN)i")).isEqualTo(COMPLEX);
+		assertThat(classifier.classify("(NaN) + (Infinity)i")).isEqualTo(COMPLEX);
+		for (final String text : new String[] { "(NaN", "(Infinite)", "( NaN)", "(NaN)i", "1(NaN)", "(NaN) + (NaN)",
+				"(NaN)+", "1 + (NaN)i - 1i", "1 + (NaN)", "(NaN)L" }) {
+			assertThat(classifier.classify(text)).as(text).isNull();
+		}
+	}
+
+	@Test
+	public void testClassify_notANumber() {
+		for (final String text : new String[] { null, "", " ", "-", ".", "+1", "--1", "1-", "1+", "3x", "12a", "1e",
+				"1e+", "1.e", "0x", "0xG", "1L5", "1.5L", "1..5", "1.5.5", sep("1'23"), sep("1'2345"), sep("1234'567"),
+				sep("'123"), sep("123'"), sep("1'234,5'6"), "1 2", "1+2", "1+2j", "1+2ix", "2i", "i", "1+2Li", "0x1+2i",
+				"NaN", "Infinity" }) {
+			assertThat(classifier.classify(text)).as(text).isNull();
+			assertThat(classifier.isNumber(text)).as(text).isFalse();
+		}
+	}
+
+	@Test
+	public void testClassify_pointGrouping() {
+		final NumberClassifier german = new NumberClassifier(Locale.GERMANY, "i");
+		assertThat(german.classify("1.5")).isEqualTo(DECIMAL);
+		assertThat(german.classify("1.500")).isEqualTo(DECIMAL);
+		assertThat(german.classify("1.5e3")).isEqualTo(DECIMAL);
+		assertThat(german.classify("1234.5")).isEqualTo(DECIMAL);
+		assertThat(german.classify("-.5")).isEqualTo(DECIMAL);
+		assertThat(german.classify("1,5")).isEqualTo(DECIMAL);
+		assertThat(german.classify("1.500,5")).isEqualTo(DECIMAL);
+		assertThat(german.classify("1.500.000,25")).isEqualTo(DECIMAL);
+		assertThat(german.classify("1.500.000")).isEqualTo(INTEGER);
+		assertThat(german.classify("1.5+2.500i")).isEqualTo(COMPLEX);
+		for (final String text : new String[] { "1.500L", "1.500.5", "1.500.000.5", "1.5.000", "1,500.5", "1..5" }) {
+			assertThat(german.classify(text)).as(text).isNull();
+		}
+	}
+}
@@ -0,0 +1,128 @@
+package com.javaboz.commons.test;
+
+import static org.fest.assertions.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+/**
+ * Test de la classe {@link NumberColumns}.
+ *
+ * @author Julien Boz
+ */
+public class NumberColumnsTest {
+
+	@Rule
+	public final ExpectedException thrown = ExpectedException.none();
+
+	private static byte[] ascii(final String text) {
+		final byte[] bytes = new byte[text.length()];
+		for (int i = 0; i < bytes.length; i++) {
+			bytes[i] = (byte) text.charAt(i);
+		}
+		return bytes;
+	}
+
+	@Test
+	public void testParseInts() {
+		final int[] values = new int[5];
+		final BitSet valids = NumberColumns.parseInts(new String[] { "1", "x", null, "-2147483648", "0" }, values);
+		assertThat(values).isEqualTo(new int[] { 1, 0, 0, Integer.MIN_VALUE, 0 });
+		assertThat(valids.toString()).isEqualTo("{0, 3, 4}");
+	}
+
+	@Test
+	public void testParseLongs() {
+		final List<CharSequence> texts = new LinkedList<CharSequence>();
+		texts.add("9223372036854775807");
+		texts.add("");
+		texts.add(new StringBuilder("0"));
+		final long[] values = new long[4];
+		final BitSet valids = NumberColumns.parseLongs(texts, values);
+		assertThat(values).isEqualTo(new long[] { Long.MAX_VALUE, 0, 0, 0 });
+		assertThat(valids.toString()).isEqualTo("{0, 2}");
+	}
+
+	@Test
+	public void testParseDoubles() {
+		final double[] values = new double[4];
+		final BitSet valids = NumberColumns.parseDoubles(new String[] { "1.5", "1,5", "NaN", "0.0" }, values);
+		assertThat(values[0]).isEqualTo(1.5);
+		assertThat(values[1]).isEqualTo(0.0);
+		assertThat(values[2]).isNaN();
+		assertThat(values[3]).isEqualTo(0.0);
+		assertThat(valids.toString()).isEqualTo("{0, 2, 3}");
+	}
+
+	@Test
+	public void testParse_bytes() {
+		final byte[] buffer = ascii("#12\n\n-3\nx\n0\n");
+		final BitSet valids = new BitSet();
+		valids.set(10);
+
+		final int[] ints = new int[8];
+		assertThat(NumberColumns.parseInts(buffer, 1, buffer.length, (byte) '\n', ints, valids)).isEqualTo(5);
+		assertThat(ints).isEqualTo(new int[] { 12, 0, -3, 0, 0, 0, 0, 0 });
+		assertThat(valids.toString()).isEqualTo("{0, 2, 4, 10}");
+
+		final long[] longs = new long[5];
+		valids.clear();
+		assertThat(NumberColumns.parseLongs(buffer, 1, buffer.length - 1, (byte) '\n', longs, valids)).isEqualTo(5);
+		assertThat(longs).isEqualTo(new long[] { 12, 0, -3, 0, 0 });
+		assertThat(valids.toString()).isEqualTo("{0, 2, 4}");
+
+		final double[] doubles = new double[5];
+		valids.clear();
+		assertThat(NumberColumns.parseDoubles(ascii("1.5;;2e1"), 0, 8, (byte) ';', doubles, valids)).isEqualTo(3);
+		assertThat(doubles[0]).isEqualTo(1.5);
+		assertThat(doubles[2]).isEqualTo(20.0);
+		assertThat(valids.toString()).isEqualTo("{0, 2}");
+	}
+
+	@Test
+	public void testParse_destinationTooSmall() {
+		thrown.expect(IllegalArgumentException.class);
+		thrown.expectMessage("Destination too small: 1 < 2");
+		NumberColumns.parseInts(new String[] { "1", "2" }, new int[1]);
+	}
+
+	@Test
+	public void testParse_bytesDestinationTooSmall() {
+		thrown.expect(IllegalArgumentException.class);
+		thrown.expectMessage("Destination too small: 1 < 2");
+		NumberColumns.parseInts(ascii("1,2"), 0, 3, (byte) ',', new int[1], new BitSet());
+	}
+
+	@Test
+	public void testParse_parallel() throws Exception {
+		final int size = NumberColumns.MIN_CHUNK_SIZE * 10 + 7;
+		final List<String> texts = new ArrayList<String>(size);
+		for (int i = 0; i < size; i++) {
+			texts.add(i % 3 == 0 ? "x" + i : i + ".5");
+		}
+		final double[] sequential = new double[size];
+		final BitSet expected = NumberColumns.parseDoubles(texts, sequential);
+
+		final ExecutorService executor = Executors.newFixedThreadPool(4);
+		try {
+			final double[] values = new double[size];
+			final BitSet valids = NumberColumns.parseDoubles(texts, values, executor);
+			assertThat(valids).isEqualTo(expected);
+			assertThat(valids.cardinality()).isEqualTo(size - (size + 2) / 3);
+			assertThat(values).isEqualTo(sequential);
+
+			final long[] longs = new long[size];
+			assertThat(NumberColumns.parseLongs(texts, longs, executor).cardinality()).isEqualTo(0);
+		} finally {
+			executor.shutdown();
+		}
+	}
+}
@@ -0,0 +1,152 @@
+package com.javaboz.commons.test;
+
+import static org.fest.assertions.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.After;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+/**
+ * Test de la classe {@link NumberParseCache}.
+ *
+ * @author Julien Boz
+ */
+public class NumberParseCacheTest {
+
+	@Rule
+	public final ExpectedException thrown = ExpectedException.none();
+
+	@After
+	public void tearDown() {
+		NumberUtils.setParseCache(null);
+	}
+
+	@Test
+	public void testToIntObject() {
+		final NumberParseCache cache = new NumberParseCache(10);
+
+		final Integer value = cache.toIntObject(new String("123456"));
+		assertThat(value).isEqualTo(123456);
+		assertThat(cache.getMissCount()).isEqualTo(1);
+
+		// canonical instance
+		assertThat(cache.toIntObject(new String("123456"))).isSameAs(value);
+		assertThat(cache.getHitCount()).isEqualTo(1);
+		assertThat(cache.getHitRate()).isEqualTo(0.5);
+
+		// same text as long is another entry
+		assertThat(cache.toLongObject("123456")).isEqualTo(123456L);
+		assertThat(cache.getMissCount()).isEqualTo(2);
+		assertThat(cache.toLongObject("123456")).isSameAs(cache.toLongObject("123456"));
+	}
+
+	@Test
+	public void testToIntObject_invalid() {
+		final NumberParseCache cache = new NumberParseCache(10);
+
+		assertThat(cache.toIntObject(null)).isNull();
+		assertThat(cache.getMissCount()).isEqualTo(0);
+
+		assertThat(cache.toIntObject("12a")).isNull();
+		assertThat(cache.toIntObject("12a")).isNull();
+		assertThat(cache.toIntObject("2147483648")).isNull();
+		assertThat(cache.toLongObject("2147483648")).isEqualTo(2147483648L);
+		assertThat(cache.toLongObject("0")).isEqualTo(0L);
+		assertThat(cache.toLongObject("x")).isNull();
+		assertThat(cache.getHitCount()).isEqualTo(1);
+		assertThat(cache.getMissCount()).isEqualTo(5);
+	}
+
+	@Test
+	public void testEviction() {
+		// a single slot
+		final NumberParseCache cache = new NumberParseCache(1);
+
+		cache.toIntObject("1000");
+		cache.toIntObject("1000");
+		assertThat(cache.getHitCount()).isEqualTo(1);
+		// replaces 1000
+		cache.toIntObject("2000");
+		assertThat(cache.size()).isEqualTo(1);
+		cache.toIntObject("1000");
+		assertThat(cache.getMissCount()).isEqualTo(3);
+		// same text as long replaces the int
+		cache.toLongObject("1000");
+		assertThat(cache.toLongObject("1000")).isEqualTo(1000L);
+		assertThat(cache.getHitCount()).isEqualTo(2);
+
+		cache.clear();
+		assertThat(cache.size()).isEqualTo(0);
+		assertThat(cache.getHitCount()).isEqualTo(0);
+		assertThat(cache.getHitRate()).isEqualTo(0.0);
+	}
+
+	@Test
+	public void testCapacity_powerOfTwo() {
+		final NumberParseCache cache = new NumberParseCache(10);
+		assertThat(cache.getCapacity()).isEqualTo(16);
+
+		for (int i = 0; i < 100; i++) {
+			assertThat(cache.toIntObject(Integer.toString(i))).isEqualTo(i);
+		}
+		assertThat(cache.size()).isLessThanOrEqualTo(16);
+		assertThat(cache.getMissCount()).isEqualTo(100);
+	}
+
+	@Test
+	public void testManyThreads() throws Exception {
+		final NumberParseCache cache = new NumberParseCache(8);
+		final List<Throwable> errors = Collections.synchronizedList(new ArrayList<Throwable>());
+		final Thread[] threads = new Thread[8];
+		for (int t = 0; t < threads.length; t++) {
+			threads[t] = new Thread() {
+
+				@Override
+				public void run() {
+					try {
+						for (int i = 0; i < 10000; i++) {
+							final int value = i % 32;
+							assertThat(cache.toIntObject(Integer.toString(value))).isEqualTo(value);
+							assertThat(cache.toLongObject(Integer.toString(-value))).isEqualTo(-value);
+						}
+					} catch (final Throwable e) {
+						errors.add(e);
+					}
+				}
+			};
+			threads[t].start();
+		}
+		for (final Thread thread : threads) {
+			thread.join();
+		}
+		assertThat(errors).isEmpty();
+		assertThat(cache.getHitCount() + cache.getMissCount()).isEqualTo(8 * 2 * 10000);
+	}
+
+	@Test
+	public void testNumberUtils() {
+		final NumberParseCache cache = new NumberParseCache(10);
+		NumberUtils.setParseCache(cache);
+		assertThat(NumberUtils.getParseCache()).isSameAs(cache);
+
+		assertThat(NumberUtils.toIntObject("4242")).isSameAs(NumberUtils.toIntObject("4242"));
+		assertThat(NumberUtils.toIntObject("asd", 7)).isEqualTo(7);
+		assertThat(NumberUtils.toLongObject("-4242")).isSameAs(NumberUtils.toLongObject("-4242"));
+		assertThat(NumberUtils.toLongObject(null, 7L)).isEqualTo(7L);
+		assertThat(cache.getHitCount()).isEqualTo(2);
+		assertThat(cache.getMissCount()).isEqualTo(3);
+	}
+
+	@Test
+	public void testCapacity() {
+		thrown.expect(IllegalArgumentException.class);
+		thrown.expectMessage("Capacity must be positive: 0");
+
+		new NumberParseCache(0);
+	}
+}
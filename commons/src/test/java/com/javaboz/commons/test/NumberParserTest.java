@@ -0,0 +1,118 @@
+package com.javaboz.commons.test;
+
+import static org.fest.assertions.Assertions.assertThat;
+
+import java.util.Random;
+
+import org.junit.Test;
+
+/**
+ * Test de la classe {@link NumberParser}.
+ *
+ * @author Julien Boz
+ */
+public class NumberParserTest {
+
+	private static byte[] ascii(final String text) {
+		final byte[] bytes = new byte[text.length()];
+		for (int i = 0; i < bytes.length; i++) {
+			bytes[i] = (byte) text.charAt(i);
+		}
+		return bytes;
+	}
+
+	@Test
+	public void testParseInt() {
+		assertThat(NumberParser.parseInt("123", -1)).isEqualTo(123);
+		assertThat(NumberParser.parseInt("+123", -1)).isEqualTo(123);
+		assertThat(NumberParser.parseInt("-123", -1)).isEqualTo(-123);
+		assertThat(NumberParser.parseInt("2147483647", -1)).isEqualTo(Integer.MAX_VALUE);
+		assertThat(NumberParser.parseInt("-2147483648", -1)).isEqualTo(Integer.MIN_VALUE);
+		assertThat(NumberParser.parseInt("a=42;", 2, 4, -1)).isEqualTo(42);
+
+		assertThat(NumberParser.parseInt(null, -1)).isEqualTo(-1);
+		assertThat(NumberParser.parseInt("", -1)).isEqualTo(-1);
+		assertThat(NumberParser.parseInt("-", -1)).isEqualTo(-1);
+		assertThat(NumberParser.parseInt(" 1", -1)).isEqualTo(-1);
+		assertThat(NumberParser.parseInt("1.0", -1)).isEqualTo(-1);
+		assertThat(NumberParser.parseInt("2147483648", -1)).isEqualTo(-1);
+		assertThat(NumberParser.parseInt("-2147483649", -1)).isEqualTo(-1);
+		assertThat(NumberParser.parseInt("99999999999999999999", -1)).isEqualTo(-1);
+
+		assertThat(NumberParser.parseInt(ascii("x-2147483648"), 1, 12, -1)).isEqualTo(Integer.MIN_VALUE);
+		assertThat(NumberParser.parseInt(ascii("2147483648"), 0, 10, -1)).isEqualTo(-1);
+	}
+
+	@Test
+	public void testParseLong() {
+		assertThat(NumberParser.parseLong("9223372036854775807", -1)).isEqualTo(Long.MAX_VALUE);
+		assertThat(NumberParser.parseLong("-9223372036854775808", -1)).isEqualTo(Long.MIN_VALUE);
+		assertThat(NumberParser.parseLong("9223372036854775808", -1)).isEqualTo(-1);
+		assertThat(NumberParser.parseLong("-9223372036854775809", -1)).isEqualTo(-1);
+		assertThat(NumberParser.parseLong("12a", -1)).isEqualTo(-1);
+		assertThat(NumberParser.parseLong(ascii("id:00123"), 3, 8, -1)).isEqualTo(123);
+		assertThat(NumberParser.parseLong(ascii("1 2"), 0, 3, -1)).isEqualTo(-1);
+
+		assertThat(NumberParser.isLong("0")).isTrue();
+		assertThat(NumberParser.isLong("1")).isTrue();
+		assertThat(NumberParser.isLong("x")).isFalse();
+		assertThat(NumberParser.isLong(null)).isFalse();
+	}
+
+	@Test
+	public void testParseDouble() {
+		assertThat(NumberParser.parseDouble("123.45", -1)).isEqualTo(123.45);
+		assertThat(NumberParser.parseDouble(" -1.5e3 ", -1)).isEqualTo(-1500.0);
+		assertThat(NumberParser.parseDouble(".5", -1)).isEqualTo(0.5);
+		assertThat(NumberParser.parseDouble("5.", -1)).isEqualTo(5.0);
+		assertThat(NumberParser.parseDouble("1.1f", -1)).isEqualTo(1.1);
+		assertThat(NumberParser.parseDouble("NaN", -1)).isNaN();
+		assertThat(NumberParser.parseDouble("-Infinity", -1)).isEqualTo(Double.NEGATIVE_INFINITY);
+		assertThat(NumberParser.parseDouble("0x1p3", -1)).isEqualTo(8.0);
+		assertThat(NumberParser.parseDouble("1e400", -1)).isEqualTo(Double.POSITIVE_INFINITY);
+		assertThat(NumberParser.parseDouble("4.9E-324", -1)).isEqualTo(Double.MIN_VALUE);
+		assertThat(1 / NumberParser.parseDouble("-0", -1)).isEqualTo(Double.NEGATIVE_INFINITY);
+		assertThat(NumberParser.parseDouble("x=3.25;", 2, 6, -1)).isEqualTo(3.25);
+		assertThat(NumberParser.parseDouble(ascii(" 3.25e-2"), 0, 8, -1)).isEqualTo(0.0325);
+
+		assertThat(NumberParser.parseDouble(null, -1)).isEqualTo(-1.0);
+		assertThat(NumberParser.parseDouble("  ", -1)).isEqualTo(-1.0);
+		assertThat(NumberParser.parseDouble(".", -1)).isEqualTo(-1.0);
+		assertThat(NumberParser.parseDouble("1e", -1)).isEqualTo(-1.0);
+		assertThat(NumberParser.parseDouble("e1", -1)).isEqualTo(-1.0);
+		assertThat(NumberParser.parseDouble("1.2.3", -1)).isEqualTo(-1.0);
+		assertThat(NumberParser.parseDouble("1,2", -1)).isEqualTo(-1.0);
+		assertThat(NumberParser.parseDouble("Nan", -1)).isEqualTo(-1.0);
+		assertThat(NumberParser.parseDouble("0xZ", -1)).isEqualTo(-1.0);
+
+		assertThat(NumberParser.isDouble("NaN")).isTrue();
+		assertThat(NumberParser.isDouble("0")).isTrue();
+		assertThat(NumberParser.isDouble("asd")).isFalse();
+	}
+
+	@Test
+	public void testParseDouble_sameAsJdk() {
+		final Random random = new Random(42);
+		for (int i = 0; i < 100000; i++) {
+			final String text;
+			switch (i % 4) {
+			case 0:
+				text = Double.toString(Double.longBitsToDouble(random.nextLong()));
+				break;
+			case 1:
+				text = Double.toString(random.nextDouble() * Math.pow(10, random.nextInt(40) - 20));
+				break;
+			case 2:
+				text = random.nextInt(1000000) + "." + random.nextInt(1000000) + "e" + (random.nextInt(60) - 30);
+				break;
+			default:
+				text = Long.toString(random.nextLong()) + "." + Math.abs(random.nextLong());
+			}
+			final double expected = Double.parseDouble(text);
+			assertThat(Double.doubleToLongBits(NumberParser.parseDouble(text, -1))).as(text).isEqualTo(
+					Double.doubleToLongBits(expected));
+			assertThat(Double.doubleToLongBits(NumberParser.parseDouble(ascii(text), 0, text.length(), -1))).as(text)
+					.isEqualTo(Double.doubleToLongBits(expected));
+		}
+	}
+}
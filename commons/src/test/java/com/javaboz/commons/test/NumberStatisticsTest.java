@@ -0,0 +1,228 @@
+package com.javaboz.commons.test;
+
+import static org.fest.assertions.Assertions.assertThat;
+import static org.fest.assertions.Delta.delta;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+/**
+ * Test de la classe {@link NumberStatistics}.
+ *
+ * @author Julien Boz
+ */
+public class NumberStatisticsTest {
+
+	@Rule
+	public final ExpectedException thrown = ExpectedException.none();
+
+	@Test
+	public void testAdd() {
+		final NumberStatistics stats = new NumberStatistics();
+		stats.addAll(new double[] { 2, 4, 4, 4, 5, 5, 7, 9 });
+
+		assertThat(stats.getCount()).isEqualTo(8);
+		assertThat(stats.getSum()).isEqualTo(40.0);
+		assertThat(stats.getMin()).isEqualTo(2.0);
+		assertThat(stats.getMax()).isEqualTo(9.0);
+		assertThat(stats.getMean()).isEqualTo(5.0);
+		assertThat(stats.getPopulationVariance()).isEqualTo(4.0);
+		assertThat(stats.getVariance()).isEqualTo(32.0 / 7, delta(1e-12));
+		assertThat(stats.getMedian()).isEqualTo(4.0, delta(0.04));
+	}
+
+	@Test
+	public void testAdd_texts() {
+		final NumberStatistics stats = new NumberStatistics();
+		stats.addAll(Arrays.asList("1.5", "x", null, "-2", "NaN", "Infinity", " 3 "));
+
+		assertThat(stats.getCount()).isEqualTo(3);
+		assertThat(stats.getInvalidCount()).isEqualTo(4);
+		assertThat(stats.getSum()).isEqualTo(2.5);
+		assertThat(stats.getMin()).isEqualTo(-2.0);
+		assertThat(stats.getMax()).isEqualTo(3.0);
+	}
+
+	@Test
+	public void testAdd_bytes() {
+		final NumberStatistics stats = new NumberStatistics();
+		final byte[] buffer = "10;20;;abc;30;".getBytes();
+
+		assertThat(stats.addAll(buffer, 0, buffer.length, (byte) ';')).isEqualTo(5);
+		assertThat(stats.getCount()).isEqualTo(3);
+		assertThat(stats.getInvalidCount()).isEqualTo(2);
+		assertThat(stats.getMean()).isEqualTo(20.0);
+	}
+
+	@Test
+	public void testEmpty() {
+		final NumberStatistics stats = new NumberStatistics();
+
+		assertThat(stats.getSum()).isEqualTo(0.0);
+		assertThat(stats.getMin()).isNaN();
+		assertThat(stats.getMean()).isNaN();
+		assertThat(stats.getVariance()).isNaN();
+		assertThat(stats.getQuantile(0.5)).isNaN();
+
+		stats.add(42);
+		assertThat(stats.getVariance()).isNaN();
+		assertThat(stats.getPopulationVariance()).isEqualTo(0.0);
+		assertThat(stats.getQuantile(0)).isEqualTo(42.0);
+		assertThat(stats.getQuantile(1)).isEqualTo(42.0);
+	}
+
+	@Test
+	public void testVariance_stable() {
+		// naive sum of squares loses everything at this offset
+		final NumberStatistics stats = new NumberStatistics();
+		stats.addAll(new double[] { 1e9 + 4, 1e9 + 7, 1e9 + 13, 1e9 + 16 });
+
+		assertThat(stats.getMean()).isEqualTo(1e9 + 10);
+		assertThat(stats.getVariance()).isEqualTo(30.0);
+	}
+
+	@Test
+	public void testSum_compensated() {
+		final NumberStatistics stats = new NumberStatistics();
+		for (int i = 0; i < 10; i++) {
+			stats.add(0.1);
+		}
+
+		assertThat(stats.getSum()).isEqualTo(1.0);
+	}
+
+	@Test
+	public void testQuantile() {
+		final NumberStatistics stats = new NumberStatistics();
+		for (int i = -1000; i <= 1000; i++) {
+			stats.add(i);
+		}
+
+		assertThat(stats.getQuantile(0)).isEqualTo(-1000.0);
+		assertThat(stats.getQuantile(1)).isEqualTo(1000.0);
+		assertThat(stats.getQuantile(0.5)).isEqualTo(0.0);
+		assertThat(stats.getQuantile(0.25)).isEqualTo(-500.0, delta(5.0));
+		assertThat(stats.getQuantile(0.9)).isEqualTo(800.0, delta(8.0));
+		assertThat(stats.getQuantile(0.999)).isEqualTo(998.0, delta(10.0));
+	}
+
+	@Test
+	public void testQuantile_range() {
+		// magnitudes much wider than the bins, the smallest are collapsed
+		final NumberStatistics stats = new NumberStatistics();
+		for (int exponent = -300; exponent <= 300; exponent++) {
+			stats.add(Math.pow(10, exponent));
+		}
+
+		assertThat(stats.getMax()).isEqualTo(1e300);
+		assertThat(stats.getQuantile(1)).isEqualTo(1e300);
+		assertThat(stats.getQuantile(0.999) / 1e299).isEqualTo(1.0, delta(0.01));
+		assertThat(stats.getQuantile(0.5)).isGreaterThan(1e280).isLessThan(1e283);
+		assertThat(stats.getQuantile(0)).isEqualTo(1e-300);
+	}
+
+	@Test
+	public void testQuantile_subnormals() {
+		final NumberStatistics stats = new NumberStatistics();
+		stats.addAll(new double[] { 1e-310, 2e-310, 3e-310, 0 });
+
+		assertThat(stats.getQuantile(0)).isEqualTo(0.0);
+		assertThat(stats.getQuantile(0.5) / 1e-310).isEqualTo(1.0, delta(0.01));
+		assertThat(stats.getQuantile(0.7) / 2e-310).isEqualTo(1.0, delta(0.01));
+		assertThat(stats.getQuantile(1)).isEqualTo(3e-310);
+	}
+
+	@Test
+	public void testQuantile_minRelativeAccuracy() {
+		final NumberStatistics stats = new NumberStatistics(NumberStatistics.MIN_RELATIVE_ACCURACY);
+		stats.addAll(new double[] { 1, 2, 3, 5, NumberStatistics.MIN_RANGE });
+
+		assertThat(stats.getMedian()).isEqualTo(3.0, delta(3 * NumberStatistics.MIN_RELATIVE_ACCURACY));
+	}
+
+	@Test
+	public void testQuantile_invalid() {
+		thrown.expect(IllegalArgumentException.class);
+		thrown.expectMessage("Quantile out of [0, 1]: 1.5");
+
+		new NumberStatistics().getQuantile(1.5);
+	}
+
+	@Test
+	public void testMerge() {
+		final Random random = new Random(42);
+		final double[] values = new double[10000];
+		for (int i = 0; i < values.length; i++) {
+			values[i] = random.nextGaussian() * 100 + 50;
+		}
+		final NumberStatistics all = new NumberStatistics().addAll(values);
+		final NumberStatistics first = new NumberStatistics().addAll(Arrays.copyOfRange(values, 0, 3000));
+		final NumberStatistics second = new NumberStatistics().addAll(Arrays.copyOfRange(values, 3000, values.length));
+		second.add(Double.NaN);
+
+		final NumberStatistics merged = new NumberStatistics().merge(first).merge(second);
+		assertThat(merged.getCount()).isEqualTo(all.getCount());
+		assertThat(merged.getInvalidCount()).isEqualTo(1);
+		assertThat(merged.getSum()).isEqualTo(all.getSum(), delta(1e-9));
+		assertThat(merged.getMin()).isEqualTo(all.getMin());
+		assertThat(merged.getMax()).isEqualTo(all.getMax());
+		assertThat(merged.getMean()).isEqualTo(all.getMean(), delta(1e-12));
+		assertThat(merged.getVariance()).isEqualTo(all.getVariance(), delta(1e-8));
+		for (final double quantile : new double[] { 0.01, 0.25, 0.5, 0.75, 0.99 }) {
+			assertThat(merged.getQuantile(quantile)).isEqualTo(all.getQuantile(quantile));
+		}
+	}
+
+	@Test
+	public void testMerge_accuracy() {
+		thrown.expect(IllegalArgumentException.class);
+		thrown.expectMessage("Relative accuracy mismatch: 0.01 != 0.05");
+
+		new NumberStatistics().merge(new NumberStatistics(0.05));
+	}
+
+	@Test
+	public void testAddAll_executor() throws Exception {
+		final List<String> texts = new ArrayList<String>();
+		for (int i = 0; i < 5 * NumberColumns.MIN_CHUNK_SIZE; i++) {
+			texts.add(i % 100 == 0 ? "x" : Integer.toString(i));
+		}
+		final NumberStatistics expected = new NumberStatistics().addAll(texts);
+
+		final ExecutorService executor = Executors.newFixedThreadPool(4);
+		try {
+			final NumberStatistics stats = new NumberStatistics().addAll(texts, executor);
+			assertThat(stats.getCount()).isEqualTo(expected.getCount());
+			assertThat(stats.getInvalidCount()).isEqualTo(expected.getInvalidCount());
+			assertThat(stats.getSum()).isEqualTo(expected.getSum());
+			assertThat(stats.getMean()).isEqualTo(expected.getMean(), delta(1e-9));
+			assertThat(stats.getMedian()).isEqualTo(expected.getMedian());
+		} finally {
+			executor.shutdown();
+		}
+	}
+
+	@Test
+	public void testRelativeAccuracy() {
+		thrown.expect(IllegalArgumentException.class);
+		thrown.expectMessage("Relative accuracy out of ]0, 1[: 0.0");
+
+		new NumberStatistics(0);
+	}
+
+	@Test
+	public void testRelativeAccuracy_tooSmall() {
+		thrown.expect(IllegalArgumentException.class);
+		thrown.expectMessage("Relative accuracy below " + NumberStatistics.MIN_RELATIVE_ACCURACY + ": 1.0E-10");
+
+		new NumberStatistics(1e-10);
+	}
+}
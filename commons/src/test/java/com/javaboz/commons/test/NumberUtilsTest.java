@@ -0,0 +1,230 @@
+package com.javaboz.commons.test;
+
+import static org.fest.assertions.Assertions.assertThat;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.text.DecimalFormat;
+import java.text.DecimalFormatSymbols;
+import java.util.Locale;
+
+import junit.framework.Assert;
+
+import org.apache.commons.math.complex.Complex;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Test de la classe {@link NumberUtils}.
+ *
+ * @author Julien Boz
+ */
+public class NumberUtilsTest {
+
+	@Before
+	public void setUp() {
+		Locale.setDefault(new Locale("fr", "CH"));
+	}
+
+	@Test
+	public void testFormat() {
+		assertThat(NumberUtils.format(1000526.159)).isEqualTo("1'000'526.16");
+		assertThat(new DecimalFormat("#,###.##", new DecimalFormatSymbols(new Locale("fr", "CH"))).format(1000526.159)).isEqualTo(
+				"1'000'526.16");
+		assertThat(NumberUtils.format(1000526L)).isEqualTo("1'000'526");
+		assertThat(NumberUtils.format(new BigDecimal("0.125"))).isEqualTo("0.12");
+		assertThat(NumberUtils.format(new BigInteger("12345"))).isEqualTo("12'345");
+		assertThat(NumberUtils.format(-0.5, new StringBuilder("x")).toString()).isEqualTo("x-0.5");
+		assertThat(NumberUtils.format(1234L, new StringBuilder()).toString()).isEqualTo("1'234");
+	}
+
+	@Test
+	public void testToString() {
+		// System.out.println("sep = " + SEP);
+		Assert.assertEquals("1'000'015'687", NumberUtils.toString(1000015687L));
+		Assert.assertEquals("148'977'687.1", NumberUtils.toString(148977687.1));
+		Assert.assertEquals("0.11", NumberUtils.toString(0.110));
+		Assert.assertEquals("1.11", NumberUtils.toString(1.111111d));
+		Assert.assertEquals("1.15", NumberUtils.toString(1.151111d));
+		Assert.assertEquals("1.16", NumberUtils.toString(1.156111d));
+		assertThat(NumberUtils.toString(null)).isNull();
+	}
+
+	@Test
+	public void testParseFormatted() {
+		assertThat(NumberUtils.parseFormatted("1'000'526.16", -1)).isEqualTo(1000526.16);
+		assertThat(NumberUtils.parseFormatted("1,5", -1)).isEqualTo(-1.0);
+		assertThat(NumberUtils.parseFormattedDecimal("-1'234.50")).isEqualTo(new BigDecimal("-1234.50"));
+		assertThat(NumberUtils.parseFormattedDecimal("12'34")).isNull();
+	}
+
+	@Test
+	public void testParse() {
+		assertThat(NumberUtils.parse("1'000.5 - 2IMAGINARY")).isEqualTo(new Complex(1000.5, -2));
+		assertThat(NumberUtils.parse("asd")).isNull();
+		assertThat(NumberUtils.parse(null)).isNull();
+	}
+
+	@Test
+	public void testGetFormatter() {
+		assertThat(NumberUtils.getFormatter()).isNotSameAs(NumberUtils.getFormatter());
+		assertThat(NumberUtils.getFormatter().format(1000526.159)).isEqualTo("1'000'526.16");
+		assertThat(NumberUtils.getComplexFormat()).isNotSameAs(NumberUtils.getComplexFormat());
+	}
+
+	@Test
+	public void testGetDecimalMinValue() {
+		assertThat(NumberUtils.getDecimalMinValue()).isEqualTo("4.9E-324");
+	}
+
+	@Test
+	public void testToInt() {
+		assertThat(NumberUtils.toInt(null)).isEqualTo(Integer.MIN_VALUE);
+		assertThat(NumberUtils.toInt(" ")).isEqualTo(Integer.MIN_VALUE);
+		assertThat(NumberUtils.toInt("")).isEqualTo(Integer.MIN_VALUE);
+		assertThat(NumberUtils.toInt("123")).isEqualTo(123);
+		assertThat(NumberUtils.toInt("asd", 7)).isEqualTo(7);
+		assertThat(NumberUtils.toInt("-2147483648", 7)).isEqualTo(Integer.MIN_VALUE);
+	}
+
+	@Test
+	public void testToIntObject() {
+		assertThat(NumberUtils.toIntObject(null, null)).isNull();
+		assertThat(NumberUtils.toIntObject("asd", null)).isNull();
+		assertThat(NumberUtils.toIntObject(null)).isNull();
+		assertThat(NumberUtils.toIntObject("asd")).isNull();
+		assertThat(NumberUtils.toIntObject(null, 123)).isEqualTo(123);
+		assertThat(NumberUtils.toIntObject("", 123)).isEqualTo(123);
+		assertThat(NumberUtils.toIntObject("  ", 123)).isEqualTo(123);
+		assertThat(NumberUtils.toIntObject("asd", 123)).isEqualTo(123);
+		assertThat(NumberUtils.toIntObject("789", null)).isEqualTo(789);
+		assertThat(NumberUtils.toIntObject("789", 123)).isEqualTo(789);
+		assertThat(NumberUtils.toIntObject("789")).isEqualTo(789);
+	}
+
+	@Test
+	public void testToLong() {
+		assertThat(NumberUtils.toLong(null)).isEqualTo(Long.MIN_VALUE);
+		assertThat(NumberUtils.toLong(" ")).isEqualTo(Long.MIN_VALUE);
+		assertThat(NumberUtils.toLong("")).isEqualTo(Long.MIN_VALUE);
+		assertThat(NumberUtils.toLong("123")).isEqualTo(123);
+		assertThat(NumberUtils.toLong("asd", 7L)).isEqualTo(7);
+	}
+
+	@Test
+	public void testToLongObject() {
+		assertThat(NumberUtils.toLongObject(null, null)).isNull();
+		assertThat(NumberUtils.toLongObject("asd", null)).isNull();
+		assertThat(NumberUtils.toLongObject(null)).isNull();
+		assertThat(NumberUtils.toLongObject("asd")).isNull();
+		assertThat(NumberUtils.toLongObject(null, 123L)).isEqualTo(123);
+		assertThat(NumberUtils.toLongObject("", 123L)).isEqualTo(123);
+		assertThat(NumberUtils.toLongObject("  ", 123L)).isEqualTo(123);
+		assertThat(NumberUtils.toLongObject("asd", 123L)).isEqualTo(123);
+		assertThat(NumberUtils.toLongObject("789", null)).isEqualTo(789);
+		assertThat(NumberUtils.toLongObject("789", 123L)).isEqualTo(789);
+		assertThat(NumberUtils.toLongObject("789")).isEqualTo(789);
+		assertThat(NumberUtils.toLongObject("-9223372036854775808")).isEqualTo(Long.MIN_VALUE);
+	}
+
+	@Test
+	public void testToDouble() {
+		assertThat(NumberUtils.toDouble(null)).isEqualTo(Double.MIN_VALUE);
+		assertThat(NumberUtils.toDouble(" ")).isEqualTo(Double.MIN_VALUE);
+		assertThat(NumberUtils.toDouble("")).isEqualTo(Double.MIN_VALUE);
+		assertThat(NumberUtils.toDouble("123")).isEqualTo(123);
+		assertThat(NumberUtils.toDouble("asd", 7.5)).isEqualTo(7.5);
+	}
+
+	@Test
+	public void testToDoubleObject() {
+		assertThat(NumberUtils.toDoubleObject(null, null)).isNull();
+		assertThat(NumberUtils.toDoubleObject("asd", null)).isNull();
+		assertThat(NumberUtils.toDoubleObject(null)).isNull();
+		assertThat(NumberUtils.toDoubleObject("asd")).isNull();
+		assertThat(NumberUtils.toDoubleObject(null, 123.51)).isEqualTo(123.51);
+		assertThat(NumberUtils.toDoubleObject("", 123.51)).isEqualTo(123.51);
+		assertThat(NumberUtils.toDoubleObject("  ", 123.51)).isEqualTo(123.51);
+		assertThat(NumberUtils.toDoubleObject("asd", 123.51)).isEqualTo(123.51);
+		assertThat(NumberUtils.toDoubleObject("789", null)).isEqualTo(789);
+		assertThat(NumberUtils.toDoubleObject("789.98", 123.51)).isEqualTo(789.98);
+		assertThat(NumberUtils.toDoubleObject("789.98")).isEqualTo(789.98);
+		assertThat(NumberUtils.toDoubleObject("NaN")).isNaN();
+	}
+
+	@Test
+	public void testIsNumber() {
+		assertThat(NumberUtils.isNumber("3125.15")).isTrue();
+		assertThat(NumberUtils.isNumber("3'000'125.15")).isTrue();
+		assertThat(NumberUtils.isNumber("3,000,125.15")).isFalse();
+		assertThat(NumberUtils.isNumber("3125,15")).isFalse();
+		assertThat(NumberUtils.isNumber("3 000 125,15")).isFalse();
+		assertThat(NumberUtils.isNumber("asd5")).isFalse();
+		assertThat(NumberUtils.isNumber("  ")).isFalse();
+		assertThat(NumberUtils.isNumber(null)).isFalse();
+		assertThat(NumberUtils.isNumber("1+2IMAGINARY")).isTrue();
+		assertThat(NumberUtils.isNumber("3x")).isFalse();
+		assertThat(NumberUtils.getNumberKind("0x1F")).isEqualTo(NumberClassifier.Kind.HEXADECIMAL);
+		assertThat(NumberUtils.getNumberKind("3'000'125.15")).isEqualTo(NumberClassifier.Kind.DECIMAL);
+	}
+
+	@Test
+	public void testIsNumber_sameAsParse() {
+		for (final String text : new String[] { "1'000.5", "1 + 2IMAGINARY", "(NaN)", "(NaN) + 1IMAGINARY",
+				"(NaN) + (Infinity)IMAGINARY", "1.0 + (NaN)IMAGINARY", "1 - (-Infinity)IMAGINARY", "(Infinity)IMAGINARY",
+				"(NaN", "1(NaN)", "(NaN) + (NaN)", "2IMAGINARY", "3x", "" }) {
+			assertThat(NumberUtils.isNumber(text)).as(text).isEqualTo(NumberUtils.parse(text) != null);
+		}
+		assertThat(NumberUtils.isNumber("(NaN) + (Infinity)IMAGINARY")).isTrue();
+		assertThat(NumberUtils.isNumber("1.0 + (NaN)IMAGINARY")).isTrue();
+	}
+
+	@Test
+	public void testIsNumber_germany() {
+		Locale.setDefault(Locale.GERMANY);
+		// a single point is a decimal point, as in Java syntax
+		assertThat(NumberUtils.isNumber("1.5")).isTrue();
+		assertThat(NumberUtils.getNumberKind("1.500")).isEqualTo(NumberClassifier.Kind.DECIMAL);
+		assertThat(NumberUtils.getNumberKind("1.500.000")).isEqualTo(NumberClassifier.Kind.INTEGER);
+		assertThat(NumberUtils.getNumberKind("3.000.125,15")).isEqualTo(NumberClassifier.Kind.DECIMAL);
+		assertThat(NumberUtils.isNumber("3'000'125.15")).isFalse();
+	}
+
+	@Test
+	public void testParse_germany() {
+		Locale.setDefault(Locale.GERMANY);
+		// the parsed value is the one the kind tells
+		assertThat(NumberUtils.getNumberKind("1.500")).isEqualTo(NumberClassifier.Kind.DECIMAL);
+		assertThat(NumberUtils.parse("1.500")).isEqualTo(new Complex(1.5, 0));
+		assertThat(NumberUtils.getNumberKind("1.5")).isEqualTo(NumberClassifier.Kind.DECIMAL);
+		assertThat(NumberUtils.parse("1.5")).isEqualTo(new Complex(1.5, 0));
+		assertThat(NumberUtils.getNumberKind(".5")).isEqualTo(NumberClassifier.Kind.DECIMAL);
+		assertThat(NumberUtils.parse(".5")).isEqualTo(new Complex(0.5, 0));
+		assertThat(NumberUtils.getNumberKind("1234.5")).isEqualTo(NumberClassifier.Kind.DECIMAL);
+		assertThat(NumberUtils.parse("1234.5")).isEqualTo(new Complex(1234.5, 0));
+		assertThat(NumberUtils.getNumberKind("1.500.000")).isEqualTo(NumberClassifier.Kind.INTEGER);
+		assertThat(NumberUtils.parse("1.500.000")).isEqualTo(new Complex(1500000, 0));
+		assertThat(NumberUtils.getNumberKind("1.500,25")).isEqualTo(NumberClassifier.Kind.DECIMAL);
+		assertThat(NumberUtils.parse("1.500,25")).isEqualTo(new Complex(1500.25, 0));
+		assertThat(NumberUtils.getNumberKind("1.0 - 2.500.000,5IMAGINARY")).isEqualTo(NumberClassifier.Kind.COMPLEX);
+		assertThat(NumberUtils.parse("1.0 - 2.500.000,5IMAGINARY")).isEqualTo(new Complex(1, -2500000.5));
+		final Complex nonFinite = NumberUtils.parse("1.0 + (NaN)IMAGINARY");
+		assertThat(nonFinite.getReal()).isEqualTo(1.0);
+		assertThat(nonFinite.getImaginary()).isNaN();
+	}
+
+	@Test
+	public void testParse_localeChange() {
+		// pooled codecs of the previous locale must not be used
+		assertThat(NumberUtils.parse("3'000'125.5")).isEqualTo(new Complex(3000125.5, 0));
+		assertThat(NumberUtils.format(1000.5)).isEqualTo("1'000.5");
+		Locale.setDefault(Locale.GERMANY);
+		assertThat(NumberUtils.getNumberKind("3.000.125,5")).isEqualTo(NumberClassifier.Kind.DECIMAL);
+		assertThat(NumberUtils.parse("3.000.125,5")).isEqualTo(new Complex(3000125.5, 0));
+		assertThat(NumberUtils.isNumber("3'000'125.5")).isFalse();
+		assertThat(NumberUtils.parse("3'000'125.5")).isNull();
+		assertThat(NumberUtils.format(1000.5)).isEqualTo("1.000,5");
+		assertThat(NumberUtils.parseFormatted("1.000,5", -1)).isEqualTo(1000.5);
+	}
+
+}
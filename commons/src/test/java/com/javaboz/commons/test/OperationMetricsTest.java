@@ -0,0 +1,121 @@
+package com.javaboz.commons.test;
+
+import static org.fest.assertions.Assertions.assertThat;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+/**
+ * Test de la classe {@link OperationMetrics}.
+ *
+ * @author Julien Boz
+ */
+public class OperationMetricsTest {
+
+	@Rule
+	public final ExpectedException thrown = ExpectedException.none();
+
+	private final OperationMetrics metrics = new OperationMetrics("test");
+
+	@Before
+	public void enable() {
+		LibraryMetrics.setEnabled(true);
+	}
+
+	@After
+	public void disable() {
+		LibraryMetrics.setEnabled(false);
+	}
+
+	@Test
+	public void testDisabled() {
+		LibraryMetrics.setEnabled(false);
+		for (int i = 0; i < 100; i++) {
+			metrics.stop(metrics.start(), false);
+		}
+		assertThat(metrics.getCount()).isEqualTo(0);
+		assertThat(metrics.getFailureCount()).isEqualTo(0);
+		assertThat(metrics.getFailureRate()).isEqualTo(0d);
+		assertThat(metrics.getMeanLatency()).isEqualTo(0d);
+		assertThat(metrics.getP99Latency()).isEqualTo(0);
+	}
+
+	@Test
+	public void testCount() {
+		for (int i = 0; i < 2 * OperationMetrics.SAMPLE_RATE; i++) {
+			metrics.stop(metrics.start(), i % 4 != 0);
+		}
+		assertThat(metrics.getName()).isEqualTo("test");
+		assertThat(metrics.getCount()).isEqualTo(128);
+		assertThat(metrics.getFailureCount()).isEqualTo(32);
+		assertThat(metrics.getFailureRate()).isEqualTo(0.25);
+		// one thread, one stripe
+		assertThat(metrics.getSampleCount()).isEqualTo(2);
+		assertThat(metrics.getMedianLatency()).isGreaterThanOrEqualTo(1);
+		assertThat(metrics.toString()).startsWith("test[count=128, failures=32");
+
+		metrics.reset();
+		assertThat(metrics.getCount()).isEqualTo(0);
+		assertThat(metrics.getSampleCount()).isEqualTo(0);
+	}
+
+	@Test
+	public void testLatency() throws InterruptedException {
+		for (int i = 0; i < OperationMetrics.SAMPLE_RATE; i++) {
+			final long start = metrics.start();
+			if (i == OperationMetrics.SAMPLE_RATE - 1) {
+				Thread.sleep(2);
+			}
+			metrics.stop(start, true);
+		}
+		assertThat(metrics.getSampleCount()).isEqualTo(1);
+		// 2 ms, bucket upper bound 2^21 or more
+		assertThat(metrics.getLatency(1)).isGreaterThanOrEqualTo(1L << 21);
+		assertThat(metrics.getMeanLatency()).isGreaterThanOrEqualTo(2000000d);
+		final long[] histogram = metrics.getLatencyHistogram();
+		assertThat(histogram).hasSize(64);
+		assertThat(Long.numberOfTrailingZeros(metrics.getLatency(0))).isGreaterThanOrEqualTo(21);
+	}
+
+	@Test
+	public void testLatency_quantileOutOfRange() {
+		thrown.expect(IllegalArgumentException.class);
+		thrown.expectMessage("Quantile out of [0, 1]: 1.5");
+		metrics.getLatency(1.5);
+	}
+
+	@Test
+	public void testConcurrent() throws Exception {
+		final ExecutorService executor = Executors.newFixedThreadPool(4);
+		try {
+			final Callable<Object> task = new Callable<Object>() {
+				public Object call() {
+					for (int i = 0; i < 10000; i++) {
+						metrics.stop(metrics.start(), i % 10 != 0);
+					}
+					return null;
+				}
+			};
+			final Future<?>[] futures = new Future<?>[8];
+			for (int i = 0; i < futures.length; i++) {
+				futures[i] = executor.submit(task);
+			}
+			for (final Future<?> future : futures) {
+				future.get();
+			}
+		} finally {
+			executor.shutdown();
+		}
+		assertThat(metrics.getCount()).isEqualTo(80000);
+		assertThat(metrics.getFailureCount()).isEqualTo(8000);
+		assertThat(metrics.getSampleCount()).isGreaterThan(0);
+	}
+}
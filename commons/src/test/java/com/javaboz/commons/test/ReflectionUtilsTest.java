@@ -4,6 +4,12 @@ import static org.fest.assertions.Assertions.assertThat;
 
 import java.lang.reflect.Field;
 import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 import javax.annotation.Resource;
 
@@ -47,6 +53,14 @@ public class ReflectionUtilsTest {
 		}
 	}
 
+	private static class WarmedUpClass {
+
+		@Deprecated
+		public String describe() {
+			return "warmed up";
+		}
+	}
+
 	@Test
 	public void testGetMethodOrClassLevelAnnotation() {
 		assertThat(
@@ -89,6 +103,17 @@ public class ReflectionUtilsTest {
 		assertThat(ReflectionUtils.getFieldAnnotatedWith(AnnotedClass.class, DataPoint.class).getName()).isEqualTo("provider");
 	}
 
+	@Test
+	public void testGetFieldValueAnnotatedWith() {
+		final AnnotedClass annoted = new AnnotedClass();
+		annoted.service = BigDecimal.TEN;
+		final Object service = ReflectionUtils.getFieldValueAnnotatedWith(annoted, ClassRule.class);
+		assertThat(service).isEqualTo(BigDecimal.TEN);
+		final Object provider = ReflectionUtils.getFieldValueAnnotatedWith(annoted, DataPoint.class);
+		assertThat(provider).isEqualTo("PROVIDED");
+		assertThat(ReflectionUtils.<Object> getFieldValueAnnotatedWith(annoted, Test.class)).isNull();
+	}
+
 	@Test
 	public void testGetFieldByType() {
 		assertThat(ReflectionUtils.getFieldByType(Object.class, BigDecimal.class)).isNull();
@@ -139,9 +164,9 @@ public class ReflectionUtilsTest {
 	@Test
 	public void testGetFieldValue() {
 		final AnnotedClass annotedClass = new AnnotedClass();
-		assertThat(ReflectionUtils.getFieldValue(annotedClass, AnnotedClass.class.getFields()[0])).isNull();
+		assertThat(ReflectionUtils.<Object> getFieldValue(annotedClass, AnnotedClass.class.getFields()[0])).isNull();
 		annotedClass.service = new BigDecimal("1");
-		assertThat(ReflectionUtils.getFieldValue(annotedClass, AnnotedClass.class.getFields()[0])).isNotNull();
+		assertThat(ReflectionUtils.<Object> getFieldValue(annotedClass, AnnotedClass.class.getFields()[0])).isNotNull();
 	}
 
 	@Test
@@ -180,4 +205,44 @@ public class ReflectionUtilsTest {
 		ReflectionUtils.setFieldValue(null, (Field) null, "otherValue");
 		// pas d'erreur même si le field est null
 	}
+
+	@Test
+	public void testWarmUp() {
+		final List<Class<?>> classes = new ArrayList<Class<?>>();
+		for (int i = 0; i < 20; i++) {
+			classes.addAll(Arrays.<Class<?>> asList(AnnotedClass.class, AbstractAnnotedClass.class, BigDecimal.class));
+		}
+		classes.add(WarmedUpClass.class);
+		final ClassMetadata metadata = ClassMetadata.of(WarmedUpClass.class);
+		// methods are indexed on first use
+		final Object notIndexed = ReflectionUtils.getFieldValue(metadata, "methodsByName");
+		assertThat(notIndexed).isNull();
+
+		final ExecutorService executor = Executors.newFixedThreadPool(2);
+		try {
+			assertThat(ReflectionUtils.warmUp(classes, executor)).isGreaterThanOrEqualTo(0);
+		} finally {
+			executor.shutdown();
+		}
+		assertThat(ClassMetadata.of(WarmedUpClass.class)).isSameAs(metadata);
+		final Object indexed = ReflectionUtils.getFieldValue(metadata, "methodsByName");
+		assertThat(indexed).isNotNull();
+		assertThat(ReflectionUtils.warmUp(classes, null)).isGreaterThanOrEqualTo(0);
+		assertThat(ReflectionUtils.warmUp(Collections.<Class<?>> emptyList(), executor)).isGreaterThanOrEqualTo(0);
+
+		// lookups on warmed classes reuse their metadata
+		LibraryMetrics.reset();
+		LibraryMetrics.setEnabled(true);
+		try {
+			assertThat(ReflectionUtils.getClassLevelAnnotation(Deprecated.class, AnnotedClass.class)).isInstanceOf(
+					Deprecated.class);
+			assertThat(ReflectionUtils.getFieldByName(AnnotedClass.class, "PROVIDER")).isNotNull();
+			assertThat(ReflectionUtils.<Object> invokeMethod(new WarmedUpClass(), "describe")).isEqualTo("warmed up");
+			assertThat(LibraryMetrics.CLASS_METADATA.getMissCount()).isEqualTo(0);
+			assertThat(LibraryMetrics.CLASS_METADATA.getHitCount()).isGreaterThan(0);
+		} finally {
+			LibraryMetrics.setEnabled(false);
+			LibraryMetrics.reset();
+		}
+	}
 }